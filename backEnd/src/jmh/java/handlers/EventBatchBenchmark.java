@@ -0,0 +1,52 @@
+package handlers;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import models.Event;
+import models.GroupWithCategoryChoices;
+import models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures getting a single batch of a group's events, once for every batch type. This is what
+ * runs when a user scrolls one of the event lists on a group's page.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventBatchBenchmark {
+
+  @Param({"10", "100", "1000", "10000", "50000"})
+  private int numberOfEvents;
+
+  //new, closed, consider, voting, occurring - see GetBatchOfEventsHandler.EVENTS_TYPE_*
+  @Param({"0", "1", "2", "3", "4"})
+  private int batchType;
+
+  private GroupWithCategoryChoices group;
+  private User activeUser;
+
+  @Setup
+  public void setup() throws Exception {
+    this.group = EventBenchmarkFixtures.getGroup(this.numberOfEvents);
+    this.activeUser = EventBenchmarkFixtures.getActiveUser(this.group);
+  }
+
+  @Benchmark
+  public Map<String, Event> getBatchOfEvents() {
+    return GetBatchOfEventsHandler.handle(this.activeUser, this.group, 0, this.batchType);
+  }
+}
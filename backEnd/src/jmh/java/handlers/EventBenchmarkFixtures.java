@@ -0,0 +1,103 @@
+package handlers;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import models.Category;
+import models.Event;
+import models.Group;
+import models.GroupWithCategoryChoices;
+import models.User;
+import models.UserGroup;
+import utilities.JsonUtils;
+
+/**
+ * This class builds groups of any size for the benchmarks. Events are copied from the shapes in
+ * groupWithAllEventStages.json and bigGroup.json and then given new ids and start times spread
+ * around 'now' so that every priority bucket gets filled. The seed is fixed so every run and every
+ * fork sorts the same data.
+ */
+class EventBenchmarkFixtures {
+
+  private static final long SEED = 8675309L;
+  private static final int THIRTY_DAYS_IN_SECONDS = 30 * 24 * 60 * 60;
+  private static final int UNSEEN_ONE_IN = 10;
+
+  static final String ACTIVE_USER_FILE = "john_andrews12.json";
+
+  static GroupWithCategoryChoices getGroup(final int numberOfEvents) throws IOException {
+    final Random random = new Random(SEED);
+
+    final Map<String, Object> groupMap = JsonUtils
+        .getItemFromFile("groupWithAllEventStages.json").asMap();
+
+    final List<Map<String, Object>> eventShapes = new ArrayList<>();
+    eventShapes.addAll(getEventShapes(groupMap));
+    eventShapes.addAll(getEventShapes(JsonUtils.getItemFromFile("bigGroup.json").asMap()));
+
+    final long nowSeconds = LocalDateTime.now(ZoneOffset.UTC).toEpochSecond(ZoneOffset.UTC);
+
+    final Map<String, Object> events = new HashMap<>();
+    for (int i = 0; i < numberOfEvents; i++) {
+      final Map<String, Object> event = new HashMap<>(
+          eventShapes.get(random.nextInt(eventShapes.size())));
+      event.put(Event.UTC_EVENT_START_SECONDS, (int) (nowSeconds
+          + random.nextInt(2 * THIRTY_DAYS_IN_SECONDS) - THIRTY_DAYS_IN_SECONDS));
+
+      events.put(new UUID(random.nextLong(), random.nextLong()).toString(), event);
+    }
+    groupMap.put(Group.EVENTS, events);
+
+    //the fixture files still have categories in their older id -> name shape, nothing here uses them
+    groupMap.put(Group.CATEGORIES, new HashMap<>());
+
+    return new GroupWithCategoryChoices(groupMap);
+  }
+
+  /**
+   * @param group The group the user is getting events from.
+   * @return A member of the group that hasn't seen roughly one in ten of the group's events.
+   */
+  static User getActiveUser(final Group group) throws Exception {
+    final Random random = new Random(SEED);
+    final User user = new User(JsonUtils.getItemFromFile(ACTIVE_USER_FILE));
+
+    final Map<String, Boolean> eventsUnseen = new HashMap<>();
+    for (final String eventId : group.getEvents().keySet()) {
+      if (random.nextInt(UNSEEN_ONE_IN) == 0) {
+        eventsUnseen.put(eventId, true);
+      }
+    }
+
+    user.getGroups().put(group.getGroupId(), new UserGroup(group.getGroupName(), group.getIcon(),
+        group.getLastActivity(), false, eventsUnseen));
+
+    return user;
+  }
+
+  private static List<Map<String, Object>> getEventShapes(final Map<String, Object> groupMap) {
+    final List<Map<String, Object>> eventShapes = new ArrayList<>();
+    for (final Object eventObject : ((Map<String, Object>) groupMap.get(Group.EVENTS)).values()) {
+      final Map<String, Object> event = new HashMap<>((Map<String, Object>) eventObject);
+
+      //the fixture files have choices as id -> label, they're stored as label -> sort order now
+      final Map<String, Object> choices = (Map<String, Object>) event.get(Category.CHOICES);
+      if (choices != null) {
+        final Map<String, Object> choicesToSortOrder = new HashMap<>();
+        for (final Object label : choices.values()) {
+          choicesToSortOrder.put((String) label, choicesToSortOrder.size());
+        }
+        event.put(Category.CHOICES, choicesToSortOrder);
+      }
+
+      eventShapes.add(event);
+    }
+    return eventShapes;
+  }
+}
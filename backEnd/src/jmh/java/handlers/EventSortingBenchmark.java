@@ -0,0 +1,101 @@
+package handlers;
+
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.ImmutableMap;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import managers.DbAccessManager;
+import managers.DbConnection;
+import models.Event;
+import models.EventForSorting;
+import models.GroupForApiResponse;
+import models.GroupWithCategoryChoices;
+import models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the work that fills every event list at once (the group page load) along with the
+ * pieces it's made of: building the EventForSorting copies and sorting them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventSortingBenchmark {
+
+  //the group page loads the first three batches of every event list
+  private static final Map<String, Integer> BATCH_INDEXES = ImmutableMap.of(
+      GroupForApiResponse.NEW_EVENTS, 2,
+      GroupForApiResponse.CLOSED_EVENTS, 2,
+      GroupForApiResponse.CONSIDER_EVENTS, 2,
+      GroupForApiResponse.VOTING_EVENTS, 2,
+      GroupForApiResponse.OCCURRING_EVENTS, 2);
+  private static final Integer MAX_BATCHES = 3;
+
+  @Param({"10", "100", "1000", "10000", "50000"})
+  private int numberOfEvents;
+
+  private GroupWithCategoryChoices group;
+  private User activeUser;
+  private GetAllBatchesOfEventsHandler getAllBatchesOfEventsHandler;
+  private LocalDateTime now;
+  private List<EventForSorting> eventsForSorting;
+
+  @Setup
+  public void setup() throws Exception {
+    this.group = EventBenchmarkFixtures.getGroup(this.numberOfEvents);
+    this.activeUser = EventBenchmarkFixtures.getActiveUser(this.group);
+
+    //nothing here touches dynamo, the manager is only used for its 'now'
+    this.getAllBatchesOfEventsHandler = new GetAllBatchesOfEventsHandler(
+        new DbAccessManager(mock(DbConnection.class)), null);
+
+    this.now = LocalDateTime.now(ZoneId.of("UTC"));
+    this.eventsForSorting = this.buildEventsForSorting();
+  }
+
+  @Benchmark
+  public Map<String, Map<String, Event>> getFirstBatchOfAllTypes() {
+    return GetBatchOfEventsHandler.handle(this.activeUser, this.group);
+  }
+
+  @Benchmark
+  public Map<String, Map<String, Event>> getAllEventBatches() {
+    return this.getAllBatchesOfEventsHandler
+        .getAllEventBatches(this.activeUser, this.group, BATCH_INDEXES, MAX_BATCHES);
+  }
+
+  @Benchmark
+  public List<EventForSorting> buildEventsForSorting() {
+    final List<EventForSorting> eventsForSorting = new ArrayList<>(this.numberOfEvents);
+    for (final Map.Entry<String, Event> eventEntry : this.group.getEvents().entrySet()) {
+      eventsForSorting
+          .add(new EventForSorting(eventEntry.getKey(), eventEntry.getValue(), this.now));
+    }
+    return eventsForSorting;
+  }
+
+  @Benchmark
+  public List<EventForSorting> sortEventsForSorting() {
+    final List<EventForSorting> sorted = new ArrayList<>(this.eventsForSorting);
+    sorted.sort(EventForSorting::compareTo);
+    return sorted;
+  }
+}
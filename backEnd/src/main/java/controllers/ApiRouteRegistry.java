@@ -0,0 +1,110 @@
+package controllers;
+
+import exceptions.MissingApiRequestKeyException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import utilities.Metrics;
+import utilities.ResultStatus;
+
+/**
+ * This class maps api actions to the controllers that process them. Routes are registered once
+ * when the owning class loads, so dispatching a request is a map lookup and a constructor call
+ * instead of a reflective one. Each route also keeps its invocation count and latency for the life
+ * of the lambda container.
+ */
+public class ApiRouteRegistry {
+
+  public static final String CONTAINER_INVOCATIONS = "ContainerInvocations";
+  public static final String CONTAINER_AVERAGE_TIME = "ContainerAverageTime";
+
+  private final Map<String, ApiRoute> routes;
+
+  public ApiRouteRegistry() {
+    this.routes = new HashMap<>();
+  }
+
+  public ApiRouteRegistry register(final String action,
+      final Supplier<ApiRequestController> controllerSupplier) {
+    this.routes.put(action, new ApiRoute(action, controllerSupplier));
+    return this;
+  }
+
+  public boolean containsAction(final String action) {
+    return this.routes.containsKey(action);
+  }
+
+  public ApiRoute getRoute(final String action) {
+    return this.routes.get(action);
+  }
+
+  /**
+   * This method runs the controller registered for the action and records the invocation against
+   * the route. The per-request metrics are logged under 'ApiRoute.{action}'.
+   *
+   * @param action  The name of the action from the request path. Must be registered.
+   * @param jsonMap The parsed request body with the active user attached.
+   * @param metrics Standard metrics object for profiling and logging.
+   * @return The result of the controller that processed the action.
+   * @throws MissingApiRequestKeyException If the controller's required keys aren't present.
+   */
+  public ResultStatus dispatch(final String action, final Map<String, Object> jsonMap,
+      final Metrics metrics) throws MissingApiRequestKeyException {
+    final ApiRoute route = this.routes.get(action);
+    metrics.commonSetup(route.metricsName);
+
+    boolean success = false;
+    final long startNanos = System.nanoTime();
+    try {
+      final ResultStatus resultStatus = route.controllerSupplier.get()
+          .processApiRequest(jsonMap, metrics);
+      success = resultStatus.success;
+      return resultStatus;
+    } finally {
+      route.record(System.nanoTime() - startNanos);
+
+      metrics.addIntegerMetric(CONTAINER_INVOCATIONS, (int) route.getInvocations());
+      metrics.addIntegerMetric(CONTAINER_AVERAGE_TIME, (int) route.getAverageMillis());
+      metrics.commonClose(success);
+    }
+  }
+
+  public static class ApiRoute {
+
+    private final String action;
+    private final String metricsName;
+    private final Supplier<ApiRequestController> controllerSupplier;
+    private final AtomicLong invocations;
+    private final AtomicLong totalNanos;
+
+    private ApiRoute(final String action,
+        final Supplier<ApiRequestController> controllerSupplier) {
+      this.action = action;
+      this.metricsName = "ApiRoute." + action;
+      this.controllerSupplier = controllerSupplier;
+      this.invocations = new AtomicLong();
+      this.totalNanos = new AtomicLong();
+    }
+
+    private void record(final long elapsedNanos) {
+      this.invocations.incrementAndGet();
+      this.totalNanos.addAndGet(elapsedNanos);
+    }
+
+    public String getAction() {
+      return this.action;
+    }
+
+    public long getInvocations() {
+      return this.invocations.get();
+    }
+
+    public long getAverageMillis() {
+      final long invocations = this.invocations.get();
+      return invocations == 0 ? 0
+          : TimeUnit.NANOSECONDS.toMillis(this.totalNanos.get() / invocations);
+    }
+  }
+}
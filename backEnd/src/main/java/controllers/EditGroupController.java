@@ -9,6 +9,7 @@ import javax.inject.Inject;
 import models.Group;
 import modules.Injector;
 import utilities.ErrorDescriptor;
+import utilities.ImageData;
 import utilities.Metrics;
 import utilities.RequestFields;
 import utilities.ResultStatus;
@@ -39,11 +40,12 @@ public class EditGroupController implements ApiRequestController {
         final Boolean isOpen = (Boolean) jsonMap.get(Group.IS_OPEN);
 
         //optional request keys
-        final List<Integer> iconData = (List<Integer>) jsonMap.get(Group.ICON);
+        final ImageData iconData = ImageData.fromRequestValue(jsonMap.get(Group.ICON));
+        final String iconKey = (String) jsonMap.get(RequestFields.ICON_KEY);
 
         Injector.getInjector(metrics).inject(this);
         resultStatus = this.editGroupHandler
-            .handle(activeUser, groupId, groupName, members, categories, isOpen, iconData);
+            .handle(activeUser, groupId, groupName, members, categories, isOpen, iconData, iconKey);
       } catch (Exception e) {
         resultStatus = ResultStatus.failure("Exception in " + classMethod);
         metrics.logWithBody(new ErrorDescriptor<>(classMethod, e));
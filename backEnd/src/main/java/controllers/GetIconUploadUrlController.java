@@ -0,0 +1,47 @@
+package controllers;
+
+import exceptions.MissingApiRequestKeyException;
+import handlers.GetIconUploadUrlHandler;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import modules.Injector;
+import utilities.ErrorDescriptor;
+import utilities.Metrics;
+import utilities.RequestFields;
+import utilities.ResultStatus;
+
+public class GetIconUploadUrlController implements ApiRequestController {
+
+  @Inject
+  public GetIconUploadUrlHandler getIconUploadUrlHandler;
+
+  @Override
+  public ResultStatus processApiRequest(final Map<String, Object> jsonMap, final Metrics metrics)
+      throws MissingApiRequestKeyException {
+    final String classMethod = "GetIconUploadUrlController.processApiRequest";
+
+    ResultStatus resultStatus;
+
+    final List<String> requiredKeys = Arrays
+        .asList(RequestFields.ACTIVE_USER, RequestFields.CONTENT_LENGTH);
+
+    if (jsonMap.keySet().containsAll(requiredKeys)) {
+      try {
+        final String activeUser = (String) jsonMap.get(RequestFields.ACTIVE_USER);
+        final Integer contentLength = (Integer) jsonMap.get(RequestFields.CONTENT_LENGTH);
+
+        Injector.getInjector(metrics).inject(this);
+        resultStatus = this.getIconUploadUrlHandler.handle(activeUser, contentLength);
+      } catch (final Exception e) {
+        metrics.logWithBody(new ErrorDescriptor<>(classMethod, e));
+        resultStatus = ResultStatus.failure("Exception in " + classMethod);
+      }
+    } else {
+      throw new MissingApiRequestKeyException(requiredKeys);
+    }
+
+    return resultStatus;
+  }
+}
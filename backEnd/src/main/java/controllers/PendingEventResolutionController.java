@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
@@ -39,18 +40,23 @@ public class PendingEventResolutionController implements RequestStreamHandler {
       final Map<String, Object> jsonMap = JsonUtils.parseInput(inputStream);
       metrics.setRequestBody(jsonMap);
 
+      //executions started before events were resolved in batches only have the single event id
+      final String eventIdsKey = jsonMap.containsKey(RequestFields.EVENT_IDS)
+          ? RequestFields.EVENT_IDS : RequestFields.EVENT_ID;
+
       final List<String> requiredKeys = Arrays
-          .asList(Group.GROUP_ID, RequestFields.EVENT_ID,
-              DbAccessManager.PENDING_EVENTS_PRIMARY_KEY);
+          .asList(Group.GROUP_ID, eventIdsKey, DbAccessManager.PENDING_EVENTS_PRIMARY_KEY);
 
       if (jsonMap.keySet().containsAll(requiredKeys)) {
         try {
           final String groupId = (String) jsonMap.get(Group.GROUP_ID);
-          final String eventId = (String) jsonMap.get(RequestFields.EVENT_ID);
+          final List<String> eventIds = eventIdsKey.equals(RequestFields.EVENT_IDS)
+              ? (List<String>) jsonMap.get(RequestFields.EVENT_IDS)
+              : Collections.singletonList((String) jsonMap.get(RequestFields.EVENT_ID));
           final String scannerId = (String) jsonMap.get(DbAccessManager.PENDING_EVENTS_PRIMARY_KEY);
 
           Injector.getInjector(metrics).inject(this);
-          resultStatus = this.processPendingEventHandler.handle(groupId, eventId, scannerId);
+          resultStatus = this.processPendingEventHandler.handle(groupId, eventIds, scannerId);
         } catch (Exception e) {
           resultStatus = ResultStatus.failure("Exception in " + classMethod);
           metrics.logWithBody(new ErrorDescriptor<>(classMethod, e));
@@ -4,9 +4,6 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
-import java.lang.reflect.Constructor;
 import java.util.HashMap;
 import java.util.Map;
 import utilities.ErrorDescriptor;
@@ -20,39 +17,38 @@ import utilities.WarningDescriptor;
 public class ProxyPostController implements
     RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-  private static final Map<String, Class<? extends ApiRequestController>> ACTIONS_TO_CONTROLLERS = Maps
-      .newHashMap(ImmutableMap.<String, Class<? extends ApiRequestController>>builder()
-          .put("newCategory", NewCategoryController.class)
-          .put("editCategory", EditCategoryController.class)
-          .put("getCategories", GetCategoriesController.class)
-          .put("deleteCategory", DeleteCategoryController.class)
-          .put("warmingEndpoint", WarmingController.class)
-          .put("updateUserChoiceRatings", UpdateUserChoiceRatingsController.class)
-          .put("deleteGroup", DeleteGroupController.class)
-          .put("getGroup", GetGroupController.class)
-          .put("createNewGroup", CreateNewGroupController.class)
-          .put("updateUserSettings", UpdateUserSettingsController.class)
-          .put("updateSortSetting", UpdateSortSettingController.class)
-          .put("editGroup", EditGroupController.class)
-          .put("optUserInOut", OptUserInOutController.class)
-          .put("leaveGroup", LeaveGroupController.class)
-          .put("rejoinGroup", RejoinGroupController.class)
-          .put("voteForChoice", VoteForChoiceController.class)
-          .put("getUserData", GetUserDataController.class)
-          .put("registerPushEndpoint", RegisterPushEndpointController.class)
-          .put("unregisterPushEndpoint", UnregisterPushEndpointController.class)
-          .put("markEventAsSeen", MarkEventAsSeenController.class)
-          .put("setUserGroupMute", SetUserGroupMuteController.class)
-          .put("markAllEventsSeen", MarkAllEventsSeenController.class)
-          .put("getBatchOfEvents", GetBatchOfEventsController.class)
-          .put("getAllBatchesOfEvents", GetAllBatchesOfEventsController.class)
-          .put("newEvent", NewEventController.class)
-          .put("getEvent", GetEventController.class)
-          .put("addFavorite", AddFavoriteController.class)
-          .put("reportUser", ReportUserController.class)
-          .put("reportGroup", ReportGroupController.class)
-          .put("giveAppFeedback", GiveAppFeedbackController.class)
-          .build());
+  private static final ApiRouteRegistry ROUTES = new ApiRouteRegistry()
+      .register("newCategory", NewCategoryController::new)
+      .register("editCategory", EditCategoryController::new)
+      .register("getCategories", GetCategoriesController::new)
+      .register("deleteCategory", DeleteCategoryController::new)
+      .register("warmingEndpoint", WarmingController::new)
+      .register("updateUserChoiceRatings", UpdateUserChoiceRatingsController::new)
+      .register("deleteGroup", DeleteGroupController::new)
+      .register("getGroup", GetGroupController::new)
+      .register("createNewGroup", CreateNewGroupController::new)
+      .register("updateUserSettings", UpdateUserSettingsController::new)
+      .register("updateSortSetting", UpdateSortSettingController::new)
+      .register("editGroup", EditGroupController::new)
+      .register("optUserInOut", OptUserInOutController::new)
+      .register("leaveGroup", LeaveGroupController::new)
+      .register("rejoinGroup", RejoinGroupController::new)
+      .register("voteForChoice", VoteForChoiceController::new)
+      .register("getUserData", GetUserDataController::new)
+      .register("registerPushEndpoint", RegisterPushEndpointController::new)
+      .register("unregisterPushEndpoint", UnregisterPushEndpointController::new)
+      .register("markEventAsSeen", MarkEventAsSeenController::new)
+      .register("setUserGroupMute", SetUserGroupMuteController::new)
+      .register("markAllEventsSeen", MarkAllEventsSeenController::new)
+      .register("getBatchOfEvents", GetBatchOfEventsController::new)
+      .register("getAllBatchesOfEvents", GetAllBatchesOfEventsController::new)
+      .register("newEvent", NewEventController::new)
+      .register("getEvent", GetEventController::new)
+      .register("addFavorite", AddFavoriteController::new)
+      .register("reportUser", ReportUserController::new)
+      .register("reportGroup", ReportGroupController::new)
+      .register("giveAppFeedback", GiveAppFeedbackController::new)
+      .register("getIconUploadUrl", GetIconUploadUrlController::new);
 
   public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request,
       Context context) {
@@ -70,7 +66,7 @@ public class ProxyPostController implements
       if (splitAction.length == 2) {
         action = splitAction[1]; // the action is after the '/'
 
-        if (ACTIONS_TO_CONTROLLERS.containsKey(action)) {
+        if (ROUTES.containsAction(action)) {
           final Map<String, Object> jsonMap = JsonUtils.parseInput(request.getBody());
           metrics.setRequestBody(jsonMap); // attach here for logging before handling action
 
@@ -79,11 +75,7 @@ public class ProxyPostController implements
             jsonMap.put(RequestFields.ACTIVE_USER,
                 GetActiveUser.getActiveUserFromRequest(request, context));
 
-            final Class<? extends ApiRequestController> actionHandlerClass = ACTIONS_TO_CONTROLLERS
-                .get(action);
-            final Constructor c = actionHandlerClass.getConstructor(); // get the default
-            final ApiRequestController apiRequestHandler = (ApiRequestController) c.newInstance();
-            resultStatus = apiRequestHandler.processApiRequest(jsonMap, metrics);
+            resultStatus = ROUTES.dispatch(action, jsonMap, metrics);
           } else {
             //bad request body, log warning
             resultStatus = ResultStatus.failure("Error: Bad request body.");
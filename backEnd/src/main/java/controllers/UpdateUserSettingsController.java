@@ -14,6 +14,7 @@ import models.AppSettings;
 import models.User;
 import modules.Injector;
 import utilities.ErrorDescriptor;
+import utilities.ImageData;
 import utilities.Metrics;
 import utilities.RequestFields;
 import utilities.ResultStatus;
@@ -42,11 +43,13 @@ public class UpdateUserSettingsController implements ApiRequestController {
             (Map<String, Object>) jsonMap.get(User.APP_SETTINGS));
         final Set<String> newFavorites = new HashSet<>(
             (List<String>) jsonMap.get(User.FAVORITES)); // note this comes in as list, in db is map
-        final List<Integer> newIconData = (List<Integer>) jsonMap.get(User.ICON);
+        final ImageData newIconData = ImageData.fromRequestValue(jsonMap.get(User.ICON));
+        final String newIconKey = (String) jsonMap.get(RequestFields.ICON_KEY);
 
         Injector.getInjector(metrics).inject(this);
         resultStatus = this.updateUserSettingsHandler
-            .handle(activeUser, newDisplayName, newAppSettings, newFavorites, newIconData);
+            .handle(activeUser, newDisplayName, newAppSettings, newFavorites, newIconData,
+                newIconKey);
       } catch (final InvalidAttributeValueException iae) {
         metrics.logWithBody(new WarningDescriptor<>(classMethod, iae));
         resultStatus = ResultStatus.failure(iae.getMessage());
@@ -27,6 +27,9 @@ public class DbMaintenanceController implements
           .put("keyChoicesByLabel", KeyChoicesByLabelController.class)
           .put("addDurationsToUserSettings", AddDurationsToUserSettingsController.class)
           .put("addOwnedGroupsCount", AddOwnedGroupsCountController.class)
+          .put("migrateEventsToEventsTable", MigrateEventsToEventsTableController.class)
+          .put("migrateRatingsToRatingsTable", MigrateRatingsToRatingsTableController.class)
+          .put("expireUnclaimedIconUploads", ExpireUnclaimedIconUploadsController.class)
           .build());
 
   public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request,
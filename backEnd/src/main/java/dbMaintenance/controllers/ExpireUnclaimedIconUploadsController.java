@@ -0,0 +1,35 @@
+package dbMaintenance.controllers;
+
+import controllers.ApiRequestController;
+import dbMaintenance.handlers.ExpireUnclaimedIconUploadsHandler;
+import dbMaintenance.modules.MaintenanceInjector;
+import exceptions.MissingApiRequestKeyException;
+import java.util.Map;
+import javax.inject.Inject;
+import utilities.ErrorDescriptor;
+import utilities.Metrics;
+import utilities.ResultStatus;
+
+public class ExpireUnclaimedIconUploadsController implements ApiRequestController {
+
+  @Inject
+  public ExpireUnclaimedIconUploadsHandler expireUnclaimedIconUploadsHandler;
+
+  @Override
+  public ResultStatus processApiRequest(Map<String, Object> jsonMap, Metrics metrics)
+      throws MissingApiRequestKeyException {
+    final String classMethod = "ExpireUnclaimedIconUploadsController.processApiRequest";
+
+    ResultStatus resultStatus;
+
+    try {
+      MaintenanceInjector.getInjector(metrics).inject(this);
+      resultStatus = this.expireUnclaimedIconUploadsHandler.handle();
+    } catch (final Exception e) {
+      metrics.logWithBody(new ErrorDescriptor<>(classMethod, e));
+      resultStatus = ResultStatus.failure("Exception in " + classMethod);
+    }
+
+    return resultStatus;
+  }
+}
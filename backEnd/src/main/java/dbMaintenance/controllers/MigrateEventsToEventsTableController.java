@@ -0,0 +1,35 @@
+package dbMaintenance.controllers;
+
+import controllers.ApiRequestController;
+import dbMaintenance.handlers.MigrateEventsToEventsTableHandler;
+import dbMaintenance.modules.MaintenanceInjector;
+import exceptions.MissingApiRequestKeyException;
+import java.util.Map;
+import javax.inject.Inject;
+import utilities.ErrorDescriptor;
+import utilities.Metrics;
+import utilities.ResultStatus;
+
+public class MigrateEventsToEventsTableController implements ApiRequestController {
+
+  @Inject
+  public MigrateEventsToEventsTableHandler migrateEventsToEventsTableHandler;
+
+  @Override
+  public ResultStatus processApiRequest(final Map<String, Object> jsonMap, final Metrics metrics)
+      throws MissingApiRequestKeyException {
+    final String classMethod = "MigrateEventsToEventsTableController.processApiRequest";
+
+    ResultStatus resultStatus;
+
+    try {
+      MaintenanceInjector.getInjector(metrics).inject(this);
+      resultStatus = this.migrateEventsToEventsTableHandler.handle();
+    } catch (final Exception e) {
+      metrics.logWithBody(new ErrorDescriptor<>(classMethod, e));
+      resultStatus = ResultStatus.failure("Exception in " + classMethod);
+    }
+
+    return resultStatus;
+  }
+}
@@ -0,0 +1,35 @@
+package dbMaintenance.controllers;
+
+import controllers.ApiRequestController;
+import dbMaintenance.handlers.MigrateRatingsToRatingsTableHandler;
+import dbMaintenance.modules.MaintenanceInjector;
+import exceptions.MissingApiRequestKeyException;
+import java.util.Map;
+import javax.inject.Inject;
+import utilities.ErrorDescriptor;
+import utilities.Metrics;
+import utilities.ResultStatus;
+
+public class MigrateRatingsToRatingsTableController implements ApiRequestController {
+
+  @Inject
+  public MigrateRatingsToRatingsTableHandler migrateRatingsToRatingsTableHandler;
+
+  @Override
+  public ResultStatus processApiRequest(final Map<String, Object> jsonMap, final Metrics metrics)
+      throws MissingApiRequestKeyException {
+    final String classMethod = "MigrateRatingsToRatingsTableController.processApiRequest";
+
+    ResultStatus resultStatus;
+
+    try {
+      MaintenanceInjector.getInjector(metrics).inject(this);
+      resultStatus = this.migrateRatingsToRatingsTableHandler.handle();
+    } catch (final Exception e) {
+      metrics.logWithBody(new ErrorDescriptor<>(classMethod, e));
+      resultStatus = ResultStatus.failure("Exception in " + classMethod);
+    }
+
+    return resultStatus;
+  }
+}
@@ -4,6 +4,7 @@ import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import dbMaintenance.managers.MaintenanceDbAccessManager;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -89,6 +90,28 @@ public class DetachedRatingsRemovalHandler {
         }
       }
 
+      //pending events that are stored as their own items
+      final Iterator<Item> pendingEventItems = this.maintenanceDbAccessManager
+          .scanPendingEventItemsTable();
+
+      while (pendingEventItems.hasNext()) {
+        final String key = pendingEventItems.next()
+            .getString(DbAccessManager.PENDING_EVENT_ITEMS_SORT_KEY);
+
+        try {
+          final List<String> keyPair = Arrays.asList(key.split(DbAccessManager.DELIM));
+          final Group group = this.maintenanceDbAccessManager.getGroup(keyPair.get(0));
+
+          //we only need to keep ratings for events in the consider state (aka no choices)
+          if (group.getEvents().get(keyPair.get(1)).getTentativeAlgorithmChoices().isEmpty()) {
+            pendingEventCategoryIds.add(group.getEvents().get(keyPair.get(1)).getCategoryId());
+          }
+        } catch (final Exception e) {
+          this.metrics.log(new ErrorDescriptor<>(key, classMethod, e));
+          resultStatus = ResultStatus.failure("Exception in " + classMethod);
+        }
+      }
+
       //next we loop over the user and look for ratings associated with neither a category nor a
       // pending event
       final Iterator<Item> tableItems = this.maintenanceDbAccessManager.scanUsersTable();
@@ -101,6 +124,7 @@ public class DetachedRatingsRemovalHandler {
 
           final StringBuilder updateExpressionBuilder = new StringBuilder();
           final NameMap nameMap = new NameMap();
+          final List<String> detachedCategoryIds = new ArrayList<>();
 
           int i = 0;
           for (final String categoryId : user.getCategoryRatings().keySet()) {
@@ -126,6 +150,7 @@ public class DetachedRatingsRemovalHandler {
                 }
 
                 nameMap.with(categoryIdName, categoryId);
+                detachedCategoryIds.add(categoryId);
               }
             } catch (final Exception e) {
               this.metrics.log(
@@ -142,6 +167,12 @@ public class DetachedRatingsRemovalHandler {
                 .withNameMap(nameMap);
 
             this.maintenanceDbAccessManager.updateUser(user.getUsername(), updateItemSpec);
+
+            //the mirrored ratings items are detached too
+            if (this.maintenanceDbAccessManager.writesRatingsTable()) {
+              this.maintenanceDbAccessManager
+                  .deleteRatings(user.getUsername(), detachedCategoryIds);
+            }
           }
         } catch (final Exception e) {
           this.metrics.log(new ErrorDescriptor<>(userItem.asMap(), classMethod, e));
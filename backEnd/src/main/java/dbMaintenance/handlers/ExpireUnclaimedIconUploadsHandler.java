@@ -0,0 +1,45 @@
+package dbMaintenance.handlers;
+
+import handlers.ApiRequestHandler;
+import javax.inject.Inject;
+import managers.S3AccessManager;
+import utilities.ErrorDescriptor;
+import utilities.Metrics;
+import utilities.ResultStatus;
+
+public class ExpireUnclaimedIconUploadsHandler implements ApiRequestHandler {
+
+  private S3AccessManager s3AccessManager;
+  private Metrics metrics;
+
+  @Inject
+  public ExpireUnclaimedIconUploadsHandler(final S3AccessManager s3AccessManager,
+      final Metrics metrics) {
+    this.s3AccessManager = s3AccessManager;
+    this.metrics = metrics;
+  }
+
+  /**
+   * This function adds the lifecycle rule that cleans up icons the app uploaded with a presigned
+   * url but never used. It is safe to run again, the rule is replaced rather than duplicated.
+   *
+   * @return Standard result status object giving insight on whether the request was successful.
+   */
+  public ResultStatus handle() {
+    final String classMethod = "ExpireUnclaimedIconUploadsHandler.handle";
+    this.metrics.commonSetup(classMethod);
+
+    ResultStatus resultStatus;
+
+    try {
+      this.s3AccessManager.expireUnclaimedUploads();
+      resultStatus = ResultStatus.successful("Unclaimed icon uploads set to expire successfully.");
+    } catch (final Exception e) {
+      this.metrics.logWithBody(new ErrorDescriptor<>(classMethod, e));
+      resultStatus = ResultStatus.failure("Exception in " + classMethod);
+    }
+
+    this.metrics.commonClose(resultStatus.success);
+    return resultStatus;
+  }
+}
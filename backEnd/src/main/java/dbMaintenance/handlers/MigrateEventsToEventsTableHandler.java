@@ -0,0 +1,166 @@
+package dbMaintenance.handlers;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
+import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import dbMaintenance.managers.MaintenanceDbAccessManager;
+import handlers.ApiRequestHandler;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import javax.inject.Inject;
+import models.Group;
+import utilities.ErrorDescriptor;
+import utilities.Metrics;
+import utilities.ResultStatus;
+import utilities.WarningDescriptor;
+
+/**
+ * This handler copies every group's events into the events table and then marks the group as
+ * migrated so that dual reads can start using the events table for it. Event writes have to
+ * already be mirrored (EVENTS_STORAGE_MODE of DUAL_WRITE or DUAL_READ), but that alone isn't
+ * enough: a mirrored write skips an event that hasn't been copied yet, so anything written between
+ * the scan and the copy only lands on the group item. Before a group is marked, its item is re-read
+ * consistently and every event item that doesn't match is overwritten, until a pass finds nothing
+ * to fix. Group writes happen before their mirrored writes, so any write after that pass reaches an
+ * event item that already exists. It is safe to run more than once.
+ */
+public class MigrateEventsToEventsTableHandler implements ApiRequestHandler {
+
+  //a group that is still changing after this many passes is left for the next run
+  private static final int MAX_CATCH_UP_PASSES = 3;
+
+  private final MaintenanceDbAccessManager maintenanceDbAccessManager;
+  private final Metrics metrics;
+
+  @Inject
+  public MigrateEventsToEventsTableHandler(
+      final MaintenanceDbAccessManager maintenanceDbAccessManager, final Metrics metrics) {
+    this.maintenanceDbAccessManager = maintenanceDbAccessManager;
+    this.metrics = metrics;
+  }
+
+  public ResultStatus handle() {
+    final String classMethod = "MigrateEventsToEventsTableHandler.handle";
+    this.metrics.commonSetup(classMethod);
+
+    ResultStatus resultStatus;
+
+    try {
+      if (this.maintenanceDbAccessManager.writesEventsTable()) {
+        resultStatus = this.copyEventsOfUnmigratedGroups(classMethod);
+      } else {
+        resultStatus = ResultStatus
+            .failure("Error: event writes must be mirrored before migrating.");
+      }
+    } catch (final Exception e) {
+      this.metrics.logWithBody(new ErrorDescriptor<>(classMethod, e));
+      resultStatus = ResultStatus.failure("Exception in " + classMethod);
+    }
+
+    this.metrics.commonClose(resultStatus.success);
+    return resultStatus;
+  }
+
+  private ResultStatus copyEventsOfUnmigratedGroups(final String classMethod) {
+    int groupsMigrated = 0;
+    int eventsCopied = 0;
+    boolean allGroupsMigrated = true;
+
+    final Iterator<Item> tableItems = this.maintenanceDbAccessManager.scanGroupsTable();
+
+    while (tableItems.hasNext()) {
+      final Item groupItem = tableItems.next();
+      final String groupId = groupItem.getString(Group.GROUP_ID);
+
+      if (groupItem.hasAttribute(Group.EVENTS_MIGRATED)) {
+        continue; // already done on a previous run
+      }
+
+      boolean allEventsCopied = true;
+
+      final Map<String, Object> events = getEvents(groupItem);
+      for (final Map.Entry<String, Object> eventEntry : events.entrySet()) {
+        try {
+          if (this.maintenanceDbAccessManager.putEventIfAbsent(groupId, eventEntry.getKey(),
+              (Map<String, Object>) eventEntry.getValue())) {
+            eventsCopied++;
+          }
+        } catch (final Exception e) {
+          allEventsCopied = false;
+          this.metrics
+              .log(new ErrorDescriptor<>(groupId + " " + eventEntry.getKey(), classMethod, e));
+        }
+      }
+
+      //only flag the group if everything made it, otherwise the next run will retry it
+      if (allEventsCopied) {
+        try {
+          if (this.catchUpEvents(groupId)) {
+            this.maintenanceDbAccessManager.updateGroup(groupId, new UpdateItemSpec()
+                .withUpdateExpression("set " + Group.EVENTS_MIGRATED + " = :true")
+                .withConditionExpression("attribute_exists(" + Group.GROUP_ID + ")")
+                .withValueMap(new ValueMap().withBoolean(":true", true)));
+            groupsMigrated++;
+          } else {
+            allGroupsMigrated = false;
+            this.metrics.log(new WarningDescriptor<>(groupId, classMethod,
+                "Events kept changing, the group will be migrated on the next run."));
+          }
+        } catch (final ConditionalCheckFailedException e) {
+          //the group was deleted during the migration, don't leave its copied events behind
+          this.maintenanceDbAccessManager.deleteEvents(groupId, events.keySet());
+        } catch (final Exception e) {
+          allGroupsMigrated = false;
+          this.metrics.log(new ErrorDescriptor<>(groupId, classMethod, e));
+        }
+      } else {
+        allGroupsMigrated = false;
+      }
+    }
+
+    final String summary = String
+        .format("Migrated %d groups, copied %d events.", groupsMigrated, eventsCopied);
+    return allGroupsMigrated ? ResultStatus.successful(summary)
+        : ResultStatus.failure("Error: not every group was migrated. " + summary);
+  }
+
+  /**
+   * This method makes the events table match a group's events as of a consistent read of the group
+   * item, in case any of them changed after the group was scanned.
+   *
+   * @param groupId The id of the group whose events were just copied.
+   * @return True if a pass found nothing to fix (or the group is gone), false if the group was
+   * still changing after the last pass.
+   */
+  private boolean catchUpEvents(final String groupId) {
+    for (int pass = 0; pass < MAX_CATCH_UP_PASSES; pass++) {
+      final Item groupItem = this.maintenanceDbAccessManager.getGroupItemConsistent(groupId);
+      if (groupItem == null) {
+        return true; // the flag's condition takes care of deleted groups
+      }
+
+      int eventsOverwritten = 0;
+      for (final Map.Entry<String, Object> eventEntry : getEvents(groupItem).entrySet()) {
+        if (this.maintenanceDbAccessManager.putEventIfDifferent(groupId, eventEntry.getKey(),
+            (Map<String, Object>) eventEntry.getValue())) {
+          eventsOverwritten++;
+        }
+      }
+
+      if (eventsOverwritten == 0) {
+        return true;
+      }
+
+      this.metrics.incrementMetric("EventsCaughtUp", eventsOverwritten);
+    }
+
+    return false;
+  }
+
+  private static Map<String, Object> getEvents(final Item groupItem) {
+    return groupItem.hasAttribute(Group.EVENTS) ? groupItem.getMap(Group.EVENTS)
+        : Collections.emptyMap();
+  }
+}
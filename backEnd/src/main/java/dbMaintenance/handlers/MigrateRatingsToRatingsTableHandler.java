@@ -0,0 +1,90 @@
+package dbMaintenance.handlers;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import dbMaintenance.managers.MaintenanceDbAccessManager;
+import handlers.ApiRequestHandler;
+import java.util.Iterator;
+import java.util.Map;
+import javax.inject.Inject;
+import models.User;
+import utilities.ErrorDescriptor;
+import utilities.Metrics;
+import utilities.ResultStatus;
+
+/**
+ * This handler copies every user's category ratings into the ratings table. Ratings writes have to
+ * already be mirrored (RATINGS_STORAGE_MODE of DUAL_WRITE or DUAL_READ) or anything written during
+ * the copy would be missed. Ratings already in the table are left alone so it is safe to run more
+ * than once, and dual reads fall back to the user item for anything it hasn't copied yet.
+ */
+public class MigrateRatingsToRatingsTableHandler implements ApiRequestHandler {
+
+  private final MaintenanceDbAccessManager maintenanceDbAccessManager;
+  private final Metrics metrics;
+
+  @Inject
+  public MigrateRatingsToRatingsTableHandler(
+      final MaintenanceDbAccessManager maintenanceDbAccessManager, final Metrics metrics) {
+    this.maintenanceDbAccessManager = maintenanceDbAccessManager;
+    this.metrics = metrics;
+  }
+
+  public ResultStatus handle() {
+    final String classMethod = "MigrateRatingsToRatingsTableHandler.handle";
+    this.metrics.commonSetup(classMethod);
+
+    ResultStatus resultStatus;
+
+    try {
+      if (this.maintenanceDbAccessManager.writesRatingsTable()) {
+        resultStatus = this.copyRatingsOfAllUsers(classMethod);
+      } else {
+        resultStatus = ResultStatus
+            .failure("Error: ratings writes must be mirrored before migrating.");
+      }
+    } catch (final Exception e) {
+      this.metrics.logWithBody(new ErrorDescriptor<>(classMethod, e));
+      resultStatus = ResultStatus.failure("Exception in " + classMethod);
+    }
+
+    this.metrics.commonClose(resultStatus.success);
+    return resultStatus;
+  }
+
+  private ResultStatus copyRatingsOfAllUsers(final String classMethod) {
+    int usersScanned = 0;
+    int ratingsCopied = 0;
+    boolean allRatingsCopied = true;
+
+    final Iterator<Item> tableItems = this.maintenanceDbAccessManager.scanUsersTable();
+
+    while (tableItems.hasNext()) {
+      final Item userItem = tableItems.next();
+      final String username = userItem.getString(User.USERNAME);
+      usersScanned++;
+
+      if (!userItem.hasAttribute(User.CATEGORY_RATINGS)) {
+        continue;
+      }
+
+      final Map<String, Object> categoryRatings = userItem.getMap(User.CATEGORY_RATINGS);
+      for (final Map.Entry<String, Object> ratingsEntry : categoryRatings.entrySet()) {
+        try {
+          if (this.maintenanceDbAccessManager.putRatingsIfAbsent(username, ratingsEntry.getKey(),
+              (Map<String, Object>) ratingsEntry.getValue())) {
+            ratingsCopied++;
+          }
+        } catch (final Exception e) {
+          allRatingsCopied = false;
+          this.metrics
+              .log(new ErrorDescriptor<>(username + " " + ratingsEntry.getKey(), classMethod, e));
+        }
+      }
+    }
+
+    final String summary = String
+        .format("Scanned %d users, copied %d category ratings.", usersScanned, ratingsCopied);
+    return allRatingsCopied ? ResultStatus.successful(summary)
+        : ResultStatus.failure("Error: not all ratings were copied. " + summary);
+  }
+}
@@ -1,7 +1,11 @@
 package dbMaintenance.managers;
 
 import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.PutItemSpec;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
 import java.util.Iterator;
+import java.util.Map;
 import managers.DbAccessManager;
 
 public class MaintenanceDbAccessManager extends DbAccessManager {
@@ -25,4 +29,87 @@ public class MaintenanceDbAccessManager extends DbAccessManager {
   public Iterator<Item> scanPendingEventsTable() {
     return this.pendingEventsTable.scan().iterator();
   }
+
+  public Iterator<Item> scanPendingEventItemsTable() {
+    return this.pendingEventItemsTable.scan().iterator();
+  }
+
+  /**
+   * @param groupId The id of the group to get.
+   * @return The group's item including every write that finished before the read, or null if the
+   * group doesn't exist.
+   */
+  public Item getGroupItemConsistent(final String groupId) {
+    return this.getItem(this.groupsTable, new GetItemSpec()
+        .withPrimaryKey(GROUPS_PRIMARY_KEY, groupId)
+        .withConsistentRead(true));
+  }
+
+  /**
+   * This method copies an event to the events table unless it's already there. Whatever is there
+   * might be older than the group item (mirrored writes skip events that haven't been copied yet),
+   * so this has to be followed up with putEventIfDifferent.
+   *
+   * @param groupId  The id of the group the event is in.
+   * @param eventId  The id of the event.
+   * @param eventMap The event as it is stored on the group item.
+   * @return True if the event was copied, false if it was already in the table.
+   */
+  public boolean putEventIfAbsent(final String groupId, final String eventId,
+      final Map<String, Object> eventMap) {
+    try {
+      this.putItem(this.eventsTable, new PutItemSpec()
+          .withItem(this.getEventItem(groupId, eventId, eventMap))
+          .withConditionExpression("attribute_not_exists(" + EVENTS_SORT_KEY + ")"));
+      return true;
+    } catch (final ConditionalCheckFailedException e) {
+      return false;
+    }
+  }
+
+  /**
+   * This method makes an event's item match the event as it is stored on the group item. The
+   * event item is read consistently and is only written if it differs.
+   *
+   * @param groupId  The id of the group the event is in.
+   * @param eventId  The id of the event.
+   * @param eventMap The event as it is stored on the group item.
+   * @return True if the event item was written, false if it already matched.
+   */
+  public boolean putEventIfDifferent(final String groupId, final String eventId,
+      final Map<String, Object> eventMap) {
+    final Item eventItem = this.getEventItem(groupId, eventId, eventMap);
+    final Item storedEventItem = this.getItem(this.eventsTable, new GetItemSpec()
+        .withPrimaryKey(EVENTS_PRIMARY_KEY, groupId, EVENTS_SORT_KEY, eventId)
+        .withConsistentRead(true));
+
+    if (storedEventItem != null && storedEventItem.asMap().equals(eventItem.asMap())) {
+      return false;
+    }
+
+    this.putItem(this.eventsTable, eventItem);
+    return true;
+  }
+
+  /**
+   * This method copies a user's ratings for a category to the ratings table unless they're already
+   * there. Anything already there was written by a mirrored ratings write so it is at least as new
+   * as what is being copied.
+   *
+   * @param username   The username of the user the ratings belong to.
+   * @param categoryId The id of the category the ratings are for.
+   * @param ratings    The choice id to rating map as it is stored on the user item.
+   * @return True if the ratings were copied, false if they were already in the table.
+   */
+  public boolean putRatingsIfAbsent(final String username, final String categoryId,
+      final Map<String, Object> ratings) {
+    try {
+      this.putItem(this.ratingsTable, new PutItemSpec()
+          .withItem(this.getRatingsItem(username, categoryId, ratings))
+          .withConditionExpression("attribute_not_exists(" + RATINGS_SORT_KEY + ")"));
+      return true;
+    } catch (final ConditionalCheckFailedException e) {
+      return false;
+    }
+  }
 }
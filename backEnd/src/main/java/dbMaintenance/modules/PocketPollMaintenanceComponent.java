@@ -3,7 +3,10 @@ package dbMaintenance.modules;
 import dbMaintenance.controllers.AddCategoryCreatorToGroupController;
 import dbMaintenance.controllers.AddDurationsToUserSettingsController;
 import dbMaintenance.controllers.AddOwnedGroupsCountController;
+import dbMaintenance.controllers.ExpireUnclaimedIconUploadsController;
 import dbMaintenance.controllers.KeyChoicesByLabelController;
+import dbMaintenance.controllers.MigrateEventsToEventsTableController;
+import dbMaintenance.controllers.MigrateRatingsToRatingsTableController;
 import dbMaintenance.controllers.UnkeyUserRatingsByVersionController;
 import dagger.Component;
 import dbMaintenance.cronJobs.controllers.DetachedRatingsRemovalController;
@@ -18,4 +21,7 @@ public interface PocketPollMaintenanceComponent {
   void inject(DetachedRatingsRemovalController detachedRatingsRemovalController);
   void inject(AddDurationsToUserSettingsController addDurationsToUserSettingsController);
   void inject(AddOwnedGroupsCountController addOwnedGroupsCountController);
+  void inject(MigrateEventsToEventsTableController migrateEventsToEventsTableController);
+  void inject(MigrateRatingsToRatingsTableController migrateRatingsToRatingsTableController);
+  void inject(ExpireUnclaimedIconUploadsController expireUnclaimedIconUploadsController);
 }
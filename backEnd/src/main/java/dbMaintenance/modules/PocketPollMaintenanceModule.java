@@ -4,13 +4,17 @@ import dbMaintenance.cronJobs.handlers.DetachedRatingsRemovalHandler;
 import dbMaintenance.handlers.AddCategoryCreatorToGroupHandler;
 import dbMaintenance.handlers.AddDurationsToUserSettingsHandler;
 import dbMaintenance.handlers.AddOwnedGroupsCountHandler;
+import dbMaintenance.handlers.ExpireUnclaimedIconUploadsHandler;
 import dbMaintenance.handlers.KeyChoicesByLabelHandler;
+import dbMaintenance.handlers.MigrateEventsToEventsTableHandler;
+import dbMaintenance.handlers.MigrateRatingsToRatingsTableHandler;
 import dbMaintenance.handlers.UnkeyUserRatingsByVersionHandler;
 import dbMaintenance.managers.MaintenanceDbAccessManager;
 import dagger.Module;
 import dagger.Provides;
 import javax.inject.Singleton;
 import lombok.RequiredArgsConstructor;
+import managers.S3AccessManager;
 import utilities.Metrics;
 
 @Module
@@ -25,6 +29,12 @@ public class PocketPollMaintenanceModule {
     return new MaintenanceDbAccessManager();
   }
 
+  @Provides
+  @Singleton
+  public S3AccessManager provideS3AccessManager() {
+    return new S3AccessManager();
+  }
+
   @Provides
   public UnkeyUserRatingsByVersionHandler provideKeyUserRatingsByVersionHandler(
       final MaintenanceDbAccessManager maintenanceDbAccessManager) {
@@ -60,4 +70,22 @@ public class PocketPollMaintenanceModule {
       final MaintenanceDbAccessManager maintenanceDbAccessManager) {
     return new AddOwnedGroupsCountHandler(maintenanceDbAccessManager, this.metrics);
   }
+
+  @Provides
+  public MigrateEventsToEventsTableHandler provideMigrateEventsToEventsTableHandler(
+      final MaintenanceDbAccessManager maintenanceDbAccessManager) {
+    return new MigrateEventsToEventsTableHandler(maintenanceDbAccessManager, this.metrics);
+  }
+
+  @Provides
+  public MigrateRatingsToRatingsTableHandler provideMigrateRatingsToRatingsTableHandler(
+      final MaintenanceDbAccessManager maintenanceDbAccessManager) {
+    return new MigrateRatingsToRatingsTableHandler(maintenanceDbAccessManager, this.metrics);
+  }
+
+  @Provides
+  public ExpireUnclaimedIconUploadsHandler provideExpireUnclaimedIconUploadsHandler(
+      final S3AccessManager s3AccessManager) {
+    return new ExpireUnclaimedIconUploadsHandler(s3AccessManager, this.metrics);
+  }
 }
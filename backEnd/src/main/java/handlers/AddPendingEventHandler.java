@@ -1,21 +1,18 @@
 package handlers;
 
-import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
-import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
-import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import javax.inject.Inject;
 import managers.DbAccessManager;
 import utilities.ErrorDescriptor;
 import utilities.Metrics;
+import utilities.PendingEventPartitioner;
 import utilities.ResultStatus;
 
 public class AddPendingEventHandler implements ApiRequestHandler {
 
-  private static final String NUMBER_OF_PARTITIONS_ENV_KEY = "NUMBER_OF_PARTITIONS";
-
   private DbAccessManager dbAccessManager;
   private Metrics metrics;
 
@@ -26,7 +23,9 @@ public class AddPendingEventHandler implements ApiRequestHandler {
   }
 
   /**
-   * This method handles adding a pending event into one of the pending event table partitions.
+   * This method handles adding a pending event into one of the pending event table partitions. The
+   * partition is picked by hashing the event's key, so pending the same event again replaces its
+   * entry instead of leaving one behind to be picked up again.
    *
    * @param groupId      The group that the pending event belongs to.
    * @param eventId      The event that is pending.
@@ -45,21 +44,12 @@ public class AddPendingEventHandler implements ApiRequestHandler {
     ResultStatus resultStatus;
 
     try {
-      final String partitionKey = this.getPartitionKey();
+      final String partitionKey = PendingEventPartitioner.getPartitionKey(groupId, eventId);
       final LocalDateTime expirationDate = LocalDateTime.now(ZoneId.of("UTC"))
           .plus(pollDuration, ChronoUnit.MINUTES);
 
-      final String updateExpression = "set #key = :date";
-      final ValueMap valueMap = new ValueMap()
-          .withString(":date", expirationDate.format(this.dbAccessManager.getDateTimeFormatter()));
-      final NameMap nameMap = new NameMap().with("#key", groupId + DbAccessManager.DELIM + eventId);
-
-      final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-          .withUpdateExpression(updateExpression)
-          .withNameMap(nameMap)
-          .withValueMap(valueMap);
-
-      this.dbAccessManager.updatePendingEvent(partitionKey, updateItemSpec);
+      this.dbAccessManager.putPendingEvent(partitionKey, groupId, eventId,
+          expirationDate.toEpochSecond(ZoneOffset.UTC));
 
       resultStatus = new ResultStatus(true, "Pending event inserted successfully.");
     } catch (Exception e) {
@@ -72,11 +62,4 @@ public class AddPendingEventHandler implements ApiRequestHandler {
     this.metrics.commonClose(resultStatus.success);
     return resultStatus;
   }
-
-  public String getPartitionKey() throws NullPointerException, NumberFormatException {
-    //this gives a 'randomized' partition key based on the system's clock time.
-    return Long.toString(
-        (System.currentTimeMillis() % Integer.parseInt(System.getenv(NUMBER_OF_PARTITIONS_ENV_KEY)))
-            + 1);
-  }
 }
@@ -5,6 +5,7 @@ import static utilities.Config.MAX_GROUP_MEMBERS;
 import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.Put;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
 import exceptions.AttributeValueOutOfRangeException;
@@ -19,6 +20,7 @@ import java.util.Optional;
 import java.util.UUID;
 import javax.inject.Inject;
 import managers.DbAccessManager;
+import managers.NotificationBatch;
 import managers.S3AccessManager;
 import managers.SnsAccessManager;
 import models.Category;
@@ -28,8 +30,10 @@ import models.GroupForApiResponse;
 import models.Metadata;
 import models.User;
 import models.UserGroup;
-import utilities.AttributeValueUtils;
+import utilities.AttributeValueCodec;
 import utilities.ErrorDescriptor;
+import utilities.FanOutExecutor;
+import utilities.ImageData;
 import utilities.JsonUtils;
 import utilities.Metrics;
 import utilities.ResultStatus;
@@ -43,15 +47,17 @@ public class CreateNewGroupHandler implements ApiRequestHandler {
   private DbAccessManager dbAccessManager;
   private S3AccessManager s3AccessManager;
   private SnsAccessManager snsAccessManager;
+  private FanOutExecutor fanOutExecutor;
   private Metrics metrics;
 
   @Inject
   public CreateNewGroupHandler(final DbAccessManager dbAccessManager,
       final S3AccessManager s3AccessManager, final SnsAccessManager snsAccessManager,
-      final Metrics metrics) {
+      final FanOutExecutor fanOutExecutor, final Metrics metrics) {
     this.dbAccessManager = dbAccessManager;
     this.s3AccessManager = s3AccessManager;
     this.snsAccessManager = snsAccessManager;
+    this.fanOutExecutor = fanOutExecutor;
     this.metrics = metrics;
   }
 
@@ -66,12 +72,14 @@ public class CreateNewGroupHandler implements ApiRequestHandler {
    * @param categoriesList The list of category ids to be associated with the group.
    * @param isOpen         Whether or not this group is editable by its members or just its
    *                       creator.
-   * @param iconData       The byte data for an icon. If null this implies no icon.
+   * @param iconData       The image data for an icon. If null this implies no icon.
+   * @param iconKey        The key of an icon uploaded with a url from getIconUploadUrl. Used
+   *                       instead of the icon data when it's set.
    * @return Standard result status object giving insight on whether the request was successful.
    */
   public ResultStatus handle(final String activeUser, final String name,
       final List<String> membersList, final List<String> categoriesList, final Boolean isOpen,
-      final List<Integer> iconData) {
+      final ImageData iconData, final String iconKey) {
     final String classMethod = "CreateNewGroupHandler.handle";
     this.metrics.commonSetup(classMethod);
 
@@ -80,7 +88,8 @@ public class CreateNewGroupHandler implements ApiRequestHandler {
     try {
       User user = this.dbAccessManager.getUser(activeUser);
 
-      final Optional<String> errorMessage = this.newGroupInputIsValid(user, membersList);
+      final Optional<String> errorMessage = this
+          .newGroupInputIsValid(user, membersList, iconData);
       if (!errorMessage.isPresent()) {
         //build the new group for insertion
         final String newGroupId = UUID.randomUUID().toString();
@@ -101,7 +110,13 @@ public class CreateNewGroupHandler implements ApiRequestHandler {
 
         newGroup.setCategoriesRawMap(this.getCategoriesMapForInsertion(categoriesList));
 
-        if (iconData != null) { // if it's there, assume it's new image data
+        if (iconKey != null) { // it's already in s3, make sure it's a valid upload
+          final String newIconFileName = this.s3AccessManager
+              .verifyUploadedImage(activeUser, iconKey, this.metrics)
+              .orElseThrow(Exception::new);
+
+          newGroup.setIcon(newIconFileName);
+        } else if (iconData != null) { // if it's there, assume it's new image data
           final String newIconFileName = this.s3AccessManager.uploadImage(iconData, this.metrics)
               .orElseThrow(Exception::new);
 
@@ -115,12 +130,19 @@ public class CreateNewGroupHandler implements ApiRequestHandler {
                 "set " + User.OWNED_GROUPS_COUNT + " = " + User.OWNED_GROUPS_COUNT + " + :val")
             .withValueMap(new ValueMap().withNumber(":val", 1));
 
+        final Map<String, AttributeValue> groupItem = AttributeValueCodec
+            .encodeMap(newGroup.asMap());
+        if (this.dbAccessManager.writesEventsTable()) {
+          //a new group has no events to copy, every event it gets will be mirrored from the start
+          groupItem.put(Group.EVENTS_MIGRATED, new AttributeValue().withBOOL(true));
+        }
+
         final List<TransactWriteItem> actions = new ArrayList<>();
 
         actions.add(new TransactWriteItem().withUpdate(updateItemData.asUpdate()));
         actions.add(new TransactWriteItem()
-            .withPut(new Put().withTableName(DbAccessManager.GROUPS_TABLE_NAME).withItem(
-                AttributeValueUtils.convertMapToAttributeValueMap(newGroup.asMap()))));
+            .withPut(new Put().withTableName(DbAccessManager.GROUPS_TABLE_NAME)
+                .withItem(groupItem)));
 
         this.dbAccessManager.executeWriteTransaction(actions);
 
@@ -173,9 +195,11 @@ public class CreateNewGroupHandler implements ApiRequestHandler {
    *
    * @param user        The active user making the api request.
    * @param membersList A list of the usernames to associate with this group.
+   * @param iconData    The image data for the group's icon, or null if there isn't one.
    * @return A nullable errorMessage. If null, then there was no error and it is valid
    */
-  private Optional<String> newGroupInputIsValid(final User user, final List<String> membersList) {
+  private Optional<String> newGroupInputIsValid(final User user, final List<String> membersList,
+      final ImageData iconData) {
 
     String errorMessage = null;
 
@@ -191,6 +215,10 @@ public class CreateNewGroupHandler implements ApiRequestHandler {
           "Error: User cannot own more than " + MAX_OWNED_GROUPS + " at one time.");
     }
 
+    if (iconData != null && iconData.exceedsMaxSize()) {
+      errorMessage = this.getUpdatedErrorMessage(errorMessage, "Error: Icon is too large.");
+    }
+
     return Optional.ofNullable(errorMessage);
   }
 
@@ -222,18 +250,17 @@ public class CreateNewGroupHandler implements ApiRequestHandler {
         .withMap(":userGroupMap", UserGroup.fromNewGroup(newGroup).asMap());
     final NameMap nameMap = new NameMap().with("#groupId", newGroup.getGroupId());
 
-    final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-        .withUpdateExpression(updateExpression)
-        .withValueMap(valueMap)
-        .withNameMap(nameMap);
-
-    for (final String newMember : newGroup.getMembers().keySet()) {
-      try {
-        this.dbAccessManager.updateUser(newMember, updateItemSpec);
-      } catch (Exception e) {
-        success = false;
-        this.metrics.log(new ErrorDescriptor<>(newMember, classMethod, e));
-      }
+    //each user gets their own spec since updateUser sets the user's key on it
+    final Map<String, Exception> failures = this.fanOutExecutor
+        .forEach(newGroup.getMembers().keySet(),
+            (newMember) -> this.dbAccessManager.updateUser(newMember, new UpdateItemSpec()
+                .withUpdateExpression(updateExpression)
+                .withValueMap(valueMap)
+                .withNameMap(nameMap)), this.metrics);
+
+    for (final Map.Entry<String, Exception> failure : failures.entrySet()) {
+      success = false;
+      this.metrics.log(new ErrorDescriptor<>(failure.getKey(), classMethod, failure.getValue()));
     }
 
     //blind send...
@@ -252,6 +279,7 @@ public class CreateNewGroupHandler implements ApiRequestHandler {
     payload.putIfAbsent(Group.GROUP_ID, newGroup.getGroupId());
 
     final Metadata metadata = new Metadata("addedToGroup", payload);
+    final NotificationBatch notificationBatch = this.snsAccessManager.newNotificationBatch();
 
     for (String username : newGroup.getMembers().keySet()) {
       try {
@@ -262,9 +290,9 @@ public class CreateNewGroupHandler implements ApiRequestHandler {
           if (user.pushEndpointArnIsSet()) {
             //Note: no need to check user's group muted settings since they're just being added
             if (user.getAppSettings().isMuted()) {
-              this.snsAccessManager.sendMutedMessage(user.getPushEndpointArn(), metadata);
+              notificationBatch.sendMutedMessage(username, user.getPushEndpointArn(), metadata);
             } else {
-              this.snsAccessManager.sendMessage(user.getPushEndpointArn(),
+              notificationBatch.sendMessage(username, user.getPushEndpointArn(),
                   "Added to new group!", "'" + newGroup.getGroupName() + "'",
                   newGroup.getGroupId(), metadata);
             }
@@ -276,6 +304,10 @@ public class CreateNewGroupHandler implements ApiRequestHandler {
       }
     }
 
+    if (!notificationBatch.awaitCompletion(classMethod, this.metrics)) {
+      success = false;
+    }
+
     this.metrics.commonClose(success);
   }
 
@@ -8,12 +8,13 @@ import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
 import com.google.common.collect.ImmutableMap;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import javax.inject.Inject;
 import managers.DbAccessManager;
+import managers.NotificationBatch;
 import managers.S3AccessManager;
 import managers.SnsAccessManager;
 import models.Category;
@@ -21,8 +22,8 @@ import models.EventForSorting;
 import models.Group;
 import models.Metadata;
 import models.User;
-import utilities.AttributeValueUtils;
 import utilities.ErrorDescriptor;
+import utilities.FanOutExecutor;
 import utilities.Metrics;
 import utilities.ResultStatus;
 import utilities.UpdateItemData;
@@ -36,15 +37,17 @@ public class DeleteGroupHandler implements ApiRequestHandler {
   private final DbAccessManager dbAccessManager;
   private final S3AccessManager s3AccessManager;
   private final SnsAccessManager snsAccessManager;
+  private final FanOutExecutor fanOutExecutor;
   private final Metrics metrics;
 
   @Inject
   public DeleteGroupHandler(final DbAccessManager dbAccessManager,
       final S3AccessManager s3AccessManager, final SnsAccessManager snsAccessManager,
-      final Metrics metrics) {
+      final FanOutExecutor fanOutExecutor, final Metrics metrics) {
     this.dbAccessManager = dbAccessManager;
     this.s3AccessManager = s3AccessManager;
     this.snsAccessManager = snsAccessManager;
+    this.fanOutExecutor = fanOutExecutor;
     this.metrics = metrics;
   }
 
@@ -55,7 +58,7 @@ public class DeleteGroupHandler implements ApiRequestHandler {
     ResultStatus resultStatus;
 
     try {
-      final Group group = this.dbAccessManager.getGroup(groupId);
+      final Group group = this.dbAccessManager.getGroupNoCache(groupId);
       if (activeUser.equals(group.getGroupCreator())) {
 
         // Remove the group from the users and categories tables
@@ -82,11 +85,15 @@ public class DeleteGroupHandler implements ApiRequestHandler {
 
           resultStatus = ResultStatus.successful("Group deleted successfully!");
 
-          //blind attempt to delete the group's icon and pending events
-          //if either fail, we'll get a notification and we can manually delete if necessary
+          //blind attempt to delete the group's icon, pending events and events table items
+          //if any fail, we'll get a notification and we can manually delete if necessary
           this.s3AccessManager.deleteImage(group.getIcon(), metrics);
 
           this.deleteAllPendingGroupEvents(group);
+
+          if (this.dbAccessManager.writesEventsTable()) {
+            this.deleteAllGroupEventItems(group);
+          }
         } else {
           resultStatus = removeGroupFromUsers.applyResultStatus(removeFromCategoriesResult);
           this.metrics.logWithBody(new ErrorDescriptor<>(classMethod, resultStatus.resultMessage));
@@ -104,6 +111,31 @@ public class DeleteGroupHandler implements ApiRequestHandler {
     return resultStatus;
   }
 
+  /**
+   * This method handles removing all of a group's events from the events table.
+   *
+   * @param deletedGroup This is the group object that is being deleted.
+   * @return Standard result status object giving insight on whether the request was successful.
+   */
+  private ResultStatus deleteAllGroupEventItems(final Group deletedGroup) {
+    final String classMethod = "DeleteGroupHandler.deleteAllGroupEventItems";
+    this.metrics.commonSetup(classMethod);
+
+    ResultStatus resultStatus;
+
+    try {
+      this.dbAccessManager
+          .deleteEvents(deletedGroup.getGroupId(), deletedGroup.getEvents().keySet());
+      resultStatus = ResultStatus.successful("Event items deleted successfully");
+    } catch (final Exception e) {
+      this.metrics.log(new ErrorDescriptor<>(deletedGroup.getGroupId(), classMethod, e));
+      resultStatus = ResultStatus.failure("Exception in " + classMethod);
+    }
+
+    this.metrics.commonClose(resultStatus.success);
+    return resultStatus;
+  }
+
   /**
    * This event handles removing all of a groups pending events from any of the pending event table
    * partitions
@@ -128,30 +160,9 @@ public class DeleteGroupHandler implements ApiRequestHandler {
     ResultStatus resultStatus = ResultStatus.successful("Pending events deleted successfully");
 
     try {
-      final List<String> eventIdsList = new ArrayList<>(pendingEventIds);
-      final String updateExpression =
-          "remove " + IntStream.range(0, eventIdsList.size()).boxed().map(i -> "#groupEventKey" + i)
-              .collect(Collectors.joining(", "));
-
-      final NameMap nameMap = new NameMap();
-      IntStream.range(0, eventIdsList.size()).boxed()
-          .forEach(i -> nameMap.with("#groupEventKey" + i,
-              deletedGroup.getGroupId() + DbAccessManager.DELIM + eventIdsList.get(i)));
-
-      final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-          .withUpdateExpression(updateExpression)
-          .withNameMap(nameMap);
-
-      final int numberOfPartitions = Integer
-          .parseInt(System.getenv(DbAccessManager.NUMBER_OF_PARTITIONS_ENV_KEY));
-      for (int i = 1; i <= numberOfPartitions; i++) {
-        try {
-          this.dbAccessManager.updatePendingEvent(Integer.valueOf(i).toString(), updateItemSpec);
-        } catch (final Exception e) {
-          this.metrics.log(new ErrorDescriptor<>(i, classMethod, e));
-          resultStatus = ResultStatus.failure("Exception in " + classMethod);
-        }
-      }
+      //each event only pends in the partition it hashes to. Events that started pending before
+      //they were their own items are cleaned up by the resolution once it finds the group gone.
+      this.dbAccessManager.deletePendingEvents(deletedGroup.getGroupId(), pendingEventIds);
     } catch (final Exception e) {
       this.metrics.log(
           new ErrorDescriptor<>(String
@@ -218,58 +229,63 @@ public class DeleteGroupHandler implements ApiRequestHandler {
     final Metadata metadata = new Metadata("removedFromGroup",
         ImmutableMap.of(Group.GROUP_ID, deletedGroup.getGroupId()));
 
-    //remove the group from all of the active members user items
-    String updateExpression = "remove " + User.GROUPS + ".#groupId";
-    NameMap nameMap = new NameMap().with("#groupId", deletedGroup.getGroupId());
-    UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-        .withUpdateExpression(updateExpression)
-        .withNameMap(nameMap);
+    //each user gets their own spec since updateUser sets the user's key on it
+    final NameMap nameMap = new NameMap().with("#groupId", deletedGroup.getGroupId());
+    final NotificationBatch notificationBatch = this.snsAccessManager.newNotificationBatch();
 
-    for (final String username : deletedGroup.getMembers().keySet()) {
-      try {
-        //pull the user before deleting so we have their group isMuted mapping for the push notice
-        final User removedUser = this.dbAccessManager.getUser(username);
-
-        //actually do the removal of the group map
-        this.dbAccessManager.updateUser(username, updateItemSpec);
-
-        //if the delete went through, send the notification
-        if (removedUser.pushEndpointArnIsSet() && !deletedGroup.getGroupCreator()
-            .equals(username)) {
-          if (removedUser.getAppSettings().isMuted() || removedUser.getGroups()
-              .get(deletedGroup.getGroupId()).isMuted()) {
-            this.snsAccessManager.sendMutedMessage(removedUser.getPushEndpointArn(), metadata);
-          } else {
-            this.snsAccessManager.sendMessage(removedUser.getPushEndpointArn(), "Group Deleted",
-                "'" + deletedGroup.getGroupName() + "'", deletedGroup.getGroupId(), metadata);
+    //remove the group from all of the active members user items
+    final Map<String, Exception> memberFailures = this.fanOutExecutor
+        .forEach(deletedGroup.getMembers().keySet(), (username) -> {
+          //pull the user before deleting so we have their group isMuted mapping for the push notice
+          final User removedUser = this.dbAccessManager.getUser(username);
+
+          //actually do the removal of the group map
+          this.dbAccessManager.updateUser(username, new UpdateItemSpec()
+              .withUpdateExpression("remove " + User.GROUPS + ".#groupId")
+              .withNameMap(nameMap));
+
+          //if the delete went through, send the notification
+          if (removedUser.pushEndpointArnIsSet() && !deletedGroup.getGroupCreator()
+              .equals(username)) {
+            if (removedUser.getAppSettings().isMuted() || removedUser.getGroups()
+                .get(deletedGroup.getGroupId()).isMuted()) {
+              notificationBatch
+                  .sendMutedMessage(username, removedUser.getPushEndpointArn(), metadata);
+            } else {
+              notificationBatch
+                  .sendMessage(username, removedUser.getPushEndpointArn(), "Group Deleted",
+                      "'" + deletedGroup.getGroupName() + "'", deletedGroup.getGroupId(),
+                      metadata);
+            }
           }
-        }
-      } catch (Exception e) {
-        resultStatus = new ResultStatus(false, "Exception removing group from user");
-        this.metrics.log(new ErrorDescriptor<>(username, classMethod, e));
-      }
+        }, this.metrics);
+
+    for (final Entry<String, Exception> failure : memberFailures.entrySet()) {
+      resultStatus = new ResultStatus(false, "Exception removing group from user");
+      this.metrics.log(new ErrorDescriptor<>(failure.getKey(), classMethod, failure.getValue()));
     }
 
     //remove the group from all of the members left user items
-    updateExpression = "remove " + User.GROUPS_LEFT + ".#groupId";
-    nameMap = new NameMap().with("#groupId", deletedGroup.getGroupId());
-    updateItemSpec = new UpdateItemSpec()
-        .withUpdateExpression(updateExpression)
-        .withNameMap(nameMap);
-
-    for (final String username : deletedGroup.getMembersLeft().keySet()) {
-      try {
-        final User removedUser = this.dbAccessManager.getUser(username);
-
-        //actually do the removal of the group map
-        this.dbAccessManager.updateUser(username, updateItemSpec);
+    final Map<String, Exception> memberLeftFailures = this.fanOutExecutor
+        .forEach(deletedGroup.getMembersLeft().keySet(), (username) -> {
+          final User removedUser = this.dbAccessManager.getUser(username);
+
+          //actually do the removal of the group map
+          this.dbAccessManager.updateUser(username, new UpdateItemSpec()
+              .withUpdateExpression("remove " + User.GROUPS_LEFT + ".#groupId")
+              .withNameMap(nameMap));
+
+          //if the delete went through, send the notification
+          notificationBatch.sendMutedMessage(username, removedUser.getPushEndpointArn(), metadata);
+        }, this.metrics);
+
+    for (final Entry<String, Exception> failure : memberLeftFailures.entrySet()) {
+      resultStatus = new ResultStatus(false, "Exception removing group from left user");
+      this.metrics.log(new ErrorDescriptor<>(failure.getKey(), classMethod, failure.getValue()));
+    }
 
-        //if the delete went through, send the notification
-        this.snsAccessManager.sendMutedMessage(removedUser.getPushEndpointArn(), metadata);
-      } catch (final Exception e) {
-        resultStatus = new ResultStatus(false, "Exception removing group from left user");
-        this.metrics.log(new ErrorDescriptor<>(username, classMethod, e));
-      }
+    if (!notificationBatch.awaitCompletion(classMethod, this.metrics)) {
+      resultStatus = new ResultStatus(false, "Exception notifying removed user");
     }
 
     this.metrics.commonClose(resultStatus.success);
@@ -77,12 +77,14 @@ public class EditCategoryHandler implements ApiRequestHandler {
         actions.add(new TransactWriteItem().withUpdate(updateItemData.asUpdate()));
 
         //get the update data to entered the ratings into the users table
-        final ResultStatus<UpdateItemData> updatedUsersTableResult =
+        final ResultStatus<List<UpdateItemData>> updatedUsersTableResult =
             this.updateUserChoiceRatingsHandler
                 .handle(activeUser, categoryId, userRatings, false, categoryName);
 
         if (updatedUsersTableResult.success) {
-          actions.add(new TransactWriteItem().withUpdate(updatedUsersTableResult.data.asUpdate()));
+          for (final UpdateItemData userUpdateItemData : updatedUsersTableResult.data) {
+            actions.add(new TransactWriteItem().withUpdate(userUpdateItemData.asUpdate()));
+          }
 
           this.dbAccessManager.executeWriteTransaction(actions);
 
@@ -17,6 +17,7 @@ import java.util.Optional;
 import java.util.Set;
 import javax.inject.Inject;
 import managers.DbAccessManager;
+import managers.NotificationBatch;
 import managers.S3AccessManager;
 import managers.SnsAccessManager;
 import models.Category;
@@ -27,6 +28,8 @@ import models.Metadata;
 import models.User;
 import models.UserGroup;
 import utilities.ErrorDescriptor;
+import utilities.FanOutExecutor;
+import utilities.ImageData;
 import utilities.JsonUtils;
 import utilities.Metrics;
 import utilities.ResultStatus;
@@ -37,15 +40,17 @@ public class EditGroupHandler implements ApiRequestHandler {
   private DbAccessManager dbAccessManager;
   private S3AccessManager s3AccessManager;
   private SnsAccessManager snsAccessManager;
+  private FanOutExecutor fanOutExecutor;
   private Metrics metrics;
 
   @Inject
   public EditGroupHandler(final DbAccessManager dbAccessManager,
       final S3AccessManager s3AccessManager, final SnsAccessManager snsAccessManager,
-      final Metrics metrics) {
+      final FanOutExecutor fanOutExecutor, final Metrics metrics) {
     this.dbAccessManager = dbAccessManager;
     this.s3AccessManager = s3AccessManager;
     this.snsAccessManager = snsAccessManager;
+    this.fanOutExecutor = fanOutExecutor;
     this.metrics = metrics;
   }
 
@@ -60,22 +65,24 @@ public class EditGroupHandler implements ApiRequestHandler {
    * @param membersList    The updated list of usernames associated with the group.
    * @param categoriesList The updated list of category ids associated with the group.
    * @param isOpen         The update is open value for this group.
-   * @param iconData       The byte array for a new group icon. If null, the icon is not updated.
+   * @param iconData       The image data for a new group icon. If null, the icon is not updated.
+   * @param iconKey        The key of an icon uploaded with a url from getIconUploadUrl. Used
+   *                       instead of the icon data when it's set.
    * @return Standard result status object giving insight on whether the request was successful.
    */
   public ResultStatus handle(final String activeUser, final String groupId, final String name,
       final List<String> membersList, final List<String> categoriesList, final Boolean isOpen,
-      final List<Integer> iconData) {
+      final ImageData iconData, final String iconKey) {
     final String classMethod = "EditGroupHandler.handle";
     this.metrics.commonSetup(classMethod);
 
     ResultStatus resultStatus;
 
     try {
-      final Group oldGroup = this.dbAccessManager.getGroup(groupId);
+      final Group oldGroup = this.dbAccessManager.getGroupNoCache(groupId);
 
       final Optional<String> errorMessage = this
-          .editGroupInputIsValid(oldGroup, activeUser, membersList);
+          .editGroupInputIsValid(oldGroup, activeUser, membersList, iconData);
       if (!errorMessage.isPresent()) {
         //all validation is successful, build transaction actions
         membersList.add(activeUser); // sanity check, active user is in members list
@@ -94,10 +101,16 @@ public class EditGroupHandler implements ApiRequestHandler {
 
         //assumption - currently we aren't allowing user's to clear a group's image once set
         String newIconFileName = null;
-        if (iconData != null) {
+        if (iconKey != null) {
+          newIconFileName = this.s3AccessManager
+              .verifyUploadedImage(activeUser, iconKey, this.metrics)
+              .orElseThrow(Exception::new);
+        } else if (iconData != null) {
           newIconFileName = this.s3AccessManager.uploadImage(iconData, this.metrics)
               .orElseThrow(Exception::new);
+        }
 
+        if (newIconFileName != null) {
           updateExpression += ", " + Group.ICON + " = :icon";
           valueMap.withString(":icon", newIconFileName);
         }
@@ -170,51 +183,43 @@ public class EditGroupHandler implements ApiRequestHandler {
     final Set<String> removedUsernames = new HashSet<>(oldGroupMembers);
     removedUsernames.removeAll(newGroupMembers); // remove new from old to get removed
 
-    String updateExpression;
-    ValueMap valueMap;
-    UpdateItemSpec updateItemSpec;
-
     //since this group already exists, we're just updating the mappings that have changed for existing users
     //for simplicity in the code, we'll always update the group name
-    updateExpression =
+    String persistingUpdateExpression =
         "set " + User.GROUPS + ".#groupId." + Group.GROUP_NAME + " = :groupName";
-    valueMap = new ValueMap().withString(":groupName", newGroup.getGroupName());
+    final ValueMap persistingValueMap = new ValueMap()
+        .withString(":groupName", newGroup.getGroupName());
 
     if (newGroup.iconIsSet() && !newGroup.getIcon().equals(oldGroup.getIcon())) {
-      updateExpression += ", " + User.GROUPS + ".#groupId." + Group.ICON + " = :groupIcon";
-      valueMap.withString(":groupIcon", newGroup.getIcon());
-    }
-
-    updateItemSpec = new UpdateItemSpec()
-        .withUpdateExpression(updateExpression)
-        .withValueMap(valueMap)
-        .withNameMap(nameMap);
-
-    for (final String oldMember : persistingUsernames) {
-      try {
-        this.dbAccessManager.updateUser(oldMember, updateItemSpec);
-      } catch (final Exception e) {
-        success = false;
-        this.metrics.log(new ErrorDescriptor<>(oldMember, classMethod, e));
-      }
+      persistingUpdateExpression +=
+          ", " + User.GROUPS + ".#groupId." + Group.ICON + " = :groupIcon";
+      persistingValueMap.withString(":groupIcon", newGroup.getIcon());
     }
 
     //for new users, we need to add the entire group map
-    updateExpression = "set " + User.GROUPS + ".#groupId = :userGroupMap";
-    valueMap = new ValueMap().withMap(":userGroupMap", UserGroup.fromNewGroup(newGroup).asMap());
-
-    updateItemSpec = new UpdateItemSpec()
-        .withUpdateExpression(updateExpression)
-        .withValueMap(valueMap)
-        .withNameMap(nameMap);
-
-    for (final String newMember : addedUsernames) {
-      try {
-        this.dbAccessManager.updateUser(newMember, updateItemSpec);
-      } catch (Exception e) {
-        success = false;
-        this.metrics.log(new ErrorDescriptor<>(newMember, classMethod, e));
-      }
+    final String addedUpdateExpression = "set " + User.GROUPS + ".#groupId = :userGroupMap";
+    final ValueMap addedValueMap = new ValueMap()
+        .withMap(":userGroupMap", UserGroup.fromNewGroup(newGroup).asMap());
+
+    //each user gets their own spec since updateUser sets the user's key on it
+    final Map<String, Exception> failures = new HashMap<>();
+    final String finalPersistingUpdateExpression = persistingUpdateExpression;
+    failures.putAll(this.fanOutExecutor
+        .forEach(persistingUsernames,
+            (oldMember) -> this.dbAccessManager.updateUser(oldMember, new UpdateItemSpec()
+                .withUpdateExpression(finalPersistingUpdateExpression)
+                .withValueMap(persistingValueMap)
+                .withNameMap(nameMap)), this.metrics));
+    failures.putAll(this.fanOutExecutor
+        .forEach(addedUsernames,
+            (newMember) -> this.dbAccessManager.updateUser(newMember, new UpdateItemSpec()
+                .withUpdateExpression(addedUpdateExpression)
+                .withValueMap(addedValueMap)
+                .withNameMap(nameMap)), this.metrics));
+
+    for (final Map.Entry<String, Exception> failure : failures.entrySet()) {
+      success = false;
+      this.metrics.log(new ErrorDescriptor<>(failure.getKey(), classMethod, failure.getValue()));
     }
 
     //update user objects of all of the users removed - if oldGroup is null, nothing to remove from
@@ -235,6 +240,7 @@ public class EditGroupHandler implements ApiRequestHandler {
     payload.putIfAbsent(Group.GROUP_ID, newGroup.getGroupId());
 
     final Metadata metadata = new Metadata("addedToGroup", payload);
+    final NotificationBatch notificationBatch = this.snsAccessManager.newNotificationBatch();
 
     for (String username : addedUsernames) {
       try {
@@ -245,9 +251,9 @@ public class EditGroupHandler implements ApiRequestHandler {
           if (user.pushEndpointArnIsSet()) {
             //Note: no need to check user's group muted settings since they're just being added
             if (user.getAppSettings().isMuted()) {
-              this.snsAccessManager.sendMutedMessage(user.getPushEndpointArn(), metadata);
+              notificationBatch.sendMutedMessage(username, user.getPushEndpointArn(), metadata);
             } else {
-              this.snsAccessManager.sendMessage(user.getPushEndpointArn(),
+              notificationBatch.sendMessage(username, user.getPushEndpointArn(),
                   "Added to new group!", "'" + newGroup.getGroupName() + "'", newGroup.getGroupId(),
                   metadata);
             }
@@ -259,6 +265,10 @@ public class EditGroupHandler implements ApiRequestHandler {
       }
     }
 
+    if (!notificationBatch.awaitCompletion(classMethod, this.metrics)) {
+      success = false;
+    }
+
     this.metrics.commonClose(success);
   }
 
@@ -283,33 +293,40 @@ public class EditGroupHandler implements ApiRequestHandler {
         ImmutableMap.of(Group.GROUP_ID, group.getGroupId()));
 
     //remove the group from all of the active members user items
-    UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-        .withUpdateExpression("remove " + User.GROUPS + ".#groupId")
-        .withNameMap(new NameMap().with("#groupId", group.getGroupId()));
-
-    for (final String username : removedUsernames) {
-      try {
-        //pull the user before deleting so we have their group isMuted mapping for the push notice
-        final User removedUser = this.dbAccessManager.getUser(username);
-
-        //actually do the removal of the group map
-        this.dbAccessManager.updateUser(username, updateItemSpec);
-
-        //if the delete went through, send the notification
-        if (removedUser.pushEndpointArnIsSet()) {
-          if (removedUser.getAppSettings().isMuted() || removedUser.getGroups()
-              .get(group.getGroupId()).isMuted()) {
-            this.snsAccessManager.sendMutedMessage(removedUser.getPushEndpointArn(), metadata);
-          } else {
-            this.snsAccessManager
-                .sendMessage(removedUser.getPushEndpointArn(), "Removed from group",
-                    "'" + group.getGroupName() + "'", group.getGroupId(), metadata);
+    final NameMap nameMap = new NameMap().with("#groupId", group.getGroupId());
+    final NotificationBatch notificationBatch = this.snsAccessManager.newNotificationBatch();
+
+    final Map<String, Exception> failures = this.fanOutExecutor
+        .forEach(removedUsernames, (username) -> {
+          //pull the user before deleting so we have their group isMuted mapping for the push notice
+          final User removedUser = this.dbAccessManager.getUser(username);
+
+          //actually do the removal of the group map
+          this.dbAccessManager.updateUser(username, new UpdateItemSpec()
+              .withUpdateExpression("remove " + User.GROUPS + ".#groupId")
+              .withNameMap(nameMap));
+
+          //if the delete went through, send the notification
+          if (removedUser.pushEndpointArnIsSet()) {
+            if (removedUser.getAppSettings().isMuted() || removedUser.getGroups()
+                .get(group.getGroupId()).isMuted()) {
+              notificationBatch
+                  .sendMutedMessage(username, removedUser.getPushEndpointArn(), metadata);
+            } else {
+              notificationBatch
+                  .sendMessage(username, removedUser.getPushEndpointArn(), "Removed from group",
+                      "'" + group.getGroupName() + "'", group.getGroupId(), metadata);
+            }
           }
-        }
-      } catch (Exception e) {
-        resultStatus = new ResultStatus(false, "Exception removing group from user");
-        this.metrics.log(new ErrorDescriptor<>(username, classMethod, e));
-      }
+        }, this.metrics);
+
+    for (final Map.Entry<String, Exception> failure : failures.entrySet()) {
+      resultStatus = new ResultStatus(false, "Exception removing group from user");
+      this.metrics.log(new ErrorDescriptor<>(failure.getKey(), classMethod, failure.getValue()));
+    }
+
+    if (!notificationBatch.awaitCompletion(classMethod, this.metrics)) {
+      resultStatus = new ResultStatus(false, "Exception notifying removed user");
     }
 
     this.metrics.commonClose(resultStatus.success);
@@ -390,10 +407,11 @@ public class EditGroupHandler implements ApiRequestHandler {
    * @param oldGroup   this is the old group definition that is attempting to be edited
    * @param activeUser the user doing the edit
    * @param members    the new list of members for the group
+   * @param iconData   the image data for the new icon, or null if the icon isn't changing
    * @return A nullable errorMessage. If null, then there was no error and it is valid
    */
   private Optional<String> editGroupInputIsValid(final Group oldGroup, final String activeUser,
-      final List<String> members) {
+      final List<String> members, final ImageData iconData) {
 
     String errorMessage = null;
 
@@ -427,6 +445,10 @@ public class EditGroupHandler implements ApiRequestHandler {
           "Error: Error: Cannot add a user that left.");
     }
 
+    if (iconData != null && iconData.exceedsMaxSize()) {
+      errorMessage = this.getUpdatedErrorMessage(errorMessage, "Error: Icon is too large.");
+    }
+
     return Optional.ofNullable(errorMessage);
   }
 
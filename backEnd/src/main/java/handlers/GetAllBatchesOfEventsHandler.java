@@ -1,18 +1,16 @@
 package handlers;
 
 import static java.lang.StrictMath.max;
-import static java.util.stream.Collectors.toMap;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import javax.inject.Inject;
 import managers.DbAccessManager;
 import models.Event;
 import models.EventForSorting;
 import models.GetGroupResponse;
+import models.Group;
 import models.GroupForApiResponse;
 import models.GroupWithCategoryChoices;
 import models.User;
@@ -20,6 +18,7 @@ import utilities.ErrorDescriptor;
 import utilities.JsonUtils;
 import utilities.Metrics;
 import utilities.ResultStatus;
+import utilities.TopKWindow;
 import utilities.WarningDescriptor;
 
 public class GetAllBatchesOfEventsHandler implements ApiRequestHandler {
@@ -52,30 +51,36 @@ public class GetAllBatchesOfEventsHandler implements ApiRequestHandler {
     ResultStatus resultStatus;
 
     try {
-      final GroupWithCategoryChoices groupWithCategoryChoices = new GroupWithCategoryChoices(
-          this.dbAccessManager.getGroupItem(groupId).asMap());
+      if (batchIndexesAreValid(batchIndexes)) {
+        final GroupWithCategoryChoices groupWithCategoryChoices = new GroupWithCategoryChoices(
+            this.dbAccessManager.getGroupItem(groupId).asMap());
 
-      final GroupForApiResponse groupForApiResponse = new GroupForApiResponse(
-          groupWithCategoryChoices);
+        final GroupForApiResponse groupForApiResponse = new GroupForApiResponse(
+            groupWithCategoryChoices);
 
-      final User user = this.dbAccessManager.getUser(activeUser);
+        final User user = this.dbAccessManager.getUser(activeUser);
 
-      //the user should not be able to retrieve info from the group if they are not a member
-      if (groupForApiResponse.getMembers().containsKey(activeUser) && user.getGroups()
-          .containsKey(groupId)) {
-        //we set the events on the group so we can use the group's getEventsMap method
-        final Map<String, Map<String, Event>> allEventsBatches = this
-            .getAllEventBatches(user, groupWithCategoryChoices, batchIndexes, maxBatches);
+        //the user should not be able to retrieve info from the group if they are not a member
+        if (groupForApiResponse.getMembers().containsKey(activeUser) && user.getGroups()
+            .containsKey(groupId)) {
+          //we set the events on the group so we can use the group's getEventsMap method
+          final Map<String, Map<String, Event>> allEventsBatches = this
+              .getAllEventBatches(user, groupForApiResponse, batchIndexes, maxBatches);
 
-        groupForApiResponse.setAllEvents(allEventsBatches);
+          groupForApiResponse.setAllEvents(allEventsBatches);
 
-        final GetGroupResponse getGroupResponse = new GetGroupResponse(groupForApiResponse);
-        getGroupResponse.setUserData(user, groupWithCategoryChoices);
+          final GetGroupResponse getGroupResponse = new GetGroupResponse(groupForApiResponse);
+          getGroupResponse.setUserData(user, groupWithCategoryChoices);
 
-        resultStatus = ResultStatus.successful(JsonUtils.convertObjectToJson(getGroupResponse));
+          resultStatus = ResultStatus.successful(JsonUtils.convertObjectToJson(getGroupResponse));
+        } else {
+          this.metrics.logWithBody(new WarningDescriptor<>(classMethod, "User not in group."));
+          resultStatus = ResultStatus.failure("Error: user not a member of the group.");
+        }
       } else {
-        this.metrics.logWithBody(new WarningDescriptor<>(classMethod, "User not in group."));
-        resultStatus = ResultStatus.failure("Error: user not a member of the group.");
+        this.metrics.logWithBody(
+            new WarningDescriptor<>(classMethod, GetBatchOfEventsHandler.INVALID_BATCH_NUMBER));
+        resultStatus = ResultStatus.failure(GetBatchOfEventsHandler.INVALID_BATCH_NUMBER);
       }
     } catch (final Exception e) {
       this.metrics.logWithBody(new ErrorDescriptor<>(classMethod, e));
@@ -86,90 +91,36 @@ public class GetAllBatchesOfEventsHandler implements ApiRequestHandler {
     return resultStatus;
   }
 
-  private Map<String, Map<String, Event>> getAllEventBatches(final User user,
-      final GroupWithCategoryChoices group, final Map<String, Integer> batchIndexes,
-      final Integer maxBatches) {
-    final Map<String, Map<String, Event>> eventTypesToEvents = new HashMap<>();
-    eventTypesToEvents.put(GroupForApiResponse.OCCURRING_EVENTS, new HashMap<>());
-    eventTypesToEvents.put(GroupForApiResponse.NEW_EVENTS, new HashMap<>());
-    eventTypesToEvents.put(GroupForApiResponse.CONSIDER_EVENTS, new HashMap<>());
-    eventTypesToEvents.put(GroupForApiResponse.VOTING_EVENTS, new HashMap<>());
-    eventTypesToEvents.put(GroupForApiResponse.CLOSED_EVENTS, new HashMap<>());
-
-    //set this up for later use
-    final Set<String> unseenEventIds = user.getGroups().get(group.getGroupId()).getEventsUnseen()
-        .keySet();
-
-    //first of all we convert the map to be events for sorting before we sort
-    //this way we don't have to do all of the sorting setup for every comparison in the sort
-    final Map<String, EventForSorting> searchingEventsBatch = group.getEvents()
-        .entrySet()
-        .stream()
-        .collect(toMap(Entry::getKey,
-            (Map.Entry<String, Event> e) -> new EventForSorting(e.getKey(), e.getValue(),
-                this.dbAccessManager.nowObj())));
-
-    //separate the events into their appropriate buckets
-    String priorityLabel;
-    for (final Map.Entry<String, EventForSorting> eventEntry : searchingEventsBatch.entrySet()) {
-      //add unseen events to the new events key
-      if (unseenEventIds.contains(eventEntry.getKey())) {
-        eventTypesToEvents.get(GroupForApiResponse.NEW_EVENTS)
-            .put(eventEntry.getKey(), eventEntry.getValue());
+  private static boolean batchIndexesAreValid(final Map<String, Integer> batchIndexes) {
+    for (final String eventsType : GetBatchOfEventsHandler.EVENT_TYPE_LABELS) {
+      if (!GetBatchOfEventsHandler.isValidBatchNumber(batchIndexes.get(eventsType))) {
+        return false;
       }
-
-      //add the event to the correct bucket based on priority
-      priorityLabel = GetBatchOfEventsHandler.getEventPriorityLabelFromPriority(
-          eventEntry.getValue().getPriority());
-      eventTypesToEvents.get(priorityLabel).put(eventEntry.getKey(), eventEntry.getValue());
     }
 
-    //then sort each one and reduce down to the appropriate batch indexes
-    Integer largestBatch, smallestBatch;
-    ArrayList<String> batchEventIdsToRemove, batchEventIdsToKeep;
-    String eventId, eventsType;
-    Map<String, Event> eventsMap;
-    int newestEventIndex, oldestEventIndex;
-    for (Map.Entry<String, Map<String, Event>> eventMapEntry : eventTypesToEvents.entrySet()) {
-      eventsType = eventMapEntry.getKey();
-      eventsMap = eventMapEntry.getValue();
-
-      largestBatch = batchIndexes.get(eventsType);
-      smallestBatch = max(largestBatch - maxBatches + 1, 0); // can't be less than 0
-
-      newestEventIndex = (smallestBatch * GetBatchOfEventsHandler.EVENTS_BATCH_SIZE);
-      oldestEventIndex = (largestBatch + 1) * GetBatchOfEventsHandler.EVENTS_BATCH_SIZE;
-
-      //start assuming all are not in the batch
-      batchEventIdsToRemove = new ArrayList<>(eventsMap.keySet());
-
-      //get all of the events from the first event to the oldest event in the batch
-      if (batchEventIdsToRemove.size() > newestEventIndex) {
-        //we adjust this so that we stop looping at the correct number of items
-        if (batchEventIdsToRemove.size() < oldestEventIndex) {
-          oldestEventIndex = batchEventIdsToRemove.size();
-        }
-
-        //sort the events
-        batchEventIdsToRemove.sort((String e1, String e2) -> searchingEventsBatch.get(e1)
-            .compareTo(searchingEventsBatch.get(e2)));
+    return true;
+  }
 
-        //remove the event ids in the batch from those being removed
-        batchEventIdsToKeep = new ArrayList<>();
-        for (int i = newestEventIndex; i < oldestEventIndex; i++) {
-          eventId = batchEventIdsToRemove.get(i);
-          batchEventIdsToKeep.add(eventId);
-        }
+  Map<String, Map<String, Event>> getAllEventBatches(final User user,
+      final Group group, final Map<String, Integer> batchIndexes,
+      final Integer maxBatches) {
+    //set this up for later use
+    final Set<String> unseenEventIds = user.getGroups().get(group.getGroupId()).getEventsUnseen()
+        .keySet();
 
-        batchEventIdsToRemove.removeAll(batchEventIdsToKeep);
-      } // else there are no events in this range so everything gets removed
+    //each event type gets a window covering all of the batches that are loaded for it
+    final Map<String, TopKWindow<EventForSorting>> eventTypesToWindows = new HashMap<>();
+    for (final String eventsType : GetBatchOfEventsHandler.EVENT_TYPE_LABELS) {
+      final int largestBatch = batchIndexes.get(eventsType);
+      final int smallestBatch = max(largestBatch - maxBatches + 1, 0); // can't be less than 0
 
-      //remove event ids not in the batch
-      for (final String eventIdToRemove : batchEventIdsToRemove) {
-        eventsMap.remove(eventIdToRemove);
-      }
+      eventTypesToWindows.put(eventsType, new TopKWindow<>(
+          smallestBatch * GetBatchOfEventsHandler.EVENTS_BATCH_SIZE,
+          (largestBatch + 1) * GetBatchOfEventsHandler.EVENTS_BATCH_SIZE));
     }
 
-    return eventTypesToEvents;
+    //separate the events into their appropriate buckets and reduce down to the batch indexes
+    return GetBatchOfEventsHandler
+        .getEventBatches(group, unseenEventIds, eventTypesToWindows, this.dbAccessManager.nowObj());
   }
 }
@@ -1,15 +1,15 @@
 package handlers;
 
-import static java.util.stream.Collectors.collectingAndThen;
-import static java.util.stream.Collectors.toMap;
-
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.ArrayList;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import managers.DbAccessManager;
 import models.Event;
@@ -24,6 +24,7 @@ import utilities.ErrorDescriptor;
 import utilities.JsonUtils;
 import utilities.Metrics;
 import utilities.ResultStatus;
+import utilities.TopKWindow;
 import utilities.WarningDescriptor;
 
 public class GetBatchOfEventsHandler implements ApiRequestHandler {
@@ -35,6 +36,15 @@ public class GetBatchOfEventsHandler implements ApiRequestHandler {
   public static final Integer EVENTS_TYPE_VOTING = 3;
   public static final Integer EVENTS_TYPE_OCCURRING = 4;
 
+  public static final String INVALID_BATCH_NUMBER = "Error: Invalid batch number.";
+
+  public static final List<String> EVENT_TYPE_LABELS = ImmutableList.of(
+      GroupForApiResponse.NEW_EVENTS,
+      GroupForApiResponse.CLOSED_EVENTS,
+      GroupForApiResponse.CONSIDER_EVENTS,
+      GroupForApiResponse.VOTING_EVENTS,
+      GroupForApiResponse.OCCURRING_EVENTS);
+
   private final DbAccessManager dbAccessManager;
   private final Metrics metrics;
 
@@ -63,32 +73,61 @@ public class GetBatchOfEventsHandler implements ApiRequestHandler {
     ResultStatus resultStatus;
 
     try {
-      final GroupWithCategoryChoices groupWithCategoryChoices = new GroupWithCategoryChoices(
-          this.dbAccessManager.getGroupItem(groupId).asMap());
-
-      final GroupForApiResponse groupForApiResponse = new GroupForApiResponse(
-          groupWithCategoryChoices);
-
-      final User user = this.dbAccessManager.getUser(activeUser);
-
-      //the user should not be able to retrieve info from the group if they are not a member
-      if (groupForApiResponse.getMembers().containsKey(activeUser) && user.getGroups()
-          .containsKey(groupId)) {
-        //we set the events on the group so we can use the group's getEventsMap method
-        final Map<String, Event> eventsBatch = GetBatchOfEventsHandler
-            .handle(user, groupForApiResponse, batchNumber, batchType);
+      if (isValidBatchNumber(batchNumber)) {
+        //migrated groups get their events from the events table, so their events map isn't read
+        final boolean readsEventsTable = this.dbAccessManager.readsEventsTable();
+        Item groupItem = readsEventsTable ? this.dbAccessManager.getGroupItemWithoutEvents(groupId)
+            : this.dbAccessManager.getGroupItem(groupId);
+        final boolean eventsMigrated = readsEventsTable && groupItem
+            .hasAttribute(Group.EVENTS_MIGRATED) && groupItem.getBoolean(Group.EVENTS_MIGRATED);
+        if (readsEventsTable && !eventsMigrated) {
+          groupItem = this.dbAccessManager.getGroupItem(groupId);
+        }
+
+        final GroupWithCategoryChoices groupWithCategoryChoices = new GroupWithCategoryChoices(
+            groupItem.asMap());
+
+        final GroupForApiResponse groupForApiResponse = new GroupForApiResponse(
+            groupWithCategoryChoices);
+
+        final User user = this.dbAccessManager.getUser(activeUser);
+
+        //the user should not be able to retrieve info from the group if they are not a member
+        if (groupForApiResponse.getMembers().containsKey(activeUser) && user.getGroups()
+            .containsKey(groupId)) {
+          //we set the events on the group so we can use the group's getEventsMap method
+          final Map<String, Event> eventsBatch = new LinkedHashMap<>();
+          final GroupWithCategoryChoices batchGroupWithCategoryChoices;
+          if (eventsMigrated) {
+            final Map<String, Map<String, Object>> eventMaps = this
+                .getBatchFromEventsTable(user, groupId, batchNumber, batchType);
+            eventMaps.forEach((eventId, eventMap) -> eventsBatch.put(eventId, new Event(eventMap)));
+
+            //only the batch's events get marked unseen/unrated, so only they need their choices
+            final Map<String, Object> batchGroupMap = new HashMap<>(groupItem.asMap());
+            batchGroupMap.put(Group.EVENTS, eventMaps);
+            batchGroupWithCategoryChoices = new GroupWithCategoryChoices(batchGroupMap);
+          } else {
+            eventsBatch.putAll(GetBatchOfEventsHandler
+                .handle(user, groupForApiResponse, batchNumber, batchType));
+            batchGroupWithCategoryChoices = groupWithCategoryChoices;
+          }
 
-        final Map<String, Map<String, Event>> eventBatches = new HashMap<>();
-        eventBatches.putIfAbsent(getEventPriorityLabelFromBatchType(batchType), eventsBatch);
-        groupForApiResponse.setAllEvents(eventBatches);
+          final Map<String, Map<String, Event>> eventBatches = new HashMap<>();
+          eventBatches.putIfAbsent(getEventPriorityLabelFromBatchType(batchType), eventsBatch);
+          groupForApiResponse.setAllEvents(eventBatches);
 
-        final GetGroupResponse getGroupResponse = new GetGroupResponse(groupForApiResponse);
-        getGroupResponse.setUserData(user, groupWithCategoryChoices);
+          final GetGroupResponse getGroupResponse = new GetGroupResponse(groupForApiResponse);
+          getGroupResponse.setUserData(user, batchGroupWithCategoryChoices);
 
-        resultStatus = ResultStatus.successful(JsonUtils.convertObjectToJson(getGroupResponse));
+          resultStatus = ResultStatus.successful(JsonUtils.convertObjectToJson(getGroupResponse));
+        } else {
+          this.metrics.logWithBody(new WarningDescriptor<>(classMethod, "User not in group."));
+          resultStatus = ResultStatus.failure("Error: user not a member of the group.");
+        }
       } else {
-        this.metrics.logWithBody(new WarningDescriptor<>(classMethod, "User not in group."));
-        resultStatus = ResultStatus.failure("Error: user not a member of the group.");
+        this.metrics.logWithBody(new WarningDescriptor<>(classMethod, INVALID_BATCH_NUMBER));
+        resultStatus = ResultStatus.failure(INVALID_BATCH_NUMBER);
       }
     } catch (final Exception e) {
       this.metrics.logWithBody(new ErrorDescriptor<>(classMethod, e));
@@ -99,12 +138,129 @@ public class GetBatchOfEventsHandler implements ApiRequestHandler {
     return resultStatus;
   }
 
+  /**
+   * This method gets a batch of events for a group whose events have been copied to the events
+   * table. Every batch type other than new is a range of the priority index, so the batch is a
+   * single query that stops at the end of the batch. New events are spread across every priority so
+   * they're gotten by id and then windowed the same way as the group item's events are.
+   *
+   * @param activeUser  The user object of the user making the api request.
+   * @param groupId     The id of the group we are trying to get a batch of events for.
+   * @param batchNumber The index of events to get. Index i gets events (i, (i + 1) * batch size]
+   * @param batchType   The type of events to get in the batch. Types map to different priorities.
+   * @return A mapping of eventIds to the event items contained in the requested batch, in order.
+   */
+  private Map<String, Map<String, Object>> getBatchFromEventsTable(final User activeUser,
+      final String groupId, final Integer batchNumber, final Integer batchType) {
+    final int newestEventIndex = (batchNumber * EVENTS_BATCH_SIZE);
+    final int oldestEventIndex = (batchNumber + 1) * EVENTS_BATCH_SIZE;
+
+    final Map<String, Map<String, Object>> eventsBatch = new LinkedHashMap<>();
+
+    if (batchType.equals(EVENTS_TYPE_NEW)) {
+      final Set<String> unseenEventIds = activeUser.getGroups().get(groupId).getEventsUnseen()
+          .keySet();
+
+      final Map<String, Map<String, Object>> unseenEvents = new HashMap<>();
+      final TopKWindow<EventForSorting> batchWindow = new TopKWindow<>(newestEventIndex,
+          oldestEventIndex);
+      for (final Item eventItem : this.dbAccessManager.getEvents(groupId, unseenEventIds)) {
+        final String eventId = eventItem.getString(DbAccessManager.EVENTS_SORT_KEY);
+        final Map<String, Object> eventMap = eventItem.asMap();
+        unseenEvents.put(eventId, eventMap);
+        batchWindow.offer(new EventForSorting(eventId, new Event(eventMap),
+            this.dbAccessManager.nowObj()));
+      }
+
+      for (final EventForSorting eventForSorting : batchWindow.getWindow()) {
+        eventsBatch.put(eventForSorting.getEventId(),
+            unseenEvents.get(eventForSorting.getEventId()));
+      }
+    } else if (batchType.equals(EVENTS_TYPE_OCCURRING)) {
+      //the closed bucket is stored newest start first, occurring sorts the other way so the
+      //occurring range (only the last 12hrs and on) is read whole and windowed like new events
+      final Range<String> sortKeyRange = getPrioritySortKeyRange(batchType,
+          this.dbAccessManager.nowObj().toEpochSecond(ZoneOffset.UTC));
+
+      final Map<String, Map<String, Object>> occurringEvents = new HashMap<>();
+      final TopKWindow<EventForSorting> batchWindow = new TopKWindow<>(newestEventIndex,
+          oldestEventIndex);
+      for (final Item eventItem : this.dbAccessManager.queryEventsByPriority(groupId,
+          sortKeyRange.lowerEndpoint(), sortKeyRange.upperEndpoint(), true, null)) {
+        final String eventId = eventItem.getString(DbAccessManager.EVENTS_SORT_KEY);
+        final Map<String, Object> eventMap = eventItem.asMap();
+        occurringEvents.put(eventId, eventMap);
+        batchWindow.offer(new EventForSorting(eventId, new Event(eventMap),
+            this.dbAccessManager.nowObj()));
+      }
+
+      for (final EventForSorting eventForSorting : batchWindow.getWindow()) {
+        eventsBatch.put(eventForSorting.getEventId(),
+            occurringEvents.get(eventForSorting.getEventId()));
+      }
+    } else {
+      final Range<String> sortKeyRange = getPrioritySortKeyRange(batchType,
+          this.dbAccessManager.nowObj().toEpochSecond(ZoneOffset.UTC));
+
+      //every other bucket is stored in the same order as EventForSorting
+      final List<Item> eventItems = this.dbAccessManager.queryEventsByPriority(groupId,
+          sortKeyRange.lowerEndpoint(), sortKeyRange.upperEndpoint(), true, oldestEventIndex);
+      for (final Item eventItem : eventItems
+          .subList(Math.min(newestEventIndex, eventItems.size()), eventItems.size())) {
+        eventsBatch.put(eventItem.getString(DbAccessManager.EVENTS_SORT_KEY), eventItem.asMap());
+      }
+    }
+
+    return eventsBatch;
+  }
+
+  /**
+   * Batch numbers come straight from the app and size the window of events that gets kept, so they
+   * are checked before any window is built.
+   *
+   * @param batchNumber The batch index requested by the app.
+   * @return True if the batch index isn't negative and the end of its batch fits in an int.
+   */
+  public static boolean isValidBatchNumber(final Integer batchNumber) {
+    return batchNumber != null && batchNumber >= 0
+        && batchNumber < Integer.MAX_VALUE / EVENTS_BATCH_SIZE;
+  }
+
+  /**
+   * @param batchType  Any batch type other than new.
+   * @param nowSeconds The current utc epoch second.
+   * @return The inclusive range of priority sort keys that hold the batch type's events.
+   */
+  static Range<String> getPrioritySortKeyRange(final Integer batchType, final long nowSeconds) {
+    //occurring and closed share a bucket, occurring is anything that started in the last 12hrs.
+    //the bucket holds max - start, so the newest closed key time is one past the oldest occurring
+    final long closedStartKeySeconds = EventForSorting.MAX_PRIORITY_SORT_KEY_SECONDS
+        - (nowSeconds - EventForSorting.TWELVE_HOURS_IN_SECONDS);
+
+    if (batchType.equals(EVENTS_TYPE_CLOSED)) {
+      return Range.closed(
+          EventForSorting
+              .getPrioritySortKeyPrefix(EventForSorting.PRIORITY_CLOSED, closedStartKeySeconds),
+          EventForSorting.getPrioritySortKeyPrefix(EventForSorting.PRIORITY_CLOSED,
+              EventForSorting.MAX_PRIORITY_SORT_KEY_SECONDS));
+    } else if (batchType.equals(EVENTS_TYPE_OCCURRING)) {
+      return Range.closed(
+          EventForSorting.getPrioritySortKeyPrefix(EventForSorting.PRIORITY_CLOSED, 0),
+          EventForSorting
+              .getPrioritySortKeyPrefix(EventForSorting.PRIORITY_CLOSED, closedStartKeySeconds));
+    }
+
+    final byte priority = getEventPriorityFromBatchType(batchType);
+    return Range.closed(EventForSorting.getPrioritySortKeyPrefix(priority, 0), EventForSorting
+        .getPrioritySortKeyPrefix(priority, EventForSorting.MAX_PRIORITY_SORT_KEY_SECONDS));
+  }
+
   /**
    * This method is imperative for not overloading the front end with data. Since a group can have
    * an unlimited number of events, we need to limit how many we return at any one time. This is why
-   * we're batching events. This function sorts all of the events from the first one to the oldest
-   * in the batch, then it flips the sort and gets the top 'n' where 'n' is the number in the
-   * batch.
+   * we're batching events. This function finds the events that would be in the batch if all of the
+   * events of the batch type were sorted, only ever keeping the events up to the oldest one in the
+   * batch rather than sorting all of them.
    *
    * @param activeUser  The user object of the user making the api request.
    * @param group       The group we are trying to get a batch of events for.
@@ -114,55 +270,41 @@ public class GetBatchOfEventsHandler implements ApiRequestHandler {
    */
   public static Map<String, Event> handle(final User activeUser, final Group group,
       final Integer batchNumber, final Integer batchType) {
-    int newestEventIndex = (batchNumber * EVENTS_BATCH_SIZE);
-    int oldestEventIndex = (batchNumber + 1) * EVENTS_BATCH_SIZE;
-
-    ArrayList<String> batchEventIds = new ArrayList<>(group.getEvents().keySet());
-    Map<String, Event> eventsBatch = new LinkedHashMap<>();
+    final int newestEventIndex = (batchNumber * EVENTS_BATCH_SIZE);
+    final int oldestEventIndex = (batchNumber + 1) * EVENTS_BATCH_SIZE;
 
     final LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
 
-    //first of all we convert the map to be events for sorting before we sort
-    //this way we don't have to do all of the sorting setup for every comparison in the sort
-    //if setting up sorting params takes n time and sorting takes m times, then doing
-    //this first leads to n + m complexity vs n * m complexity if we calculated every comparison
-    Map<String, EventForSorting> searchingEventsBatch = group.getEvents()
-        .entrySet()
-        .stream()
-        .collect(collectingAndThen(
-            toMap(Entry::getKey,
-                (Map.Entry<String, Event> e) -> new EventForSorting(e.getKey(), e.getValue(), now)),
-            LinkedHashMap::new));
+    final TopKWindow<EventForSorting> batchWindow = new TopKWindow<>(newestEventIndex,
+        oldestEventIndex);
 
     if (batchType.equals(EVENTS_TYPE_NEW)) {
       final Set<String> unseenEventIds = activeUser.getGroups().get(group.getGroupId())
           .getEventsUnseen().keySet();
 
-      batchEventIds.removeIf(eventId -> !unseenEventIds.contains(eventId));
+      for (final Map.Entry<String, Event> eventEntry : group.getEvents().entrySet()) {
+        if (unseenEventIds.contains(eventEntry.getKey())) {
+          batchWindow.offer(new EventForSorting(eventEntry.getKey(), eventEntry.getValue(), now));
+        }
+      }
     } else {
-      final Integer eventsTypePriority = getEventPriorityFromBatchType(batchType);
-
-      batchEventIds.removeIf(
-          eventId -> !searchingEventsBatch.get(eventId).getPriority().equals(eventsTypePriority));
-    }
-
-    //get all of the events from the first event to the oldest event in the batch
-    if (batchEventIds.size() > newestEventIndex) {
-      //we adjust this so that the .limit(oldestEvent - newestEvent) gets the correct number of items
-      if (batchEventIds.size() < oldestEventIndex) {
-        oldestEventIndex = batchEventIds.size();
+      final byte eventsTypePriority = getEventPriorityFromBatchType(batchType);
+
+      EventForSorting eventForSorting;
+      for (final Map.Entry<String, Event> eventEntry : group.getEvents().entrySet()) {
+        eventForSorting = new EventForSorting(eventEntry.getKey(), eventEntry.getValue(), now);
+        if (eventForSorting.getPriority() == eventsTypePriority) {
+          batchWindow.offer(eventForSorting);
+        }
       }
+    }
 
-      //sort the events
-      batchEventIds.sort((String e1, String e2) -> searchingEventsBatch.get(e1)
-          .compareTo(searchingEventsBatch.get(e2)));
-
-      String eventId;
-      for (int i = newestEventIndex; i < oldestEventIndex; i++) {
-        eventId = batchEventIds.get(i);
-        eventsBatch.put(eventId, group.getEvents().get(eventId));
-      }
-    } // else there are no events in this range and we return the empty map
+    //if there are no events in this range then the window is empty and we return the empty map
+    final Map<String, Event> eventsBatch = new LinkedHashMap<>();
+    for (final EventForSorting eventForSorting : batchWindow.getWindow()) {
+      eventsBatch.put(eventForSorting.getEventId(),
+          group.getEvents().get(eventForSorting.getEventId()));
+    }
 
     return eventsBatch;
   }
@@ -170,71 +312,68 @@ public class GetBatchOfEventsHandler implements ApiRequestHandler {
   /**
    * This method is imperative for not overloading the front end with data. Since a group can have
    * an unlimited number of events, we need to limit how many we return at any one time. This is why
-   * we're batching events. This function sorts all of the events from the first one to the oldest
-   * in the batch, then it flips the sort and gets the top 'n' where 'n' is the number in the batch.
-   * This is done for all types.
+   * we're batching events. This function gets the first batch of every type of event.
    *
    * @param activeUser The user object of the user making the api request.
    * @param group      The group we are trying to get a batch of events for.
    * @return A mapping of eventIds to event objects contained in the requested batch.
    */
   public static Map<String, Map<String, Event>> handle(final User activeUser, final Group group) {
-
-    final Map<String, Map<String, Event>> eventTypesToEvents = new HashMap<>();
-    eventTypesToEvents.put(GroupForApiResponse.OCCURRING_EVENTS, new HashMap<>());
-    eventTypesToEvents.put(GroupForApiResponse.NEW_EVENTS, new HashMap<>());
-    eventTypesToEvents.put(GroupForApiResponse.CONSIDER_EVENTS, new HashMap<>());
-    eventTypesToEvents.put(GroupForApiResponse.VOTING_EVENTS, new HashMap<>());
-    eventTypesToEvents.put(GroupForApiResponse.CLOSED_EVENTS, new HashMap<>());
-
-    //linked hash maps maintain order whereas normal hash maps do not
-    LinkedHashMap<String, EventForSorting> eventsBatch = new LinkedHashMap<>();
-
     final Set<String> unseenEventIds = activeUser.getGroups()
         .getOrDefault(group.getGroupId(), UserGroup.fromNewGroup(group)).getEventsUnseen().keySet();
 
-    //get all of the events from the first event to the oldest event in the batch
-    if (group.getEvents().size() > 0) {
-      final LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
-
-      //first of all we convert the map to be events for sorting before we sort
-      //this way we don't have to do all of the sorting setup for every comparison in the sort
-      //if setting up sorting params takes n time and sorting takes m times, then doing
-      //this first leads to n + m complexity vs n * m complexity if we calculated every comparison
-      eventsBatch = group.getEvents()
-          .entrySet()
-          .stream()
-          .collect(collectingAndThen(
-              toMap(Entry::getKey,
-                  (Map.Entry<String, Event> e) -> new EventForSorting(e.getKey(), e.getValue(),
-                      now)),
-              LinkedHashMap::new));
-    } // else there are no events in this range and we return the empty map
-
-    //then we sort those events oldest to newest
-    eventsBatch.entrySet().stream()
-        .sorted((e1, e2) -> e1.getValue().compareTo(e2.getValue()))
-        .forEach((eventEntry) -> {
-          if (unseenEventIds.contains(eventEntry.getKey()) &&
-              eventTypesToEvents.get(GroupForApiResponse.NEW_EVENTS).size() < EVENTS_BATCH_SIZE) {
-            eventTypesToEvents.get(GroupForApiResponse.NEW_EVENTS)
-                .put(eventEntry.getKey(), eventEntry.getValue());
-          }
+    final Map<String, TopKWindow<EventForSorting>> eventTypesToWindows = new HashMap<>();
+    for (final String eventsType : EVENT_TYPE_LABELS) {
+      eventTypesToWindows.put(eventsType, new TopKWindow<>(0, EVENTS_BATCH_SIZE));
+    }
 
-          String priorityLabel = getEventPriorityLabelFromPriority(
-              eventEntry.getValue().getPriority());
+    return getEventBatches(group, unseenEventIds, eventTypesToWindows,
+        LocalDateTime.now(ZoneId.of("UTC")));
+  }
 
-          //add the events to the response until they fill up the batch size
-          if (eventTypesToEvents.get(priorityLabel).size() < EVENTS_BATCH_SIZE) {
-            eventTypesToEvents.get(priorityLabel).put(eventEntry.getKey(), eventEntry.getValue());
-          }
-        });
+  /**
+   * This method separates all of a group's events into their event types and gets the requested
+   * window of each type, all in a single pass over the events. Events the user hasn't seen go in the
+   * new events type as well as the type for their priority. Each window only ever holds the events
+   * up to the end of its range, so nothing is fully sorted.
+   *
+   * @param group               The group whose events are being batched.
+   * @param unseenEventIds      The ids of the events the active user hasn't seen.
+   * @param eventTypesToWindows The window to fill for every event type label.
+   * @param now                 The time that the event priorities should be determined at.
+   * @return A mapping of event type labels to the events in that type's window.
+   */
+  static Map<String, Map<String, Event>> getEventBatches(final Group group,
+      final Set<String> unseenEventIds,
+      final Map<String, TopKWindow<EventForSorting>> eventTypesToWindows,
+      final LocalDateTime now) {
+    EventForSorting eventForSorting;
+    for (final Map.Entry<String, Event> eventEntry : group.getEvents().entrySet()) {
+      eventForSorting = new EventForSorting(eventEntry.getKey(), eventEntry.getValue(), now);
+
+      if (unseenEventIds.contains(eventEntry.getKey())) {
+        eventTypesToWindows.get(GroupForApiResponse.NEW_EVENTS).offer(eventForSorting);
+      }
+
+      eventTypesToWindows.get(getEventPriorityLabelFromPriority(eventForSorting.getPriority()))
+          .offer(eventForSorting);
+    }
+
+    final Map<String, Map<String, Event>> eventTypesToEvents = new HashMap<>();
+    for (final Map.Entry<String, TopKWindow<EventForSorting>> windowEntry : eventTypesToWindows
+        .entrySet()) {
+      final Map<String, Event> eventsBatch = new HashMap<>();
+      for (final EventForSorting windowEvent : windowEntry.getValue().getWindow()) {
+        eventsBatch.put(windowEvent.getEventId(), group.getEvents().get(windowEvent.getEventId()));
+      }
+      eventTypesToEvents.put(windowEntry.getKey(), eventsBatch);
+    }
 
     return eventTypesToEvents;
   }
 
-  private static Integer getEventPriorityFromBatchType(final Integer batchType) {
-    Integer priority = -1;
+  private static byte getEventPriorityFromBatchType(final Integer batchType) {
+    byte priority = -1;
     if (batchType.equals(EVENTS_TYPE_CLOSED)) {
       priority = EventForSorting.PRIORITY_CLOSED;
     } else if (batchType.equals(EVENTS_TYPE_CONSIDER)) {
@@ -265,15 +404,15 @@ public class GetBatchOfEventsHandler implements ApiRequestHandler {
     return label;
   }
 
-  public static String getEventPriorityLabelFromPriority(final Integer priority) {
+  public static String getEventPriorityLabelFromPriority(final byte priority) {
     String label = null;
-    if (priority.equals(EventForSorting.PRIORITY_CLOSED)) {
+    if (priority == EventForSorting.PRIORITY_CLOSED) {
       label = GroupForApiResponse.CLOSED_EVENTS;
-    } else if (priority.equals(EventForSorting.PRIORITY_CONSIDERING)) {
+    } else if (priority == EventForSorting.PRIORITY_CONSIDERING) {
       label = GroupForApiResponse.CONSIDER_EVENTS;
-    } else if (priority.equals(EventForSorting.PRIORITY_OCCURRING)) {
+    } else if (priority == EventForSorting.PRIORITY_OCCURRING) {
       label = GroupForApiResponse.OCCURRING_EVENTS;
-    } else if (priority.equals(EventForSorting.PRIORITY_VOTING)) {
+    } else if (priority == EventForSorting.PRIORITY_VOTING) {
       label = GroupForApiResponse.VOTING_EVENTS;
     }
 
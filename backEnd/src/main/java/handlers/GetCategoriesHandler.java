@@ -181,16 +181,20 @@ public class GetCategoriesHandler implements ApiRequestHandler {
 
     final User user = this.dbAccessManager.getUser(activeUser);
 
+    final Map<String, Category> categories = this.dbAccessManager.getCategories(categoryIds);
+
     final List<Map<String, Object>> categoryRatingTuples = new ArrayList<>();
     for (String id : categoryIds) {
       try {
-        final Category category = this.dbAccessManager.getCategory(id);
-        final CategoryRatingTuple categoryRatingTuple = new CategoryRatingTuple(category,
-            user.getCategoryRatings().getOrDefault(id, Collections.emptyMap()));
-        categoryRatingTuples.add(categoryRatingTuple.asMap());
-      } catch (final NullPointerException npe) {
-        //log warning assuming it's just a bad category id
-        this.metrics.log(new WarningDescriptor<>(id, classMethod, npe));
+        final Category category = categories.get(id);
+        if (category != null) {
+          final CategoryRatingTuple categoryRatingTuple = new CategoryRatingTuple(category,
+              user.getCategoryRatings().getOrDefault(id, Collections.emptyMap()));
+          categoryRatingTuples.add(categoryRatingTuple.asMap());
+        } else {
+          //log warning assuming it's just a bad category id
+          this.metrics.log(new WarningDescriptor<>(id, classMethod, "Category not found."));
+        }
       } catch (final Exception e) {
         this.metrics.log(new ErrorDescriptor<>(id, classMethod, e));
       }
@@ -1,7 +1,9 @@
 package handlers;
 
+import com.amazonaws.services.dynamodbv2.document.Item;
 import javax.inject.Inject;
 import managers.DbAccessManager;
+import models.Event;
 import models.Group;
 import utilities.ErrorDescriptor;
 import utilities.JsonUtils;
@@ -35,14 +37,29 @@ public class GetEventHandler implements ApiRequestHandler {
     ResultStatus resultStatus;
 
     try {
-      final Group group = this.dbAccessManager.getGroup(groupId);
+      //events that have been copied to the events table can be read without the group item
+      final Item eventItem =
+          this.dbAccessManager.readsEventsTable() ? this.dbAccessManager.getEvent(groupId, eventId)
+              : null;
 
-      if (group.getMembers().containsKey(activeUser)) {
-        resultStatus = ResultStatus
-            .successful(JsonUtils.convertObjectToJson(group.getEventsMap().get(eventId)));
+      if (eventItem != null) {
+        if (this.dbAccessManager.getUser(activeUser).getGroups().containsKey(groupId)) {
+          resultStatus = ResultStatus
+              .successful(JsonUtils.convertObjectToJson(new Event(eventItem.asMap()).asMap()));
+        } else {
+          this.metrics.logWithBody(new WarningDescriptor<>(classMethod, "User not in group"));
+          resultStatus = ResultStatus.failure("Error: user is not a member of the group.");
+        }
       } else {
-        this.metrics.logWithBody(new WarningDescriptor<>(classMethod, "User not in group"));
-        resultStatus = ResultStatus.failure("Error: user is not a member of the group.");
+        final Group group = this.dbAccessManager.getGroup(groupId);
+
+        if (group.getMembers().containsKey(activeUser)) {
+          resultStatus = ResultStatus
+              .successful(JsonUtils.convertObjectToJson(group.getEventsMap().get(eventId)));
+        } else {
+          this.metrics.logWithBody(new WarningDescriptor<>(classMethod, "User not in group"));
+          resultStatus = ResultStatus.failure("Error: user is not a member of the group.");
+        }
       }
     } catch (final Exception e) {
       this.metrics.logWithBody(new ErrorDescriptor<>(classMethod, e));
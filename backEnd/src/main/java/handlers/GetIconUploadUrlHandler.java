@@ -0,0 +1,76 @@
+package handlers;
+
+import com.google.common.collect.ImmutableMap;
+import javax.inject.Inject;
+import managers.S3AccessManager;
+import utilities.Config;
+import utilities.ErrorDescriptor;
+import utilities.JsonUtils;
+import utilities.Metrics;
+import utilities.RequestFields;
+import utilities.ResultStatus;
+import utilities.WarningDescriptor;
+
+public class GetIconUploadUrlHandler implements ApiRequestHandler {
+
+  private final S3AccessManager s3AccessManager;
+  private final Metrics metrics;
+
+  @Inject
+  public GetIconUploadUrlHandler(final S3AccessManager s3AccessManager, final Metrics metrics) {
+    this.s3AccessManager = s3AccessManager;
+    this.metrics = metrics;
+  }
+
+  /**
+   * This method gives the app a presigned url to put an icon straight into s3, so the image never
+   * goes through the api. Once the put is done, the returned icon key is sent as the IconKey of
+   * createNewGroup, editGroup or updateUserSettings in place of the image itself.
+   *
+   * @param activeUser    The user that is going to upload the icon.
+   * @param contentLength The exact size of the icon in bytes.
+   * @return Standard result status object giving insight on whether the request was successful.
+   * On success it holds the upload url and the icon key.
+   */
+  public ResultStatus handle(final String activeUser, final Integer contentLength) {
+    final String classMethod = "GetIconUploadUrlHandler.handle";
+    this.metrics.commonSetup(classMethod);
+
+    ResultStatus resultStatus;
+
+    try {
+      final String errorMessage = this.getContentLengthErrorMessage(contentLength);
+      if (errorMessage == null) {
+        final String iconKey = S3AccessManager.newUploadKey(activeUser);
+        final String uploadUrl = this.s3AccessManager.getImageUploadUrl(iconKey, contentLength)
+            .toString();
+
+        resultStatus = ResultStatus.successful(JsonUtils.convertObjectToJson(ImmutableMap
+            .of(RequestFields.ICON_KEY, iconKey, RequestFields.UPLOAD_URL, uploadUrl)));
+      } else {
+        resultStatus = ResultStatus.failure(errorMessage);
+        this.metrics.logWithBody(new WarningDescriptor<>(classMethod, errorMessage));
+      }
+    } catch (final Exception e) {
+      this.metrics.logWithBody(new ErrorDescriptor<>(classMethod, e));
+      resultStatus = ResultStatus.failure("Exception in " + classMethod);
+    }
+
+    this.metrics.commonClose(resultStatus.success);
+    return resultStatus;
+  }
+
+  private String getContentLengthErrorMessage(final Integer contentLength) {
+    String errorMessage = null;
+
+    if (contentLength == null) {
+      errorMessage = "Error: Icon size is missing.";
+    } else if (contentLength <= 0) {
+      errorMessage = "Error: Invalid icon size.";
+    } else if (contentLength > Config.MAX_IMAGE_BYTES) {
+      errorMessage = "Error: Icon is too large.";
+    }
+
+    return errorMessage;
+  }
+}
@@ -43,7 +43,7 @@ public class LeaveGroupHandler implements ApiRequestHandler {
     ResultStatus resultStatus;
 
     try {
-      final Group group = this.dbAccessManager.getGroup(groupId);
+      final Group group = this.dbAccessManager.getGroupNoCache(groupId);
 
       Optional<String> errorMessage = this.leaveGroupIsValid(group, activeUser);
       if (!errorMessage.isPresent()) {
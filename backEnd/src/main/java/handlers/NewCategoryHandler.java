@@ -14,7 +14,7 @@ import javax.inject.Inject;
 import managers.DbAccessManager;
 import models.Category;
 import models.User;
-import utilities.AttributeValueUtils;
+import utilities.AttributeValueCodec;
 import utilities.ErrorDescriptor;
 import utilities.JsonUtils;
 import utilities.Metrics;
@@ -60,17 +60,19 @@ public class NewCategoryHandler implements ApiRequestHandler {
       final Optional<String> errorMessage = this.newCategoryIsValid(newCategory);
       if (!errorMessage.isPresent()) {
         //get the update data for entering the user ratings into the users table
-        final ResultStatus<UpdateItemData> updatedUsersTableResult = this.updateUserChoiceRatingsHandler
-            .handle(activeUser, categoryId, userRatings, false,
-                categoryName, true);
+        final ResultStatus<List<UpdateItemData>> updatedUsersTableResult =
+            this.updateUserChoiceRatingsHandler
+                .handle(activeUser, categoryId, userRatings, false, categoryName, true);
 
         if (updatedUsersTableResult.success) {
           final List<TransactWriteItem> actions = new ArrayList<>();
 
-          actions.add(new TransactWriteItem().withUpdate(updatedUsersTableResult.data.asUpdate()));
+          for (final UpdateItemData updateItemData : updatedUsersTableResult.data) {
+            actions.add(new TransactWriteItem().withUpdate(updateItemData.asUpdate()));
+          }
           actions.add(new TransactWriteItem()
-              .withPut(new Put().withTableName(DbAccessManager.CATEGORIES_TABLE_NAME).withItem(
-                  AttributeValueUtils.convertMapToAttributeValueMap(newCategory.asMap()))));
+              .withPut(new Put().withTableName(DbAccessManager.CATEGORIES_TABLE_NAME)
+                  .withItem(AttributeValueCodec.encodeMap(newCategory.asMap()))));
 
           this.dbAccessManager.executeWriteTransaction(actions);
 
@@ -5,6 +5,7 @@ import static utilities.Config.MAX_DURATION;
 import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.util.Collections;
 import java.util.Map;
@@ -12,6 +13,7 @@ import java.util.Optional;
 import java.util.UUID;
 import javax.inject.Inject;
 import managers.DbAccessManager;
+import managers.NotificationBatch;
 import managers.SnsAccessManager;
 import models.Category;
 import models.Event;
@@ -21,6 +23,7 @@ import models.GroupForApiResponse;
 import models.Metadata;
 import models.User;
 import utilities.ErrorDescriptor;
+import utilities.FanOutExecutor;
 import utilities.JsonUtils;
 import utilities.Metrics;
 import utilities.ResultStatus;
@@ -34,16 +37,19 @@ public class NewEventHandler implements ApiRequestHandler {
   private final SnsAccessManager snsAccessManager;
   private final AddPendingEventHandler addPendingEventHandler;
   private final ProcessPendingEventHandler processPendingEventHandler;
+  private final FanOutExecutor fanOutExecutor;
   private final Metrics metrics;
 
   @Inject
   public NewEventHandler(final DbAccessManager dbAccessManager,
       final SnsAccessManager snsAccessManager, final AddPendingEventHandler addPendingEventHandler,
-      final ProcessPendingEventHandler processPendingEventHandler, final Metrics metrics) {
+      final ProcessPendingEventHandler processPendingEventHandler,
+      final FanOutExecutor fanOutExecutor, final Metrics metrics) {
     this.dbAccessManager = dbAccessManager;
     this.snsAccessManager = snsAccessManager;
     this.addPendingEventHandler = addPendingEventHandler;
     this.processPendingEventHandler = processPendingEventHandler;
+    this.fanOutExecutor = fanOutExecutor;
     this.metrics = metrics;
   }
 
@@ -72,7 +78,7 @@ public class NewEventHandler implements ApiRequestHandler {
     ResultStatus resultStatus;
 
     try {
-      final Group oldGroup = this.dbAccessManager.getGroup(groupId);
+      final Group oldGroup = this.dbAccessManager.getGroupNoCache(groupId);
       final String eventId = UUID.randomUUID().toString();
 
       //we use the 'WithCategoryChoices' variant so that if we need to save the snapshot of the
@@ -84,7 +90,8 @@ public class NewEventHandler implements ApiRequestHandler {
       newEvent.setEventStartDateTime(eventStartDateTime);
       newEvent.setUtcEventStartSeconds(utcStartSeconds);
 
-      final User eventCreator = this.dbAccessManager.getUser(activeUser);
+      final User eventCreator = this.dbAccessManager
+          .getUserAttributes(activeUser, ImmutableList.of(User.DISPLAY_NAME, User.ICON));
       newEvent.setEventCreator(ImmutableMap.of(activeUser, eventCreator.asMember()));
 
       final Optional<String> errorMessage = this.newEventInputIsValid(oldGroup, newEvent);
@@ -106,11 +113,13 @@ public class NewEventHandler implements ApiRequestHandler {
         final ValueMap valueMap = new ValueMap().withString(":lastActivity", lastActivity);
 
         //if skipping rsvp -> only need to store the event map (don't need category choices)
+        final Map<String, Object> eventMap;
         if (newEvent.getRsvpDuration() > 0) {
-          valueMap.withMap(":map", newEvent.asMap());
+          eventMap = newEvent.asMap();
         } else {
-          valueMap.withMap(":map", newEvent.asEventMap());
+          eventMap = newEvent.asEventMap();
         }
+        valueMap.withMap(":map", eventMap);
 
         final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
             .withNameMap(nameMap)
@@ -119,6 +128,10 @@ public class NewEventHandler implements ApiRequestHandler {
 
         this.dbAccessManager.updateGroup(groupId, updateItemSpec);
 
+        if (this.dbAccessManager.writesEventsTable()) {
+          this.dbAccessManager.putEvent(groupId, eventId, eventMap);
+        }
+
         //Hope it works, we aren't using transactions yet (that's why nothing done with result).
         if (newEvent.getRsvpDuration() > 0) {
           //TODO make this a transaction
@@ -215,34 +228,34 @@ public class NewEventHandler implements ApiRequestHandler {
     final ValueMap valueMap = new ValueMap().withBoolean(":true", true)
         .withString(":lastActivity", newGroup.getLastActivity());
 
-    final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-        .withUpdateExpression(updateExpression)
-        .withValueMap(valueMap)
-        .withNameMap(nameMap);
+    //each user gets their own spec since updateUser sets the user's key on it
+    final Map<String, Exception> failures = this.fanOutExecutor
+        .forEach(newGroup.getMembers().keySet(), (username) -> {
+          if (!username.equals(newEventCreator)) {
+            this.dbAccessManager.updateUser(username, new UpdateItemSpec()
+                .withUpdateExpression(updateExpression)
+                .withValueMap(valueMap)
+                .withNameMap(nameMap));
+          } else {
+            // the username is the event creator -> we should only update the last activity
+            final String updateExpressionEventCreator =
+                "set " + User.GROUPS + ".#groupId." + Group.LAST_ACTIVITY + " = :lastActivity";
+            final ValueMap valueMapEventCreator = new ValueMap()
+                .withString(":lastActivity", newGroup.getLastActivity());
+            final NameMap nameMapEventCreator = new NameMap()
+                .with("#groupId", newGroup.getGroupId());
+            final UpdateItemSpec updateItemSpecEventCreator = new UpdateItemSpec()
+                .withUpdateExpression(updateExpressionEventCreator)
+                .withValueMap(valueMapEventCreator)
+                .withNameMap(nameMapEventCreator);
+
+            this.dbAccessManager.updateUser(username, updateItemSpecEventCreator);
+          }
+        }, this.metrics);
 
-    for (final String username : newGroup.getMembers().keySet()) {
-      try {
-        if (!username.equals(newEventCreator)) {
-          this.dbAccessManager.updateUser(username, updateItemSpec);
-        } else {
-          // the username is the event creator -> we should only update the last activity
-          final String updateExpressionEventCreator =
-              "set " + User.GROUPS + ".#groupId." + Group.LAST_ACTIVITY + " = :lastActivity";
-          final ValueMap valueMapEventCreator = new ValueMap()
-              .withString(":lastActivity", newGroup.getLastActivity());
-          final NameMap nameMapEventCreator = new NameMap()
-              .with("#groupId", newGroup.getGroupId());
-          final UpdateItemSpec updateItemSpecEventCreator = new UpdateItemSpec()
-              .withUpdateExpression(updateExpressionEventCreator)
-              .withValueMap(valueMapEventCreator)
-              .withNameMap(nameMapEventCreator);
-
-          this.dbAccessManager.updateUser(username, updateItemSpecEventCreator);
-        }
-      } catch (final Exception e) {
-        success = false;
-        this.metrics.log(new ErrorDescriptor<>(username, classMethod, e));
-      }
+    for (final Map.Entry<String, Exception> failure : failures.entrySet()) {
+      success = false;
+      this.metrics.log(new ErrorDescriptor<>(failure.getKey(), classMethod, failure.getValue()));
     }
 
     //blind send...
@@ -287,12 +300,15 @@ public class NewEventHandler implements ApiRequestHandler {
     } // else the event was indeed just created without skips
 
     final Metadata metadata = new Metadata(action, payload);
+    final NotificationBatch notificationBatch = this.snsAccessManager.newNotificationBatch();
 
     for (String username : group.getMembers().keySet()) {
       //for new events the creator doesn't need to be alerted that an event was created.
       if (!username.equals(updatedEventCreator)) {
         try {
-          final User user = this.dbAccessManager.getUser(username);
+          final User user = this.dbAccessManager.getUserAttributes(username, ImmutableList
+              .of(User.PUSH_ENDPOINT_ARN, User.APP_SETTINGS,
+                  User.GROUPS + "." + group.getGroupId()));
 
           if (user.pushEndpointArnIsSet()) {
             //each user needs to know how many events they haven't seen for the given group now
@@ -301,11 +317,11 @@ public class NewEventHandler implements ApiRequestHandler {
 
             if (user.getAppSettings().isMuted() || user.getGroups().get(group.getGroupId())
                 .isMuted()) {
-              this.snsAccessManager.sendMutedMessage(user.getPushEndpointArn(), metadata);
+              notificationBatch.sendMutedMessage(username, user.getPushEndpointArn(), metadata);
             } else {
-              this.snsAccessManager
-                  .sendMessage(user.getPushEndpointArn(), eventChangeTitle, eventChangeBody,
-                      eventId, metadata);
+              notificationBatch
+                  .sendMessage(username, user.getPushEndpointArn(), eventChangeTitle,
+                      eventChangeBody, eventId, metadata);
             }
           }
         } catch (Exception e) {
@@ -315,6 +331,10 @@ public class NewEventHandler implements ApiRequestHandler {
       }
     }
 
+    if (!notificationBatch.awaitCompletion(classMethod, this.metrics)) {
+      success = false;
+    }
+
     this.metrics.commonClose(success);
   }
 }
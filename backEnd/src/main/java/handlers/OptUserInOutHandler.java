@@ -3,6 +3,7 @@ package handlers;
 import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import com.google.common.collect.ImmutableList;
 import javax.inject.Inject;
 import managers.DbAccessManager;
 import models.Event;
@@ -41,10 +42,11 @@ public class OptUserInOutHandler implements ApiRequestHandler {
     ResultStatus resultStatus;
 
     try {
-      final User user = this.dbAccessManager.getUser(activeUser);
+      final User user = this.dbAccessManager.getUserAttributes(activeUser,
+          ImmutableList.of(User.GROUPS + "." + groupId, User.DISPLAY_NAME, User.ICON));
 
       //only allow the user to opt in/out if they're a member of the group
-      if (user.getGroups().containsKey(groupId)) {
+      if (user.getGroups() != null && user.getGroups().containsKey(groupId)) {
         String updateExpression;
         ValueMap valueMap = null;
 
@@ -69,6 +71,15 @@ public class OptUserInOutHandler implements ApiRequestHandler {
 
         this.dbAccessManager.updateGroup(groupId, updateItemSpec);
 
+        if (this.dbAccessManager.writesEventsTable()) {
+          //the events table item is the event itself, so the update is the same minus the prefix
+          this.dbAccessManager.updateEvent(groupId, eventId, new UpdateItemSpec()
+              .withUpdateExpression(
+                  updateExpression.replace(Group.EVENTS + ".#eventId.", ""))
+              .withNameMap(new NameMap().with("#username", activeUser))
+              .withValueMap(valueMap));
+        }
+
         resultStatus = ResultStatus.successful("Opted in/out successfully");
       } else {
         this.metrics.logWithBody(new WarningDescriptor<>(classMethod, "User not in group"));
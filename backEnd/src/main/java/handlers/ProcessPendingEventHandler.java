@@ -5,7 +5,9 @@ import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -13,17 +15,21 @@ import java.util.Random;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import managers.DbAccessManager;
+import managers.NotificationBatch;
 import managers.SnsAccessManager;
 import models.Category;
 import models.Event;
+import models.EventForSorting;
 import models.EventWithCategoryChoices;
 import models.Group;
 import models.GroupWithCategoryChoices;
 import models.Metadata;
 import models.User;
 import utilities.ErrorDescriptor;
+import utilities.FanOutExecutor;
 import utilities.Metrics;
 import utilities.NondeterministicOptimalChoiceSelector;
+import utilities.PendingEventPartitioner;
 import utilities.RequestFields;
 import utilities.ResultStatus;
 import utilities.WarningDescriptor;
@@ -35,15 +41,17 @@ public class ProcessPendingEventHandler {
   private DbAccessManager dbAccessManager;
   private SnsAccessManager snsAccessManager;
   private AddPendingEventHandler addPendingEventHandler;
+  private FanOutExecutor fanOutExecutor;
   private Metrics metrics;
 
   @Inject
   public ProcessPendingEventHandler(final DbAccessManager dbAccessManager,
       final SnsAccessManager snsAccessManager, final AddPendingEventHandler addPendingEventHandler,
-      final Metrics metrics) {
+      final FanOutExecutor fanOutExecutor, final Metrics metrics) {
     this.dbAccessManager = dbAccessManager;
     this.snsAccessManager = snsAccessManager;
     this.addPendingEventHandler = addPendingEventHandler;
+    this.fanOutExecutor = fanOutExecutor;
     this.metrics = metrics;
   }
 
@@ -58,65 +66,95 @@ public class ProcessPendingEventHandler {
    * @return Standard result status object giving insight on whether the request was successful.
    */
   public ResultStatus handle(final String groupId, final String eventId, String scannerId) {
+    return this.handle(groupId, Collections.singletonList(eventId), scannerId);
+  }
+
+  /**
+   * This function handles taking a batch of a group's pending events and moving each of them to
+   * the next level. The group and its members are read once for the whole batch, the group item is
+   * written once, each member is written once and all of the notifications are sent together.
+   *
+   * @param groupId   The group id of the events that need to be processed.
+   * @param eventIds  The ids of the events that need to be processed.
+   * @param scannerId The partition that the pending events exist within. If this is null then this
+   *                  processing is being done for a brand new event.
+   * @return Standard result status object giving insight on whether the request was successful.
+   */
+  public ResultStatus handle(final String groupId, final List<String> eventIds,
+      final String scannerId) {
     final String classMethod = "ProcessPendingEventHandler.handle";
     this.metrics.commonSetup(classMethod);
 
-    ResultStatus resultStatus;
+    //assume success, we'll set to fail if anything goes wrong
+    ResultStatus resultStatus = ResultStatus.successful("Pending events processed successfully");
 
     try {
       final Boolean isNewEvent = (scannerId == null);
 
-      final Item groupData = this.dbAccessManager.getGroupItem(groupId);
+      final Item groupData = this.dbAccessManager.getGroupItemNoCache(groupId);
       if (groupData != null) { // if null, assume the group was deleted
         final GroupWithCategoryChoices group = new GroupWithCategoryChoices(groupData.asMap());
-        final EventWithCategoryChoices event = group.getEventsWithCategoryChoices().get(eventId);
-        final Event updatedEvent = event.clone();
-
-        //first, set whatever needs to be set on the pending event
-        if (event.getTentativeAlgorithmChoices().isEmpty()) {
-          //we need to set the tentative choices
-          final Map<String, String> tentativeChoices;
-          if (event.getVotingDuration() > 0) {
-            tentativeChoices = this.getTentativeAlgorithmChoices(event, 3);
+
+        //first, set whatever needs to be set on each pending event
+        final Map<String, Event> updatedEvents = new LinkedHashMap<>();
+        final List<String> noLongerPendingEventIds = new ArrayList<>();
+        for (final String eventId : eventIds) {
+          final EventWithCategoryChoices event = group.getEventsWithCategoryChoices().get(eventId);
+          if (event != null) {
+            updatedEvents.put(eventId, this.getUpdatedEvent(event));
           } else {
-            //skipping voting, we also need to set the selected choice
-            tentativeChoices = this.getTentativeAlgorithmChoices(event, 1);
-            updatedEvent.setSelectedChoice(tentativeChoices.values().toArray()[0].toString());
+            noLongerPendingEventIds.add(eventId); // nothing to process, stop it from pending
+            this.metrics.log(new WarningDescriptor<>(eventId, classMethod, "Event not found."));
           }
-
-          updatedEvent.setTentativeAlgorithmChoices(tentativeChoices);
-        } else {
-          //we need to set the selected choice as the one with the highest percent
-          updatedEvent.setSelectedChoice(this.getSelectedChoice(event));
         }
 
-        //update the event with whatever got added to it
-        this.updateEvent(group, eventId, updatedEvent, isNewEvent);
+        //update the events with whatever got added to them
+        ResultStatus updateEventsResult = ResultStatus.successful("Nothing to update");
+        if (!updatedEvents.isEmpty()) {
+          updateEventsResult = this.updateEvents(group, updatedEvents, isNewEvent);
+        }
 
-        if (updatedEvent.getSelectedChoice() == null) {
-          //if this event is still pending, add it back into the pending events table
-          final ResultStatus updatePendingEvent = this.addPendingEventHandler
-              .handle(groupId, eventId, event.getVotingDuration());
-          if (updatePendingEvent.success) {
-            resultStatus = ResultStatus.successful("Event updated successfully");
-          } else {
-            resultStatus = ResultStatus
-                .failure("Error updating pending event mapping with voting duration");
+        if (updateEventsResult.success) {
+          for (final Map.Entry<String, Event> updatedEventEntry : updatedEvents.entrySet()) {
+            final Event updatedEvent = updatedEventEntry.getValue();
+            if (updatedEvent.getSelectedChoice() == null) {
+              //if this event is still pending, add it back into the pending events table
+              final ResultStatus updatePendingEvent = this.addPendingEventHandler
+                  .handle(groupId, updatedEventEntry.getKey(), updatedEvent.getVotingDuration());
+              if (!updatePendingEvent.success) {
+                resultStatus = ResultStatus
+                    .failure("Error updating pending event mapping with voting duration");
+              } else if (!isNewEvent && !PendingEventPartitioner
+                  .getPartitionKey(groupId, updatedEventEntry.getKey()).equals(scannerId)) {
+                //the number of partitions changed, the event moved out of this partition
+                noLongerPendingEventIds.add(updatedEventEntry.getKey());
+              }
+            } else {
+              noLongerPendingEventIds.add(updatedEventEntry.getKey());
+            }
           }
-        } else {
-          //event finalized -> remove entry from the pending events table if it was ever put there
+
+          //events finalized -> remove entries from the pending events table if they were put there
           if (!isNewEvent) {
-            final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-                .withUpdateExpression("remove #groupEventKey")
-                .withNameMap(new NameMap()
-                    .with("#groupEventKey", groupId + DbAccessManager.DELIM + eventId));
+            if (!noLongerPendingEventIds.isEmpty()) {
+              this.dbAccessManager.deletePendingEvents(Collections.singletonList(scannerId),
+                  groupId, noLongerPendingEventIds);
+            }
 
-            this.dbAccessManager.updatePendingEvent(scannerId, updateItemSpec);
+            this.removeLegacyPendingEvents(groupId, eventIds, scannerId);
           }
-
-          resultStatus = ResultStatus.successful("Pending event finalized successfully");
+        } else {
+          //leave the pending entries alone so that the scanner picks this batch up again
+          resultStatus = ResultStatus.failure("Error updating pending events.");
         }
       } else {
+        //the group was deleted, its events shouldn't be picked up again
+        if (!isNewEvent) {
+          this.dbAccessManager
+              .deletePendingEvents(Collections.singletonList(scannerId), groupId, eventIds);
+          this.removeLegacyPendingEvents(groupId, eventIds, scannerId);
+        }
+
         resultStatus = ResultStatus.failure("Error: Group data not found.");
         this.metrics.logWithBody(new WarningDescriptor<>(classMethod, "Group data not found."));
       }
@@ -129,6 +167,58 @@ public class ProcessPendingEventHandler {
     return resultStatus;
   }
 
+  /**
+   * @param event The pending event to move to the next level.
+   * @return A copy of the event with either its tentative choices or its selected choice set.
+   */
+  private Event getUpdatedEvent(final EventWithCategoryChoices event) {
+    final Event updatedEvent = event.clone();
+
+    if (event.getTentativeAlgorithmChoices().isEmpty()) {
+      //we need to set the tentative choices
+      final Map<String, String> tentativeChoices;
+      if (event.getVotingDuration() > 0) {
+        tentativeChoices = this.getTentativeAlgorithmChoices(event, 3);
+      } else {
+        //skipping voting, we also need to set the selected choice
+        tentativeChoices = this.getTentativeAlgorithmChoices(event, 1);
+        updatedEvent.setSelectedChoice(tentativeChoices.values().toArray()[0].toString());
+      }
+
+      updatedEvent.setTentativeAlgorithmChoices(tentativeChoices);
+    } else {
+      //we need to set the selected choice as the one with the highest percent
+      updatedEvent.setSelectedChoice(this.getSelectedChoice(event));
+    }
+
+    return updatedEvent;
+  }
+
+  /**
+   * Events that were pending before pending events became their own items are still stored as
+   * attributes on the partition's item. This removes those attributes if they are there so that
+   * the scanner doesn't pick the events up again.
+   *
+   * @param groupId   The group that the pending events belong to.
+   * @param eventIds  The events that were pending.
+   * @param scannerId The partition the events were pending in.
+   */
+  private void removeLegacyPendingEvents(final String groupId, final List<String> eventIds,
+      final String scannerId) {
+    final NameMap nameMap = new NameMap();
+    final List<String> removeStatements = new ArrayList<>();
+    for (int i = 0; i < eventIds.size(); i++) {
+      removeStatements.add("#groupEventKey" + i);
+      nameMap.with("#groupEventKey" + i, groupId + DbAccessManager.DELIM + eventIds.get(i));
+    }
+
+    final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
+        .withUpdateExpression("remove " + String.join(", ", removeStatements))
+        .withNameMap(nameMap);
+
+    this.dbAccessManager.updatePendingEvent(scannerId, updateItemSpec);
+  }
+
   /**
    * This method handles getting the top N choices for an event based on the considered users'
    * category choice ratings.
@@ -154,13 +244,12 @@ public class ProcessPendingEventHandler {
         event.setCategoryChoices(category.getChoices());
       }
 
-      final List<User> optedInUsers = new ArrayList<>();
-      for (String username : event.getOptedIn().keySet()) {
-        optedInUsers.add(this.dbAccessManager.getUser(username));
-      }
+      //only the opted in users' ratings for this one category are needed
+      final Map<String, Map<String, Integer>> optedInRatings = this.dbAccessManager
+          .getCategoryRatings(categoryId, event.getOptedIn().keySet());
 
       final NondeterministicOptimalChoiceSelector nondeterministicOptimalChoiceSelector =
-          new NondeterministicOptimalChoiceSelector(event, optedInUsers, metrics);
+          new NondeterministicOptimalChoiceSelector(event, optedInRatings, metrics);
       nondeterministicOptimalChoiceSelector.crunch(K);
       returnValue = nondeterministicOptimalChoiceSelector.getTopXChoices(numberOfChoices);
     } catch (Exception e) {
@@ -217,82 +306,120 @@ public class ProcessPendingEventHandler {
   }
 
   /**
-   * This method handles updating an event in a group. It does this by taking in the old group
-   * definition and the updated event and it compares what was on the group to what is being put on
-   * the group. In this way, it can know what was updated and it can know what data needs to be
-   * denormalized to the users table.
+   * This method handles updating events in a group. It does this by taking in the old group
+   * definition and the updated events and it compares what was on the group to what is being put
+   * on the group. In this way, it can know what was updated and it can know what data needs to be
+   * denormalized to the users table. All of the events are written to the group in one update.
    *
-   * @param oldGroup     The group object before the event was updated.
-   * @param eventId      The id of the event that was update.
-   * @param updatedEvent The event object with the updates registered.
-   * @param isNewEvent   Is this update for a new event or for one that has been pending for some
-   *                     duration?
+   * @param oldGroup      The group object before the events were updated.
+   * @param updatedEvents The event objects with the updates registered, keyed by event id.
+   * @param isNewEvent    Is this update for a new event or for ones that have been pending for
+   *                      some duration?
    * @return Standard result status object giving insight on whether the request was successful.
    */
-  private ResultStatus updateEvent(final Group oldGroup, final String eventId,
-      final Event updatedEvent, final Boolean isNewEvent) {
-    final String classMethod = "ProcessPendingEventHandler.updateEvent";
+  private ResultStatus updateEvents(final Group oldGroup, final Map<String, Event> updatedEvents,
+      final Boolean isNewEvent) {
+    final String classMethod = "ProcessPendingEventHandler.updateEvents";
     this.metrics.commonSetup(classMethod);
 
     ResultStatus resultStatus = new ResultStatus();
 
     try {
-      final Event oldEvent = oldGroup.getEvents().get(eventId);
-
       final String lastActivity = this.dbAccessManager.now();
 
-      String updateExpression = "set " + Group.LAST_ACTIVITY + " = :currentDate";
-      ValueMap valueMap = new ValueMap().withString(":currentDate", lastActivity);
-      NameMap nameMap = new NameMap();
+      final List<String> setStatements = new ArrayList<>();
+      final List<String> removeStatements = new ArrayList<>();
+      setStatements.add(Group.LAST_ACTIVITY + " = :currentDate");
+      final ValueMap valueMap = new ValueMap().withString(":currentDate", lastActivity);
+      final NameMap nameMap = new NameMap();
+
+      //the same statements without the group item prefix, for mirroring to the events table
+      final Map<String, List<String>> eventSetStatements = new HashMap<>();
+      final Map<String, ValueMap> eventValueMaps = new HashMap<>();
+
+      int i = 0;
+      for (final Map.Entry<String, Event> updatedEventEntry : updatedEvents.entrySet()) {
+        final String eventId = updatedEventEntry.getKey();
+        final Event oldEvent = oldGroup.getEvents().get(eventId);
+        final Event updatedEvent = updatedEventEntry.getValue();
+
+        final List<String> setStatementsForEvent = new ArrayList<>();
+        final ValueMap valueMapForEvent = new ValueMap();
+
+        //set all of the update statements
+        if (oldEvent.getTentativeAlgorithmChoices().isEmpty()) {
+          //if the old event did not have tentative choices set, it must have be getting them
+          if (updatedEvent.getTentativeAlgorithmChoices().isEmpty()) {
+            throw new Exception("Empty tentative choices must be filled!");
+          }
 
-      //set all of the update statements
-      if (oldEvent.getTentativeAlgorithmChoices().isEmpty()) {
-        //if the old event did not have tentative choices set, it must have be getting them
-        if (updatedEvent.getTentativeAlgorithmChoices().isEmpty()) {
-          throw new Exception("Empty tentative choices must be filled!");
+          setStatementsForEvent.add(Event.TENTATIVE_CHOICES + " = :tentativeChoices" + i);
+          setStatementsForEvent.add(Event.VOTING_NUMBERS + " = :votingNumbers" + i);
+          valueMapForEvent
+              .withMap(":tentativeChoices" + i, updatedEvent.getTentativeAlgorithmChoices())
+              .withMap(":votingNumbers" + i,
+                  this.getVotingNumbersSetup(updatedEvent.getTentativeAlgorithmChoices()));
         }
 
-        updateExpression +=
-            ", " + Group.EVENTS + ".#eventId." + Event.TENTATIVE_CHOICES + " = :tentativeChoices, "
-                + Group.EVENTS + ".#eventId." + Event.VOTING_NUMBERS + " = :votingNumbers";
+        if (oldEvent.getSelectedChoice() == null && updatedEvent.getSelectedChoice() != null) {
+          setStatementsForEvent.add(Event.SELECTED_CHOICE + " = :selectedChoice" + i);
+          valueMapForEvent.withString(":selectedChoice" + i, updatedEvent.getSelectedChoice());
+        }
+        //end setting update statements
 
-        nameMap.with("#eventId", eventId);
-        valueMap.withMap(":tentativeChoices", updatedEvent.getTentativeAlgorithmChoices())
-            .withMap(":votingNumbers",
-                this.getVotingNumbersSetup(updatedEvent.getTentativeAlgorithmChoices()));
-      }
+        if (setStatementsForEvent.isEmpty()) {
+          // this method shouldn't get called if there is nothing to update
+          throw new Exception("Nothing to update for event " + eventId);
+        }
 
-      if (oldEvent.getSelectedChoice() == null && updatedEvent.getSelectedChoice() != null) {
-        updateExpression +=
-            ", " + Group.EVENTS + ".#eventId." + Event.SELECTED_CHOICE + " = :selectedChoice";
-        nameMap.with("#eventId", eventId);
-        valueMap.withString(":selectedChoice", updatedEvent.getSelectedChoice());
-      }
-      //end setting update statements
+        final String eventPath = Group.EVENTS + ".#eventId" + i + ".";
+        nameMap.with("#eventId" + i, eventId);
+        valueMap.putAll(valueMapForEvent);
+        for (final String setStatement : setStatementsForEvent) {
+          setStatements.add(eventPath + setStatement);
+        }
 
-      if (nameMap.containsKey("#eventId")) {
         //after any update, the event is not longer in consider and the choices are not needed!
-        updateExpression += " remove " + Group.EVENTS + ".#eventId." + Category.CHOICES;
+        removeStatements.add(eventPath + Category.CHOICES);
 
-        final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-            .withUpdateExpression(updateExpression)
-            .withNameMap(nameMap)
-            .withValueMap(valueMap);
+        eventSetStatements.put(eventId, setStatementsForEvent);
+        eventValueMaps.put(eventId, valueMapForEvent);
+        i++;
+      }
 
-        this.dbAccessManager.updateGroup(oldGroup.getGroupId(), updateItemSpec);
+      final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
+          .withUpdateExpression("set " + String.join(", ", setStatements) + " remove " + String
+              .join(", ", removeStatements))
+          .withNameMap(nameMap)
+          .withValueMap(valueMap);
 
-        final Group newGroup = oldGroup.clone();
-        newGroup.setLastActivity(lastActivity);
-        newGroup.getEvents().put(eventId, updatedEvent);
+      this.dbAccessManager.updateGroup(oldGroup.getGroupId(), updateItemSpec);
 
-        //the event has been updated on the group, update the user-groups now
-        this.updateUsersTable(newGroup, eventId, isNewEvent);
+      if (this.dbAccessManager.writesEventsTable()) {
+        for (final Map.Entry<String, Event> updatedEventEntry : updatedEvents.entrySet()) {
+          final String eventId = updatedEventEntry.getKey();
 
-        resultStatus = new ResultStatus(true, "Event updated successfully.");
-      } else {
-        // this method shouldn't get called if there is nothing to update
-        throw new Exception("Nothing to update");
+          //the event changed priority buckets so its sort key has to move with it
+          eventSetStatements.get(eventId)
+              .add(DbAccessManager.PRIORITY_SORT_KEY + " = :prioritySortKey");
+          eventValueMaps.get(eventId).withString(":prioritySortKey",
+              EventForSorting.getPrioritySortKey(eventId, updatedEventEntry.getValue()));
+
+          this.dbAccessManager.updateEvent(oldGroup.getGroupId(), eventId, new UpdateItemSpec()
+              .withUpdateExpression("set " + String.join(", ", eventSetStatements.get(eventId))
+                  + " remove " + Category.CHOICES)
+              .withValueMap(eventValueMaps.get(eventId)));
+        }
       }
+
+      final Group newGroup = oldGroup.clone();
+      newGroup.setLastActivity(lastActivity);
+      newGroup.getEvents().putAll(updatedEvents);
+
+      //the events have been updated on the group, update the user-groups now
+      this.updateUsersTable(newGroup, new ArrayList<>(updatedEvents.keySet()), isNewEvent);
+
+      resultStatus = new ResultStatus(true, "Events updated successfully.");
     } catch (final Exception e) {
       this.metrics.log(new ErrorDescriptor<>(oldGroup.asMap(), classMethod, e));
       resultStatus.resultMessage = "Exception in " + classMethod;
@@ -303,134 +430,143 @@ public class ProcessPendingEventHandler {
   }
 
   /**
-   * This method updates user items based on the changed definition of a group
+   * This method updates user items based on the changed definition of a group. Each member gets a
+   * single update no matter how many of the group's events changed.
    *
-   * @param newGroup       The new group definition after the update.
-   * @param updatedEventId This is the event id of an event that just changed states. Null means
-   *                       this isn't being called from an event update.
-   * @param isNewEvent     Boolean on whether or not this is a brand new event being processed.
+   * @param newGroup        The new group definition after the update.
+   * @param updatedEventIds These are the ids of the events that just changed states.
+   * @param isNewEvent      Boolean on whether or not this is a brand new event being processed.
    */
-  private void updateUsersTable(final Group newGroup, final String updatedEventId,
+  private void updateUsersTable(final Group newGroup, final List<String> updatedEventIds,
       final Boolean isNewEvent) {
     final String classMethod = "ProcessPendingEventHandler.updateUsersTable";
     this.metrics.commonSetup(classMethod);
 
     boolean success = true;
 
-    final String newEventCreator = newGroup.getEvents().get(updatedEventId)
-        .getEventCreatorUsername();
-
-    final String updateExpression =
-        "set " + User.GROUPS + ".#groupId." + Group.LAST_ACTIVITY + " = :lastActivity, "
-            + User.GROUPS + ".#groupId." + User.EVENTS_UNSEEN + ".#eventId = :true";
-    final NameMap nameMap = new NameMap().with("#groupId", newGroup.getGroupId())
-        .with("#eventId", updatedEventId);
-    final ValueMap valueMap = new ValueMap()
-        .withString(":lastActivity", newGroup.getLastActivity())
-        .withBoolean(":true", true);
-    final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-        .withUpdateExpression(updateExpression)
-        .withValueMap(valueMap)
-        .withNameMap(nameMap);
-
-    for (final String username : newGroup.getMembers().keySet()) {
-      try {
-        if (!isNewEvent || !username.equals(newEventCreator)) {
-          this.dbAccessManager.updateUser(username, updateItemSpec);
-        } else { // This must be a new event because boolean logic
-          // this means the username is the event creator, we should only update the last activity
-          final String updateExpressionEventCreator =
+    //each user gets their own spec since updateUser sets the user's key on it
+    final Map<String, Exception> failures = this.fanOutExecutor
+        .forEach(newGroup.getMembers().keySet(), (username) -> {
+          String updateExpression =
               "set " + User.GROUPS + ".#groupId." + Group.LAST_ACTIVITY + " = :lastActivity";
-          final ValueMap valueMapEventCreator = new ValueMap()
+          final NameMap nameMap = new NameMap().with("#groupId", newGroup.getGroupId());
+          final ValueMap valueMap = new ValueMap()
               .withString(":lastActivity", newGroup.getLastActivity());
-          final NameMap nameMapEventCreator = new NameMap()
-              .with("#groupId", newGroup.getGroupId());
-          final UpdateItemSpec updateItemSpecEventCreator = new UpdateItemSpec()
-              .withUpdateExpression(updateExpressionEventCreator)
-              .withValueMap(valueMapEventCreator)
-              .withNameMap(nameMapEventCreator);
-
-          this.dbAccessManager.updateUser(username, updateItemSpecEventCreator);
-        }
-      } catch (final Exception e) {
-        success = false;
-        metrics.log(new ErrorDescriptor<>(username, classMethod, e));
-      }
+
+          for (int i = 0; i < updatedEventIds.size(); i++) {
+            final String eventId = updatedEventIds.get(i);
+
+            //the creator of a new event has already seen it, they only get the last activity
+            if (!isNewEvent || !username
+                .equals(newGroup.getEvents().get(eventId).getEventCreatorUsername())) {
+              updateExpression += ", " + User.GROUPS + ".#groupId." + User.EVENTS_UNSEEN
+                  + ".#eventId" + i + " = :true";
+              nameMap.with("#eventId" + i, eventId);
+              valueMap.withBoolean(":true", true);
+            }
+          }
+
+          this.dbAccessManager.updateUser(username, new UpdateItemSpec()
+              .withUpdateExpression(updateExpression)
+              .withValueMap(valueMap)
+              .withNameMap(nameMap));
+        }, this.metrics);
+
+    for (final Entry<String, Exception> failure : failures.entrySet()) {
+      success = false;
+      this.metrics.log(new ErrorDescriptor<>(failure.getKey(), classMethod, failure.getValue()));
     }
 
     //blind send push notifications to the user's that just had their items updated
-    this.sendEventUpdatedNotification(newGroup, updatedEventId, isNewEvent);
+    this.sendEventUpdatedNotifications(newGroup, updatedEventIds, isNewEvent);
 
     this.metrics.commonClose(success);
   }
 
-  private void sendEventUpdatedNotification(final Group group, final String eventId,
+  private void sendEventUpdatedNotifications(final Group group, final List<String> eventIds,
       final Boolean isNewEvent) {
-    final String classMethod = "ProcessPendingEventHandler.sendEventUpdatedNotification";
+    final String classMethod = "ProcessPendingEventHandler.sendEventUpdatedNotifications";
     this.metrics.commonSetup(classMethod);
 
     boolean success = true;
 
-    final Event updatedEvent = group.getEvents().get(eventId);
-    final String updatedEventCreator = updatedEvent.getEventCreatorUsername();
-
-    final Map<String, Object> payload = updatedEvent.asMap();
-    payload.putIfAbsent(Group.GROUP_ID, group.getGroupId());
-    payload.putIfAbsent(Group.GROUP_NAME, group.getGroupName());
-    payload.putIfAbsent(Group.LAST_ACTIVITY, group.getLastActivity());
-
-    String action = "eventCreated";
-
-    String eventChangeTitle = "Event in '" + group.getGroupName() + "'";
-
-    //assume the event just got created - this can't be true otherwise we wouldn't hit this flow
-    String eventChangeBody =
-        "'" + updatedEvent.getEventName() + "' created by: " + updatedEvent
-            .getEventCreatorDisplayName();
-
-    if (updatedEvent.getSelectedChoice() != null) {
-      //we just transitioned to a having a selected choice -> stage: occurring
-      action = "eventChosen";
-      eventChangeBody = String
-          .format("'%s' - '%s' Won!", updatedEvent.getEventName(),
-              updatedEvent.getSelectedChoice());
-    } else if (!updatedEvent.getTentativeAlgorithmChoices().isEmpty()) {
-      //we just transitioned to getting tentative choices -> stage: voting
-      action = "eventVoting";
-      eventChangeBody = "Vote for '" + updatedEvent.getEventName() + "'";
-    } // else the event was indeed just created
-
-    final Metadata metadata = new Metadata(action, payload);
-
-    for (String username : group.getMembers().keySet()) {
-      //if it's a new event, the event creator doesn't need a notification
-      if (!(isNewEvent && username.equals(updatedEventCreator))) {
-        try {
-          //we aren't using cache here since the old user might have been cached before updating the
-          // users table if this processing required getting the tentative algorithm choices
-          final User user = this.dbAccessManager.getUserNoCache(username);
-
-          if (user.pushEndpointArnIsSet()) {
-            //each user needs to know how many events they haven't seen for the given group now
-            metadata.overwritePayload(User.EVENTS_UNSEEN,
-                user.getGroups().get(group.getGroupId()).getEventsUnseen().size());
-
-            if (user.getAppSettings().isMuted() || user.getGroups().get(group.getGroupId())
-                .isMuted()) {
-              this.snsAccessManager.sendMutedMessage(user.getPushEndpointArn(), metadata);
-            } else {
-              this.snsAccessManager
-                  .sendMessage(user.getPushEndpointArn(), eventChangeTitle, eventChangeBody,
-                      eventId, metadata);
+    //we aren't using cache here since the old users might have been cached before updating the
+    // users table if this processing required getting the tentative algorithm choices
+    Map<String, User> members;
+    try {
+      members = this.dbAccessManager.getUsersNoCache(group.getMembers().keySet());
+    } catch (final Exception e) {
+      members = Collections.emptyMap();
+      success = false;
+      this.metrics.log(new ErrorDescriptor<>(group.getGroupId(), classMethod, e));
+    }
+
+    final NotificationBatch notificationBatch = this.snsAccessManager.newNotificationBatch();
+
+    for (final String eventId : eventIds) {
+      final Event updatedEvent = group.getEvents().get(eventId);
+      final String updatedEventCreator = updatedEvent.getEventCreatorUsername();
+
+      final Map<String, Object> payload = updatedEvent.asMap();
+      payload.putIfAbsent(Group.GROUP_ID, group.getGroupId());
+      payload.putIfAbsent(Group.GROUP_NAME, group.getGroupName());
+      payload.putIfAbsent(Group.LAST_ACTIVITY, group.getLastActivity());
+
+      String action = "eventCreated";
+
+      String eventChangeTitle = "Event in '" + group.getGroupName() + "'";
+
+      //assume the event just got created - this can't be true otherwise we wouldn't hit this flow
+      String eventChangeBody =
+          "'" + updatedEvent.getEventName() + "' created by: " + updatedEvent
+              .getEventCreatorDisplayName();
+
+      if (updatedEvent.getSelectedChoice() != null) {
+        //we just transitioned to a having a selected choice -> stage: occurring
+        action = "eventChosen";
+        eventChangeBody = String
+            .format("'%s' - '%s' Won!", updatedEvent.getEventName(),
+                updatedEvent.getSelectedChoice());
+      } else if (!updatedEvent.getTentativeAlgorithmChoices().isEmpty()) {
+        //we just transitioned to getting tentative choices -> stage: voting
+        action = "eventVoting";
+        eventChangeBody = "Vote for '" + updatedEvent.getEventName() + "'";
+      } // else the event was indeed just created
+
+      final Metadata metadata = new Metadata(action, payload);
+
+      for (final User user : members.values()) {
+        final String username = user.getUsername();
+
+        //if it's a new event, the event creator doesn't need a notification
+        if (!(isNewEvent && username.equals(updatedEventCreator))) {
+          try {
+            if (user.pushEndpointArnIsSet()) {
+              //each user needs to know how many events they haven't seen for the given group now
+              metadata.overwritePayload(User.EVENTS_UNSEEN,
+                  user.getGroups().get(group.getGroupId()).getEventsUnseen().size());
+
+              if (user.getAppSettings().isMuted() || user.getGroups().get(group.getGroupId())
+                  .isMuted()) {
+                notificationBatch.sendMutedMessage(username, user.getPushEndpointArn(), metadata);
+              } else {
+                notificationBatch
+                    .sendMessage(username, user.getPushEndpointArn(), eventChangeTitle,
+                        eventChangeBody, eventId, metadata);
+              }
             }
+          } catch (Exception e) {
+            success = false;
+            this.metrics.log(new ErrorDescriptor<>(username, classMethod, e));
           }
-        } catch (Exception e) {
-          success = false;
-          this.metrics.log(new ErrorDescriptor<>(username, classMethod, e));
         }
       }
     }
 
+    if (!notificationBatch.awaitCompletion(classMethod, this.metrics)) {
+      success = false;
+    }
+
     this.metrics.commonClose(success);
   }
 
@@ -3,6 +3,7 @@ package handlers;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.google.common.collect.ImmutableList;
 import java.util.ArrayList;
 import java.util.List;
 import managers.DbAccessManager;
@@ -38,11 +39,12 @@ public class RejoinGroupHandler implements ApiRequestHandler {
     ResultStatus resultStatus;
 
     try {
-      final User user = this.dbAccessManager.getUser(activeUser);
-      final Group group = this.dbAccessManager.getGroup(groupId);
+      final User user = this.dbAccessManager.getUserAttributes(activeUser,
+          ImmutableList.of(User.GROUPS_LEFT + "." + groupId, User.DISPLAY_NAME, User.ICON));
+      final Group group = this.dbAccessManager.getGroupNoCache(groupId);
 
-      if (user.getGroupsLeft().containsKey(groupId) && group.getMembersLeft()
-          .containsKey(activeUser)) {
+      if (user.getGroupsLeft() != null && user.getGroupsLeft().containsKey(groupId)
+          && group.getMembersLeft().containsKey(activeUser)) {
         //remove the user from the members left and add back to the members
         final UpdateItemData groupUpdate = new UpdateItemData(groupId,
             DbAccessManager.GROUPS_TABLE_NAME)
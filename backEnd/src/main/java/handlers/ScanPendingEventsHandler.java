@@ -1,11 +1,18 @@
 package handlers;
 
+import com.amazonaws.services.dynamodbv2.document.Item;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.inject.Inject;
 import managers.DbAccessManager;
 import managers.StepFunctionManager;
@@ -17,6 +24,9 @@ import utilities.ResultStatus;
 
 public class ScanPendingEventsHandler {
 
+  //keeps each resolution's single group update expression well under dynamo's 4KB limit
+  public static final int MAX_EVENTS_PER_EXECUTION = 25;
+
   private final DbAccessManager dbAccessManager;
   private final StepFunctionManager stepFunctionManager;
   private final Metrics metrics;
@@ -32,7 +42,10 @@ public class ScanPendingEventsHandler {
   /**
    * This method is run every minute by a cron job. It looks at one of the partitions of the pending
    * events table and if there are any pending events that are ready to be processed, then it kicks
-   * off a step function process to handle that event's resolution.
+   * off a step function process to handle their resolution. Only the due events are read from the
+   * partition, ordered by when they were due. Due events in the same group are resolved together,
+   * up to MAX_EVENTS_PER_EXECUTION at a time, so that each group is only read and written once per
+   * batch.
    *
    * @param scannerId The partition of the table that this function should scan for ready events.
    * @return Standard result status object giving insight on whether the request was successful.
@@ -45,13 +58,67 @@ public class ScanPendingEventsHandler {
     ResultStatus resultStatus = ResultStatus.successful("Pending events scanned successfully");
 
     try {
-      final Map<String, Object> pendingEventsData = this.dbAccessManager.getPendingEvents(scannerId)
-          .asMap();
       final LocalDateTime currentDate = LocalDateTime.now(ZoneId.of("UTC"));
+
+      final List<String> dueGroupEventKeys = new ArrayList<>();
+      for (final Item pendingEventItem : this.dbAccessManager
+          .getDuePendingEvents(scannerId, currentDate.toEpochSecond(ZoneOffset.UTC))) {
+        dueGroupEventKeys
+            .add(pendingEventItem.getString(DbAccessManager.PENDING_EVENT_ITEMS_SORT_KEY));
+      }
+
+      dueGroupEventKeys.addAll(this.getDueLegacyPendingEvents(scannerId, currentDate));
+
+      //group id -> due event ids, keeping the order they came due in
+      final Map<String, Set<String>> dueEventIdsByGroup = new LinkedHashMap<>();
+      for (final String groupEventKey : dueGroupEventKeys) {
+        final List<String> keyPair = Arrays.asList(groupEventKey.split(DbAccessManager.DELIM));
+        if (keyPair.size() == 2) {
+          dueEventIdsByGroup.computeIfAbsent(keyPair.get(0), (k) -> new LinkedHashSet<>())
+              .add(keyPair.get(1));
+        } else {
+          this.metrics.log(
+              new ErrorDescriptor<>("scanner id: " + scannerId + ", key : " + groupEventKey,
+                  classMethod, "bad format for key in pending events table"));
+          resultStatus = ResultStatus.failure("Bad key format in pending events partition.");
+        }
+      }
+
+      for (final Map.Entry<String, Set<String>> dueEventIds : dueEventIdsByGroup.entrySet()) {
+        for (final List<String> eventIds : Lists
+            .partition(new ArrayList<>(dueEventIds.getValue()), MAX_EVENTS_PER_EXECUTION)) {
+          if (!this.startStepMachineExecution(dueEventIds.getKey(), eventIds, scannerId)) {
+            resultStatus = ResultStatus.failure("Step Function failed to start.");
+          }
+        }
+      }
+    } catch (Exception e) {
+      this.metrics.log(new ErrorDescriptor<>("scanner id: " + scannerId, classMethod, e));
+      resultStatus = ResultStatus.failure("Exception in " + classMethod);
+    }
+
+    this.metrics.commonClose(resultStatus.success);
+    return resultStatus;
+  }
+
+  /**
+   * Events that were pending before pending events became their own items are stored as
+   * 'groupId;eventId' -> resolution date attributes on the partition's item. This keeps resolving
+   * them until the partition's item has drained.
+   *
+   * @param scannerId   The partition of the table that this function should scan for ready events.
+   * @param currentDate The time to compare the resolution dates to.
+   * @return The 'groupId;eventId' keys of the legacy pending events that are due.
+   */
+  private List<String> getDueLegacyPendingEvents(final String scannerId,
+      final LocalDateTime currentDate) {
+    final List<String> dueGroupEventKeys = new ArrayList<>();
+
+    final Item pendingEventsItem = this.dbAccessManager.getPendingEvents(scannerId);
+    if (pendingEventsItem != null) {
+      final Map<String, Object> pendingEventsData = pendingEventsItem.asMap();
       LocalDateTime resolutionDate;
 
-      String groupId, eventId;
-      List<String> keyPair;
       for (String key : pendingEventsData.keySet()) {
         //skip the scanner id key as it isn't real pending event data
         if (!key.equals(DbAccessManager.PENDING_EVENTS_PRIMARY_KEY)) {
@@ -60,33 +127,16 @@ public class ScanPendingEventsHandler {
                   this.dbAccessManager.getDateTimeFormatter());
 
           if (currentDate.isAfter(resolutionDate)) {
-            keyPair = Arrays.asList(key.split(DbAccessManager.DELIM));
-
-            if (keyPair.size() == 2) {
-              groupId = keyPair.get(0);
-              eventId = keyPair.get(1);
-
-              if (!this.startStepMachineExecution(groupId, eventId, scannerId)) {
-                resultStatus = ResultStatus.failure("Step Function failed to start.");
-              }
-            } else {
-              this.metrics.log(new ErrorDescriptor<>("scanner id: " + scannerId + ", key : " + key,
-                  classMethod, "bad format for key in pending events table"));
-              resultStatus = ResultStatus.failure("Bad key format in pending events partition.");
-            }
+            dueGroupEventKeys.add(key);
           }
         }
       }
-    } catch (Exception e) {
-      this.metrics.log(new ErrorDescriptor<>("scanner id: " + scannerId, classMethod, e));
-      resultStatus = ResultStatus.failure("Exception in " + classMethod);
     }
 
-    this.metrics.commonClose(resultStatus.success);
-    return resultStatus;
+    return dueGroupEventKeys;
   }
 
-  private boolean startStepMachineExecution(final String groupId, final String eventId,
+  private boolean startStepMachineExecution(final String groupId, final List<String> eventIds,
       final String scannerId) {
     final String classMethod = "ScanPendingEventsHandler.startStepMachineExecution";
     this.metrics.commonSetup(classMethod);
@@ -94,7 +144,7 @@ public class ScanPendingEventsHandler {
     boolean success = true;
 
     Map<String, Object> input = ImmutableMap
-        .of(Group.GROUP_ID, groupId, RequestFields.EVENT_ID, eventId,
+        .of(Group.GROUP_ID, groupId, RequestFields.EVENT_IDS, eventIds,
             DbAccessManager.PENDING_EVENTS_PRIMARY_KEY, scannerId);
 
     try {
@@ -5,7 +5,12 @@ import static java.util.stream.Collectors.toMap;
 
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import com.google.common.collect.ImmutableList;
+import exceptions.AttributeValueOutOfRangeException;
+import exceptions.InvalidAttributeValueException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
@@ -35,6 +40,7 @@ public class UpdateUserChoiceRatingsHandler implements ApiRequestHandler {
    * This method takes in the active user, a category id, and a map of choice rating. Using this
    * information if updates a users CategoryRatings attribute map to contain the appropriate ratings
    * for the categoryId. It merges old choice ratings with new ones to preserve historical data.
+   * While ratings are being moved to the ratings table the merged ratings are mirrored there too.
    *
    * @param activeUser Common request map from endpoint handler containing api input
    * @param categoryId Standard metrics object for profiling and logging
@@ -42,28 +48,29 @@ public class UpdateUserChoiceRatingsHandler implements ApiRequestHandler {
    * @param updateDb   This boolean tells the method whether or not it should update the db. If
    *                   false, this generally means the update data will be part of a transaction.
    * @return Standard result status object giving insight on whether the request was successful.
+   * The data is the users table update followed by the ratings table update if there is one.
    */
-  public ResultStatus<UpdateItemData> handle(final String activeUser, final String categoryId,
-      final Map<String, Object> ratings, final boolean updateDb) {
+  public ResultStatus<List<UpdateItemData>> handle(final String activeUser,
+      final String categoryId, final Map<String, Object> ratings, final boolean updateDb) {
     return this.handle(activeUser, categoryId, ratings, updateDb, null, false);
   }
 
-  public ResultStatus<UpdateItemData> handle(final String activeUser, final String categoryId,
-      final Map<String, Object> ratings, final boolean updateDb,
+  public ResultStatus<List<UpdateItemData>> handle(final String activeUser,
+      final String categoryId, final Map<String, Object> ratings, final boolean updateDb,
       final String categoryName) {
     return this.handle(activeUser, categoryId, ratings, updateDb, categoryName, false);
   }
 
   //Same doc as above with the addition of the 'isNewCategory' param. This param tell the function
   //that the category has just been created and therefore the active user is the owner
-  public ResultStatus<UpdateItemData> handle(final String activeUser, final String categoryId,
-      final Map<String, Object> ratings, final boolean updateDb,
+  public ResultStatus<List<UpdateItemData>> handle(final String activeUser,
+      final String categoryId, final Map<String, Object> ratings, final boolean updateDb,
       final String categoryName,
       final boolean isNewCategory) {
     final String classMethod = "UpdateUserChoiceRatingsHandler.handle";
     this.metrics.commonSetup(classMethod);
 
-    ResultStatus<UpdateItemData> resultStatus;
+    ResultStatus<List<UpdateItemData>> resultStatus;
 
     try {
       final Optional<String> errorMessage = this.userRatingsIsValid(ratings);
@@ -76,37 +83,49 @@ public class UpdateUserChoiceRatingsHandler implements ApiRequestHandler {
 
         //check to see if the user has old choice ratings for this category, if so we need to keep
         // these for historical purposes
-        final User user = this.dbAccessManager.getUser(activeUser);
-
-        if (user.getCategoryRatings().containsKey(categoryId)) {
-          for (final Map.Entry<String, Integer> ratingEntry : user.getCategoryRatings()
-              .get(categoryId).entrySet()) {
-            //Note the user of putIfAbsent here, values already set shouldn't be overwritten
-            ratingsMapConverted.putIfAbsent(ratingEntry.getKey(), ratingEntry.getValue());
-          }
+        for (final Map.Entry<String, Integer> ratingEntry : this.dbAccessManager
+            .getUserRatings(activeUser, categoryId).entrySet()) {
+          //Note the user of putIfAbsent here, values already set shouldn't be overwritten
+          ratingsMapConverted.putIfAbsent(ratingEntry.getKey(), ratingEntry.getValue());
         }
 
         String updateExpression = "set " + User.CATEGORY_RATINGS + ".#categoryId = :map";
         NameMap nameMap = new NameMap().with("#categoryId", categoryId);
         ValueMap valueMap = new ValueMap().withMap(":map", ratingsMapConverted);
 
-        if ((isNewCategory || user.getOwnedCategories().containsKey(categoryId))
-            && categoryName != null) {
+        if (categoryName != null && (isNewCategory || this.ownsCategory(activeUser, categoryId))) {
           updateExpression += ", " + User.OWNED_CATEGORIES + ".#categoryId = :categoryName";
           valueMap.withString(":categoryName", categoryName);
         }
 
-        final UpdateItemData updateItemData = new UpdateItemData(activeUser,
+        final List<UpdateItemData> updates = new ArrayList<>();
+
+        final UpdateItemData userUpdate = new UpdateItemData(activeUser,
             DbAccessManager.USERS_TABLE_NAME)
             .withUpdateExpression(updateExpression)
             .withValueMap(valueMap)
             .withNameMap(nameMap);
+        updates.add(userUpdate);
+
+        UpdateItemData ratingsUpdate = null;
+        if (this.dbAccessManager.writesRatingsTable()) {
+          ratingsUpdate = new UpdateItemData(activeUser, DbAccessManager.RATINGS_TABLE_NAME)
+              .withSortKeyValue(categoryId)
+              .withUpdateExpression("set " + DbAccessManager.RATINGS + " = :map")
+              .withValueMap(new ValueMap().withMap(":map", ratingsMapConverted));
+          updates.add(ratingsUpdate);
+        }
 
         if (updateDb) {
-          this.dbAccessManager.updateUser(updateItemData);
+          this.dbAccessManager.updateUser(userUpdate);
+
+          //the user item is still the source of truth, the ratings item is a mirror of it
+          if (ratingsUpdate != null) {
+            this.dbAccessManager.updateRatings(ratingsUpdate);
+          }
         }
 
-        resultStatus = ResultStatus.successful("User ratings updated successfully", updateItemData);
+        resultStatus = ResultStatus.successful("User ratings updated successfully", updates);
       } else {
         this.metrics.logWithBody(new WarningDescriptor<>(classMethod, errorMessage.get()));
         resultStatus = ResultStatus.failure(errorMessage.get());
@@ -120,6 +139,14 @@ public class UpdateUserChoiceRatingsHandler implements ApiRequestHandler {
     return resultStatus;
   }
 
+  private boolean ownsCategory(final String activeUser, final String categoryId)
+      throws InvalidAttributeValueException, AttributeValueOutOfRangeException {
+    final User user = this.dbAccessManager.getUserAttributes(activeUser,
+        ImmutableList.of(User.OWNED_CATEGORIES + "." + categoryId));
+    return user.getOwnedCategories() != null && user.getOwnedCategories()
+        .containsKey(categoryId);
+  }
+
   private Optional<String> userRatingsIsValid(final Map<String, Object> ratings) {
     String errorMessage = null;
 
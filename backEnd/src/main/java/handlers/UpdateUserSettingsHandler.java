@@ -18,6 +18,7 @@ import models.Group;
 import models.User;
 import models.UserForApiResponse;
 import utilities.ErrorDescriptor;
+import utilities.ImageData;
 import utilities.JsonUtils;
 import utilities.Metrics;
 import utilities.ResultStatus;
@@ -48,12 +49,14 @@ public class UpdateUserSettingsHandler implements ApiRequestHandler {
    * @param newDisplayName Standard metrics object for profiling and logging
    * @param newAppSettings This is the new app settings being set.
    * @param newFavorites   This is a set of usernames that is the user's new list of favorites.
-   * @param newIconData    This is the byte data for an image file. If set, the user is updating.
+   * @param newIconData    This is the image data for a new icon. If set, the user is updating.
+   * @param newIconKey     This is the key of an icon uploaded with a url from getIconUploadUrl.
+   *                       If set, it's used instead of the icon data.
    * @return Standard result status object giving insight on whether the request was successful
    */
   public ResultStatus handle(final String activeUser, final String newDisplayName,
       final AppSettings newAppSettings, final Set<String> newFavorites,
-      final List<Integer> newIconData) {
+      final ImageData newIconData, final String newIconKey) {
     final String classMethod = "UpdateUserSettingsHandler.handle";
     this.metrics.commonSetup(classMethod);
 
@@ -69,7 +72,8 @@ public class UpdateUserSettingsHandler implements ApiRequestHandler {
      */
 
     try {
-      final Optional<String> errorMessage = this.userSettingsIsValid(newDisplayName);
+      final Optional<String> errorMessage = this
+          .userSettingsIsValid(newDisplayName, newIconData);
       if (!errorMessage.isPresent()) {
         final User oldUser = this.dbAccessManager.getUser(activeUser);
 
@@ -105,9 +109,12 @@ public class UpdateUserSettingsHandler implements ApiRequestHandler {
         }
 
         //ICON is an optional api payload key, if present it's assumed it has the contents of a new file for upload
-        if (newIconData != null) {
-          //try to create the file in s3, if no filename returned, throw exception
-          final String newIconFileName = this.s3AccessManager.uploadImage(newIconData, metrics)
+        if (newIconKey != null || newIconData != null) {
+          //the icon is either already in s3 and just needs checking or it needs to be created in
+          //s3, if no filename returned, throw exception
+          final String newIconFileName = (newIconKey != null
+              ? this.s3AccessManager.verifyUploadedImage(activeUser, newIconKey, metrics)
+              : this.s3AccessManager.uploadImage(newIconData, metrics))
               .orElseThrow(Exception::new);
 
           updateUserExpression += ", " + User.ICON + " = :icon";
@@ -181,7 +188,8 @@ public class UpdateUserSettingsHandler implements ApiRequestHandler {
     return resultStatus;
   }
 
-  private Optional<String> userSettingsIsValid(final String displayName) {
+  private Optional<String> userSettingsIsValid(final String displayName,
+      final ImageData iconData) {
     String errorMessage = null;
 
     if (displayName.length() <= 0) {
@@ -189,6 +197,8 @@ public class UpdateUserSettingsHandler implements ApiRequestHandler {
     } else if (displayName.length() > MAX_DISPLAY_NAME_LENGTH) {
       errorMessage =
           "Error: Display name cannot be longer than " + MAX_DISPLAY_NAME_LENGTH + "characters.";
+    } else if (iconData != null && iconData.exceedsMaxSize()) {
+      errorMessage = "Error: Icon is too large.";
     }
 
     return Optional.ofNullable(errorMessage);
@@ -3,6 +3,7 @@ package handlers;
 import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import com.google.common.collect.ImmutableList;
 import javax.inject.Inject;
 import managers.DbAccessManager;
 import models.Event;
@@ -42,10 +43,12 @@ public class VoteForChoiceHandler implements ApiRequestHandler {
     ResultStatus resultStatus;
 
     try {
-      final User user = this.dbAccessManager.getUser(activeUser);
+      //only the membership is needed, not the rest of the (possibly large) user item
+      final User user = this.dbAccessManager.getUserAttributes(activeUser,
+          ImmutableList.of(User.GROUPS + "." + groupId));
 
       //only allow the user to vote if they are in the group
-      if (user.getGroups().containsKey(groupId)) {
+      if (user.getGroups() != null && user.getGroups().containsKey(groupId)) {
         if (voteValue != 1) {
           voteValue = 0;
         }
@@ -65,6 +68,17 @@ public class VoteForChoiceHandler implements ApiRequestHandler {
             .withValueMap(valueMap);
 
         this.dbAccessManager.updateGroup(groupId, updateItemSpec);
+
+        if (this.dbAccessManager.writesEventsTable()) {
+          this.dbAccessManager.updateEvent(groupId, eventId, new UpdateItemSpec()
+              .withUpdateExpression(
+                  "set " + Event.VOTING_NUMBERS + ".#choiceId.#activeUser = :voteValue")
+              .withNameMap(new NameMap()
+                  .with("#choiceId", choiceId)
+                  .with("#activeUser", activeUser))
+              .withValueMap(valueMap));
+        }
+
         resultStatus = new ResultStatus(true, "Voted yes/no successfully!");
       } else {
         resultStatus = ResultStatus.failure("Error: user not in group.");
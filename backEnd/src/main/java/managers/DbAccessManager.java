@@ -1,36 +1,76 @@
 package managers;
 
-import com.amazonaws.auth.EnvironmentVariableCredentialsProvider;
-import com.amazonaws.regions.Regions;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
+import com.amazonaws.services.dynamodbv2.document.BatchGetItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.BatchWriteItemOutcome;
 import com.amazonaws.services.dynamodbv2.document.DeleteItemOutcome;
 import com.amazonaws.services.dynamodbv2.document.DynamoDB;
+import com.amazonaws.services.dynamodbv2.document.GetItemOutcome;
 import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.ItemCollection;
 import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
 import com.amazonaws.services.dynamodbv2.document.PutItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.QueryOutcome;
+import com.amazonaws.services.dynamodbv2.document.RangeKeyCondition;
 import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.TableKeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.document.TableWriteItems;
 import com.amazonaws.services.dynamodbv2.document.UpdateItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.spec.BatchGetItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.BatchWriteItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.DeleteItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.PutItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.QuerySpec;
 import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
+import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
 import com.amazonaws.services.dynamodbv2.model.TableDescription;
 import com.amazonaws.services.dynamodbv2.model.TransactGetItemsRequest;
 import com.amazonaws.services.dynamodbv2.model.TransactGetItemsResult;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Lists;
 import exceptions.AttributeValueOutOfRangeException;
 import exceptions.InvalidAttributeValueException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import managers.ItemCache.Region;
 import models.Category;
+import models.Event;
+import models.EventForSorting;
 import models.Feedback;
 import models.Group;
 import models.Report;
 import models.User;
+import utilities.AttributeValueCodec;
+import utilities.Metrics;
+import utilities.PendingEventPartitioner;
 import utilities.UpdateItemData;
 
 public class DbAccessManager {
@@ -39,49 +79,112 @@ public class DbAccessManager {
   public static final String GROUPS_TABLE_NAME = "groups";
   public static final String CATEGORIES_TABLE_NAME = "categories";
   public static final String PENDING_EVENTS_TABLE_NAME = "pending_events";
+  public static final String PENDING_EVENT_ITEMS_TABLE_NAME = "pending_event_items";
   public static final String REPORTS_TABLE_NAME = "reports";
+  public static final String EVENTS_TABLE_NAME = "events";
+  public static final String RATINGS_TABLE_NAME = "ratings";
 
   public static final String CATEGORIES_PRIMARY_KEY = Category.CATEGORY_ID;
   public static final String GROUPS_PRIMARY_KEY = Group.GROUP_ID;
   public static final String USERS_PRIMARY_KEY = User.USERNAME;
   public static final String PENDING_EVENTS_PRIMARY_KEY = "ScannerId";
+  public static final String PENDING_EVENT_ITEMS_PRIMARY_KEY = PENDING_EVENTS_PRIMARY_KEY;
+  public static final String PENDING_EVENT_ITEMS_SORT_KEY = "GroupEventKey";
   public static final String REPORTS_PRIMARY_KEY = Report.REPORT_ID;
+  public static final String EVENTS_PRIMARY_KEY = Group.GROUP_ID;
+  public static final String EVENTS_SORT_KEY = "EventId";
+  public static final String RATINGS_PRIMARY_KEY = User.USERNAME;
+  public static final String RATINGS_SORT_KEY = Category.CATEGORY_ID;
+
+  //the choice id to rating map on a ratings table item
+  public static final String RATINGS = "Ratings";
+
+  //local secondary index on the events table, see EventForSorting.getPrioritySortKey
+  public static final String EVENTS_PRIORITY_INDEX = "PrioritySortKey-index";
+  public static final String PRIORITY_SORT_KEY = "PrioritySortKey";
+
+  //local secondary index on the pending event items table so a scanner can read only due events
+  public static final String PENDING_EVENT_ITEMS_RESOLUTION_INDEX = "ResolutionSeconds-index";
+  public static final String RESOLUTION_SECONDS = "ResolutionSeconds";
 
-  public static final String NUMBER_OF_PARTITIONS_ENV_KEY = "NUMBER_OF_PARTITIONS";
   public static final String DELIM = ";";
 
+  //every attribute of a group item except its events, see getGroupItemWithoutEvents
+  private static final ImmutableSortedSet<String> GROUP_PATHS_WITHOUT_EVENTS = ImmutableSortedSet
+      .of(Group.GROUP_ID, Group.GROUP_NAME, Group.ICON, Group.GROUP_CREATOR, Group.MEMBERS,
+          Group.MEMBERS_LEFT, Group.CATEGORIES, Group.LAST_ACTIVITY, Group.IS_OPEN,
+          Group.EVENTS_MIGRATED);
+  private static final String GROUP_PROJECTION_WITHOUT_EVENTS = String
+      .join(",", GROUP_PATHS_WITHOUT_EVENTS);
+
+  //dynamo's limit on the number of keys in one batch get
+  public static final int MAX_BATCH_GET_KEYS = 100;
+  //dynamo's limit on the number of requests in one batch write
+  public static final int MAX_BATCH_WRITE_ITEMS = 25;
+  private static final int MAX_BATCH_GET_ATTEMPTS = 4;
+  private static final long BATCH_GET_BASE_BACKOFF_MILLIS = 25;
+
   //making protected for extended classes
   protected final Table groupsTable;
   protected final Table usersTable;
   protected final Table categoriesTable;
   protected final Table pendingEventsTable;
+  protected final Table pendingEventItemsTable;
   protected final Table reportsTable;
+  protected final Table eventsTable;
+  protected final Table ratingsTable;
 
   private final AmazonDynamoDBClient client;
+  private final DynamoDB dynamoDb;
+  private final ExecutorService batchGetExecutor;
+  private final EventsStorageMode eventsStorageMode;
+  private final RatingsStorageMode ratingsStorageMode;
   private final DateTimeFormatter dateTimeFormatter;
 
-  private final HashMap<String, Item> cache;
+  //container level, shared with every other request in this container
+  private final ItemCache itemCache;
+  private final Metrics metrics;
 
   //lambdas occur 'instantaneously' so save the now at initialization and use throughout
   private final LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
 
   public DbAccessManager() {
-    final Regions region = Regions.US_EAST_2;
-    this.client = (AmazonDynamoDBClient) AmazonDynamoDBClient.builder()
-        .withRegion(region)
-        .withCredentials(new EnvironmentVariableCredentialsProvider())
-        .build();
-    final DynamoDB dynamoDb = new DynamoDB(this.client);
+    this(new DbConnection(), null);
+  }
 
-    this.dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+  public DbAccessManager(final DbConnection dbConnection) {
+    this(dbConnection, null);
+  }
 
-    this.groupsTable = dynamoDb.getTable(GROUPS_TABLE_NAME);
-    this.usersTable = dynamoDb.getTable(USERS_TABLE_NAME);
-    this.categoriesTable = dynamoDb.getTable(CATEGORIES_TABLE_NAME);
-    this.pendingEventsTable = dynamoDb.getTable(PENDING_EVENTS_TABLE_NAME);
-    this.reportsTable = dynamoDb.getTable(REPORTS_TABLE_NAME);
+  /**
+   * The connection and the item cache are shared across invocations of a warm container. Everything
+   * else held here (the 'now' timestamp and the metrics) is only valid for a single request.
+   *
+   * @param dbConnection The container level dynamo client, table handles and item cache.
+   * @param metrics      Standard metrics object for profiling and logging. The cache hits, misses
+   *                     and evictions are counted against whichever function is running.
+   */
+  public DbAccessManager(final DbConnection dbConnection, final Metrics metrics) {
+    this.client = dbConnection.getClient();
+    this.dynamoDb = dbConnection.getDynamoDb();
+    this.batchGetExecutor = dbConnection.getBatchGetExecutor();
+    this.eventsStorageMode = Optional.ofNullable(dbConnection.getEventsStorageMode())
+        .orElse(EventsStorageMode.GROUP_ITEM);
+    this.ratingsStorageMode = Optional.ofNullable(dbConnection.getRatingsStorageMode())
+        .orElse(RatingsStorageMode.USER_ITEM);
+    this.itemCache = Optional.ofNullable(dbConnection.getItemCache()).orElseGet(ItemCache::new);
+    this.metrics = metrics;
 
-    this.cache = new HashMap<>();
+    this.dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    this.groupsTable = dbConnection.getGroupsTable();
+    this.usersTable = dbConnection.getUsersTable();
+    this.categoriesTable = dbConnection.getCategoriesTable();
+    this.pendingEventsTable = dbConnection.getPendingEventsTable();
+    this.pendingEventItemsTable = dbConnection.getPendingEventItemsTable();
+    this.reportsTable = dbConnection.getReportsTable();
+    this.eventsTable = dbConnection.getEventsTable();
+    this.ratingsTable = dbConnection.getRatingsTable();
   }
 
   public String now() {
@@ -98,152 +201,594 @@ public class DbAccessManager {
 
   //Users table methods
   public PutItemOutcome putUser(final Item user) {
-    return this.usersTable.putItem(user);
+    final PutItemOutcome putItemOutcome = this.putItem(this.usersTable, user);
+    this.itemCache.invalidate(Region.USERS, user.getString(USERS_PRIMARY_KEY));
+    return putItemOutcome;
   }
 
   public User getUser(final String username)
       throws NullPointerException, InvalidAttributeValueException, AttributeValueOutOfRangeException {
-    Item userItem;
-    if (this.cache.containsKey(username)) {
-      userItem = this.cache.get(username);
-    } else {
-      userItem = this.usersTable.getItem(new PrimaryKey(USERS_PRIMARY_KEY, username));
-      this.cache.put(username, userItem);
+    return new User(this.getUserItem(username));
+  }
+
+  /**
+   * This method gets many users with as few round trips as possible. Users that aren't already
+   * cached are fetched 100 at a time using batch gets and then added to the cache.
+   *
+   * @param usernames The usernames of the users to get.
+   * @return A map from username to user in the iteration order of the input. Usernames that don't
+   * have a user item are left out.
+   */
+  public Map<String, User> getUsers(final Collection<String> usernames)
+      throws InvalidAttributeValueException, AttributeValueOutOfRangeException {
+    final Map<String, Item> userItems = this
+        .batchGetThroughCache(Region.USERS, this.usersTable, USERS_PRIMARY_KEY, usernames);
+
+    final Map<String, User> users = new LinkedHashMap<>();
+    for (final String username : usernames) {
+      final Item userItem = userItems.get(username);
+      if (userItem != null) {
+        users.put(username, new User(userItem));
+      }
     }
 
-    return new User(userItem);
+    return users;
   }
 
-  public User getUserNoCache(final String username)
+  /**
+   * This method gets many users like getUsers but it always goes to the database, replacing
+   * whatever was cached for them.
+   *
+   * @param usernames The usernames of the users to get.
+   * @return A map from username to user in the iteration order of the input.
+   */
+  public Map<String, User> getUsersNoCache(final Collection<String> usernames)
       throws InvalidAttributeValueException, AttributeValueOutOfRangeException {
-    final Item userItem = this.usersTable.getItem(new PrimaryKey(USERS_PRIMARY_KEY, username));
-    this.cache.put(username, userItem);
+    for (final String username : usernames) {
+      this.itemCache.invalidate(Region.USERS, username);
+    }
 
-    return new User(userItem);
+    return this.getUsers(usernames);
+  }
+
+  public User getUserNoCache(final String username)
+      throws InvalidAttributeValueException, AttributeValueOutOfRangeException {
+    return new User(
+        this.getItemNoCache(Region.USERS, this.usersTable, USERS_PRIMARY_KEY, username));
   }
 
   public Item getUserItem(final String username) throws NullPointerException {
-    Item userItem;
-    if (this.cache.containsKey(username)) {
-      userItem = this.cache.get(username);
+    return this.getItemThroughCache(Region.USERS, this.usersTable, USERS_PRIMARY_KEY, username);
+  }
+
+  /**
+   * This method gets a partial user with only the attributes at the given paths. A path is a top
+   * level attribute name optionally followed by map keys, all separated by dots (for example
+   * 'DisplayName' or 'Groups.groupId'). Attributes outside of the paths are left null on the user,
+   * as are paths that don't exist on the item.
+   *
+   * If the full user is already cached then it's returned instead since it has every path.
+   *
+   * @param username The username of the user to get.
+   * @param paths    The document paths of the attributes to get.
+   * @return The partial user.
+   * @throws NullPointerException if there is no user with this username.
+   */
+  public User getUserAttributes(final String username, final Collection<String> paths)
+      throws NullPointerException, InvalidAttributeValueException,
+      AttributeValueOutOfRangeException {
+    final Item userItem = this.itemCache.get(Region.USERS, username);
+    if (userItem != null) {
+      this.incrementCacheMetric(Region.USERS.getHitsMetric(), 1);
+      return new User(userItem);
+    }
+
+    //always get the key so an item that has none of the paths still comes back
+    final TreeSet<String> projectedPaths = new TreeSet<>(paths);
+    projectedPaths.add(USERS_PRIMARY_KEY);
+    final String projection = String.join(",", projectedPaths);
+
+    Item partialUserItem = this.itemCache.getProjection(Region.USERS, username, projection);
+    if (partialUserItem != null) {
+      this.incrementCacheMetric(Region.USERS.getProjectionHitsMetric(), 1);
     } else {
-      userItem = this.usersTable.getItem(new PrimaryKey(USERS_PRIMARY_KEY, username));
-      this.cache.put(username, userItem);
+      this.incrementCacheMetric(Region.USERS.getProjectionMissesMetric(), 1);
+      partialUserItem = this
+          .getItem(this.usersTable, new PrimaryKey(USERS_PRIMARY_KEY, username), projectedPaths);
+      this.itemCache.putProjection(Region.USERS, username, projection, partialUserItem);
     }
 
-    return userItem;
+    return new User(partialUserItem);
   }
 
   public UpdateItemOutcome updateUser(final String username, final UpdateItemSpec updateItemSpec) {
     updateItemSpec.withPrimaryKey(USERS_PRIMARY_KEY, username);
-    return this.usersTable.updateItem(updateItemSpec);
+    final UpdateItemOutcome updateItemOutcome = this.updateItem(this.usersTable, updateItemSpec);
+    this.itemCache.invalidate(Region.USERS, username);
+    return updateItemOutcome;
   }
 
   public UpdateItemOutcome updateUser(final UpdateItemData updateItemData) throws Exception {
-    return this.usersTable.updateItem(updateItemData.asUpdateItemSpec());
+    final UpdateItemOutcome updateItemOutcome = this
+        .updateItem(this.usersTable, updateItemData.asUpdateItemSpec());
+    this.itemCache.invalidate(Region.USERS, updateItemData.getKeyValue());
+    return updateItemOutcome;
   }
 
   //Categories table methods
   public PutItemOutcome putCategory(final Category category) {
-    return this.categoriesTable.putItem(category.asItem());
+    final PutItemOutcome putItemOutcome = this.putItem(this.categoriesTable, category.asMap());
+    this.itemCache.invalidate(Region.CATEGORIES, category.getCategoryId());
+    return putItemOutcome;
   }
 
   public Category getCategory(final String categoryId) throws NullPointerException {
-    Item categoryItem;
-    if (this.cache.containsKey(categoryId)) {
-      categoryItem = this.cache.get(categoryId);
-    } else {
-      categoryItem = this.categoriesTable
-          .getItem(new PrimaryKey(CATEGORIES_PRIMARY_KEY, categoryId));
-      this.cache.put(categoryId, categoryItem);
+    return new Category(this.getCategoryItem(categoryId));
+  }
+
+  /**
+   * This method gets many categories with as few round trips as possible. Categories that aren't
+   * already cached are fetched 100 at a time using batch gets and then added to the cache.
+   *
+   * @param categoryIds The ids of the categories to get.
+   * @return A map from category id to category in the iteration order of the input. Ids that don't
+   * have a category item are left out.
+   */
+  public Map<String, Category> getCategories(final Collection<String> categoryIds) {
+    final Map<String, Item> categoryItems = this.batchGetThroughCache(Region.CATEGORIES,
+        this.categoriesTable, CATEGORIES_PRIMARY_KEY, categoryIds);
+
+    final Map<String, Category> categories = new LinkedHashMap<>();
+    for (final String categoryId : categoryIds) {
+      final Item categoryItem = categoryItems.get(categoryId);
+      if (categoryItem != null) {
+        categories.put(categoryId, new Category(categoryItem));
+      }
     }
 
-    return new Category(categoryItem);
+    return categories;
   }
 
   public Item getCategoryItem(final String categoryId) throws NullPointerException {
-    Item categoryItem;
-    if (this.cache.containsKey(categoryId)) {
-      categoryItem = this.cache.get(categoryId);
-    } else {
-      categoryItem = this.categoriesTable
-          .getItem(new PrimaryKey(CATEGORIES_PRIMARY_KEY, categoryId));
-      this.cache.put(categoryId, categoryItem);
-    }
-
-    return categoryItem;
+    return this.getItemThroughCache(Region.CATEGORIES, this.categoriesTable,
+        CATEGORIES_PRIMARY_KEY, categoryId);
   }
 
   public UpdateItemOutcome updateCategory(final String categoryId,
       final UpdateItemSpec updateItemSpec) {
     updateItemSpec.withPrimaryKey(CATEGORIES_PRIMARY_KEY, categoryId);
-    return this.categoriesTable.updateItem(updateItemSpec);
+    final UpdateItemOutcome updateItemOutcome = this
+        .updateItem(this.categoriesTable, updateItemSpec);
+    this.itemCache.invalidate(Region.CATEGORIES, categoryId);
+    return updateItemOutcome;
   }
 
   public UpdateItemOutcome updateCategory(final UpdateItemData updateItemData) throws Exception {
-    return this.categoriesTable.updateItem(updateItemData.asUpdateItemSpec());
+    final UpdateItemOutcome updateItemOutcome = this
+        .updateItem(this.categoriesTable, updateItemData.asUpdateItemSpec());
+    this.itemCache.invalidate(Region.CATEGORIES, updateItemData.getKeyValue());
+    return updateItemOutcome;
   }
 
   public DeleteItemOutcome deleteCategory(final String categoryId) {
-    return this.categoriesTable
-        .deleteItem(new PrimaryKey(CATEGORIES_PRIMARY_KEY, categoryId));
+    final DeleteItemOutcome deleteItemOutcome = this
+        .deleteItem(this.categoriesTable, new PrimaryKey(CATEGORIES_PRIMARY_KEY, categoryId));
+    this.itemCache.invalidate(Region.CATEGORIES, categoryId);
+    return deleteItemOutcome;
   }
 
   //Groups table methods
   public PutItemOutcome putGroup(final Group group) {
-    return this.groupsTable.putItem(group.asItem());
+    final PutItemOutcome putItemOutcome = this.putItem(this.groupsTable, group.asMap());
+    this.itemCache.invalidate(Region.GROUPS, group.getGroupId());
+    return putItemOutcome;
   }
 
   public Group getGroup(final String groupId) {
-    return new Group(this.groupsTable.getItem(new PrimaryKey(GROUPS_PRIMARY_KEY, groupId)));
+    return new Group(this.getGroupItem(groupId));
   }
 
   public Group getGroupNoCache(final String groupId) {
-    return new Group(this.groupsTable.getItem(new PrimaryKey(GROUPS_PRIMARY_KEY, groupId)));
+    return new Group(this.getGroupItemNoCache(groupId));
   }
 
   public Item getGroupItem(final String groupId) {
-    return this.groupsTable.getItem(new PrimaryKey(GROUPS_PRIMARY_KEY, groupId));
+    return this.getItemThroughCache(Region.GROUPS, this.groupsTable, GROUPS_PRIMARY_KEY, groupId);
+  }
+
+  /**
+   * Use this when the group is going to be written based on what is read. A cached group could be
+   * missing writes made by other containers.
+   *
+   * @param groupId The id of the group to get.
+   * @return The group's item straight from the database.
+   */
+  public Item getGroupItemNoCache(final String groupId) {
+    return this.getItemNoCache(Region.GROUPS, this.groupsTable, GROUPS_PRIMARY_KEY, groupId);
+  }
+
+  /**
+   * This method gets a group's item without its events map. Groups whose events have been migrated
+   * read them from the events table, so reading the map as well would only cost capacity. If the
+   * full group is already cached then it's returned instead since it has every attribute.
+   *
+   * @param groupId The id of the group to get.
+   * @return The group's item without the events attribute, or null if there is no group.
+   */
+  public Item getGroupItemWithoutEvents(final String groupId) {
+    final Item groupItem = this.itemCache.get(Region.GROUPS, groupId);
+    if (groupItem != null) {
+      this.incrementCacheMetric(Region.GROUPS.getHitsMetric(), 1);
+      return groupItem;
+    }
+
+    Item partialGroupItem = this.itemCache
+        .getProjection(Region.GROUPS, groupId, GROUP_PROJECTION_WITHOUT_EVENTS);
+    if (partialGroupItem != null) {
+      this.incrementCacheMetric(Region.GROUPS.getProjectionHitsMetric(), 1);
+    } else {
+      this.incrementCacheMetric(Region.GROUPS.getProjectionMissesMetric(), 1);
+      partialGroupItem = this.getItem(this.groupsTable,
+          new PrimaryKey(GROUPS_PRIMARY_KEY, groupId), GROUP_PATHS_WITHOUT_EVENTS);
+      this.itemCache.putProjection(Region.GROUPS, groupId, GROUP_PROJECTION_WITHOUT_EVENTS,
+          partialGroupItem);
+    }
+
+    return partialGroupItem;
   }
 
   public UpdateItemOutcome updateGroup(final String groupId,
       final UpdateItemSpec updateItemSpec) {
     updateItemSpec.withPrimaryKey(GROUPS_PRIMARY_KEY, groupId);
-    return this.groupsTable.updateItem(updateItemSpec);
+    final UpdateItemOutcome updateItemOutcome = this.updateItem(this.groupsTable, updateItemSpec);
+    this.itemCache.invalidate(Region.GROUPS, groupId);
+    return updateItemOutcome;
   }
 
   public UpdateItemOutcome updateGroup(final UpdateItemData updateItemData) throws Exception {
-    return this.groupsTable.updateItem(updateItemData.asUpdateItemSpec());
+    final UpdateItemOutcome updateItemOutcome = this
+        .updateItem(this.groupsTable, updateItemData.asUpdateItemSpec());
+    this.itemCache.invalidate(Region.GROUPS, updateItemData.getKeyValue());
+    return updateItemOutcome;
   }
 
   public DeleteItemOutcome deleteGroup(final String groupId) {
-    return this.groupsTable.deleteItem(new PrimaryKey(GROUPS_PRIMARY_KEY, groupId));
+    final DeleteItemOutcome deleteItemOutcome = this
+        .deleteItem(this.groupsTable, new PrimaryKey(GROUPS_PRIMARY_KEY, groupId));
+    this.itemCache.invalidate(Region.GROUPS, groupId);
+    return deleteItemOutcome;
   }
 
   //Pending events table methods
   public Item getPendingEvents(final String scannerId) {
-    return this.pendingEventsTable.getItem(new PrimaryKey(PENDING_EVENTS_PRIMARY_KEY, scannerId));
+    return this
+        .getItem(this.pendingEventsTable, new PrimaryKey(PENDING_EVENTS_PRIMARY_KEY, scannerId));
   }
 
   public UpdateItemOutcome updatePendingEvent(final String scannerId,
       final UpdateItemSpec updateItemSpec) {
     updateItemSpec.withPrimaryKey(PENDING_EVENTS_PRIMARY_KEY, scannerId);
-    return this.pendingEventsTable.updateItem(updateItemSpec);
+    return this.updateItem(this.pendingEventsTable, updateItemSpec);
   }
 
   public UpdateItemOutcome updatePendingEvent(final UpdateItemData updateItemData)
       throws Exception {
-    return this.pendingEventsTable.updateItem(updateItemData.asUpdateItemSpec());
+    return this.updateItem(this.pendingEventsTable, updateItemData.asUpdateItemSpec());
+  }
+
+  //Pending event items table methods
+  public PutItemOutcome putPendingEvent(final String scannerId, final String groupId,
+      final String eventId, final long resolutionSeconds) {
+    return this.putItem(this.pendingEventItemsTable, new Item()
+        .withPrimaryKey(PENDING_EVENT_ITEMS_PRIMARY_KEY, scannerId, PENDING_EVENT_ITEMS_SORT_KEY,
+            groupId + DELIM + eventId)
+        .withLong(RESOLUTION_SECONDS, resolutionSeconds));
+  }
+
+  /**
+   * This method gets the pending events in a partition that are ready to be resolved. It is a
+   * range query on the resolution time index, so only the due events are read no matter how many
+   * events are pending.
+   *
+   * @param scannerId  The partition to look in.
+   * @param nowSeconds The current utc epoch second.
+   * @return The pending event items whose resolution time is at or before now.
+   */
+  public List<Item> getDuePendingEvents(final String scannerId, final long nowSeconds) {
+    final QuerySpec querySpec = new QuerySpec()
+        .withHashKey(PENDING_EVENT_ITEMS_PRIMARY_KEY, scannerId)
+        .withRangeKeyCondition(new RangeKeyCondition(RESOLUTION_SECONDS).le(nowSeconds));
+
+    return this
+        .query(this.pendingEventItemsTable, PENDING_EVENT_ITEMS_RESOLUTION_INDEX, querySpec);
+  }
+
+  public DeleteItemOutcome deletePendingEvent(final String scannerId, final String groupId,
+      final String eventId) {
+    return this.deleteItem(this.pendingEventItemsTable,
+        new PrimaryKey(PENDING_EVENT_ITEMS_PRIMARY_KEY, scannerId, PENDING_EVENT_ITEMS_SORT_KEY,
+            groupId + DELIM + eventId));
+  }
+
+  /**
+   * @param scannerIds The partitions that the events could be in.
+   * @param groupId    The id of the group the events are in.
+   * @param eventIds   The ids of the events to stop pending.
+   */
+  public void deletePendingEvents(final Collection<String> scannerIds, final String groupId,
+      final Collection<String> eventIds) {
+    final List<PrimaryKey> primaryKeys = new ArrayList<>();
+    for (final String scannerId : scannerIds) {
+      for (final String eventId : eventIds) {
+        primaryKeys.add(new PrimaryKey(PENDING_EVENT_ITEMS_PRIMARY_KEY, scannerId,
+            PENDING_EVENT_ITEMS_SORT_KEY, groupId + DELIM + eventId));
+      }
+    }
+
+    this.batchDelete(this.pendingEventItemsTable, primaryKeys);
+  }
+
+  /**
+   * @param groupId  The id of the group the events are in.
+   * @param eventIds The ids of the events to stop pending. Each one is only deleted from the
+   *                 partition(s) it hashes to.
+   */
+  public void deletePendingEvents(final String groupId, final Collection<String> eventIds) {
+    final List<PrimaryKey> primaryKeys = new ArrayList<>();
+    for (final String eventId : eventIds) {
+      for (final String scannerId : PendingEventPartitioner.getPartitionKeys(groupId, eventId)) {
+        primaryKeys.add(new PrimaryKey(PENDING_EVENT_ITEMS_PRIMARY_KEY, scannerId,
+            PENDING_EVENT_ITEMS_SORT_KEY, groupId + DELIM + eventId));
+      }
+    }
+
+    this.batchDelete(this.pendingEventItemsTable, primaryKeys);
+  }
+
+  //Ratings table methods
+  public boolean writesRatingsTable() {
+    return this.ratingsStorageMode.writesRatingsTable();
+  }
+
+  public boolean readsRatingsTable() {
+    return this.ratingsStorageMode.readsRatingsTable();
+  }
+
+  /**
+   * @param username   The username of the user to get the ratings of.
+   * @param categoryId The id of the category the ratings are for.
+   * @return The user's choice ratings for the category, empty if they haven't rated it.
+   */
+  public Map<String, Integer> getUserRatings(final String username, final String categoryId) {
+    return this.getCategoryRatings(categoryId, Collections.singletonList(username))
+        .getOrDefault(username, Collections.emptyMap());
+  }
+
+  /**
+   * This method gets many users' ratings for a single category, reading nothing but those ratings.
+   * When the ratings table is being read they come from the users' ratings items. Anyone without
+   * one (not rated or not migrated yet) and everyone when the table isn't being read get the
+   * category's entry projected out of their user item. Both are fetched 100 at a time using batch
+   * gets.
+   *
+   * @param categoryId The id of the category the ratings are for.
+   * @param usernames  The usernames of the users to get the ratings of.
+   * @return A map from username to choice ratings. Users that haven't rated the category are left
+   * out.
+   */
+  public Map<String, Map<String, Integer>> getCategoryRatings(final String categoryId,
+      final Collection<String> usernames) {
+    final Map<String, Map<String, Integer>> ratingsByUsername = new HashMap<>();
+    final List<String> distinctUsernames = usernames.stream().distinct()
+        .collect(Collectors.toList());
+
+    if (this.readsRatingsTable()) {
+      for (final List<String> chunk : Lists.partition(distinctUsernames, MAX_BATCH_GET_KEYS)) {
+        final TableKeysAndAttributes tableKeysAndAttributes = new TableKeysAndAttributes(
+            this.ratingsTable.getTableName());
+        for (final String username : chunk) {
+          tableKeysAndAttributes.addHashAndRangePrimaryKey(RATINGS_PRIMARY_KEY, username,
+              RATINGS_SORT_KEY, categoryId);
+        }
+
+        for (final Item ratingsItem : this.batchGetAll(tableKeysAndAttributes)) {
+          ratingsByUsername.put(ratingsItem.getString(RATINGS_PRIMARY_KEY),
+              getRatingsFromMap(ratingsItem.getMap(RATINGS)));
+        }
+      }
+    }
+
+    final List<String> userItemUsernames = distinctUsernames.stream()
+        .filter(username -> !ratingsByUsername.containsKey(username))
+        .collect(Collectors.toList());
+    for (final List<String> chunk : Lists.partition(userItemUsernames, MAX_BATCH_GET_KEYS)) {
+      final TableKeysAndAttributes tableKeysAndAttributes = new TableKeysAndAttributes(
+          this.usersTable.getTableName())
+          .addHashOnlyPrimaryKeys(USERS_PRIMARY_KEY, chunk.toArray())
+          .withProjectionExpression(
+              USERS_PRIMARY_KEY + ", " + User.CATEGORY_RATINGS + ".#categoryId")
+          .withNameMap(Collections.singletonMap("#categoryId", categoryId));
+
+      for (final Item userItem : this.batchGetAll(tableKeysAndAttributes)) {
+        if (userItem.hasAttribute(User.CATEGORY_RATINGS)) {
+          ratingsByUsername.put(userItem.getString(USERS_PRIMARY_KEY), getRatingsFromMap(
+              (Map<String, Object>) userItem.getMap(User.CATEGORY_RATINGS).get(categoryId)));
+        }
+      }
+    }
+
+    return ratingsByUsername;
+  }
+
+  public UpdateItemOutcome updateRatings(final UpdateItemData updateItemData) throws Exception {
+    return this.updateItem(this.ratingsTable, updateItemData.asUpdateItemSpec());
+  }
+
+  /**
+   * @param username    The username of the user to delete ratings of.
+   * @param categoryIds The ids of the categories to delete the user's ratings for.
+   */
+  public void deleteRatings(final String username, final Collection<String> categoryIds) {
+    this.batchDelete(this.ratingsTable, categoryIds.stream().distinct()
+        .map(categoryId -> new PrimaryKey(RATINGS_PRIMARY_KEY, username, RATINGS_SORT_KEY,
+            categoryId))
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * @param username   The username of the user the ratings belong to.
+   * @param categoryId The id of the category the ratings are for.
+   * @param ratings    The choice id to rating map.
+   * @return The ratings table item for the user's ratings.
+   */
+  protected Item getRatingsItem(final String username, final String categoryId,
+      final Map<String, Object> ratings) {
+    return new Item()
+        .withPrimaryKey(RATINGS_PRIMARY_KEY, username, RATINGS_SORT_KEY, categoryId)
+        .withMap(RATINGS, ratings);
+  }
+
+  private static Map<String, Integer> getRatingsFromMap(final Map<String, Object> ratingsMap) {
+    final Map<String, Integer> ratings = new HashMap<>();
+    if (ratingsMap != null) {
+      for (final Map.Entry<String, Object> ratingEntry : ratingsMap.entrySet()) {
+        ratings.put(ratingEntry.getKey(), ((Number) ratingEntry.getValue()).intValue());
+      }
+    }
+
+    return ratings;
+  }
+
+  //Events table methods
+  public boolean writesEventsTable() {
+    return this.eventsStorageMode.writesEventsTable();
+  }
+
+  public boolean readsEventsTable() {
+    return this.eventsStorageMode.readsEventsTable();
+  }
+
+  public PutItemOutcome putEvent(final String groupId, final String eventId,
+      final Map<String, Object> eventMap) {
+    return this.putItem(this.eventsTable, this.getEventItem(groupId, eventId, eventMap));
+  }
+
+  public Item getEvent(final String groupId, final String eventId) {
+    return this.getItem(this.eventsTable,
+        new PrimaryKey(EVENTS_PRIMARY_KEY, groupId, EVENTS_SORT_KEY, eventId));
+  }
+
+  /**
+   * This method updates an event item that already exists in the events table. The update
+   * expression is relative to the event itself (no 'Events.#eventId.' prefix like on the group
+   * item). Events that haven't been migrated yet are left alone so that a partial item never gets
+   * created, the migration will copy the whole event from the group item.
+   *
+   * @param groupId        The id of the group the event is in.
+   * @param eventId        The id of the event to update.
+   * @param updateItemSpec The update to make to the event item.
+   * @return The outcome of the update or null if the event isn't in the table.
+   */
+  public UpdateItemOutcome updateEvent(final String groupId, final String eventId,
+      final UpdateItemSpec updateItemSpec) {
+    updateItemSpec.withPrimaryKey(EVENTS_PRIMARY_KEY, groupId, EVENTS_SORT_KEY, eventId)
+        .withConditionExpression("attribute_exists(" + EVENTS_SORT_KEY + ")");
+
+    try {
+      return this.updateItem(this.eventsTable, updateItemSpec);
+    } catch (final ConditionalCheckFailedException e) {
+      return null;
+    }
+  }
+
+  /**
+   * This method gets specific events of a group. Events are fetched 100 at a time using batch
+   * gets.
+   *
+   * @param groupId  The id of the group the events are in.
+   * @param eventIds The ids of the events to get.
+   * @return The event items that exist, in no particular order.
+   */
+  public List<Item> getEvents(final String groupId, final Collection<String> eventIds) {
+    final List<Item> eventItems = new ArrayList<>();
+
+    final List<String> distinctEventIds = eventIds.stream().distinct()
+        .collect(Collectors.toList());
+    for (final List<String> chunk : Lists.partition(distinctEventIds, MAX_BATCH_GET_KEYS)) {
+      final TableKeysAndAttributes tableKeysAndAttributes = new TableKeysAndAttributes(
+          this.eventsTable.getTableName());
+      for (final String eventId : chunk) {
+        tableKeysAndAttributes
+            .addHashAndRangePrimaryKey(EVENTS_PRIMARY_KEY, groupId, EVENTS_SORT_KEY, eventId);
+      }
+
+      eventItems.addAll(this.batchGetAll(tableKeysAndAttributes));
+    }
+
+    return eventItems;
+  }
+
+  /**
+   * This method gets a group's events in priority sort key order. It is a single query against the
+   * priority index that stops once it has read maxResults events (or the whole range if that's
+   * null), following dynamo's pagination cursor if one page isn't enough.
+   *
+   * @param groupId     The id of the group the events are in.
+   * @param lowSortKey  The inclusive lowest priority sort key to get.
+   * @param highSortKey The inclusive highest priority sort key to get.
+   * @param ascending   Whether the events come back from the lowest sort key or the highest.
+   * @param maxResults  The most events to read, null to read every event in the range.
+   * @return The event items in sort key order.
+   */
+  public List<Item> queryEventsByPriority(final String groupId, final String lowSortKey,
+      final String highSortKey, final boolean ascending, final Integer maxResults) {
+    final QuerySpec querySpec = new QuerySpec()
+        .withHashKey(EVENTS_PRIMARY_KEY, groupId)
+        .withRangeKeyCondition(new RangeKeyCondition(PRIORITY_SORT_KEY)
+            .between(lowSortKey, highSortKey))
+        .withScanIndexForward(ascending);
+
+    if (maxResults != null) {
+      querySpec.withMaxResultSize(maxResults);
+    }
+
+    return this.query(this.eventsTable, EVENTS_PRIORITY_INDEX, querySpec);
+  }
+
+  /**
+   * This method deletes events from the events table 25 at a time using batch writes.
+   *
+   * @param groupId  The id of the group the events are in.
+   * @param eventIds The ids of the events to delete.
+   */
+  public void deleteEvents(final String groupId, final Collection<String> eventIds) {
+    this.batchDelete(this.eventsTable, eventIds.stream().distinct()
+        .map(eventId -> new PrimaryKey(EVENTS_PRIMARY_KEY, groupId, EVENTS_SORT_KEY, eventId))
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * @param groupId  The id of the group the event is in.
+   * @param eventId  The id of the event.
+   * @param eventMap The event as it is stored on the group item.
+   * @return The events table item for the event, keyed and with its priority sort key set.
+   */
+  protected Item getEventItem(final String groupId, final String eventId,
+      final Map<String, Object> eventMap) {
+    return Item.fromMap(eventMap)
+        .withPrimaryKey(EVENTS_PRIMARY_KEY, groupId, EVENTS_SORT_KEY, eventId)
+        .withString(PRIORITY_SORT_KEY,
+            EventForSorting.getPrioritySortKey(eventId, new Event(eventMap)));
   }
 
   //Reports table methods
   public PutItemOutcome putReport(final Report report) {
-    return this.reportsTable.putItem(report.asItem());
+    return this.putItem(this.reportsTable, report.asItem());
   }
 
   //Feedback table methods
   public PutItemOutcome putFeedback(final Feedback feedback) {
-    return this.reportsTable.putItem(feedback.asItem());
+    return this.putItem(this.reportsTable, feedback.asItem());
   }
 
   //for warming
@@ -260,13 +805,518 @@ public class DbAccessManager {
   //transactions
   public TransactWriteItemsResult executeWriteTransaction(final List<TransactWriteItem> actions) {
     final TransactWriteItemsRequest transactWriteItemsRequest = new TransactWriteItemsRequest()
-        .withTransactItems(actions);
-    return this.client.transactWriteItems(transactWriteItemsRequest);
+        .withTransactItems(actions)
+        .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+
+    final long startNanos = System.nanoTime();
+    final TransactWriteItemsResult transactWriteItemsResult = this.client
+        .transactWriteItems(transactWriteItemsRequest);
+    this.recordCalls("TransactWriteItems", System.nanoTime() - startNanos,
+        transactWriteItemsResult.getConsumedCapacity(), true);
+
+    for (final TransactWriteItem action : actions) {
+      if (action.getPut() != null) {
+        this.invalidate(action.getPut().getTableName(), action.getPut().getItem());
+      } else if (action.getUpdate() != null) {
+        this.invalidate(action.getUpdate().getTableName(), action.getUpdate().getKey());
+      } else if (action.getDelete() != null) {
+        this.invalidate(action.getDelete().getTableName(), action.getDelete().getKey());
+      }
+    }
+
+    return transactWriteItemsResult;
   }
 
   public TransactGetItemsResult executeGetTransaction(
       final TransactGetItemsRequest transactGetItemsRequest) {
-    return this.client.transactGetItems(transactGetItemsRequest);
+    final long startNanos = System.nanoTime();
+    final TransactGetItemsResult transactGetItemsResult = this.client.transactGetItems(
+        transactGetItemsRequest.withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+    this.recordCalls("TransactGetItems", System.nanoTime() - startNanos,
+        transactGetItemsResult.getConsumedCapacity(), false);
+
+    return transactGetItemsResult;
+  }
+
+  //Instrumented calls - every call to dynamo goes through one of these so that its latency,
+  //consumed capacity and item size are counted against the running function and its table
+  protected Item getItem(final Table table, final PrimaryKey primaryKey) {
+    return this.getItem(table, new GetItemSpec().withPrimaryKey(primaryKey));
+  }
+
+  /**
+   * @param table      The table to get the item from.
+   * @param primaryKey The key of the item.
+   * @param paths      Dot separated document paths to project. Every name in a path is swapped
+   *                   out for a placeholder so map keys with any characters can be used.
+   * @return The item with only the projected attributes or null if there is no item.
+   */
+  protected Item getItem(final Table table, final PrimaryKey primaryKey,
+      final Collection<String> paths) {
+    final NameMap nameMap = new NameMap();
+    final Map<String, String> placeholders = new HashMap<>();
+    final List<String> projectionExpression = new ArrayList<>();
+    for (final String path : paths) {
+      final List<String> placeholderPath = new ArrayList<>();
+      for (final String name : path.split("\\.")) {
+        placeholderPath.add(placeholders.computeIfAbsent(name, n -> {
+          final String placeholder = "#p" + placeholders.size();
+          nameMap.with(placeholder, n);
+          return placeholder;
+        }));
+      }
+      projectionExpression.add(String.join(".", placeholderPath));
+    }
+
+    return this.getItem(table, new GetItemSpec()
+        .withPrimaryKey(primaryKey)
+        .withProjectionExpression(String.join(", ", projectionExpression))
+        .withNameMap(nameMap));
+  }
+
+  protected Item getItem(final Table table, final GetItemSpec getItemSpec) {
+    final long startNanos = System.nanoTime();
+    final GetItemOutcome outcome = table.getItemOutcome(
+        getItemSpec.withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+    //the outcome converts the whole item every time it's asked for it, so decode it just once
+    final Map<String, Object> attributes = AttributeValueCodec
+        .decodeMap(outcome.getGetItemResult().getItem());
+    this.recordCall(table.getTableName(), "GetItem", System.nanoTime() - startNanos,
+        outcome.getGetItemResult().getConsumedCapacity(), false, getItemSizeBytes(attributes));
+
+    return attributes == null ? null : Item.fromMap(attributes);
+  }
+
+  protected PutItemOutcome putItem(final Table table, final Item item) {
+    return this.putItem(table, new PutItemSpec().withItem(item));
+  }
+
+  /**
+   * This method writes a model's map straight to the low level client. Encoding it directly skips
+   * building an Item that the table would then have to convert again.
+   *
+   * @param table      The table to put the item in.
+   * @param attributes The whole item as a model's asMap gives it.
+   * @return The outcome of the put.
+   */
+  protected PutItemOutcome putItem(final Table table, final Map<String, Object> attributes) {
+    final long startNanos = System.nanoTime();
+    final PutItemResult result = this.client.putItem(new PutItemRequest()
+        .withTableName(table.getTableName())
+        .withItem(AttributeValueCodec.encodeMap(attributes))
+        .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+    this.recordCall(table.getTableName(), "PutItem", System.nanoTime() - startNanos,
+        result.getConsumedCapacity(), true, getItemSizeBytes(attributes));
+
+    return new PutItemOutcome(result);
+  }
+
+  protected PutItemOutcome putItem(final Table table, final PutItemSpec putItemSpec) {
+    final long startNanos = System.nanoTime();
+    final PutItemOutcome outcome = table
+        .putItem(putItemSpec.withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+    this.recordCall(table.getTableName(), "PutItem", System.nanoTime() - startNanos,
+        outcome.getPutItemResult().getConsumedCapacity(), true,
+        getItemSizeBytes(putItemSpec.getItem()));
+
+    return outcome;
+  }
+
+  protected UpdateItemOutcome updateItem(final Table table, final UpdateItemSpec updateItemSpec) {
+    final long startNanos = System.nanoTime();
+    final UpdateItemOutcome outcome = table
+        .updateItem(updateItemSpec.withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+    this.recordCall(table.getTableName(), "UpdateItem", System.nanoTime() - startNanos,
+        outcome.getUpdateItemResult().getConsumedCapacity(), true,
+        getItemSizeBytes(outcome.getItem()));
+
+    return outcome;
+  }
+
+  protected DeleteItemOutcome deleteItem(final Table table, final PrimaryKey primaryKey) {
+    final long startNanos = System.nanoTime();
+    final DeleteItemOutcome outcome = table.deleteItem(new DeleteItemSpec()
+        .withPrimaryKey(primaryKey)
+        .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+    this.recordCall(table.getTableName(), "DeleteItem", System.nanoTime() - startNanos,
+        outcome.getDeleteItemResult().getConsumedCapacity(), true, 0);
+
+    return outcome;
+  }
+
+  /**
+   * @param table     The table to query.
+   * @param indexName The index on the table to query.
+   * @param querySpec The query to run.
+   * @return Every item the query returns, following dynamo's pagination cursor to the end.
+   */
+  protected List<Item> query(final Table table, final String indexName,
+      final QuerySpec querySpec) {
+    final long startNanos = System.nanoTime();
+    final ItemCollection<QueryOutcome> itemCollection = table.getIndex(indexName)
+        .query(querySpec.withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+
+    final List<Item> items = new ArrayList<>();
+    long itemBytes = 0;
+    for (final Item item : itemCollection) {
+      items.add(item);
+      itemBytes += getItemSizeBytes(item);
+    }
+
+    this.recordCall(table.getTableName(), "Query", System.nanoTime() - startNanos,
+        itemCollection.getAccumulatedConsumedCapacity(), false, itemBytes);
+
+    return items;
+  }
+
+  private BatchGetItemOutcome batchGetItem(final BatchGetItemSpec batchGetItemSpec) {
+    final long startNanos = System.nanoTime();
+    final BatchGetItemOutcome outcome = this.dynamoDb
+        .batchGetItem(batchGetItemSpec.withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+    final long nanos = System.nanoTime() - startNanos;
+
+    for (final ConsumedCapacity consumedCapacity : Optional
+        .ofNullable(outcome.getBatchGetItemResult().getConsumedCapacity())
+        .orElse(Collections.emptyList())) {
+      long itemBytes = 0;
+      for (final Item item : outcome.getTableItems()
+          .getOrDefault(consumedCapacity.getTableName(), Collections.emptyList())) {
+        itemBytes += getItemSizeBytes(item);
+      }
+
+      this.recordCall(consumedCapacity.getTableName(), "BatchGetItem", nanos, consumedCapacity,
+          false, itemBytes);
+    }
+
+    return outcome;
+  }
+
+  private BatchWriteItemOutcome batchWriteItem(final BatchWriteItemSpec batchWriteItemSpec) {
+    final long startNanos = System.nanoTime();
+    final BatchWriteItemOutcome outcome = this.dynamoDb.batchWriteItem(
+        batchWriteItemSpec.withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+    this.recordCalls("BatchWriteItem", System.nanoTime() - startNanos,
+        outcome.getBatchWriteItemResult().getConsumedCapacity(), true);
+
+    return outcome;
+  }
+
+  /**
+   * This method counts a call that touched several tables. The call's latency is counted against
+   * each of them since there's no way to split it up.
+   */
+  private void recordCalls(final String operation, final long nanos,
+      final List<ConsumedCapacity> consumedCapacities, final boolean isWrite) {
+    if (consumedCapacities != null) {
+      for (final ConsumedCapacity consumedCapacity : consumedCapacities) {
+        this.recordCall(consumedCapacity.getTableName(), operation, nanos, consumedCapacity,
+            isWrite, 0);
+      }
+    }
+  }
+
+  /**
+   * This method counts a call against the running function ('Dynamo.table.*' metrics) and against
+   * the table's summary for the whole invocation (the 'Dynamo.table' function).
+   *
+   * @param tableName        The table the call was made against.
+   * @param operation        The name of the dynamo operation.
+   * @param nanos            How long the call took.
+   * @param consumedCapacity The capacity dynamo says the call consumed.
+   * @param isWrite          Whether the capacity is write capacity or read capacity.
+   * @param itemBytes        The estimated size of the items read or written.
+   */
+  private void recordCall(final String tableName, final String operation, final long nanos,
+      final ConsumedCapacity consumedCapacity, final boolean isWrite, final long itemBytes) {
+    if (this.metrics != null) {
+      final String summaryFunctionName = "Dynamo." + tableName;
+      final String capacityMetricName = isWrite ? "WriteCapacityUnits" : "ReadCapacityUnits";
+      final double capacityUnits = Optional.ofNullable(consumedCapacity)
+          .map(ConsumedCapacity::getCapacityUnits).orElse(0.0);
+
+      this.metrics.recordTimeMetric(summaryFunctionName + "." + operation, nanos);
+      this.metrics
+          .incrementDoubleMetric(summaryFunctionName + "." + capacityMetricName, capacityUnits);
+      this.metrics.incrementMetric(summaryFunctionName + ".ItemBytes", (int) itemBytes);
+
+      this.metrics.recordTimeMetric(summaryFunctionName, operation, nanos);
+      this.metrics.incrementDoubleMetric(summaryFunctionName, capacityMetricName, capacityUnits);
+      this.metrics.incrementMetric(summaryFunctionName, "ItemBytes", (int) itemBytes);
+    }
+  }
+
+  /**
+   * This estimates an item's size the way dynamo sizes items for capacity: the utf-8 length of each
+   * attribute name plus the size of its value.
+   *
+   * @param item The item to size.
+   * @return The estimated size of the item in bytes or zero if there is no item.
+   */
+  private static long getItemSizeBytes(final Item item) {
+    long bytes = 0;
+    if (item != null) {
+      for (final Map.Entry<String, Object> attribute : item.attributes()) {
+        bytes += getUtf8Length(attribute.getKey()) + getValueSizeBytes(attribute.getValue());
+      }
+    }
+
+    return bytes;
+  }
+
+  private static long getItemSizeBytes(final Map<String, Object> attributes) {
+    long bytes = 0;
+    if (attributes != null) {
+      for (final Map.Entry<String, Object> attribute : attributes.entrySet()) {
+        bytes += getUtf8Length(attribute.getKey()) + getValueSizeBytes(attribute.getValue());
+      }
+    }
+
+    return bytes;
+  }
+
+  private static long getValueSizeBytes(final Object value) {
+    long bytes = 1; // booleans and nulls
+    if (value instanceof String) {
+      bytes = getUtf8Length((String) value);
+    } else if (value instanceof Number) {
+      bytes = (value.toString().length() + 1) / 2 + 1; // roughly two digits a byte
+    } else if (value instanceof byte[]) {
+      bytes = ((byte[]) value).length;
+    } else if (value instanceof Map) {
+      bytes = 3; // the overhead of a map
+      for (final Object entry : ((Map<?, ?>) value).entrySet()) {
+        bytes += 1 + getUtf8Length(((Map.Entry<?, ?>) entry).getKey().toString())
+            + getValueSizeBytes(((Map.Entry<?, ?>) entry).getValue());
+      }
+    } else if (value instanceof Collection) {
+      bytes = 3; // the overhead of a list
+      for (final Object element : (Collection<?>) value) {
+        bytes += 1 + getValueSizeBytes(element);
+      }
+    }
+
+    return bytes;
+  }
+
+  private static long getUtf8Length(final String value) {
+    return value.getBytes(StandardCharsets.UTF_8).length;
+  }
+
+  /**
+   * @param tableName The table an item was written to.
+   * @param key       The written item's key (or the whole item).
+   */
+  private void invalidate(final String tableName, final Map<String, AttributeValue> key) {
+    if (USERS_TABLE_NAME.equals(tableName)) {
+      this.itemCache.invalidate(Region.USERS, key.get(USERS_PRIMARY_KEY).getS());
+    } else if (CATEGORIES_TABLE_NAME.equals(tableName)) {
+      this.itemCache.invalidate(Region.CATEGORIES, key.get(CATEGORIES_PRIMARY_KEY).getS());
+    } else if (GROUPS_TABLE_NAME.equals(tableName)) {
+      this.itemCache.invalidate(Region.GROUPS, key.get(GROUPS_PRIMARY_KEY).getS());
+    }
+  }
+
+  private Item getItemThroughCache(final Region region, final Table table,
+      final String primaryKey, final String key) {
+    Item item = this.itemCache.get(region, key);
+    if (item != null) {
+      this.incrementCacheMetric(region.getHitsMetric(), 1);
+    } else {
+      this.incrementCacheMetric(region.getMissesMetric(), 1);
+      item = this.getItemNoCache(region, table, primaryKey, key);
+    }
+
+    return item;
+  }
+
+  private Item getItemNoCache(final Region region, final Table table, final String primaryKey,
+      final String key) {
+    final Item item = this.getItem(table, new PrimaryKey(primaryKey, key));
+    this.cacheItems(region, Collections.singletonMap(key, item));
+    return item;
+  }
+
+  private void cacheItems(final Region region, final Map<String, Item> items) {
+    final long evictionCount = this.itemCache.getEvictionCount(region);
+    for (final Map.Entry<String, Item> item : items.entrySet()) {
+      this.itemCache.put(region, item.getKey(), item.getValue());
+    }
+
+    this.incrementCacheMetric(region.getEvictionsMetric(),
+        this.itemCache.getEvictionCount(region) - evictionCount);
+  }
+
+  private void incrementCacheMetric(final String metricName, final long amount) {
+    if (this.metrics != null) {
+      this.metrics.incrementMetric(metricName, (int) amount);
+    }
+  }
+
+  /**
+   * This method gets items through the cache. Uncached keys are split into chunks of the max batch
+   * get size and the chunks are fetched concurrently, then everything fetched is cached.
+   *
+   * @param region     The cache region the keys belong to.
+   * @param table      The table the keys belong to.
+   * @param primaryKey The name of the table's hash key.
+   * @param keys       The hash key values to get.
+   * @return A map from key to item. Keys that have no item are left out.
+   */
+  private Map<String, Item> batchGetThroughCache(final Region region, final Table table,
+      final String primaryKey, final Collection<String> keys) {
+    final Map<String, Item> items = new HashMap<>();
+    final List<String> uncachedKeys = new ArrayList<>();
+    for (final String key : new LinkedHashSet<>(keys)) { // batch gets reject duplicate keys
+      final Item item = this.itemCache.get(region, key);
+      if (item != null) {
+        items.put(key, item);
+      } else {
+        uncachedKeys.add(key);
+      }
+    }
+
+    this.incrementCacheMetric(region.getHitsMetric(), items.size());
+    this.incrementCacheMetric(region.getMissesMetric(), uncachedKeys.size());
+
+    final Map<String, Item> loadedItems = new HashMap<>();
+    final List<List<String>> chunks = Lists.partition(uncachedKeys, MAX_BATCH_GET_KEYS);
+    if (chunks.size() == 1) {
+      loadedItems.putAll(this.batchGetChunk(table, primaryKey, chunks.get(0)));
+    } else if (chunks.size() > 1) {
+      final List<Future<Map<String, Item>>> futures = new ArrayList<>();
+      for (final List<String> chunk : chunks) {
+        futures.add(this.batchGetExecutor
+            .submit(() -> this.batchGetChunk(table, primaryKey, chunk)));
+      }
+
+      for (final Future<Map<String, Item>> future : futures) {
+        try {
+          loadedItems.putAll(future.get());
+        } catch (final ExecutionException e) {
+          if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+          }
+          throw new IllegalStateException(e.getCause());
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException(e);
+        }
+      }
+    }
+
+    this.cacheItems(region, loadedItems);
+    items.putAll(loadedItems);
+
+    return items;
+  }
+
+  private Map<String, Item> batchGetChunk(final Table table, final String primaryKey,
+      final List<String> chunk) {
+    final Map<String, Item> loadedItems = new HashMap<>();
+
+    BatchGetItemOutcome outcome = this.batchGetItem(new BatchGetItemSpec()
+        .withTableKeyAndAttributes(new TableKeysAndAttributes(table.getTableName())
+            .addHashOnlyPrimaryKeys(primaryKey, chunk.toArray())));
+
+    for (int attempt = 1; ; attempt++) {
+      for (final Item item : outcome.getTableItems()
+          .getOrDefault(table.getTableName(), Collections.emptyList())) {
+        loadedItems.put(item.getString(primaryKey), item);
+      }
+
+      final Map<String, KeysAndAttributes> unprocessedKeys = outcome.getUnprocessedKeys();
+      if (unprocessedKeys == null || unprocessedKeys.isEmpty()) {
+        break;
+      }
+
+      if (attempt >= MAX_BATCH_GET_ATTEMPTS) {
+        //still being throttled, fall back to single gets so nothing gets left out
+        for (final KeysAndAttributes keysAndAttributes : unprocessedKeys.values()) {
+          for (final Map<String, AttributeValue> key : keysAndAttributes.getKeys()) {
+            final String keyValue = key.get(primaryKey).getS();
+            final Item item = this.getItem(table, new PrimaryKey(primaryKey, keyValue));
+            if (item != null) {
+              loadedItems.put(keyValue, item);
+            }
+          }
+        }
+        break;
+      }
+
+      this.backOff(attempt);
+      outcome = this.batchGetItem(new BatchGetItemSpec().withUnprocessedKeys(unprocessedKeys));
+    }
+
+    return loadedItems;
+  }
+
+  /**
+   * This method runs a batch get of up to 100 keys, retrying whatever dynamo leaves unprocessed.
+   *
+   * @param tableKeysAndAttributes The keys (and projection) to get from a single table.
+   * @return The items that exist, in no particular order.
+   */
+  private List<Item> batchGetAll(final TableKeysAndAttributes tableKeysAndAttributes) {
+    final String tableName = tableKeysAndAttributes.getTableName();
+    final List<Item> items = new ArrayList<>();
+
+    BatchGetItemOutcome outcome = this.batchGetItem(
+        new BatchGetItemSpec().withTableKeyAndAttributes(tableKeysAndAttributes));
+    for (int attempt = 1; ; attempt++) {
+      items.addAll(outcome.getTableItems().getOrDefault(tableName, Collections.emptyList()));
+
+      final Map<String, KeysAndAttributes> unprocessedKeys = outcome.getUnprocessedKeys();
+      if (unprocessedKeys == null || unprocessedKeys.isEmpty()) {
+        break;
+      }
+
+      if (attempt >= MAX_BATCH_GET_ATTEMPTS) {
+        throw new IllegalStateException("Batch get still throttled on " + tableName);
+      }
+
+      this.backOff(attempt);
+      outcome = this.batchGetItem(new BatchGetItemSpec().withUnprocessedKeys(unprocessedKeys));
+    }
+
+    return items;
+  }
+
+  /**
+   * This method deletes items 25 at a time using batch writes, retrying anything dynamo didn't
+   * process.
+   *
+   * @param table       The table to delete from.
+   * @param primaryKeys The distinct keys of the items to delete.
+   */
+  private void batchDelete(final Table table, final List<PrimaryKey> primaryKeys) {
+    for (final List<PrimaryKey> chunk : Lists.partition(primaryKeys, MAX_BATCH_WRITE_ITEMS)) {
+      BatchWriteItemOutcome outcome = this.batchWriteItem(new BatchWriteItemSpec()
+          .withTableWriteItems(new TableWriteItems(table.getTableName())
+              .withPrimaryKeysToDelete(chunk.toArray(new PrimaryKey[0]))));
+
+      for (int attempt = 1; outcome.getUnprocessedItems() != null && !outcome
+          .getUnprocessedItems().isEmpty(); attempt++) {
+        if (attempt >= MAX_BATCH_GET_ATTEMPTS) {
+          throw new IllegalStateException(
+              "Batch delete still throttled on " + table.getTableName());
+        }
+
+        this.backOff(attempt);
+        outcome = this.batchWriteItem(
+            new BatchWriteItemSpec().withUnprocessedItems(outcome.getUnprocessedItems()));
+      }
+    }
+  }
+
+  //full jitter so that throttled batches don't all come back at the same time
+  private void backOff(final int attempt) {
+    try {
+      Thread.sleep(ThreadLocalRandom.current()
+          .nextLong((BATCH_GET_BASE_BACKOFF_MILLIS << (attempt - 1)) + 1));
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
   }
 
   public static String getKeyIndex(final String tableName) throws Exception {
@@ -280,8 +1330,26 @@ public class DbAccessManager {
       return PENDING_EVENTS_PRIMARY_KEY;
     } else if (tableName.equals(REPORTS_TABLE_NAME)) {
       return REPORTS_PRIMARY_KEY;
+    } else if (tableName.equals(EVENTS_TABLE_NAME)) {
+      return EVENTS_PRIMARY_KEY;
+    } else if (tableName.equals(PENDING_EVENT_ITEMS_TABLE_NAME)) {
+      return PENDING_EVENT_ITEMS_PRIMARY_KEY;
+    } else if (tableName.equals(RATINGS_TABLE_NAME)) {
+      return RATINGS_PRIMARY_KEY;
     } else {
       throw new Exception("Invalid table name: " + tableName);
     }
   }
+
+  public static String getSortKeyIndex(final String tableName) throws Exception {
+    if (tableName.equals(EVENTS_TABLE_NAME)) {
+      return EVENTS_SORT_KEY;
+    } else if (tableName.equals(PENDING_EVENT_ITEMS_TABLE_NAME)) {
+      return PENDING_EVENT_ITEMS_SORT_KEY;
+    } else if (tableName.equals(RATINGS_TABLE_NAME)) {
+      return RATINGS_SORT_KEY;
+    } else {
+      throw new Exception("Table has no sort key: " + tableName);
+    }
+  }
 }
@@ -0,0 +1,70 @@
+package managers;
+
+import com.amazonaws.auth.EnvironmentVariableCredentialsProvider;
+import com.amazonaws.regions.Regions;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
+import com.amazonaws.services.dynamodbv2.document.DynamoDB;
+import com.amazonaws.services.dynamodbv2.document.Table;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.Getter;
+
+/**
+ * This class holds the dynamo client and the table handles. Building the client is expensive (new
+ * http connection pool, tls handshake on first use) so one of these should live for the life of
+ * the lambda container and be shared by every request's DbAccessManager. The same goes for the
+ * item cache, so reads can be served across requests.
+ *
+ * The small thread pool is for running the chunks of a large batch get at the same time.
+ */
+@Getter
+public class DbConnection {
+
+  private static final int BATCH_GET_THREADS = 4;
+
+  private final AmazonDynamoDBClient client;
+  private final DynamoDB dynamoDb;
+  private final ExecutorService batchGetExecutor;
+
+  private final Table groupsTable;
+  private final Table usersTable;
+  private final Table categoriesTable;
+  private final Table pendingEventsTable;
+  private final Table pendingEventItemsTable;
+  private final Table reportsTable;
+  private final Table eventsTable;
+  private final Table ratingsTable;
+
+  private final EventsStorageMode eventsStorageMode;
+  private final RatingsStorageMode ratingsStorageMode;
+  private final ItemCache itemCache;
+
+  public DbConnection() {
+    final Regions region = Regions.US_EAST_2;
+    this.client = (AmazonDynamoDBClient) AmazonDynamoDBClient.builder()
+        .withRegion(region)
+        .withCredentials(new EnvironmentVariableCredentialsProvider())
+        .build();
+    this.dynamoDb = new DynamoDB(this.client);
+
+    this.groupsTable = this.dynamoDb.getTable(DbAccessManager.GROUPS_TABLE_NAME);
+    this.usersTable = this.dynamoDb.getTable(DbAccessManager.USERS_TABLE_NAME);
+    this.categoriesTable = this.dynamoDb.getTable(DbAccessManager.CATEGORIES_TABLE_NAME);
+    this.pendingEventsTable = this.dynamoDb.getTable(DbAccessManager.PENDING_EVENTS_TABLE_NAME);
+    this.pendingEventItemsTable = this.dynamoDb
+        .getTable(DbAccessManager.PENDING_EVENT_ITEMS_TABLE_NAME);
+    this.reportsTable = this.dynamoDb.getTable(DbAccessManager.REPORTS_TABLE_NAME);
+    this.eventsTable = this.dynamoDb.getTable(DbAccessManager.EVENTS_TABLE_NAME);
+    this.ratingsTable = this.dynamoDb.getTable(DbAccessManager.RATINGS_TABLE_NAME);
+
+    this.eventsStorageMode = EventsStorageMode.fromEnv();
+    this.ratingsStorageMode = RatingsStorageMode.fromEnv();
+    this.itemCache = new ItemCache();
+
+    this.batchGetExecutor = Executors.newFixedThreadPool(BATCH_GET_THREADS, runnable -> {
+      final Thread thread = new Thread(runnable, "batch-get");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+}
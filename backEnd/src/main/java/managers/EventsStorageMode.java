@@ -0,0 +1,35 @@
+package managers;
+
+/**
+ * Events are being moved off of the group item and into the events table. This controls where
+ * they're written to and read from while that happens.
+ *
+ * GROUP_ITEM: events only live on the group item (how it's always been).
+ * DUAL_WRITE: every event write goes to the group item and is mirrored to the events table, reads
+ * still come from the group item. This is the mode to run the migration in.
+ * DUAL_READ: writes are the same as DUAL_WRITE. Groups that the migration has marked as migrated
+ * get their event batches and single events from the events table.
+ */
+public enum EventsStorageMode {
+  GROUP_ITEM,
+  DUAL_WRITE,
+  DUAL_READ;
+
+  public static final String ENV_KEY = "EVENTS_STORAGE_MODE";
+
+  public boolean writesEventsTable() {
+    return this != GROUP_ITEM;
+  }
+
+  public boolean readsEventsTable() {
+    return this == DUAL_READ;
+  }
+
+  public static EventsStorageMode fromEnv() {
+    try {
+      return EventsStorageMode.valueOf(System.getenv(ENV_KEY));
+    } catch (final Exception e) {
+      return GROUP_ITEM; // not set or not a mode
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package managers;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * This is the read cache in front of the users, categories and groups tables. One of these lives
+ * for the life of the lambda container (it hangs off of the DbConnection) so items read by one
+ * request can be served to the next ones.
+ *
+ * Each table gets its own region with its own size and time to live. Writes made through the
+ * DbAccessManager invalidate the key they wrote, but writes made by other containers are only
+ * picked up once the entry expires. Users and groups are written all over the place so they're
+ * only trusted briefly, categories are rarely written so they're kept for longer.
+ *
+ * Partial items read with a projection are cached separately from the full items, keyed by the
+ * item's hash key and then by the projection. Invalidating a key drops the full item and every
+ * projection of it.
+ */
+public class ItemCache {
+
+  @Getter
+  @RequiredArgsConstructor
+  public enum Region {
+    USERS(1000, 5, "Users"),
+    CATEGORIES(1000, 60, "Categories"),
+    GROUPS(500, 5, "Groups");
+
+    private final long maximumSize;
+    private final long timeToLiveSeconds;
+    private final String metricPrefix;
+
+    public String getHitsMetric() {
+      return this.metricPrefix + "CacheHits";
+    }
+
+    public String getMissesMetric() {
+      return this.metricPrefix + "CacheMisses";
+    }
+
+    public String getEvictionsMetric() {
+      return this.metricPrefix + "CacheEvictions";
+    }
+
+    public String getProjectionHitsMetric() {
+      return this.metricPrefix + "ProjectionCacheHits";
+    }
+
+    public String getProjectionMissesMetric() {
+      return this.metricPrefix + "ProjectionCacheMisses";
+    }
+  }
+
+  private final Map<Region, Cache<String, Item>> regions;
+  private final Map<Region, Cache<String, ConcurrentMap<String, Item>>> projections;
+
+  public ItemCache() {
+    this.regions = new EnumMap<>(Region.class);
+    this.projections = new EnumMap<>(Region.class);
+    for (final Region region : Region.values()) {
+      this.regions.put(region, CacheBuilder.newBuilder()
+          .maximumSize(region.getMaximumSize())
+          .expireAfterWrite(region.getTimeToLiveSeconds(), TimeUnit.SECONDS)
+          .recordStats()
+          .build());
+      this.projections.put(region, CacheBuilder.newBuilder()
+          .maximumSize(region.getMaximumSize())
+          .expireAfterWrite(region.getTimeToLiveSeconds(), TimeUnit.SECONDS)
+          .build());
+    }
+  }
+
+  /**
+   * @param region The region the key is in.
+   * @param key    The hash key of the item.
+   * @return The cached item or null if it isn't cached (or has expired).
+   */
+  public Item get(final Region region, final String key) {
+    return this.regions.get(region).getIfPresent(key);
+  }
+
+  /**
+   * @param region The region the key is in.
+   * @param key    The hash key of the item.
+   * @param item   The item to cache. Missing items (null) aren't cached since the item could be
+   *               created by another container at any time.
+   */
+  public void put(final Region region, final String key, final Item item) {
+    if (item != null) {
+      this.regions.get(region).put(key, item);
+    }
+  }
+
+  /**
+   * @param region     The region the key is in.
+   * @param key        The hash key of the item.
+   * @param projection The projection the partial item was read with.
+   * @return The cached partial item or null if it isn't cached (or has expired).
+   */
+  public Item getProjection(final Region region, final String key, final String projection) {
+    final Map<String, Item> itemProjections = this.projections.get(region).getIfPresent(key);
+    return itemProjections == null ? null : itemProjections.get(projection);
+  }
+
+  /**
+   * @param region     The region the key is in.
+   * @param key        The hash key of the item.
+   * @param projection The projection the partial item was read with.
+   * @param item       The partial item to cache. Missing items (null) aren't cached.
+   */
+  public void putProjection(final Region region, final String key, final String projection,
+      final Item item) {
+    if (item != null) {
+      try {
+        this.projections.get(region).get(key, ConcurrentHashMap::new).put(projection, item);
+      } catch (final ExecutionException e) {
+        // the loader can't throw, but if somehow it did the item just doesn't get cached
+      }
+    }
+  }
+
+  public void invalidate(final Region region, final String key) {
+    this.regions.get(region).invalidate(key);
+    this.projections.get(region).invalidate(key);
+  }
+
+  /**
+   * @param region The region to get the count for.
+   * @return The number of entries that have been evicted from the region for size or expiration
+   * over the life of the container. Invalidations aren't counted.
+   */
+  public long getEvictionCount(final Region region) {
+    return this.regions.get(region).stats().evictionCount();
+  }
+}
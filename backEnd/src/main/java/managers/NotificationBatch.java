@@ -0,0 +1,169 @@
+package managers;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sns.AmazonSNSAsync;
+import com.amazonaws.services.sns.model.EndpointDisabledException;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sns.model.PublishResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import models.Metadata;
+import utilities.ErrorDescriptor;
+import utilities.Metrics;
+import utilities.WarningDescriptor;
+
+/**
+ * This class publishes a set of push notifications asynchronously. Only a bounded number of
+ * publishes are in flight at once, submitting past that blocks until one of them completes. Once
+ * everything is submitted, awaitCompletion waits for all of the publishes to finish.
+ *
+ * Every notification is tagged with a key (usually the username it's for) so that failures can be
+ * reported against it. Batches may be submitted to from several threads.
+ */
+public class NotificationBatch {
+
+  public static final String DISABLED_ENDPOINTS = "DisabledEndpoints";
+
+  private final AmazonSNSAsync asyncClient;
+  private final Semaphore inFlightPermits;
+  private final List<Future<PublishResult>> publishes;
+  private final Map<String, Exception> failures;
+  private final Map<String, String> disabledEndpoints;
+
+  NotificationBatch(final AmazonSNSAsync asyncClient, final int maxInFlight) {
+    this.asyncClient = asyncClient;
+    this.inFlightPermits = new Semaphore(maxInFlight);
+    this.publishes = Collections.synchronizedList(new ArrayList<>());
+    this.failures = new ConcurrentHashMap<>();
+    this.disabledEndpoints = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Queues a notification that will pop up on the user's device.
+   *
+   * @param key      The identifier that a failure of this notification is reported under.
+   * @param arn      The arn of the target of this message.
+   * @param title    The title of the notification.
+   * @param body     The body of the notification.
+   * @param tag      The tag to be attached to the notification.
+   * @param metadata This contains the action and payload information to be used by the front end.
+   *                 It is serialized right away so the caller is free to change it afterwards.
+   */
+  public void sendMessage(final String key, final String arn, final String title,
+      final String body, final String tag, final Metadata metadata) {
+    this.submit(key, SnsAccessManager.buildMessageRequest(arn, title, body, tag, metadata));
+  }
+
+  /**
+   * Queues a notification that will be delivered without popping up on the user's device.
+   *
+   * @param key      The identifier that a failure of this notification is reported under.
+   * @param arn      The arn of the target of this message.
+   * @param metadata This contains the action and payload information to be used by the front end.
+   *                 It is serialized right away so the caller is free to change it afterwards.
+   */
+  public void sendMutedMessage(final String key, final String arn, final Metadata metadata) {
+    this.submit(key, SnsAccessManager.buildMutedMessageRequest(arn, metadata));
+  }
+
+  /**
+   * This method blocks until every submitted notification has either been published or failed.
+   *
+   * @return This batch so that the results can be read off of it.
+   */
+  public NotificationBatch awaitCompletion() {
+    final List<Future<PublishResult>> toAwait;
+    synchronized (this.publishes) {
+      toAwait = new ArrayList<>(this.publishes);
+    }
+
+    for (final Future<PublishResult> publish : toAwait) {
+      try {
+        publish.get();
+      } catch (final ExecutionException e) {
+        //already recorded by the async handler
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+
+    return this;
+  }
+
+  /**
+   * This method waits for the batch to complete and then logs every failure along with any
+   * disabled endpoints that were found.
+   *
+   * @param classMethod The function the failures should be logged under.
+   * @param metrics     Standard metrics object for profiling and logging.
+   * @return Whether or not every notification was published or hit a disabled endpoint.
+   */
+  public boolean awaitCompletion(final String classMethod, final Metrics metrics) {
+    this.awaitCompletion();
+
+    for (final Map.Entry<String, Exception> failure : this.failures.entrySet()) {
+      metrics.log(new ErrorDescriptor<>(failure.getKey(), classMethod, failure.getValue()));
+    }
+
+    if (!this.disabledEndpoints.isEmpty()) {
+      metrics.log(new WarningDescriptor<>(new HashMap<>(this.disabledEndpoints), classMethod,
+          "Push endpoints disabled."));
+    }
+    metrics.incrementMetric(DISABLED_ENDPOINTS, this.disabledEndpoints.size());
+
+    return this.failures.isEmpty();
+  }
+
+  /**
+   * @return A map from key to the exception that the key's notification failed with.
+   */
+  public Map<String, Exception> getFailures() {
+    return this.failures;
+  }
+
+  /**
+   * Endpoints get disabled when the device uninstalls the app or the token expires. This isn't an
+   * error on our end, but the endpoints should get cleaned up.
+   *
+   * @return A map from key to the disabled endpoint arn the key's notification was sent to.
+   */
+  public Map<String, String> getDisabledEndpoints() {
+    return this.disabledEndpoints;
+  }
+
+  private void submit(final String key, final PublishRequest publishRequest) {
+    this.inFlightPermits.acquireUninterruptibly();
+
+    try {
+      this.publishes.add(this.asyncClient.publishAsync(publishRequest,
+          new AsyncHandler<PublishRequest, PublishResult>() {
+            @Override
+            public void onError(final Exception exception) {
+              if (exception instanceof EndpointDisabledException) {
+                NotificationBatch.this.disabledEndpoints.put(key, publishRequest.getTargetArn());
+              } else {
+                NotificationBatch.this.failures.put(key, exception);
+              }
+              NotificationBatch.this.inFlightPermits.release();
+            }
+
+            @Override
+            public void onSuccess(final PublishRequest request, final PublishResult result) {
+              NotificationBatch.this.inFlightPermits.release();
+            }
+          }));
+    } catch (final RuntimeException e) {
+      //the request never made it out so the handler won't be called
+      this.inFlightPermits.release();
+      this.failures.put(key, e);
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package managers;
+
+/**
+ * Category ratings are being moved off of the user item and into the ratings table (one item per
+ * user and category). This controls where they're written to and read from while that happens.
+ *
+ * USER_ITEM: ratings only live on the user item (how it's always been).
+ * DUAL_WRITE: every ratings write goes to the user item and is mirrored to the ratings table, reads
+ * still come from the user item. This is the mode to run the migration in.
+ * DUAL_READ: writes are the same as DUAL_WRITE. Ratings are read from the ratings table and any
+ * user without a ratings item for the category falls back to their user item.
+ */
+public enum RatingsStorageMode {
+  USER_ITEM,
+  DUAL_WRITE,
+  DUAL_READ;
+
+  public static final String ENV_KEY = "RATINGS_STORAGE_MODE";
+
+  public boolean writesRatingsTable() {
+    return this != USER_ITEM;
+  }
+
+  public boolean readsRatingsTable() {
+    return this == DUAL_READ;
+  }
+
+  public static RatingsStorageMode fromEnv() {
+    try {
+      return RatingsStorageMode.valueOf(System.getenv(ENV_KEY));
+    } catch (final Exception e) {
+      return USER_ITEM; // not set or not a mode
+    }
+  }
+}
@@ -1,79 +1,222 @@
 package managers;
 
+import com.amazonaws.HttpMethod;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.BucketLifecycleConfiguration;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.lifecycle.LifecycleFilter;
+import com.amazonaws.services.s3.model.lifecycle.LifecyclePrefixPredicate;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import utilities.Config;
 import utilities.ErrorDescriptor;
+import utilities.ImageData;
+import utilities.ImageNormalizer;
 import utilities.Metrics;
 import utilities.ResultStatus;
 
 public class S3AccessManager {
 
   //some common file/mime types
-  private final String JPG_TYPE = "jpg";
-  private final String JPG_MIME = "image/jpeg";
-  private final String PNG_TYPE = "png";
-  private final String PNG_MIME = "image/png";
+  private static final String JPG_TYPE = "jpg";
+  private static final String JPG_MIME = "image/jpeg";
+  private static final String PNG_TYPE = "png";
+  private static final String PNG_MIME = "image/png";
 
   private AmazonS3 s3Client;
   private static final String S3_IMAGE_BUCKET = "pocketpoll-images";
+  private static final String THUMBNAIL_PREFIX = "thumbnails/";
+  private static final String UPLOAD_PREFIX = "uploads/";
+  private static final long UPLOAD_URL_EXPIRATION_MILLIS = 5 * 60 * 1000;
+  private static final String UPLOAD_EXPIRATION_RULE_ID = "ExpireUnclaimedUploads";
+  private static final int UPLOAD_EXPIRATION_DAYS = 1;
+
+  //set this to send every call to a local stand-in for s3 (minio, localstack) instead of aws
+  public static final String ENDPOINT_ENV_KEY = "S3_ENDPOINT";
 
   public S3AccessManager() {
-    this.s3Client = AmazonS3ClientBuilder
-        .standard()
-        .withRegion(Regions.US_EAST_2)
-        .build();
+    final AmazonS3ClientBuilder builder = AmazonS3ClientBuilder.standard();
+    final String endpoint = System.getenv(ENDPOINT_ENV_KEY);
+    if (endpoint != null) {
+      builder.withEndpointConfiguration(
+          new EndpointConfiguration(endpoint, Regions.US_EAST_2.getName()))
+          .withPathStyleAccessEnabled(true);
+    } else {
+      builder.withRegion(Regions.US_EAST_2);
+    }
+
+    this.s3Client = builder.build();
   }
 
   public S3AccessManager(final AmazonS3 amazonS3) {
     this.s3Client = amazonS3;
   }
 
-  public Optional<String> uploadImage(final List<Integer> fileData, final Metrics metrics) {
+  /**
+   * This method normalizes an image and puts it in the image bucket under a new file name. The
+   * image is decoded as it streams in, bounded to ImageNormalizer.MAX_DIMENSION and stored as a
+   * compressed jpeg. A thumbnail of it is stored under the file name's thumbnail key.
+   *
+   * @param imageData The image to upload. It must not be over the max image size.
+   * @param metrics   Standard metrics object for profiling and logging.
+   * @return The new file name or empty if the image wasn't uploaded.
+   */
+  public Optional<String> uploadImage(final ImageData imageData, final Metrics metrics) {
     final String classMethod = "S3AccessManager.uploadImage";
     metrics.commonSetup(classMethod);
 
     String fileName;
-    try {
+    try (final InputStream is = imageData.openStream()) {
+      if (imageData.exceedsMaxSize()) {
+        throw new IllegalArgumentException("Image is over the max size.");
+      }
+
+      final BufferedImage image = ImageNormalizer.read(is, ImageNormalizer.MAX_DIMENSION);
+      final byte[] imageJpeg = ImageNormalizer.toJpeg(image, ImageNormalizer.MAX_DIMENSION);
+      final byte[] thumbnailJpeg = ImageNormalizer
+          .toJpeg(image, ImageNormalizer.THUMBNAIL_DIMENSION);
+
       final UUID uuid = UUID.randomUUID();
       fileName = uuid.toString() + "." + JPG_TYPE;
 
-      int fileLength = fileData.size();
-      byte[] rawData = new byte[fileLength];
+      this.putJpeg(fileName, imageJpeg);
+      this.putJpeg(getThumbnailFileName(fileName), thumbnailJpeg);
+
+      metrics.incrementMetric("OriginalBytes", (int) imageData.getLength());
+      metrics.incrementMetric("StoredBytes", imageJpeg.length);
+      metrics.incrementMetric("ThumbnailBytes", thumbnailJpeg.length);
+    } catch (Exception e) {
+      fileName = null;
+      metrics.log(new ErrorDescriptor<>(imageData.toString(), classMethod, e));
+    }
+
+    metrics.commonClose(fileName != null);
+    return Optional.ofNullable(fileName);
+  }
+
+  /**
+   * @param fileName The file name of an uploaded image.
+   * @return The key of the image's thumbnail. Images uploaded before thumbnails were made don't
+   * have one.
+   */
+  public static String getThumbnailFileName(final String fileName) {
+    return THUMBNAIL_PREFIX + fileName;
+  }
+
+  /**
+   * @param activeUser The user that's going to upload an image.
+   * @return A new key under the user's upload prefix. Only keys under it are accepted from them.
+   */
+  public static String newUploadKey(final String activeUser) {
+    return UPLOAD_PREFIX + activeUser + "/" + UUID.randomUUID().toString() + "." + JPG_TYPE;
+  }
+
+  /**
+   * This method presigns a url that the app can put an image to directly. The content length,
+   * content type and public read acl are signed into the url, so the put fails unless it sends a
+   * jpeg of exactly that many bytes. The url is only good for a few minutes.
+   *
+   * @param uploadKey     The key to upload to, from newUploadKey.
+   * @param contentLength The size of the image in bytes.
+   * @return The presigned put url.
+   */
+  public URL getImageUploadUrl(final String uploadKey, final long contentLength) {
+    final GeneratePresignedUrlRequest presignedUrlRequest = new GeneratePresignedUrlRequest(
+        S3_IMAGE_BUCKET, uploadKey, HttpMethod.PUT)
+        .withExpiration(new Date(System.currentTimeMillis() + UPLOAD_URL_EXPIRATION_MILLIS))
+        .withContentType(JPG_MIME);
+    presignedUrlRequest
+        .putCustomRequestHeader(Headers.CONTENT_LENGTH, Long.toString(contentLength));
+    presignedUrlRequest.putCustomRequestHeader(Headers.S3_CANNED_ACL,
+        CannedAccessControlList.PublicRead.toString());
+
+    return this.s3Client.generatePresignedUrl(presignedUrlRequest);
+  }
 
-      for (int i = 0; i < fileLength; i++) {
-        rawData[i] = fileData.get(i).byteValue();
+  /**
+   * This method claims an image the app says it uploaded with a presigned url. The object's head
+   * is read to make sure it exists, it's a jpeg and it's not over the max image size. None of the
+   * image's bytes are read.
+   *
+   * The upload is then copied to a new file name and deleted, so each upload key can only be
+   * claimed once. Otherwise two groups could point at the same object and replacing either icon
+   * would delete the other's. The copy is pinned to the etag that was checked, in case the app puts
+   * something else to the key before the url expires.
+   *
+   * @param activeUser The user that uploaded the image.
+   * @param uploadKey  The key the image was uploaded to. It must be under the user's prefix.
+   * @param metrics    Standard metrics object for profiling and logging.
+   * @return The new file name to use for the icon or empty if the upload isn't valid.
+   */
+  public Optional<String> verifyUploadedImage(final String activeUser, final String uploadKey,
+      final Metrics metrics) {
+    final String classMethod = "S3AccessManager.verifyUploadedImage";
+    metrics.commonSetup(classMethod);
+
+    String fileName = null;
+    try {
+      if (!uploadKey.startsWith(UPLOAD_PREFIX + activeUser + "/")) {
+        throw new IllegalArgumentException("Key is not one of the user's uploads.");
       }
 
-      InputStream is = new ByteArrayInputStream(rawData);
-      ObjectMetadata objectMetadata = new ObjectMetadata();
-      objectMetadata.setContentLength(fileLength);
-      objectMetadata.setContentType(JPG_MIME);
+      final ObjectMetadata objectMetadata = this.s3Client
+          .getObjectMetadata(S3_IMAGE_BUCKET, uploadKey);
 
-      PutObjectRequest putObjectRequest = new PutObjectRequest(S3_IMAGE_BUCKET, fileName, is,
-          objectMetadata).withCannedAcl(CannedAccessControlList.PublicRead);
+      if (objectMetadata.getContentLength() > Config.MAX_IMAGE_BYTES) {
+        throw new IllegalArgumentException("Image is over the max size.");
+      } else if (!JPG_MIME.equals(objectMetadata.getContentType())) {
+        throw new IllegalArgumentException("Image is not a jpeg.");
+      }
 
-      this.s3Client.putObject(putObjectRequest);
+      final String newFileName = UUID.randomUUID().toString() + "." + JPG_TYPE;
+      final CopyObjectRequest copyObjectRequest = new CopyObjectRequest(S3_IMAGE_BUCKET,
+          uploadKey, S3_IMAGE_BUCKET, newFileName)
+          .withMatchingETagConstraint(objectMetadata.getETag())
+          .withCannedAccessControlList(CannedAccessControlList.PublicRead);
 
-      is.close();
-    } catch (Exception e) {
-      fileName = null;
-      metrics.log(new ErrorDescriptor<>(fileData, classMethod, e));
+      if (this.s3Client.copyObject(copyObjectRequest) == null) {
+        throw new IllegalStateException("Upload changed after it was checked.");
+      }
+
+      this.s3Client.deleteObject(new DeleteObjectRequest(S3_IMAGE_BUCKET, uploadKey));
+
+      fileName = newFileName;
+    } catch (final Exception e) {
+      metrics.log(new ErrorDescriptor<>(uploadKey, classMethod, e));
     }
 
     metrics.commonClose(fileName != null);
     return Optional.ofNullable(fileName);
   }
 
+  private void putJpeg(final String fileName, final byte[] jpeg) {
+    ObjectMetadata objectMetadata = new ObjectMetadata();
+    objectMetadata.setContentLength(jpeg.length);
+    objectMetadata.setContentType(JPG_MIME);
+
+    PutObjectRequest putObjectRequest = new PutObjectRequest(S3_IMAGE_BUCKET, fileName,
+        new ByteArrayInputStream(jpeg), objectMetadata)
+        .withCannedAcl(CannedAccessControlList.PublicRead);
+
+    this.s3Client.putObject(putObjectRequest);
+  }
+
   public ResultStatus deleteImage(final String fileName, final Metrics metrics) {
     if (fileName == null) {
       return ResultStatus.successful("No image to delete");
@@ -89,6 +232,9 @@ public class S3AccessManager {
           fileName);
 
       this.s3Client.deleteObject(deleteObjectRequest);
+      //deleting a thumbnail that was never made is not an error
+      this.s3Client
+          .deleteObject(new DeleteObjectRequest(S3_IMAGE_BUCKET, getThumbnailFileName(fileName)));
 
       resultStatus = new ResultStatus(true, "Image deleted successfully.");
     } catch (final Exception e) {
@@ -100,6 +246,34 @@ public class S3AccessManager {
     return resultStatus;
   }
 
+  /**
+   * This method adds a rule to the image bucket that expires anything left under the uploads
+   * prefix. Claimed uploads are copied out and deleted right away, so this only catches the ones
+   * the app put but never used in a group or user settings. Any other rules on the bucket are kept.
+   */
+  public void expireUnclaimedUploads() {
+    final List<BucketLifecycleConfiguration.Rule> rules = new ArrayList<>();
+
+    final BucketLifecycleConfiguration existingConfiguration = this.s3Client
+        .getBucketLifecycleConfiguration(S3_IMAGE_BUCKET);
+    if (existingConfiguration != null) {
+      for (final BucketLifecycleConfiguration.Rule rule : existingConfiguration.getRules()) {
+        if (!UPLOAD_EXPIRATION_RULE_ID.equals(rule.getId())) {
+          rules.add(rule);
+        }
+      }
+    }
+
+    rules.add(new BucketLifecycleConfiguration.Rule()
+        .withId(UPLOAD_EXPIRATION_RULE_ID)
+        .withFilter(new LifecycleFilter(new LifecyclePrefixPredicate(UPLOAD_PREFIX)))
+        .withExpirationInDays(UPLOAD_EXPIRATION_DAYS)
+        .withStatus(BucketLifecycleConfiguration.ENABLED));
+
+    this.s3Client.setBucketLifecycleConfiguration(S3_IMAGE_BUCKET,
+        new BucketLifecycleConfiguration(rules));
+  }
+
   public Boolean imageBucketExists() {
     return this.s3Client.doesBucketExistV2(S3_IMAGE_BUCKET);
   }
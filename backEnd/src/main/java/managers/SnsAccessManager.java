@@ -3,6 +3,8 @@ package managers;
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.auth.EnvironmentVariableCredentialsProvider;
 import com.amazonaws.regions.Regions;
+import com.amazonaws.services.sns.AmazonSNSAsync;
+import com.amazonaws.services.sns.AmazonSNSAsyncClientBuilder;
 import com.amazonaws.services.sns.AmazonSNSClient;
 import com.amazonaws.services.sns.model.CreatePlatformEndpointRequest;
 import com.amazonaws.services.sns.model.CreatePlatformEndpointResult;
@@ -17,24 +19,54 @@ import com.amazonaws.services.sns.model.PublishRequest;
 import com.amazonaws.services.sns.model.PublishResult;
 import com.google.common.collect.ImmutableMap;
 import java.util.Map;
+import java.util.concurrent.Executors;
 import models.Metadata;
 import utilities.JsonUtils;
 
 public class SnsAccessManager {
 
-  private final Regions region = Regions.US_EAST_1; //TODO migrate everything to us east 1 and move this to config
+  private static final Regions REGION = Regions.US_EAST_1; //TODO migrate everything to us east 1 and move this to config
+
+  //the max number of publishes a single notification batch can have in flight
+  public static final int MAX_IN_FLIGHT_PUBLISHES = 32;
 
   private AmazonSNSClient client;
+  private AmazonSNSAsync asyncClient;
 
   public SnsAccessManager() {
-    this.client = (AmazonSNSClient) AmazonSNSClient.builder()
-        .withRegion(this.region)
+    this((AmazonSNSClient) AmazonSNSClient.builder()
+        .withRegion(REGION)
         .withCredentials(new EnvironmentVariableCredentialsProvider())
-        .build();
+        .build());
   }
 
+  /**
+   * Notification batches still need an async client, so the default one is built for them.
+   *
+   * @param amazonSnsClient The client for everything other than notification batches.
+   */
   public SnsAccessManager(final AmazonSNSClient amazonSnsClient) {
+    this(amazonSnsClient, AmazonSNSAsyncClientBuilder.standard()
+        .withRegion(REGION)
+        .withCredentials(new EnvironmentVariableCredentialsProvider())
+        .withExecutorFactory(() -> Executors.newFixedThreadPool(MAX_IN_FLIGHT_PUBLISHES))
+        .build());
+  }
+
+  public SnsAccessManager(final AmazonSNSClient amazonSnsClient,
+      final AmazonSNSAsync amazonSnsAsync) {
     this.client = amazonSnsClient;
+    this.asyncClient = amazonSnsAsync;
+  }
+
+  /**
+   * This method is used to start sending notifications to many users at once. The notifications
+   * are published asynchronously as they're added to the batch.
+   *
+   * @return A new batch to add notifications to and then wait on.
+   */
+  public NotificationBatch newNotificationBatch() {
+    return new NotificationBatch(this.asyncClient, MAX_IN_FLIGHT_PUBLISHES);
   }
 
   /**
@@ -73,21 +105,7 @@ public class SnsAccessManager {
    */
   //to allow the notification to get sent without popping up, just don't add the notification
   public PublishResult sendMutedMessage(final String arn, final Metadata metadata) {
-    Map<String, Object> notification = ImmutableMap.of(
-        "data", ImmutableMap.of(
-            "click_action", "FLUTTER_NOTIFICATION_CLICK",
-            "default", "default message",
-            "metadata", metadata.asMap()
-        )
-    );
-
-    final String jsonNotification =
-        "{\"GCM\": \"" + JsonUtils.convertObjectToJson(notification) + "\"}";
-
-    final PublishRequest publishRequest = new PublishRequest()
-        .withTargetArn(arn)
-        .withMessage(jsonNotification);
-    publishRequest.setMessageStructure("json");
+    final PublishRequest publishRequest = SnsAccessManager.buildMutedMessageRequest(arn, metadata);
 
     PublishResult publishResult;
     try {
@@ -114,7 +132,36 @@ public class SnsAccessManager {
    */
   public PublishResult sendMessage(final String arn, final String title, final String body,
       final String tag, final Metadata metadata) {
-    Map<String, Object> notification = ImmutableMap.of(
+    final PublishRequest publishRequest = SnsAccessManager
+        .buildMessageRequest(arn, title, body, tag, metadata);
+
+    PublishResult publishResult;
+    try {
+      publishResult = this.client.publish(publishRequest);
+    } catch (final EndpointDisabledException ede) {
+      //this isn't an error on our end, read more about this exception here:
+      //https://forums.aws.amazon.com/thread.jspa?threadID=174551
+      publishResult = new PublishResult();
+    }
+
+    return publishResult;
+  }
+
+  static PublishRequest buildMutedMessageRequest(final String arn, final Metadata metadata) {
+    final Map<String, Object> notification = ImmutableMap.of(
+        "data", ImmutableMap.of(
+            "click_action", "FLUTTER_NOTIFICATION_CLICK",
+            "default", "default message",
+            "metadata", metadata.asMap()
+        )
+    );
+
+    return SnsAccessManager.buildGcmPublishRequest(arn, notification);
+  }
+
+  static PublishRequest buildMessageRequest(final String arn, final String title,
+      final String body, final String tag, final Metadata metadata) {
+    final Map<String, Object> notification = ImmutableMap.of(
         "notification", ImmutableMap.of(
             "title", title,
             "body", body,
@@ -127,6 +174,11 @@ public class SnsAccessManager {
         )
     );
 
+    return SnsAccessManager.buildGcmPublishRequest(arn, notification);
+  }
+
+  private static PublishRequest buildGcmPublishRequest(final String arn,
+      final Map<String, Object> notification) {
     final String jsonNotification =
         "{\"GCM\": \"" + JsonUtils.convertObjectToJson(notification) + "\"}";
 
@@ -135,16 +187,7 @@ public class SnsAccessManager {
         .withMessage(jsonNotification);
     publishRequest.setMessageStructure("json");
 
-    PublishResult publishResult;
-    try {
-      publishResult = this.client.publish(publishRequest);
-    } catch (final EndpointDisabledException ede) {
-      //this isn't an error on our end, read more about this exception here:
-      //https://forums.aws.amazon.com/thread.jspa?threadID=174551
-      publishResult = new PublishResult();
-    }
-
-    return publishResult;
+    return publishRequest;
   }
 
   public PublishResult sendEmail(final String arn, final String subject, final String body) {
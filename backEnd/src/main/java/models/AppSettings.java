@@ -3,6 +3,7 @@ package models;
 import com.google.common.collect.ImmutableList;
 import exceptions.AttributeValueOutOfRangeException;
 import exceptions.InvalidAttributeValueException;
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -110,14 +111,20 @@ public class AppSettings {
   }
 
   private Integer getIntFromObject(final Object input) {
-    if (input != null) {
+    if (input instanceof Integer) {
+      return (Integer) input;
+    } else if (input instanceof BigDecimal) {
+      return ((BigDecimal) input).intValueExact(); // how numbers are read from dynamo
+    } else if (input != null) {
       return Integer.parseInt(input.toString());
     }
     return null;
   }
 
   private boolean getBoolFromObject(final Object input) {
-    if (input != null) {
+    if (input instanceof Boolean) {
+      return (Boolean) input;
+    } else if (input != null) {
       return Boolean.parseBoolean(input.toString());
     }
     return false;
@@ -1,6 +1,7 @@
 package models;
 
 import com.amazonaws.services.dynamodbv2.document.Item;
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.Data;
@@ -36,16 +37,6 @@ public class Category implements Model {
     this.setGroupsRawMap((Map<String, Object>) jsonMap.get(GROUPS));
   }
 
-  public Item asItem() {
-    final Item modelAsItem = Item.fromMap(this.asMap());
-
-    //change the category id to be the primary key
-    modelAsItem.removeAttribute(CATEGORY_ID);
-    modelAsItem.withPrimaryKey(CATEGORY_ID, this.getCategoryId());
-
-    return modelAsItem;
-  }
-
   public Map<String, Object> asMap() {
     final Map<String, Object> modelAsMap = new HashMap<>();
     modelAsMap.putIfAbsent(CATEGORY_ID, this.categoryId);
@@ -77,7 +68,11 @@ public class Category implements Model {
   }
 
   private Integer getIntFromObject(final Object input) {
-    if (input != null) {
+    if (input instanceof Integer) {
+      return (Integer) input;
+    } else if (input instanceof BigDecimal) {
+      return ((BigDecimal) input).intValueExact(); // how numbers are read from dynamo
+    } else if (input != null) {
       return Integer.parseInt(input.toString());
     }
     return null;
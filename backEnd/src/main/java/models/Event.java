@@ -1,5 +1,6 @@
 package models;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.AccessLevel;
@@ -200,7 +201,11 @@ public class Event implements Model {
   }
 
   private Integer getIntFromObject(final Object input) {
-    if (input != null) {
+    if (input instanceof Integer) {
+      return (Integer) input;
+    } else if (input instanceof BigDecimal) {
+      return ((BigDecimal) input).intValueExact(); // how numbers are read from dynamo
+    } else if (input != null) {
       return Integer.parseInt(input.toString());
     }
     return null;
@@ -3,62 +3,49 @@ package models;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
-import java.time.temporal.ChronoUnit;
-import lombok.Data;
-
-@Data
-public class EventForSorting extends Event {
-
-  private LocalDateTime eventStart;
-  private LocalDateTime votingStarts;
-  private LocalDateTime votingEnds;
-  private Integer priority;
-  private boolean isPending;
-  private String eventId;
-
-  public static final Integer PRIORITY_VOTING = 4;
-  public static final Integer PRIORITY_CONSIDERING = 3;
-  public static final Integer PRIORITY_OCCURRING = 2;
-  public static final Integer PRIORITY_CLOSED = 1;
+import lombok.Getter;
+
+/**
+ * This is the sort key for an event. It holds only what's needed to order events (the priority
+ * and the times in epoch seconds) so that a whole group's events can be sorted without copying
+ * them. Every value is computed once at construction and never changes.
+ */
+@Getter
+public final class EventForSorting implements Comparable<EventForSorting> {
+
+  public static final byte PRIORITY_VOTING = 4;
+  public static final byte PRIORITY_CONSIDERING = 3;
+  public static final byte PRIORITY_OCCURRING = 2;
+  public static final byte PRIORITY_CLOSED = 1;
+
+  public static final long TWELVE_HOURS_IN_SECONDS = 12 * 60 * 60;
+  public static final long MAX_PRIORITY_SORT_KEY_SECONDS = 9999999999L; // ten digits
+
+  private final String eventId;
+  private final byte priority;
+  private final boolean isPending;
+  private final long eventStartSeconds;
+  private final long votingStartsSeconds;
+  private final long votingEndsSeconds;
 
   //we pass in 'now' so that if numerous of these are being created, that time doesn't change
   public EventForSorting(final String eventId, final Event event, final LocalDateTime now) {
-    super(event.asMap());
-
     this.eventId = eventId;
 
-    Integer eventStartSeconds = this.getUtcEventStartSeconds();
-    this.eventStart = this.getLocalDateTimeFromEpochSeconds(eventStartSeconds);
+    this.eventStartSeconds = event.getUtcEventStartSeconds();
+    this.votingStartsSeconds =
+        this.eventStartSeconds + event.getRsvpDuration() * 60; // 60 seconds in a minute
+    this.votingEndsSeconds =
+        this.votingStartsSeconds + event.getVotingDuration() * 60; // 60 seconds in a minute
 
-    eventStartSeconds += this.getRsvpDuration() * 60; // 60 seconds in a minute
-    this.votingStarts = this.getLocalDateTimeFromEpochSeconds(eventStartSeconds);
-
-    eventStartSeconds += this.getVotingDuration() * 60; // 60 seconds in a minute
-    this.votingEnds = this.getLocalDateTimeFromEpochSeconds(eventStartSeconds);
-
-    this.setPriorityFromOwnProperties(now);
+    this.priority = getPriorityFromEvent(event, this.eventStartSeconds,
+        now.toEpochSecond(ZoneOffset.UTC));
+    this.isPending = this.priority == PRIORITY_VOTING || this.priority == PRIORITY_CONSIDERING;
   }
 
   //use this one when the now doesn't matter (aka when we just want to know if the event is pending)
   public EventForSorting(final String eventId, final Event event) {
-    super(event.asMap());
-
-    this.eventId = eventId;
-
-    Integer eventStartSeconds = this.getUtcEventStartSeconds();
-    this.eventStart = this.getLocalDateTimeFromEpochSeconds(eventStartSeconds);
-
-    eventStartSeconds += this.getRsvpDuration() * 60; // 60 seconds in a minute
-    this.votingStarts = this.getLocalDateTimeFromEpochSeconds(eventStartSeconds);
-
-    eventStartSeconds += this.getVotingDuration() * 60; // 60 seconds in a minute
-    this.votingEnds = this.getLocalDateTimeFromEpochSeconds(eventStartSeconds);
-
-    this.setPriorityFromOwnProperties(LocalDateTime.now(ZoneId.of("UTC")));
-  }
-
-  private LocalDateTime getLocalDateTimeFromEpochSeconds(final Integer seconds) {
-    return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    this(eventId, event, LocalDateTime.now(ZoneId.of("UTC")));
   }
 
   /**
@@ -74,76 +61,94 @@ public class EventForSorting extends Event {
    * <p>
    * Always return -1 when 'this' object should be ordered in front of the 'other' object (else 1)
    */
+  @Override
   public int compareTo(final EventForSorting other) {
-    if (this.priority > other.getPriority()) {
+    if (this.priority > other.priority) {
       return -1; // we want this at the front of the list
-    } else if (other.getPriority() > this.priority) {
+    } else if (other.priority > this.priority) {
       return 1;
-    } else {
-      if (this.priority.equals(PRIORITY_VOTING)) {
-        if (this.votingEnds.isBefore(other.getVotingEnds())) {
-          return -1;
-        } else if (other.getVotingEnds().isBefore(this.votingEnds)) {
-          return 1;
-        } else {
-          //they occur at the same time, give sort based on event id
-          return this.eventId.compareTo(other.getEventId());
-        }
-      } else if (this.priority.equals(PRIORITY_CONSIDERING)) {
-        if (this.votingStarts.isBefore(other.getVotingStarts())) {
-          return -1;
-        } else if (other.getVotingStarts().isBefore(this.votingStarts)) {
-          return 1;
-        } else {
-          //they occur at the same time, give sort based on event id
-          return this.eventId.compareTo(other.getEventId());
-        }
-      } else if (this.priority.equals(PRIORITY_CLOSED)) {
-        //NOTE: this one uses isAfter, we want the oldest ones on top
-        if (this.eventStart.isAfter(other.getEventStart())) {
-          return -1;
-        } else if (other.getEventStart().isAfter(this.eventStart)) {
-          return 1;
-        } else {
-          //they occur at the same time, give sort based on event id
-          return this.eventId.compareTo(other.getEventId());
-        }
-      } else { // occurring
-        if (this.eventStart.isBefore(other.getEventStart())) {
-          return -1;
-        } else if (other.getEventStart().isBefore(this.eventStart)) {
-          return 1;
-        } else {
-          //they occur at the same time, give sort based on event id
-          return this.eventId.compareTo(other.getEventId());
-        }
-      }
     }
+
+    final int timeComparison;
+    if (this.priority == PRIORITY_VOTING) {
+      timeComparison = Long.compare(this.votingEndsSeconds, other.votingEndsSeconds);
+    } else if (this.priority == PRIORITY_CONSIDERING) {
+      timeComparison = Long.compare(this.votingStartsSeconds, other.votingStartsSeconds);
+    } else if (this.priority == PRIORITY_CLOSED) {
+      //NOTE: this one is flipped, we want the oldest ones on top
+      timeComparison = Long.compare(other.eventStartSeconds, this.eventStartSeconds);
+    } else { // occurring
+      timeComparison = Long.compare(this.eventStartSeconds, other.eventStartSeconds);
+    }
+
+    if (timeComparison != 0) {
+      return timeComparison < 0 ? -1 : 1;
+    }
+
+    //they occur at the same time, give sort based on event id
+    return this.eventId.compareTo(other.eventId);
+  }
+
+  /**
+   * This method builds the events table sort key for an event. The key is the priority bucket, the
+   * time that the bucket orders on (zero padded so the keys sort as numbers), and the event id to
+   * break ties. Occurring and closed events can't be told apart without a 'now' so they share the
+   * closed bucket and are split by a range on the event start time when queried. The closed bucket
+   * stores the seconds left until the max key time so that reading it ascending gives the most
+   * recently started events first, in the same order as compareTo.
+   *
+   * @param eventId The id of the event.
+   * @param event   The event to get the sort key of.
+   * @return The key the event should be stored under in the events table's priority index.
+   */
+  public static String getPrioritySortKey(final String eventId, final Event event) {
+    final long eventStartSeconds = event.getUtcEventStartSeconds();
+    final long votingStartsSeconds = eventStartSeconds + event.getRsvpDuration() * 60;
+
+    if (event.getSelectedChoice() != null) {
+      return getPrioritySortKeyPrefix(PRIORITY_CLOSED,
+          MAX_PRIORITY_SORT_KEY_SECONDS - eventStartSeconds) + eventId;
+    } else if (event.getTentativeAlgorithmChoices() == null || event.getTentativeAlgorithmChoices()
+        .isEmpty()) {
+      return getPrioritySortKeyPrefix(PRIORITY_CONSIDERING, votingStartsSeconds) + eventId;
+    }
+
+    return getPrioritySortKeyPrefix(PRIORITY_VOTING,
+        votingStartsSeconds + event.getVotingDuration() * 60) + eventId;
+  }
+
+  /**
+   * @param priority The priority bucket.
+   * @param seconds  The utc epoch second within the bucket.
+   * @return Every priority sort key in the bucket at this second starts with this prefix.
+   */
+  public static String getPrioritySortKeyPrefix(final byte priority, final long seconds) {
+    return String.format("%d#%010d#", priority, seconds);
   }
 
   /**
-   * This method looks at the settings of 'this' event and determines the priority appropriately
+   * This method looks at the settings of an event and determines its priority appropriately
    *
-   * @param now - The current time that we are determining this priority at.
+   * @param event             The event to get the priority of.
+   * @param eventStartSeconds The utc epoch second that the event starts at.
+   * @param nowSeconds        The current utc epoch second that we are determining this priority
+   *                          at.
+   * @return The priority the event should be sorted with.
    */
-  private void setPriorityFromOwnProperties(final LocalDateTime now) {
-    if (this.getSelectedChoice() != null) {
+  private static byte getPriorityFromEvent(final Event event, final long eventStartSeconds,
+      final long nowSeconds) {
+    if (event.getSelectedChoice() != null) {
       //the event is finalized - it has a selected choice
-      final LocalDateTime yesterday = now.minus(12, ChronoUnit.HOURS);
-      if (this.eventStart.isAfter(yesterday)) {
-        this.priority = PRIORITY_OCCURRING;
-      } else {
-        this.priority = PRIORITY_CLOSED;
+      if (eventStartSeconds > nowSeconds - TWELVE_HOURS_IN_SECONDS) {
+        return PRIORITY_OCCURRING;
       }
-      this.isPending = false;
-    } else if (this.getTentativeAlgorithmChoices().isEmpty()) {
+      return PRIORITY_CLOSED;
+    } else if (event.getTentativeAlgorithmChoices().isEmpty()) {
       // selected choice null and tentative empty => considering
-      this.priority = PRIORITY_CONSIDERING;
-      this.isPending = true;
-    } else {
-      // selected choice null and tentative not empty => voting
-      this.priority = PRIORITY_VOTING;
-      this.isPending = true;
+      return PRIORITY_CONSIDERING;
     }
+
+    // selected choice null and tentative not empty => voting
+    return PRIORITY_VOTING;
   }
 }
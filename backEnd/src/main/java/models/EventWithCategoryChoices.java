@@ -3,6 +3,7 @@ package models;
 import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toMap;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -47,7 +48,11 @@ public class EventWithCategoryChoices extends Event {
   }
 
   private Integer getIntFromObject(final Object input) {
-    if (input != null) {
+    if (input instanceof Integer) {
+      return (Integer) input;
+    } else if (input instanceof BigDecimal) {
+      return ((BigDecimal) input).intValueExact(); // how numbers are read from dynamo
+    } else if (input != null) {
       return Integer.parseInt(input.toString());
     }
     return null;
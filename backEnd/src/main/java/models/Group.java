@@ -8,8 +8,11 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import lombok.ToString;
 
 @Data
 @NoArgsConstructor
@@ -28,20 +31,43 @@ public class Group implements Model {
   public static final String LAST_ACTIVITY = "LastActivity";
   public static final String IS_OPEN = "IsOpen";
 
+  //only on the group item, set once the group's events have been copied to the events table
+  public static final String EVENTS_MIGRATED = "EventsMigrated";
+
   private String groupId;
   private String groupName;
   private String icon;
   private String groupCreator;
   private String lastActivity;
-  private Map<String, Event> events;
   private boolean isOpen;
-  private Map<String, GroupCategory> categories;
 
+  @Setter(AccessLevel.NONE)
+  private Map<String, Event> events;
+  @Setter(AccessLevel.NONE)
+  private Map<String, GroupCategory> categories;
   @Setter(AccessLevel.NONE)
   private Map<String, Member> members;
   @Setter(AccessLevel.NONE)
   private Map<String, Boolean> membersLeft;
 
+  //The members, categories and events are only parsed the first time their getter is called. Until
+  //then they're held as the raw maps they were read as, and asMap passes those straight through.
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private Map<String, Object> rawMembers;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private Map<String, Object> rawCategories;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private Map<String, Object> rawEvents;
+
   public Group(final Item groupItem) {
     this(groupItem.asMap());
   }
@@ -60,16 +86,6 @@ public class Group implements Model {
     this.setEventsRawMap((Map<String, Object>) jsonMap.get(EVENTS));
   }
 
-  public Item asItem() {
-    Item modelAsItem = Item.fromMap(this.asMap());
-
-    //change the group id to be the primary key
-    modelAsItem.removeAttribute(GROUP_ID);
-    modelAsItem.withPrimaryKey(GROUP_ID, this.groupId);
-
-    return modelAsItem;
-  }
-
   public Map<String, Object> asGroupLeftMap() {
     final Map<String, Object> modelAsMap = new HashMap<>();
     modelAsMap.putIfAbsent(GROUP_NAME, this.groupName);
@@ -85,21 +101,31 @@ public class Group implements Model {
     modelAsMap.putIfAbsent(GROUP_CREATOR, this.groupCreator);
     modelAsMap.putIfAbsent(LAST_ACTIVITY, this.lastActivity);
     modelAsMap.putIfAbsent(IS_OPEN, this.isOpen);
-    modelAsMap.putIfAbsent(MEMBERS, this.getMembersMap());
+    modelAsMap.putIfAbsent(MEMBERS,
+        this.members == null ? Model.passThrough(this.rawMembers) : this.getMembersMap());
     modelAsMap.putIfAbsent(MEMBERS_LEFT, this.membersLeft);
-    modelAsMap.putIfAbsent(CATEGORIES, this.getCategoriesMap());
-    modelAsMap.putIfAbsent(EVENTS, this.getEventsMap());
+    modelAsMap.putIfAbsent(CATEGORIES,
+        this.categories == null ? Model.passThrough(this.rawCategories) : this.getCategoriesMap());
+    modelAsMap.putIfAbsent(EVENTS,
+        this.events == null ? Model.passThrough(this.rawEvents) : this.getEventsMap());
     return modelAsMap;
   }
 
-  public void setMembers(final Map<String, Object> jsonMap) {
-    this.members = null;
-    if (jsonMap != null) {
+  public Map<String, Member> getMembers() {
+    if (this.members == null && this.rawMembers != null) {
       this.members = new HashMap<>();
-      for (String username : jsonMap.keySet()) {
-        this.members.putIfAbsent(username, new Member((Map<String, Object>) jsonMap.get(username)));
+      for (String username : this.rawMembers.keySet()) {
+        this.members.putIfAbsent(username,
+            new Member((Map<String, Object>) this.rawMembers.get(username)));
       }
+      this.rawMembers = null;
     }
+    return this.members;
+  }
+
+  public void setMembers(final Map<String, Object> jsonMap) {
+    this.members = null;
+    this.rawMembers = jsonMap;
   }
 
   public void setMembersLeft(final Map<String, Object> jsonMap) {
@@ -114,45 +140,68 @@ public class Group implements Model {
 
   public Map<String, Map<String, Object>> getMembersMap() {
     final Map<String, Map<String, Object>> membersMapped = new HashMap<>();
-    for (final String username : this.members.keySet()) {
-      membersMapped.putIfAbsent(username, this.members.get(username).asMap());
+    for (final Map.Entry<String, Member> member : this.getMembers().entrySet()) {
+      membersMapped.putIfAbsent(member.getKey(), member.getValue().asMap());
     }
     return membersMapped;
   }
 
   public Map<String, Map<String, Object>> getCategoriesMap() {
     final Map<String, Map<String, Object>> categoriesMapped = new HashMap<>();
-    for (final String categoryId : this.categories.keySet()) {
-      categoriesMapped.putIfAbsent(categoryId, this.categories.get(categoryId).asMap());
+    for (final Map.Entry<String, GroupCategory> category : this.getCategories().entrySet()) {
+      categoriesMapped.putIfAbsent(category.getKey(), category.getValue().asMap());
     }
     return categoriesMapped;
   }
 
-  public void setCategoriesRawMap(final Map<String, Object> jsonMap) {
-    this.categories = null;
-    if (jsonMap != null) {
+  public Map<String, GroupCategory> getCategories() {
+    if (this.categories == null && this.rawCategories != null) {
       this.categories = new HashMap<>();
-      for (String categoryId : jsonMap.keySet()) {
+      for (String categoryId : this.rawCategories.keySet()) {
         this.categories.putIfAbsent(categoryId,
-            new GroupCategory((Map<String, Object>) jsonMap.get(categoryId)));
+            new GroupCategory((Map<String, Object>) this.rawCategories.get(categoryId)));
       }
+      this.rawCategories = null;
     }
+    return this.categories;
   }
 
-  public void setEventsRawMap(final Map<String, Object> jsonMap) {
-    this.events = null;
-    if (jsonMap != null) {
+  public void setCategories(final Map<String, GroupCategory> categories) {
+    this.categories = categories;
+    this.rawCategories = null;
+  }
+
+  public void setCategoriesRawMap(final Map<String, Object> jsonMap) {
+    this.categories = null;
+    this.rawCategories = jsonMap;
+  }
+
+  public Map<String, Event> getEvents() {
+    if (this.events == null && this.rawEvents != null) {
       this.events = new HashMap<>();
-      for (String username : jsonMap.keySet()) {
-        this.events.putIfAbsent(username, new Event((Map<String, Object>) jsonMap.get(username)));
+      for (String eventId : this.rawEvents.keySet()) {
+        this.events.putIfAbsent(eventId,
+            new Event((Map<String, Object>) this.rawEvents.get(eventId)));
       }
+      this.rawEvents = null;
     }
+    return this.events;
+  }
+
+  public void setEvents(final Map<String, Event> events) {
+    this.events = events;
+    this.rawEvents = null;
+  }
+
+  public void setEventsRawMap(final Map<String, Object> jsonMap) {
+    this.events = null;
+    this.rawEvents = jsonMap;
   }
 
   public Map<String, Map<String, Object>> getEventsMap() {
     Map<String, Map<String, Object>> eventsMapped = new HashMap<>();
-    for (String eventId : this.events.keySet()) {
-      eventsMapped.putIfAbsent(eventId, this.events.get(eventId).asMap());
+    for (final Map.Entry<String, Event> event : this.getEvents().entrySet()) {
+      eventsMapped.putIfAbsent(event.getKey(), event.getValue().asMap());
     }
     return eventsMapped;
   }
@@ -161,29 +210,23 @@ public class Group implements Model {
     return this.icon != null;
   }
 
+  //sections that haven't been parsed stay raw on the clone, so it parses them for itself if needed
   public Group clone() {
-    return this.toBuilder()
-        .groupId(this.groupId)
-        .groupName(this.groupName)
-        .icon(this.icon)
-        .groupCreator(this.groupCreator)
-        .lastActivity(this.lastActivity)
-        .members(this.members)
-        .categories(this.categories)
-        .events(this.events)
-        .build();
+    return this.toBuilder().build();
   }
 
   public Map<String, Object> getReportSnapshot() {
     final Map<String, Object> snapshot = new HashMap<>();
     snapshot.put(GROUP_NAME, this.groupName);
     snapshot.put(ICON, this.icon);
-    snapshot.put(MEMBERS, new ArrayList<>(this.members.keySet()));
+    snapshot.put(MEMBERS, new ArrayList<>(this.getMembers().keySet()));
     return snapshot;
   }
 
   private boolean getBoolFromObject(final Object input) {
-    if (input != null) {
+    if (input instanceof Boolean) {
+      return (Boolean) input;
+    } else if (input != null) {
       return Boolean.parseBoolean(input.toString());
     }
     return false;
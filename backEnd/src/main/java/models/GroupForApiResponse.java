@@ -34,9 +34,10 @@ public class GroupForApiResponse extends Group implements Model {
     this.setAllEvents(GetBatchOfEventsHandler.handle(user, this));
   }
 
+  //a group read without its events (see DbAccessManager.getGroupItemWithoutEvents) has no total
   public GroupForApiResponse(final Group group) {
     super(group.asMap());
-    this.totalNumberOfEvents = group.getEvents().size();
+    this.totalNumberOfEvents = group.getEvents() == null ? null : group.getEvents().size();
   }
 
   @Override
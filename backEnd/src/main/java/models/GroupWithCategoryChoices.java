@@ -6,25 +6,43 @@ import static java.util.stream.Collectors.toMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 @Data
 public class GroupWithCategoryChoices extends Group {
 
   private Map<String, EventWithCategoryChoices> eventsWithCategoryChoices;
 
+  //parsed from these the first time the events with category choices are asked for
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private Map<String, Object> rawEventsWithCategoryChoices;
+
   public GroupWithCategoryChoices(final Map<String, Object> jsonMap) {
     super(jsonMap);
     this.setEventsWithCategoryChoicesRawMap((Map<String, Object>) jsonMap.get(Group.EVENTS));
   }
 
-  private void setEventsWithCategoryChoicesRawMap(final Map<String, Object> jsonMap) {
-    this.eventsWithCategoryChoices = null;
-    if (jsonMap != null) {
-      this.eventsWithCategoryChoices = jsonMap.entrySet().stream()
+  public Map<String, EventWithCategoryChoices> getEventsWithCategoryChoices() {
+    if (this.eventsWithCategoryChoices == null && this.rawEventsWithCategoryChoices != null) {
+      this.eventsWithCategoryChoices = this.rawEventsWithCategoryChoices.entrySet().stream()
           .collect(collectingAndThen(toMap(Entry::getKey,
               (Map.Entry e) -> new EventWithCategoryChoices((Map<String, Object>) e.getValue())),
               HashMap::new));
+      this.rawEventsWithCategoryChoices = null;
     }
+    return this.eventsWithCategoryChoices;
+  }
+
+  private void setEventsWithCategoryChoicesRawMap(final Map<String, Object> jsonMap) {
+    this.eventsWithCategoryChoices = null;
+    this.rawEventsWithCategoryChoices = jsonMap;
   }
 }
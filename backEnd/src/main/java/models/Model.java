@@ -1,7 +1,19 @@
 package models;
 
+import java.util.Collections;
 import java.util.Map;
 
 public interface Model {
   public Map<String, Object> asMap();
+
+  /**
+   * Nested sections that were never parsed are serialized as the raw map they were read as. That
+   * map may still be shared with a cached item, so it is handed out read only.
+   *
+   * @param rawMap The section as it was read, or null if it wasn't set.
+   * @return A read only view of the raw map, or null if it wasn't set.
+   */
+  static Map<String, Object> passThrough(final Map<String, Object> rawMap) {
+    return rawMap == null ? null : Collections.unmodifiableMap(rawMap);
+  }
 }
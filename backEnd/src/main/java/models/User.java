@@ -6,12 +6,16 @@ import static java.util.stream.Collectors.toMap;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import exceptions.AttributeValueOutOfRangeException;
 import exceptions.InvalidAttributeValueException;
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.Setter;
+import lombok.ToString;
 
 @Data
 public class User implements Model {
@@ -50,6 +54,30 @@ public class User implements Model {
   @Setter(AccessLevel.NONE)
   private Map<String, Favorite> favorites;
 
+  //The groups, groups left, category ratings and favorites are only parsed the first time their
+  //getter is called. Until then they're held as the raw maps they were read as, and asMap passes
+  //those straight through.
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private Map<String, Object> rawGroups;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private Map<String, Object> rawGroupsLeft;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private Map<String, Object> rawCategoryRatings;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private Map<String, Object> rawFavorites;
+
   public User(final Item userItem)
       throws InvalidAttributeValueException, AttributeValueOutOfRangeException {
     this(userItem.asMap());
@@ -79,18 +107,22 @@ public class User implements Model {
     modelAsMap.putIfAbsent(ICON, this.icon);
     modelAsMap.putIfAbsent(PUSH_ENDPOINT_ARN, this.pushEndpointArn);
     modelAsMap.putIfAbsent(APP_SETTINGS, this.appSettings.asMap());
-    modelAsMap.putIfAbsent(GROUPS, this.getGroupsMap());
-    modelAsMap.putIfAbsent(GROUPS_LEFT, this.getGroupsLeftMap());
-    modelAsMap.putIfAbsent(CATEGORY_RATINGS, this.categoryRatings);
+    modelAsMap.putIfAbsent(GROUPS,
+        this.groups == null ? Model.passThrough(this.rawGroups) : this.getGroupsMap());
+    modelAsMap.putIfAbsent(GROUPS_LEFT,
+        this.groupsLeft == null ? Model.passThrough(this.rawGroupsLeft) : this.getGroupsLeftMap());
+    modelAsMap.putIfAbsent(CATEGORY_RATINGS, this.categoryRatings == null
+        ? Model.passThrough(this.rawCategoryRatings) : this.categoryRatings);
     modelAsMap.putIfAbsent(OWNED_CATEGORIES, this.ownedCategories);
     modelAsMap.putIfAbsent(OWNED_GROUPS_COUNT, this.ownedGroupsCount);
     modelAsMap.putIfAbsent(FAVORITE_OF, this.favoriteOf);
-    modelAsMap.putIfAbsent(FAVORITES, this.getFavoritesMap());
+    modelAsMap.putIfAbsent(FAVORITES,
+        this.favorites == null ? Model.passThrough(this.rawFavorites) : this.getFavoritesMap());
     return modelAsMap;
   }
 
   public Map<String, Map<String, Object>> getGroupsMap() {
-    if (this.groups == null) {
+    if (this.getGroups() == null) {
       return null;
     }
 
@@ -101,7 +133,7 @@ public class User implements Model {
   }
 
   public Map<String, Map<String, Object>> getGroupsLeftMap() {
-    if (this.groupsLeft == null) {
+    if (this.getGroupsLeft() == null) {
       return null;
     }
 
@@ -112,7 +144,7 @@ public class User implements Model {
   }
 
   public Map<String, Map<String, Object>> getFavoritesMap() {
-    if (this.favorites == null) {
+    if (this.getFavorites() == null) {
       return null;
     }
 
@@ -126,34 +158,47 @@ public class User implements Model {
     return new Member(this.displayName, this.icon);
   }
 
-  public void setGroups(final Map<String, Object> jsonMap) {
-    this.groups = null;
-    if (jsonMap != null) {
+  public Map<String, UserGroup> getGroups() {
+    if (this.groups == null && this.rawGroups != null) {
       this.groups = new HashMap<>();
-      for (String groupId : jsonMap.keySet()) {
-        this.groups.putIfAbsent(groupId, new UserGroup((Map<String, Object>) jsonMap.get(groupId)));
+      for (String groupId : this.rawGroups.keySet()) {
+        this.groups.putIfAbsent(groupId,
+            new UserGroup((Map<String, Object>) this.rawGroups.get(groupId)));
       }
+      this.rawGroups = null;
     }
+    return this.groups;
   }
 
-  public void setGroupsLeft(final Map<String, Object> jsonMap) {
-    this.groupsLeft = null;
-    if (jsonMap != null) {
+  public void setGroups(final Map<String, Object> jsonMap) {
+    this.groups = null;
+    this.rawGroups = jsonMap;
+  }
+
+  public Map<String, Group> getGroupsLeft() {
+    if (this.groupsLeft == null && this.rawGroupsLeft != null) {
       this.groupsLeft = new HashMap<>();
-      for (String groupId : jsonMap.keySet()) {
-        this.groupsLeft.putIfAbsent(groupId, new Group((Map<String, Object>) jsonMap.get(groupId)));
+      for (String groupId : this.rawGroupsLeft.keySet()) {
+        this.groupsLeft.putIfAbsent(groupId,
+            new Group((Map<String, Object>) this.rawGroupsLeft.get(groupId)));
       }
+      this.rawGroupsLeft = null;
     }
+    return this.groupsLeft;
   }
 
-  public void setCategoryRatings(final Map<String, Object> jsonMap) {
-    this.categoryRatings = null;
-    if (jsonMap != null) {
+  public void setGroupsLeft(final Map<String, Object> jsonMap) {
+    this.groupsLeft = null;
+    this.rawGroupsLeft = jsonMap;
+  }
+
+  public Map<String, Map<String, Integer>> getCategoryRatings() {
+    if (this.categoryRatings == null && this.rawCategoryRatings != null) {
       this.categoryRatings = new HashMap<>();
-      for (String categoryId : jsonMap.keySet()) {
+      for (String categoryId : this.rawCategoryRatings.keySet()) {
         final Map<String, Integer> choiceRatingsMapConverted = new HashMap<>();
-        final Map<String, Object> choiceRatingsMapRaw = (Map<String, Object>) jsonMap
-            .get(categoryId);
+        final Map<String, Object> choiceRatingsMapRaw = (Map<String, Object>) this
+            .rawCategoryRatings.get(categoryId);
 
         for (final String choiceId : choiceRatingsMapRaw.keySet()) {
           choiceRatingsMapConverted
@@ -162,7 +207,14 @@ public class User implements Model {
 
         this.categoryRatings.putIfAbsent(categoryId, choiceRatingsMapConverted);
       }
+      this.rawCategoryRatings = null;
     }
+    return this.categoryRatings;
+  }
+
+  public void setCategoryRatings(final Map<String, Object> jsonMap) {
+    this.categoryRatings = null;
+    this.rawCategoryRatings = jsonMap;
   }
 
   public void setOwnedCategories(final Map<String, Object> jsonMap) {
@@ -185,15 +237,21 @@ public class User implements Model {
     }
   }
 
-  public void setFavorites(final Map<String, Object> jsonMap) {
-    this.favorites = null;
-    if (jsonMap != null) {
+  public Map<String, Favorite> getFavorites() {
+    if (this.favorites == null && this.rawFavorites != null) {
       this.favorites = new HashMap<>();
-      for (String username : jsonMap.keySet()) {
-        this.favorites
-            .putIfAbsent(username, new Favorite((Map<String, Object>) jsonMap.get(username)));
+      for (String username : this.rawFavorites.keySet()) {
+        this.favorites.putIfAbsent(username,
+            new Favorite((Map<String, Object>) this.rawFavorites.get(username)));
       }
+      this.rawFavorites = null;
     }
+    return this.favorites;
+  }
+
+  public void setFavorites(final Map<String, Object> jsonMap) {
+    this.favorites = null;
+    this.rawFavorites = jsonMap;
   }
 
   public boolean pushEndpointArnIsSet() {
@@ -201,7 +259,11 @@ public class User implements Model {
   }
 
   private Integer getIntFromObject(final Object input) {
-    if (input != null) {
+    if (input instanceof Integer) {
+      return (Integer) input;
+    } else if (input instanceof BigDecimal) {
+      return ((BigDecimal) input).intValueExact(); // how numbers are read from dynamo
+    } else if (input != null) {
       return Integer.parseInt(input.toString());
     }
     return null;
@@ -55,7 +55,9 @@ public class UserGroup {
   }
 
   private boolean getBoolFromObject(final Object input) {
-    if (input != null) {
+    if (input instanceof Boolean) {
+      return (Boolean) input;
+    } else if (input != null) {
       return Boolean.parseBoolean(input.toString());
     }
     return false;
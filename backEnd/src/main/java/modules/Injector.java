@@ -3,10 +3,12 @@ package modules;
 import utilities.Metrics;
 
 public class Injector {
+
+  //lambda containers are reused across invocations, so the aws clients are built once per container
+  private static final PocketPollContainerComponent CONTAINER_COMPONENT = DaggerPocketPollContainerComponent
+      .create();
+
   public static PocketPollComponent getInjector(final Metrics metrics) {
-    return DaggerPocketPollComponent
-        .builder()
-        .pocketPollModule(new PocketPollModule(metrics))
-        .build();
+    return CONTAINER_COMPONENT.pocketPollComponent(new PocketPollModule(metrics));
   }
 }
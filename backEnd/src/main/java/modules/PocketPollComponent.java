@@ -11,6 +11,7 @@ import controllers.GetBatchOfEventsController;
 import controllers.GetCategoriesController;
 import controllers.GetEventController;
 import controllers.GetGroupController;
+import controllers.GetIconUploadUrlController;
 import controllers.GetUserDataController;
 import controllers.GiveAppFeedbackController;
 import controllers.LeaveGroupController;
@@ -32,11 +33,10 @@ import controllers.UpdateUserChoiceRatingsController;
 import controllers.UpdateUserSettingsController;
 import controllers.VoteForChoiceController;
 import controllers.WarmingController;
-import dagger.Component;
-import javax.inject.Singleton;
+import dagger.Subcomponent;
 
-@Singleton
-@Component(modules = PocketPollModule.class)
+@RequestScope
+@Subcomponent(modules = PocketPollModule.class)
 public interface PocketPollComponent {
   void inject(NewCategoryController newCategoryController);
   void inject(EditCategoryController editCategoryController);
@@ -70,4 +70,5 @@ public interface PocketPollComponent {
   void inject(ReportUserController reportUserController);
   void inject(ReportGroupController reportGroupController);
   void inject(GiveAppFeedbackController giveAppFeedbackController);
+  void inject(GetIconUploadUrlController getIconUploadUrlController);
 }
@@ -0,0 +1,16 @@
+package modules;
+
+import dagger.Component;
+import javax.inject.Singleton;
+
+/**
+ * This component lives for the life of the lambda container. It owns the aws clients so that warm
+ * invocations don't pay for building new connection pools. Request level bindings are created
+ * through the pocketPollComponent factory method.
+ */
+@Singleton
+@Component(modules = PocketPollContainerModule.class)
+public interface PocketPollContainerComponent {
+
+  PocketPollComponent pocketPollComponent(PocketPollModule pocketPollModule);
+}
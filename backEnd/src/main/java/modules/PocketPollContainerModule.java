@@ -0,0 +1,44 @@
+package modules;
+
+import dagger.Module;
+import dagger.Provides;
+import javax.inject.Singleton;
+import managers.DbConnection;
+import managers.S3AccessManager;
+import managers.SnsAccessManager;
+import managers.StepFunctionManager;
+import utilities.FanOutExecutor;
+
+@Module
+public class PocketPollContainerModule {
+
+  @Provides
+  @Singleton
+  public DbConnection provideDbConnection() {
+    return new DbConnection();
+  }
+
+  @Provides
+  @Singleton
+  public S3AccessManager provideS3AccessManager() {
+    return new S3AccessManager();
+  }
+
+  @Provides
+  @Singleton
+  public SnsAccessManager provideSnsAccessManager() {
+    return new SnsAccessManager();
+  }
+
+  @Provides
+  @Singleton
+  public StepFunctionManager provideStepFunctionManager() {
+    return new StepFunctionManager();
+  }
+
+  @Provides
+  @Singleton
+  public FanOutExecutor provideFanOutExecutor() {
+    return new FanOutExecutor();
+  }
+}
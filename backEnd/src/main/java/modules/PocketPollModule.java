@@ -14,6 +14,7 @@ import handlers.GetBatchOfEventsHandler;
 import handlers.GetCategoriesHandler;
 import handlers.GetEventHandler;
 import handlers.GetGroupHandler;
+import handlers.GetIconUploadUrlHandler;
 import handlers.GetUserDataHandler;
 import handlers.GiveAppFeedbackHandler;
 import handlers.LeaveGroupHandler;
@@ -35,12 +36,13 @@ import handlers.UpdateUserChoiceRatingsHandler;
 import handlers.UpdateUserSettingsHandler;
 import handlers.VoteForChoiceHandler;
 import handlers.WarmingHandler;
-import javax.inject.Singleton;
 import lombok.RequiredArgsConstructor;
 import managers.DbAccessManager;
+import managers.DbConnection;
 import managers.S3AccessManager;
 import managers.SnsAccessManager;
 import managers.StepFunctionManager;
+import utilities.FanOutExecutor;
 import utilities.Metrics;
 
 @Module
@@ -50,27 +52,9 @@ public class PocketPollModule {
   private final Metrics metrics;
 
   @Provides
-  @Singleton
-  public DbAccessManager provideDbAccessManager() {
-    return new DbAccessManager();
-  }
-
-  @Provides
-  @Singleton
-  public S3AccessManager provideS3AccessManager() {
-    return new S3AccessManager();
-  }
-
-  @Provides
-  @Singleton
-  public SnsAccessManager provideSnsAccessManager() {
-    return new SnsAccessManager();
-  }
-
-  @Provides
-  @Singleton
-  public StepFunctionManager provideStepFunctionManager() {
-    return new StepFunctionManager();
+  @RequestScope
+  public DbAccessManager provideDbAccessManager(final DbConnection dbConnection) {
+    return new DbAccessManager(dbConnection, this.metrics);
   }
 
   @Provides
@@ -109,8 +93,10 @@ public class PocketPollModule {
 
   @Provides
   public DeleteGroupHandler provideDeleteGroupHandler(final DbAccessManager dbAccessManager,
-      final S3AccessManager s3AccessManager, final SnsAccessManager snsAccessManager) {
-    return new DeleteGroupHandler(dbAccessManager, s3AccessManager, snsAccessManager, this.metrics);
+      final S3AccessManager s3AccessManager, final SnsAccessManager snsAccessManager,
+      final FanOutExecutor fanOutExecutor) {
+    return new DeleteGroupHandler(dbAccessManager, s3AccessManager, snsAccessManager,
+        fanOutExecutor, this.metrics);
   }
 
   @Provides
@@ -133,15 +119,18 @@ public class PocketPollModule {
 
   @Provides
   public CreateNewGroupHandler provideCreateNewGroupHandler(final DbAccessManager dbAccessManager,
-      final S3AccessManager s3AccessManager, final SnsAccessManager snsAccessManager) {
+      final S3AccessManager s3AccessManager, final SnsAccessManager snsAccessManager,
+      final FanOutExecutor fanOutExecutor) {
     return new CreateNewGroupHandler(dbAccessManager, s3AccessManager, snsAccessManager,
-        this.metrics);
+        fanOutExecutor, this.metrics);
   }
 
   @Provides
   public EditGroupHandler provideEditGroupHandler(final DbAccessManager dbAccessManager,
-      final S3AccessManager s3AccessManager, final SnsAccessManager snsAccessManager) {
-    return new EditGroupHandler(dbAccessManager, s3AccessManager, snsAccessManager, this.metrics);
+      final S3AccessManager s3AccessManager, final SnsAccessManager snsAccessManager,
+      final FanOutExecutor fanOutExecutor) {
+    return new EditGroupHandler(dbAccessManager, s3AccessManager, snsAccessManager,
+        fanOutExecutor, this.metrics);
   }
 
   @Provides
@@ -211,9 +200,10 @@ public class PocketPollModule {
   public NewEventHandler provideNewEventHandler(final DbAccessManager dbAccessManager,
       final SnsAccessManager snsAccessManager,
       final AddPendingEventHandler addPendingEventHandler,
-      final ProcessPendingEventHandler processPendingEventHandler) {
+      final ProcessPendingEventHandler processPendingEventHandler,
+      final FanOutExecutor fanOutExecutor) {
     return new NewEventHandler(dbAccessManager, snsAccessManager, addPendingEventHandler,
-        processPendingEventHandler, this.metrics);
+        processPendingEventHandler, fanOutExecutor, this.metrics);
   }
 
   @Provides
@@ -231,9 +221,9 @@ public class PocketPollModule {
   @Provides
   public ProcessPendingEventHandler provideProcessPendingEventHandler(
       final DbAccessManager dbAccessManager, final SnsAccessManager snsAccessManager,
-      final AddPendingEventHandler addPendingEventHandler) {
+      final AddPendingEventHandler addPendingEventHandler, final FanOutExecutor fanOutExecutor) {
     return new ProcessPendingEventHandler(dbAccessManager, snsAccessManager, addPendingEventHandler,
-        this.metrics);
+        fanOutExecutor, this.metrics);
   }
 
   @Provides
@@ -269,4 +259,10 @@ public class PocketPollModule {
       final SnsAccessManager snsAccessManager) {
     return new GiveAppFeedbackHandler(dbAccessManager, snsAccessManager, this.metrics);
   }
+
+  @Provides
+  public GetIconUploadUrlHandler provideGetIconUploadUrlHandler(
+      final S3AccessManager s3AccessManager) {
+    return new GetIconUploadUrlHandler(s3AccessManager, this.metrics);
+  }
 }
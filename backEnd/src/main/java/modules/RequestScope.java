@@ -0,0 +1,15 @@
+package modules;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import javax.inject.Scope;
+
+/**
+ * Bindings with this scope live for a single lambda invocation. They are rebuilt every time a
+ * PocketPollComponent is created off of the container component.
+ */
+@Scope
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestScope {
+
+}
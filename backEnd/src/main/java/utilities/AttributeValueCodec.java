@@ -0,0 +1,133 @@
+package utilities;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class converts between the low level client's attribute values and the plain maps the
+ * models are built from and serialized to. Each conversion is a single pass over the value, so a
+ * model can be written without first being made into an Item and read without going through both
+ * the Item and its asMap copy.
+ *
+ * Decoded values take the same shapes an Item's asMap gives: numbers are BigDecimals, string and
+ * number sets are sets, binary is a byte array and maps keep the order they were read in.
+ */
+public class AttributeValueCodec {
+
+  //////////////
+  // encoding //
+  //////////////region
+
+  public static AttributeValue encode(final Object value) {
+    final AttributeValue attributeValue = new AttributeValue();
+
+    if (value instanceof String) {
+      attributeValue.setS((String) value);
+    } else if (value instanceof Map) {
+      attributeValue.setM(AttributeValueCodec.encodeMap((Map<String, Object>) value));
+    } else if (value instanceof Number) {
+      attributeValue.setN(value.toString());
+    } else if (value instanceof Boolean) {
+      attributeValue.setBOOL((Boolean) value);
+    } else if (value instanceof Iterable) {
+      attributeValue.setL(AttributeValueCodec.encodeList((Iterable<?>) value));
+    } else if (value instanceof byte[]) {
+      attributeValue.setB(ByteBuffer.wrap((byte[]) value));
+    } else if (value instanceof ByteBuffer) {
+      attributeValue.setB((ByteBuffer) value);
+    } else {
+      attributeValue.setNULL(true);
+    }
+
+    return attributeValue;
+  }
+
+  public static Map<String, AttributeValue> encodeMap(final Map<String, Object> value) {
+    final Map<String, AttributeValue> attributeValues = new HashMap<>(
+        AttributeValueCodec.getCapacity(value.size()));
+    for (final Map.Entry<String, Object> entry : value.entrySet()) {
+      attributeValues.put(entry.getKey(), AttributeValueCodec.encode(entry.getValue()));
+    }
+
+    return attributeValues;
+  }
+
+  public static List<AttributeValue> encodeList(final Iterable<?> value) {
+    final List<AttributeValue> attributeValues = value instanceof Collection
+        ? new ArrayList<>(((Collection<?>) value).size()) : new ArrayList<>();
+    for (final Object element : value) {
+      attributeValues.add(AttributeValueCodec.encode(element));
+    }
+
+    return attributeValues;
+  }
+
+  //endregion
+
+  //////////////
+  // decoding //
+  //////////////region
+
+  public static Object decode(final AttributeValue attributeValue) {
+    if (attributeValue.getS() != null) {
+      return attributeValue.getS();
+    } else if (attributeValue.getM() != null) {
+      return AttributeValueCodec.decodeMap(attributeValue.getM());
+    } else if (attributeValue.getN() != null) {
+      return new BigDecimal(attributeValue.getN());
+    } else if (attributeValue.getBOOL() != null) {
+      return attributeValue.getBOOL();
+    } else if (attributeValue.getL() != null) {
+      final List<Object> list = new ArrayList<>(attributeValue.getL().size());
+      for (final AttributeValue element : attributeValue.getL()) {
+        list.add(AttributeValueCodec.decode(element));
+      }
+      return list;
+    } else if (attributeValue.getSS() != null) {
+      return new LinkedHashSet<>(attributeValue.getSS());
+    } else if (attributeValue.getNS() != null) {
+      final Set<BigDecimal> numberSet = new LinkedHashSet<>();
+      for (final String number : attributeValue.getNS()) {
+        numberSet.add(new BigDecimal(number));
+      }
+      return numberSet;
+    } else if (attributeValue.getB() != null) {
+      final ByteBuffer byteBuffer = attributeValue.getB().duplicate();
+      final byte[] bytes = new byte[byteBuffer.remaining()];
+      byteBuffer.get(bytes);
+      return bytes;
+    }
+
+    return null; // NULL or a type that isn't used (binary sets)
+  }
+
+  public static Map<String, Object> decodeMap(final Map<String, AttributeValue> attributeValues) {
+    if (attributeValues == null) {
+      return null;
+    }
+
+    final Map<String, Object> decoded = new LinkedHashMap<>(
+        AttributeValueCodec.getCapacity(attributeValues.size()));
+    for (final Map.Entry<String, AttributeValue> entry : attributeValues.entrySet()) {
+      decoded.put(entry.getKey(), AttributeValueCodec.decode(entry.getValue()));
+    }
+
+    return decoded;
+  }
+
+  //endregion
+
+  //sized so that the map doesn't rehash while it's filled
+  private static int getCapacity(final int size) {
+    return (int) (size / 0.75f) + 1;
+  }
+}
@@ -0,0 +1,151 @@
+package utilities;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkException;
+import com.auth0.jwk.SigningKeyNotFoundException;
+import com.auth0.jwk.UrlJwkProvider;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.security.interfaces.RSAPublicKey;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+
+/**
+ * This class verifies cognito id tokens. It is meant to be held for the life of the lambda
+ * container so that the signing keys and previously verified tokens don't need to be fetched or
+ * re-verified on every request.
+ */
+public class CognitoTokenVerifier {
+
+  public static final String USERNAME_CLAIM = "cognito:username";
+
+  private static final long KEYS_TTL_MILLIS = TimeUnit.HOURS.toMillis(6);
+  private static final long DEFAULT_MIN_REFRESH_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+  private static final long MAX_VERIFIED_TOKENS = 5000;
+
+  private final UrlJwkProvider jwksSource;
+  private final long minRefreshIntervalMillis;
+  private final Cache<String, VerifiedToken> verifiedTokens;
+
+  private Map<String, Jwk> keysById;
+  private long keysFetchedAtMillis;
+  private long lastRefreshAttemptMillis;
+
+  public CognitoTokenVerifier(final UrlJwkProvider jwksSource) {
+    this(jwksSource, DEFAULT_MIN_REFRESH_INTERVAL_MILLIS);
+  }
+
+  /**
+   * @param jwksSource               The provider that downloads the whole jwks document.
+   * @param minRefreshIntervalMillis The minimum time between two downloads of the jwks document.
+   *                                 This stops garbage 'kid' values from making us hammer cognito.
+   */
+  public CognitoTokenVerifier(final UrlJwkProvider jwksSource,
+      final long minRefreshIntervalMillis) {
+    this.jwksSource = jwksSource;
+    this.minRefreshIntervalMillis = minRefreshIntervalMillis;
+    this.keysById = ImmutableMap.of();
+
+    //cognito id tokens last at most an hour, entries also get dropped at their own exp on read
+    this.verifiedTokens = CacheBuilder.newBuilder()
+        .maximumSize(MAX_VERIFIED_TOKENS)
+        .expireAfterWrite(1, TimeUnit.HOURS)
+        .build();
+
+    //pre-fetch the keys, if this fails we'll just try again on the first verification
+    this.lastRefreshAttemptMillis = System.currentTimeMillis();
+    try {
+      this.fetchKeys(this.lastRefreshAttemptMillis);
+    } catch (final SigningKeyNotFoundException e) {
+      //the key map stays empty so the first getKey call is forced to refresh it
+    }
+  }
+
+  /**
+   * This method verifies the signature of the token and returns the username it was issued to. A
+   * token that has already been verified is served from memory until it expires.
+   *
+   * @param token The raw jwt from the authorization header.
+   * @return The cognito username of the token's owner.
+   * @throws JwkException If the signing key can't be found or the signature is invalid.
+   */
+  public String getUsername(final String token) throws JwkException {
+    final long nowMillis = System.currentTimeMillis();
+    final String tokenHash = Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+
+    final VerifiedToken verifiedToken = this.verifiedTokens.getIfPresent(tokenHash);
+    if (verifiedToken != null) {
+      if (verifiedToken.expiresAtMillis > nowMillis) {
+        return verifiedToken.username;
+      }
+
+      this.verifiedTokens.invalidate(tokenHash);
+    }
+
+    final DecodedJWT jwt = JWT.decode(token);
+    final Jwk jwk = this.getKey(jwt.getKeyId(), nowMillis);
+
+    Algorithm.RSA256((RSAPublicKey) jwk.getPublicKey(), null).verify(jwt);
+
+    final String username = jwt.getClaim(USERNAME_CLAIM).asString();
+
+    //only tokens that say when they expire can be remembered
+    if (jwt.getExpiresAt() != null && jwt.getExpiresAt().getTime() > nowMillis) {
+      this.verifiedTokens
+          .put(tokenHash, new VerifiedToken(username, jwt.getExpiresAt().getTime()));
+    }
+
+    return username;
+  }
+
+  private synchronized Jwk getKey(final String keyId, final long nowMillis) throws JwkException {
+    final boolean keysAreStale = nowMillis - this.keysFetchedAtMillis > KEYS_TTL_MILLIS;
+
+    if ((keysAreStale || !this.keysById.containsKey(keyId))
+        && nowMillis - this.lastRefreshAttemptMillis >= this.minRefreshIntervalMillis) {
+      this.lastRefreshAttemptMillis = nowMillis;
+      try {
+        this.fetchKeys(nowMillis);
+      } catch (final SigningKeyNotFoundException e) {
+        //keep serving the keys we have if they still cover this key id
+        if (!this.keysById.containsKey(keyId)) {
+          throw e;
+        }
+      }
+    }
+
+    final Jwk jwk = this.keysById.get(keyId);
+    if (jwk == null) {
+      throw new SigningKeyNotFoundException("No key found with kid " + keyId, null);
+    }
+
+    return jwk;
+  }
+
+  private void fetchKeys(final long nowMillis) throws SigningKeyNotFoundException {
+    final Map<String, Jwk> keys = new HashMap<>();
+    for (final Jwk jwk : this.jwksSource.getAll()) {
+      if (jwk.getId() != null) {
+        keys.put(jwk.getId(), jwk);
+      }
+    }
+
+    this.keysById = ImmutableMap.copyOf(keys);
+    this.keysFetchedAtMillis = nowMillis;
+  }
+
+  @AllArgsConstructor
+  private static class VerifiedToken {
+
+    private final String username;
+    private final long expiresAtMillis;
+  }
+}
@@ -13,4 +13,5 @@ public class Config {
   public static final Integer MAX_DURATION = 10000;
   public static final Integer MAX_GROUP_MEMBERS = 300;
   public static final Integer MAX_NUMBER_OF_CHOICES = 500;
+  public static final Integer MAX_IMAGE_BYTES = 2 * 1024 * 1024;
 }
@@ -0,0 +1,160 @@
+package utilities;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.retry.RetryUtils;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class runs the same task against each item of a collection (usually one dynamo write per
+ * group member) on a bounded pool of threads. The pool lives for the life of the lambda container.
+ *
+ * Tasks may record counting and timing metrics on the request's Metrics object (incrementMetric,
+ * recordTimeMetric and the other count/time methods are synchronized), but they must not call
+ * commonSetup or commonClose. Those push and pop the unsynchronized function name stack, which is
+ * only safe to read from the tasks because the calling thread blocks until they all finish.
+ * Failures are handed back to the calling thread to be logged. Tasks must also not call back into
+ * the executor, a nested fan out could wait on threads that are all busy waiting on it.
+ */
+public class FanOutExecutor {
+
+  public static final String CONCURRENCY_ENV_KEY = "FAN_OUT_CONCURRENCY";
+  public static final int DEFAULT_CONCURRENCY = 16;
+  public static final int DEFAULT_MAX_ATTEMPTS = 4;
+  public static final long DEFAULT_BASE_BACKOFF_MILLIS = 50;
+
+  public static final String FAN_OUT_ITEMS = "FanOutItems";
+  public static final String FAN_OUT_FAILURES = "FanOutFailures";
+  public static final String FAN_OUT_RETRIES = "FanOutRetries";
+
+  @FunctionalInterface
+  public interface FanOutTask<T> {
+
+    void run(T item) throws Exception;
+  }
+
+  private final ExecutorService executorService;
+  private final int maxAttempts;
+  private final long baseBackoffMillis;
+
+  public FanOutExecutor() {
+    this(FanOutExecutor.getConcurrencyFromEnv(), DEFAULT_MAX_ATTEMPTS,
+        DEFAULT_BASE_BACKOFF_MILLIS);
+  }
+
+  /**
+   * @param concurrency       The max number of items being processed at the same time.
+   * @param maxAttempts       The number of times an item is tried before it's considered failed.
+   *                          Only throttling errors are retried.
+   * @param baseBackoffMillis The upper bound of the first retry's wait time. Each retry doubles
+   *                          it and the actual wait is chosen uniformly below the bound.
+   */
+  public FanOutExecutor(final int concurrency, final int maxAttempts,
+      final long baseBackoffMillis) {
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.executorService = Executors.newFixedThreadPool(concurrency, runnable -> {
+      final Thread thread = new Thread(runnable, "fan-out-" + threadCount.incrementAndGet());
+      thread.setDaemon(true); // don't hold the container open on our account
+      return thread;
+    });
+    this.maxAttempts = maxAttempts;
+    this.baseBackoffMillis = baseBackoffMillis;
+  }
+
+  /**
+   * This method runs the task for every item and waits for all of them to finish. The item count,
+   * retry count and failure count are added to the metrics of the calling function.
+   *
+   * @param items   The items to run the task against.
+   * @param task    The task to run. It is run once per item unless it gets throttled.
+   * @param metrics Standard metrics object for profiling and logging.
+   * @return A map from each item whose task failed to the exception that it failed with. The map
+   * is empty if everything succeeded.
+   */
+  public <T> Map<T, Exception> forEach(final Collection<T> items, final FanOutTask<T> task,
+      final Metrics metrics) {
+    final Map<T, Exception> failures = new LinkedHashMap<>();
+    final AtomicInteger retries = new AtomicInteger();
+
+    if (items.size() == 1) {
+      //not worth handing off to another thread
+      final T item = items.iterator().next();
+      final Exception failure = this.runWithRetries(item, task, retries);
+      if (failure != null) {
+        failures.put(item, failure);
+      }
+    } else {
+      final List<T> submittedItems = new ArrayList<>(items.size());
+      final List<Future<Exception>> results = new ArrayList<>(items.size());
+      for (final T item : items) {
+        submittedItems.add(item);
+        results.add(this.executorService.submit(() -> this.runWithRetries(item, task, retries)));
+      }
+
+      for (int i = 0; i < results.size(); i++) {
+        try {
+          final Exception failure = results.get(i).get();
+          if (failure != null) {
+            failures.put(submittedItems.get(i), failure);
+          }
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          failures.put(submittedItems.get(i), e);
+        } catch (final ExecutionException e) {
+          failures.put(submittedItems.get(i), e);
+        }
+      }
+    }
+
+    metrics.incrementMetric(FAN_OUT_ITEMS, items.size());
+    metrics.incrementMetric(FAN_OUT_RETRIES, retries.get());
+    metrics.incrementMetric(FAN_OUT_FAILURES, failures.size());
+
+    return failures;
+  }
+
+  private <T> Exception runWithRetries(final T item, final FanOutTask<T> task,
+      final AtomicInteger retries) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        task.run(item);
+        return null;
+      } catch (final AmazonServiceException e) {
+        if (attempt >= this.maxAttempts || !RetryUtils.isThrottlingException(e)) {
+          return e;
+        }
+      } catch (final Exception e) {
+        return e;
+      }
+
+      retries.incrementAndGet();
+
+      try {
+        //full jitter so that throttled writes don't all come back at the same time
+        final long backoffBound = this.baseBackoffMillis << (attempt - 1);
+        Thread.sleep(ThreadLocalRandom.current().nextLong(backoffBound + 1));
+      } catch (final InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        return ie;
+      }
+    }
+  }
+
+  private static int getConcurrencyFromEnv() {
+    try {
+      final int concurrency = Integer.parseInt(System.getenv(CONCURRENCY_ENV_KEY));
+      return concurrency > 0 ? concurrency : DEFAULT_CONCURRENCY;
+    } catch (final Exception e) {
+      return DEFAULT_CONCURRENCY; // not set or not a number
+    }
+  }
+}
@@ -2,17 +2,11 @@ package utilities;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
-import com.auth0.jwk.Jwk;
 import com.auth0.jwk.JwkException;
-import com.auth0.jwk.JwkProvider;
 import com.auth0.jwk.UrlJwkProvider;
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.interfaces.DecodedJWT;
 import com.google.common.collect.ImmutableList;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.security.interfaces.RSAPublicKey;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +16,8 @@ public class GetActiveUser {
   private static final List LIVE_FUNCTIONS = ImmutableList.of("ProxyPostEndpoint");
   private static final String EMULATED_ACTIVE_USER_KEY = "EMULATED_ACTIVE_USER";
 
+  private static CognitoTokenVerifier tokenVerifier;
+
   public static String getActiveUserFromRequest(APIGatewayProxyRequestEvent request,
       Context context)
       throws JwkException, MalformedURLException {
@@ -40,15 +36,16 @@ public class GetActiveUser {
 
     String token = authorization.substring("Bearer ".length());
 
-    DecodedJWT jwt = JWT.decode(token);
-
-    JwkProvider provider = new UrlJwkProvider(new URL(PUBLIC_RSA_KEY_URL));
-    Jwk jwk = provider.get(jwt.getKeyId());
-
-    Algorithm algorithm = Algorithm.RSA256((RSAPublicKey) jwk.getPublicKey(), null);
+    return GetActiveUser.getTokenVerifier().getUsername(token);
+  }
 
-    algorithm.verify(jwt);
+  //the verifier holds the signing keys and verified tokens for the life of the container
+  private static synchronized CognitoTokenVerifier getTokenVerifier()
+      throws MalformedURLException {
+    if (tokenVerifier == null) {
+      tokenVerifier = new CognitoTokenVerifier(new UrlJwkProvider(new URL(PUBLIC_RSA_KEY_URL)));
+    }
 
-    return jwt.getClaim("cognito:username").asString();
+    return tokenVerifier;
   }
 }
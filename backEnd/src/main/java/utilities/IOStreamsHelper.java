@@ -20,8 +20,14 @@ public class IOStreamsHelper {
   }
 
   public static void removeAllInstancesOf(final StringBuilder input, final char toRemove) {
-    while (input.lastIndexOf(toRemove + "") != -1) {
-      input.deleteCharAt(input.lastIndexOf(toRemove + ""));
+    //compact in place, deleting one char at a time shifts the rest of the input on every removal
+    int writeIndex = 0;
+    for (int readIndex = 0; readIndex < input.length(); readIndex++) {
+      final char c = input.charAt(readIndex);
+      if (c != toRemove) {
+        input.setCharAt(writeIndex++, c);
+      }
     }
+    input.setLength(writeIndex);
   }
 }
@@ -0,0 +1,105 @@
+package utilities;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * This class holds an image sent in an api request. Images are sent as a base64 string, which is
+ * decoded as it's streamed into the upload so the decoded bytes are never all held at once. Older
+ * app versions send the bytes as a list of integers. That form is still taken, but it costs far
+ * more memory, so it's converted to a byte array once and the list can be let go.
+ *
+ * The decoded length is known before anything is read. That lets uploads be sized up front and
+ * anything over the cap be turned away without decoding it.
+ */
+public class ImageData {
+
+  private final String base64Data;
+  private final byte[] rawData;
+  private final long length;
+
+  private ImageData(final String base64Data) {
+    this.base64Data = base64Data;
+    this.rawData = null;
+    this.length = getDecodedLength(base64Data);
+  }
+
+  private ImageData(final byte[] rawData) {
+    this.base64Data = null;
+    this.rawData = rawData;
+    this.length = rawData.length;
+  }
+
+  /**
+   * @param requestValue The icon value from an api request. Either a base64 string or a list of
+   *                     integers (one per byte).
+   * @return The image data or null if there was no value.
+   * @throws IllegalArgumentException If the value is neither of the accepted forms.
+   */
+  public static ImageData fromRequestValue(final Object requestValue) {
+    if (requestValue == null) {
+      return null;
+    } else if (requestValue instanceof String) {
+      return new ImageData((String) requestValue);
+    } else if (requestValue instanceof List) {
+      final List<Integer> byteList = (List<Integer>) requestValue;
+      final byte[] rawData = new byte[byteList.size()];
+      for (int i = 0; i < rawData.length; i++) {
+        rawData[i] = byteList.get(i).byteValue();
+      }
+      return new ImageData(rawData);
+    }
+
+    throw new IllegalArgumentException("Image data must be a base64 string.");
+  }
+
+  public long getLength() {
+    return this.length;
+  }
+
+  public boolean exceedsMaxSize() {
+    return this.length > Config.MAX_IMAGE_BYTES;
+  }
+
+  /**
+   * @return A stream of the decoded bytes. Bad base64 only shows up as an IOException once the
+   * stream reaches it.
+   */
+  public InputStream openStream() {
+    if (this.rawData != null) {
+      return new ByteArrayInputStream(this.rawData);
+    }
+
+    //read the characters straight out of the string instead of copying them into a byte array
+    final InputStream base64Stream = new InputStream() {
+      private int position = 0;
+
+      @Override
+      public int read() {
+        return this.position < ImageData.this.base64Data.length()
+            ? ImageData.this.base64Data.charAt(this.position++) : -1;
+      }
+    };
+
+    return Base64.getDecoder().wrap(base64Stream);
+  }
+
+  @Override
+  public String toString() {
+    return "ImageData(length=" + this.length + ")";
+  }
+
+  private static long getDecodedLength(final String base64Data) {
+    int padding = 0;
+    for (int i = base64Data.length() - 1; i >= 0 && base64Data.charAt(i) == '='; i--) {
+      padding++;
+    }
+
+    //every 4 characters is 3 bytes, a trailing 2 or 3 characters (when unpadded) is 1 or 2 bytes
+    final int unpaddedLength = base64Data.length() - padding;
+    final long remainder = unpaddedLength % 4;
+    return (unpaddedLength / 4) * 3L + (remainder == 0 ? 0 : remainder - 1);
+  }
+}
@@ -0,0 +1,112 @@
+package utilities;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * This class turns uploaded images into the jpegs that get stored. Images are decoded with ImageIO
+ * (no native libraries), shrunk to fit within a max width and height and re-encoded as compressed
+ * jpegs. Large images are subsampled as they're decoded, so a huge photo never has to be held at
+ * full resolution.
+ */
+public class ImageNormalizer {
+
+  public static final int MAX_DIMENSION = 1024;
+  public static final int THUMBNAIL_DIMENSION = 128;
+
+  private static final String JPEG_FORMAT = "jpeg";
+  private static final float JPEG_QUALITY = 0.8f;
+
+  static {
+    ImageIO.setUseCache(false); // buffer in memory, not in files under /tmp
+  }
+
+  /**
+   * @param imageStream  The encoded image in any format ImageIO can read (jpeg, png, gif, bmp).
+   * @param maxDimension The image is decoded at no more than about twice this width and height.
+   * @return The decoded image.
+   * @throws IOException If the stream can't be read or isn't an image ImageIO can decode.
+   */
+  public static BufferedImage read(final InputStream imageStream, final int maxDimension)
+      throws IOException {
+    try (final ImageInputStream imageInputStream = ImageIO.createImageInputStream(imageStream)) {
+      final Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+      if (!readers.hasNext()) {
+        throw new IOException("Not an image that can be decoded.");
+      }
+
+      final ImageReader reader = readers.next();
+      try {
+        reader.setInput(imageInputStream, true, true);
+
+        //skip rows and columns while decoding so the image comes out at most 2x the max size
+        final int largestDimension = Math.max(reader.getWidth(0), reader.getHeight(0));
+        final int subsampling = Math
+            .max(1, (largestDimension + 2 * maxDimension - 1) / (2 * maxDimension));
+        final ImageReadParam readParam = reader.getDefaultReadParam();
+        readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+        return reader.read(0, readParam);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  /**
+   * @param image        The decoded image.
+   * @param maxDimension The largest width or height the jpeg can have. Images already within it
+   *                     keep their size.
+   * @return The image as a compressed jpeg.
+   * @throws IOException If the jpeg can't be written.
+   */
+  public static byte[] toJpeg(final BufferedImage image, final int maxDimension)
+      throws IOException {
+    final double scale = Math
+        .min(1.0, (double) maxDimension / Math.max(image.getWidth(), image.getHeight()));
+    final int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+    final int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+    //jpegs have no alpha channel, so transparent parts are flattened onto white
+    final BufferedImage rgbImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    final Graphics2D graphics = rgbImage.createGraphics();
+    try {
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+          RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+    } finally {
+      graphics.dispose();
+    }
+
+    final ImageWriter writer = ImageIO.getImageWritersByFormatName(JPEG_FORMAT).next();
+    final ImageWriteParam writeParam = writer.getDefaultWriteParam();
+    writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+    writeParam.setCompressionQuality(JPEG_QUALITY);
+
+    final ByteArrayOutputStream jpegBytes = new ByteArrayOutputStream();
+    try (final ImageOutputStream imageOutputStream = ImageIO
+        .createImageOutputStream(jpegBytes)) {
+      writer.setOutput(imageOutputStream);
+      writer.write(null, new IIOImage(rgbImage, null, null), writeParam);
+    } finally {
+      writer.dispose();
+    }
+
+    return jpegBytes.toByteArray();
+  }
+}
@@ -43,64 +43,119 @@ public class JsonUtils {
   // encoding //
   //////////////region
 
+  //Responses for large groups can be hundreds of KB, so the buffer is kept for warm invocations
+  //unless a single response made it unreasonably large
+  private static final int MAX_RETAINED_BUFFER_CAPACITY = 1 << 20;
+  private static final String ESCAPED_QUOTE = "\\\"";
+
+  private static final ThreadLocal<StringBuilder> ENCODING_BUFFER = ThreadLocal
+      .withInitial(() -> new StringBuilder(8192));
+
+  /**
+   * This method encodes the value in a single pass over the object tree. Every nested map, list
+   * and string is appended to the same buffer rather than being built up in its own buffer and
+   * copied into its parent's.
+   *
+   * @param value The map, iterable, string, number, boolean or model to encode.
+   * @return The json with each of its quotes escaped.
+   */
   public static String convertObjectToJson(Object value) {
-    StringBuilder outputString = new StringBuilder();
+    final StringBuilder outputString = JsonUtils.getEncodingBuffer();
+    JsonUtils.appendObjectJson(outputString, value);
+    return JsonUtils.releaseEncodingBuffer(outputString);
+  }
+
+  public static String convertIterableToJson(Iterable value) {
+    final StringBuilder outputString = JsonUtils.getEncodingBuffer();
+    JsonUtils.appendIterableJson(outputString, value);
+    return JsonUtils.releaseEncodingBuffer(outputString);
+  }
 
+  public static String convertMapToJson(Map<String, Object> value) {
+    final StringBuilder outputString = JsonUtils.getEncodingBuffer();
+    JsonUtils.appendMapJson(outputString, value);
+    return JsonUtils.releaseEncodingBuffer(outputString);
+  }
+
+  public static String convertStringToJson(String value) {
+    return ESCAPED_QUOTE + value + ESCAPED_QUOTE;
+  }
+
+  public static void appendObjectJson(final StringBuilder outputString, final Object value) {
     if (value instanceof Map) {
       //we should potentially get the first key and then see what it's value is and map that,
       //but I think for now it's safe to assume it is a string or something can be made a string
-      outputString.append(JsonUtils.convertMapToJson((Map) value));
+      JsonUtils.appendMapJson(outputString, (Map) value);
     } else if (value instanceof String) {
-      outputString.append(JsonUtils.convertStringToJson((String) value));
+      JsonUtils.appendStringJson(outputString, (String) value);
     } else if (value instanceof Iterable) {
-      outputString.append(JsonUtils.convertIterableToJson((Iterable) value));
+      JsonUtils.appendIterableJson(outputString, (Iterable) value);
     } else if (value instanceof Number || value instanceof Boolean) {
       outputString.append(value.toString());
     } else if (value instanceof Model) {
-      outputString.append(JsonUtils.convertMapToJson(((Model) value).asMap()));
+      JsonUtils.appendMapJson(outputString, ((Model) value).asMap());
     } else {
       outputString.append("null"); // assuming null pointer
     }
-
-    return outputString.toString();
   }
 
-  public static String convertIterableToJson(Iterable value) {
-    StringBuilder outputString = new StringBuilder();
+  public static void appendIterableJson(final StringBuilder outputString, final Iterable value) {
+    outputString.append('[');
 
-    outputString.append("[");
-    for (Object data : value) {
-      outputString.append(JsonUtils.convertObjectToJson(data));
-      outputString.append(",");
-    }
+    boolean first = true;
+    for (final Object data : value) {
+      if (!first) {
+        outputString.append(',');
+      }
+      first = false;
 
-    IOStreamsHelper.removeLastInstanceOf(outputString, ','); // remove the last comma
-    outputString.append("]");
+      JsonUtils.appendObjectJson(outputString, data);
+    }
 
-    return outputString.toString();
+    outputString.append(']');
   }
 
-  public static String convertMapToJson(Map<String, Object> value) {
-    StringBuilder outputString = new StringBuilder();
+  public static void appendMapJson(final StringBuilder outputString,
+      final Map<String, Object> value) {
+    outputString.append('{');
 
-    outputString.append("{");
-    for (String key : value.keySet()) {
-      Object data = value.get(key);
+    boolean first = true;
+    for (final Map.Entry<String, Object> entry : value.entrySet()) {
+      if (!first) {
+        outputString.append(',');
+      }
+      first = false;
 
-      outputString.append(JsonUtils.convertStringToJson(key));
-      outputString.append(":");
-      outputString.append(JsonUtils.convertObjectToJson(data));
-      outputString.append(",");
+      JsonUtils.appendStringJson(outputString, entry.getKey());
+      outputString.append(':');
+      JsonUtils.appendObjectJson(outputString, entry.getValue());
     }
 
-    IOStreamsHelper.removeLastInstanceOf(outputString, ','); // remove the last comma
-    outputString.append("}");
+    outputString.append('}');
+  }
 
-    return outputString.toString();
+  public static void appendStringJson(final StringBuilder outputString, final String value) {
+    outputString.append(ESCAPED_QUOTE).append(value).append(ESCAPED_QUOTE);
   }
 
-  public static String convertStringToJson(String value) {
-    return "\\\"" + value + "\\\"";
+  private static StringBuilder getEncodingBuffer() {
+    final StringBuilder buffer = ENCODING_BUFFER.get();
+    //a non empty buffer means we're being called while encoding, i.e. from a model's asMap
+    return buffer.length() == 0 ? buffer : new StringBuilder();
+  }
+
+  private static String releaseEncodingBuffer(final StringBuilder buffer) {
+    final String json = buffer.toString();
+
+    if (buffer == ENCODING_BUFFER.get()) {
+      if (buffer.capacity() > MAX_RETAINED_BUFFER_CAPACITY) {
+        ENCODING_BUFFER.remove();
+      } else {
+        buffer.setLength(0);
+      }
+    }
+
+    return json;
   }
 
   //endregion
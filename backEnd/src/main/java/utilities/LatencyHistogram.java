@@ -0,0 +1,90 @@
+package utilities;
+
+/**
+ * This is a small HDR style histogram for nanosecond latencies. Values are bucketed by their power
+ * of two and then split linearly into SUB_BUCKETS within that power, so any recorded value can be
+ * read back to within 1/SUB_BUCKETS (about 3%) of what it was, no matter how large, using a fixed
+ * amount of memory.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  //one row of sub buckets for the exact small values and then one per power of two above them
+  private final int[] counts = new int[(Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS];
+
+  private long count;
+  private long sum;
+  private long min = Long.MAX_VALUE;
+  private long max;
+
+  public void record(final long value) {
+    final long boundedValue = Math.max(value, 0); // the clock can't go backwards, but just in case
+
+    this.counts[getBucketIndex(boundedValue)]++;
+    this.count++;
+    this.sum += boundedValue;
+    this.min = Math.min(this.min, boundedValue);
+    this.max = Math.max(this.max, boundedValue);
+  }
+
+  public long getCount() {
+    return this.count;
+  }
+
+  public long getSum() {
+    return this.sum;
+  }
+
+  public long getMin() {
+    return this.count > 0 ? this.min : 0;
+  }
+
+  public long getMax() {
+    return this.max;
+  }
+
+  /**
+   * @param percentile The percentile to get, from 0 to 100.
+   * @return The highest value that could be in the bucket that the percentile falls in, capped at
+   * the largest value recorded. This is zero if nothing has been recorded.
+   */
+  public long getValueAtPercentile(final double percentile) {
+    final long targetCount = Math
+        .max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * this.count));
+
+    long cumulativeCount = 0;
+    for (int i = 0; i < this.counts.length && this.count > 0; i++) {
+      cumulativeCount += this.counts[i];
+      if (cumulativeCount >= targetCount) {
+        return Math.min(getHighestValueInBucket(i), this.max);
+      }
+    }
+
+    return 0;
+  }
+
+  private static int getBucketIndex(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+
+    final int magnitude = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value); // >= SUB_BUCKET_BITS
+    final int shift = magnitude - SUB_BUCKET_BITS;
+    final int subBucket = (int) (value >>> shift) - SUB_BUCKETS; // drop the leading one bit
+
+    return (shift + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  private static long getHighestValueInBucket(final int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+
+    final int shift = index / SUB_BUCKETS - 1;
+    final long lowestValue = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+
+    return lowestValue + (1L << shift) - 1;
+  }
+}
@@ -1,10 +1,25 @@
 package utilities;
 
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.google.common.collect.Lists;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * This class collects the metrics for a single invocation. Counts are summed per function and
+ * timers are recorded in nanoseconds into a histogram per function, so functions that are called
+ * repeatedly (or call themselves) keep every timing instead of only the last one.
+ *
+ * Everything is logged once at the end of the invocation as a single CloudWatch embedded metric
+ * format json line. Each function's metrics are named 'FunctionName.MetricName' and every metric
+ * is dimensioned by the function that handled the invocation.
+ */
 public class Metrics {
 
   //To limit hard coded metrics names/variations, I'm writing some constant ones here
@@ -13,15 +28,22 @@ public class Metrics {
   public static final String FAILURE = "Failure";
   public static final String INVOCATIONS = "Invocations";
 
-  private static final String METRIC_MARKER = "METRIC";
+  public static final String NAMESPACE = "PocketPoll";
+  public static final String ENTRY_FUNCTION_DIMENSION = "EntryFunction";
+
+  private static final double[] PERCENTILES = {50, 90, 99};
+  private static final int MAX_METRICS_PER_DIRECTIVE = 100; // embedded metric format limit
 
   private final LinkedList<String> functionNames;
 
   private final String requestId;
   private final LambdaLogger lambdaLogger;
   private final Map<String, Map<String, Integer>> countMetrics;
-  private final Map<String, Map<String, Long>> timeMetrics;
+  private final Map<String, Map<String, Double>> doubleMetrics;
+  private final Map<String, Map<String, LatencyHistogram>> timeMetrics;
+  private final Map<String, Map<String, Deque<Long>>> timerStarts;
 
+  private String entryFunctionName;
   private Map<String, Object> requestBody;
   private boolean printMetrics;
 
@@ -31,11 +53,17 @@ public class Metrics {
     this.requestId = requestId;
     this.lambdaLogger = lambdaLogger;
     this.countMetrics = new HashMap<>();
+    this.doubleMetrics = new HashMap<>();
     this.timeMetrics = new HashMap<>();
+    this.timerStarts = new HashMap<>();
     this.printMetrics = true;
   }
 
   public void setFunctionName(final String functionName) {
+    if (this.entryFunctionName == null) {
+      this.entryFunctionName = functionName;
+    }
+
     this.functionNames.push(functionName);
   }
 
@@ -69,7 +97,8 @@ public class Metrics {
     }
   }
 
-  public void addBooleanMetric(Boolean value) {
+  //the count methods are synchronized since fan outs can count cache hits from several threads
+  public synchronized void addBooleanMetric(Boolean value) {
     String metricName = FAILURE;
     if (value) {
       metricName = SUCCESS;
@@ -78,7 +107,7 @@ public class Metrics {
     this.addIntegerMetric(metricName, 1);
   }
 
-  public void addIntegerMetric(String metricName, Integer value) {
+  public synchronized void addIntegerMetric(String metricName, Integer value) {
     this.ensureFunctionKeyExists(this.countMetrics);
 
     if (this.countMetrics.get(this.functionNames.peek()).containsKey(metricName)) {
@@ -88,7 +117,7 @@ public class Metrics {
     }
   }
 
-  public void addIntegerMetric(String metricName) {
+  public synchronized void addIntegerMetric(String metricName) {
     this.ensureFunctionKeyExists(this.countMetrics);
 
     if (!this.countMetrics.get(this.functionNames.peek()).containsKey(metricName)) {
@@ -96,7 +125,7 @@ public class Metrics {
     }
   }
 
-  public void incrementMetric(String metricName) {
+  public synchronized void incrementMetric(String metricName) {
     this.ensureFunctionKeyExists(this.countMetrics);
 
     if (this.countMetrics.get(this.functionNames.peek()).containsKey(metricName)) {
@@ -108,35 +137,88 @@ public class Metrics {
     }
   }
 
-  public void decrementMetric(String metricName) {
+  public synchronized void incrementMetric(String metricName, Integer amount) {
     this.ensureFunctionKeyExists(this.countMetrics);
 
     if (this.countMetrics.get(this.functionNames.peek()).containsKey(metricName)) {
       this.countMetrics.get(this.functionNames.peek())
           .replace(metricName,
-              this.countMetrics.get(this.functionNames.peek()).get(metricName) - 1);
+              this.countMetrics.get(this.functionNames.peek()).get(metricName) + amount);
+    } else {
+      this.addIntegerMetric(metricName, amount); // it's not there -> implies it was 0
     }
   }
 
-  public void initTimeMetric(String metricName) {
-    this.ensureFunctionKeyExists(this.timeMetrics);
+  /**
+   * This is for counting against a function other than the one that is running, like a summary
+   * that several functions add to.
+   *
+   * @param functionName The function to count against.
+   * @param metricName   The metric to increment.
+   * @param amount       The amount to increment by.
+   */
+  public synchronized void incrementMetric(String functionName, String metricName,
+      Integer amount) {
+    this.countMetrics.computeIfAbsent(functionName, (k) -> new HashMap<>())
+        .merge(metricName, amount, Integer::sum);
+  }
 
-    if (!this.timeMetrics.get(this.functionNames.peek()).containsKey(metricName)) {
-      this.timeMetrics.get(this.functionNames.peek()).put(metricName, System.currentTimeMillis());
-    }
+  //for metrics that aren't whole numbers, like dynamo capacity units
+  public synchronized void incrementDoubleMetric(String metricName, double amount) {
+    this.incrementDoubleMetric(this.functionNames.peek(), metricName, amount);
   }
 
-  public void finalizeTimeMetric(String metricName) {
-    this.ensureFunctionKeyExists(this.timeMetrics);
+  public synchronized void incrementDoubleMetric(String functionName, String metricName,
+      double amount) {
+    this.doubleMetrics.computeIfAbsent(functionName, (k) -> new HashMap<>())
+        .merge(metricName, amount, Double::sum);
+  }
+
+  public synchronized void decrementMetric(String metricName) {
+    this.ensureFunctionKeyExists(this.countMetrics);
 
-    if (this.timeMetrics.get(this.functionNames.peek()).containsKey(metricName)) {
-      this.timeMetrics.get(this.functionNames.peek())
+    if (this.countMetrics.get(this.functionNames.peek()).containsKey(metricName)) {
+      this.countMetrics.get(this.functionNames.peek())
           .replace(metricName,
-              System.currentTimeMillis() - this.timeMetrics.get(this.functionNames.peek())
-                  .get(metricName));
+              this.countMetrics.get(this.functionNames.peek()).get(metricName) - 1);
+    }
+  }
+
+  //starts are stacked so that a function calling itself times each call separately
+  public synchronized void initTimeMetric(String metricName) {
+    this.ensureFunctionKeyExists(this.timerStarts);
+
+    this.timerStarts.get(this.functionNames.peek())
+        .computeIfAbsent(metricName, (k) -> new ArrayDeque<>()).push(System.nanoTime());
+  }
+
+  public synchronized void finalizeTimeMetric(String metricName) {
+    final long endNanos = System.nanoTime();
+    this.ensureFunctionKeyExists(this.timerStarts);
+
+    final Deque<Long> starts = this.timerStarts.get(this.functionNames.peek()).get(metricName);
+    if (starts != null && !starts.isEmpty()) {
+      this.recordTimeMetric(this.functionNames.peek(), metricName, endNanos - starts.pop());
     }
   }
 
+  /**
+   * This is for recording a time that was measured elsewhere.
+   *
+   * @param functionName The function to record the time against.
+   * @param metricName   The timer to record the time into.
+   * @param nanos        The time that was measured.
+   */
+  public synchronized void recordTimeMetric(String functionName, String metricName,
+      long nanos) {
+    this.timeMetrics.computeIfAbsent(functionName, (k) -> new HashMap<>())
+        .computeIfAbsent(metricName, (k) -> new LatencyHistogram()).record(nanos);
+  }
+
+  public synchronized void recordTimeMetric(String metricName, long nanos) {
+    this.recordTimeMetric(this.functionNames.peek(), metricName, nanos);
+  }
+
   public void log(final String message) {
     this.lambdaLogger.log(message);
   }
@@ -150,26 +232,84 @@ public class Metrics {
         .log(descriptor.withInput(this.requestBody).withRequestId(this.requestId).toString());
   }
 
-  public void logMetrics() {
+  /**
+   * This method logs every metric from this invocation as one embedded metric format line. Counts
+   * are logged as they are and each timer is logged as its count and its p50/p90/p99 in
+   * milliseconds.
+   */
+  public synchronized void logMetrics() {
     if (this.printMetrics) {
+      final Map<String, Number> values = new LinkedHashMap<>();
+      final Map<String, String> units = new LinkedHashMap<>();
+
       for (String funcName : this.countMetrics.keySet()) {
         for (String metricName : this.countMetrics.get(funcName).keySet()) {
-          this.lambdaLogger.log(String
-              .format("%s %s %s %s %s", this.requestId, METRIC_MARKER, funcName, metricName,
-                  this.countMetrics.get(funcName).get(metricName)));
+          values.put(funcName + "." + metricName, this.countMetrics.get(funcName).get(metricName));
+          units.put(funcName + "." + metricName, "Count");
+        }
+      }
+
+      for (String funcName : this.doubleMetrics.keySet()) {
+        for (String metricName : this.doubleMetrics.get(funcName).keySet()) {
+          values.put(funcName + "." + metricName,
+              this.doubleMetrics.get(funcName).get(metricName));
+          units.put(funcName + "." + metricName, "Count");
         }
       }
 
       for (String funcName : this.timeMetrics.keySet()) {
         for (String metricName : this.timeMetrics.get(funcName).keySet()) {
-          this.lambdaLogger.log(String
-              .format("%s %s %s %s %s", this.requestId, METRIC_MARKER, funcName, metricName,
-                  this.timeMetrics.get(funcName).get(metricName)));
+          final LatencyHistogram histogram = this.timeMetrics.get(funcName).get(metricName);
+          final String name = funcName + "." + metricName;
+
+          values.put(name + ".Count", histogram.getCount());
+          units.put(name + ".Count", "Count");
+          for (final double percentile : PERCENTILES) {
+            values.put(name + ".P" + (int) percentile,
+                nanosToMillis(histogram.getValueAtPercentile(percentile)));
+            units.put(name + ".P" + (int) percentile, "Milliseconds");
+          }
         }
       }
+
+      this.lambdaLogger.log(this.getEmbeddedMetricFormatJson(values, units));
     }
   }
 
+  private String getEmbeddedMetricFormatJson(final Map<String, Number> values,
+      final Map<String, String> units) {
+    final StringBuilder json = new StringBuilder("{\"_aws\":{\"Timestamp\":")
+        .append(System.currentTimeMillis())
+        .append(",\"CloudWatchMetrics\":[");
+
+    final List<List<String>> directives = Lists
+        .partition(new ArrayList<>(values.keySet()), MAX_METRICS_PER_DIRECTIVE);
+    for (int i = 0; i < directives.size(); i++) {
+      json.append(i > 0 ? "," : "").append("{\"Namespace\":\"").append(NAMESPACE)
+          .append("\",\"Dimensions\":[[\"").append(ENTRY_FUNCTION_DIMENSION)
+          .append("\"]],\"Metrics\":[");
+      for (int j = 0; j < directives.get(i).size(); j++) {
+        final String name = directives.get(i).get(j);
+        json.append(j > 0 ? "," : "").append("{\"Name\":\"").append(name)
+            .append("\",\"Unit\":\"").append(units.get(name)).append("\"}");
+      }
+      json.append("]}");
+    }
+
+    json.append("]},\"").append(ENTRY_FUNCTION_DIMENSION).append("\":\"")
+        .append(this.entryFunctionName).append("\",\"RequestId\":\"").append(this.requestId)
+        .append('"');
+    for (final Map.Entry<String, Number> value : values.entrySet()) {
+      json.append(",\"").append(value.getKey()).append("\":").append(value.getValue());
+    }
+
+    return json.append('}').toString();
+  }
+
+  private static double nanosToMillis(final long nanos) {
+    return Math.round(nanos / 1000.0) / 1000.0; // to the microsecond
+  }
+
   public void setPrintMetrics(boolean printMetrics) {
     this.printMetrics = printMetrics;
   }
@@ -3,158 +3,191 @@ package utilities;
 import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toMap;
 
-import com.google.common.base.Functions;
+import com.google.common.primitives.Ints;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.stream.IntStream;
 import models.EventWithCategoryChoices;
 import models.User;
 
 public class NondeterministicOptimalChoiceSelector {
 
-  private LinkedHashMap<String, Map<Integer, Integer>> ratingCountsByChoice;
+  public static final int NUMBER_OF_RATINGS = 6; // ratings are 0 through 5
+  public static final int DEFAULT_RATING = 3;
 
-  private EventWithCategoryChoices event;
-  private Map<String, User> allUsers;
-  private Metrics metrics;
+  //the histogram, rating counts are indexed by [choice ordinal][rating]
+  private final List<String> choiceIds;
+  private int[][] ratingCountsByChoice;
+
+  private final EventWithCategoryChoices event;
+  private final Map<String, Map<String, Integer>> ratingsByUsername; // for the event's category
+  private final Metrics metrics;
+  private final SplittableRandom random;
 
   public NondeterministicOptimalChoiceSelector(final EventWithCategoryChoices event,
       final List<User> users,
       final Metrics metrics) {
+    this(event, users, metrics, new SplittableRandom());
+  }
+
+  public NondeterministicOptimalChoiceSelector(final EventWithCategoryChoices event,
+      final List<User> users, final Metrics metrics, final SplittableRandom random) {
+    this(event, getRatingsByUsername(event, users), metrics, random);
+  }
+
+  /**
+   * @param event             The event to select choices for.
+   * @param ratingsByUsername The users' choice ratings for the event's category. Opted in users
+   *                          that are missing are treated as having no ratings.
+   * @param metrics           Standard metrics object for profiling and logging.
+   */
+  public NondeterministicOptimalChoiceSelector(final EventWithCategoryChoices event,
+      final Map<String, Map<String, Integer>> ratingsByUsername, final Metrics metrics) {
+    this(event, ratingsByUsername, metrics, new SplittableRandom());
+  }
+
+  public NondeterministicOptimalChoiceSelector(final EventWithCategoryChoices event,
+      final Map<String, Map<String, Integer>> ratingsByUsername, final Metrics metrics,
+      final SplittableRandom random) {
     this.event = event;
-    this.allUsers = users.stream()
-        .collect(collectingAndThen(toMap(User::getUsername, u -> u), HashMap::new));
+    this.ratingsByUsername = ratingsByUsername;
     this.metrics = metrics;
-    this.resetRatingsCountsByChoice(); // setup the default empty histogram
+    this.random = random;
+    this.choiceIds = new ArrayList<>(event.getCategoryChoices().keySet());
+    this.ratingCountsByChoice = new int[this.choiceIds.size()][NUMBER_OF_RATINGS];
   }
 
-  public void crunch(final Float k) {
-    //first setup the control values (just the mapping of the users opted in)
-    List<Map<String, Integer>> allCategoryChoiceRatings = new ArrayList<>();
-    for (String username : this.event.getOptedIn().keySet()) {
-      allCategoryChoiceRatings.add(
-          this.allUsers.get(username).getCategoryRatings()
-              .getOrDefault(this.event.getCategoryId(), Collections.emptyMap())
-      );
-    }
+  private static Map<String, Map<String, Integer>> getRatingsByUsername(
+      final EventWithCategoryChoices event, final List<User> users) {
+    return users.stream().collect(collectingAndThen(toMap(User::getUsername,
+        u -> u.getCategoryRatings().getOrDefault(event.getCategoryId(), Collections.emptyMap())),
+        HashMap::new));
+  }
 
+  public void crunch(final Float k) {
     //set up the control histogram (this is the histogram of real choice ratings)
-    this.resetRatingsCountsByChoice();
-    this.calculateAndSetRatingCountsByChoice(allCategoryChoiceRatings);
-
-    //Now we need to get the 'random' categoryChoiceRating maps based on our control histogram
-    for (int i = 0; i < Math.ceil(k * this.event.getOptedIn().size()); i++) {
-      //getRandomUserChoiceRatings utilizes the data setup in ratingCountsByChoice a few lines up
-      allCategoryChoiceRatings.add(this.getRandomUserChoiceRatings());
+    this.ratingCountsByChoice = new int[this.choiceIds.size()][NUMBER_OF_RATINGS];
+    for (final String username : this.event.getOptedIn().keySet()) {
+      this.addToRatingCounts(
+          this.ratingsByUsername.getOrDefault(username, Collections.emptyMap()));
     }
 
-    //last we generate the final histogram using the user rating maps and the 'random' rating maps
-    this.resetRatingsCountsByChoice();
-    this.calculateAndSetRatingCountsByChoice(allCategoryChoiceRatings);
+    //Now we add in the 'random' users based on the control histogram. The sampling table is made
+    //from the control counts before any random votes are added, so every random user is drawn
+    //from the same distribution.
+    final int[][] samplingTable = NondeterministicOptimalChoiceSelector
+        .getCumulativeSamplingTable(this.ratingCountsByChoice, this.event.getOptedIn().size());
+    final int numberOfRandomUsers = (int) Math.ceil(k * this.event.getOptedIn().size());
+    for (int i = 0; i < numberOfRandomUsers; i++) {
+      this.addRandomUserRatings(samplingTable);
+    }
   }
 
-  //we put one additional vote into ratings 1 through 5 (so everything besides 0)
-  //we then roll a random number and find what rating that correlates to probabilistically
-  public Map<String, Integer> getRandomUserChoiceRatings() {
-    Map<String, Integer> categoryChoiceRatings = new HashMap<>();
-    Random random = new Random();
-
-    for (String choiceId : this.ratingCountsByChoice.keySet()) {
-      int randInt = random.nextInt(100); // [0, 100) aka [0, 99] since it's integers
-      int runningProb = 0;
-      int totalVotes =
-          this.event.getOptedIn().size() + 5; //we added one vote to each of the ratings 1 through 5
-
-      Map<Integer, Integer> ratingCounts = this.ratingCountsByChoice.get(choiceId);
-
-      for (int rating = 0; rating < 6; rating++) {
-        int controlCount = ratingCounts.get(rating);
-        int topOfRange = runningProb;
-
-        //we have to figure out how much percentage this choice had
-        if (rating == 0) {
-          // we handle zero differently since we didn't add the one to it
-          topOfRange += Math.floor(controlCount * 100.0 / totalVotes);
-        } else {
-          topOfRange += Math.floor((controlCount + 1) * 100.0 / totalVotes);
-        }
-
-        if (randInt < topOfRange) { // topOfRange went from being below randInt to above it
-          categoryChoiceRatings.putIfAbsent(choiceId, rating);
-          break;
-        }
-        runningProb = topOfRange + 1;
-      }
+  //we roll a random number for each choice and find what rating that correlates to
+  //probabilistically, that rating gets a vote in the histogram
+  private void addRandomUserRatings(final int[][] samplingTable) {
+    for (int choice = 0; choice < samplingTable.length; choice++) {
+      final int randInt = this.random.nextInt(100); // [0, 100) aka [0, 99] since it's integers
+      int rating = NondeterministicOptimalChoiceSelector
+          .getSampledRating(samplingTable[choice], randInt);
 
-      if (!categoryChoiceRatings.containsKey(choiceId)) {
+      if (rating < 0) {
         //this shouldn't happen
-        metrics.log(new ErrorDescriptor<>(ratingCounts, "DataCruncher.getRandomUserChoiceRatings",
-            "choice not set in random ratings map"));
-        categoryChoiceRatings.put(choiceId, 3);
+        this.metrics.log(new ErrorDescriptor<>(Ints.asList(this.ratingCountsByChoice[choice]),
+            "DataCruncher.getRandomUserChoiceRatings", "choice not set in random ratings map"));
+        rating = DEFAULT_RATING;
       }
-    }
 
-    return categoryChoiceRatings;
+      this.ratingCountsByChoice[choice][rating]++;
+    }
   }
 
-  private void calculateAndSetRatingCountsByChoice(
-      List<Map<String, Integer>> allCategoryChoiceRatings) {
-    for (Map<String, Integer> categoryChoiceRatings : allCategoryChoiceRatings) {
-      for (String choiceId : this.ratingCountsByChoice.keySet()) {
-        Integer selectedRating;
-        if (categoryChoiceRatings != null && categoryChoiceRatings.containsKey(choiceId)) {
-          selectedRating = categoryChoiceRatings.get(choiceId);
-        } else {
-          selectedRating = 3;
-        }
-
-        //increment the old count of this rating value by 1
-        final Integer newCount =
-            this.ratingCountsByChoice.get(choiceId).get(selectedRating) + 1;
-
-        this.ratingCountsByChoice.get(choiceId).replace(selectedRating, newCount);
+  /**
+   * This method builds the table that random ratings are drawn from. For each choice, we put one
+   * additional vote into ratings 1 through 5 (so everything besides 0) and then give each rating a
+   * range of [0, 100) sized by its share of the votes. Each range starts one past where the last
+   * one ended.
+   *
+   * @param ratingCountsByChoice The control histogram.
+   * @param numberOfVoters       The number of users that went into the control histogram.
+   * @return The exclusive upper bound of each rating's range indexed by [choice ordinal][rating].
+   */
+  static int[][] getCumulativeSamplingTable(final int[][] ratingCountsByChoice,
+      final int numberOfVoters) {
+    final int totalVotes = numberOfVoters + 5; //we added one vote to each of the ratings 1 through 5
+    final int[][] samplingTable = new int[ratingCountsByChoice.length][NUMBER_OF_RATINGS];
+
+    for (int choice = 0; choice < ratingCountsByChoice.length; choice++) {
+      int runningProb = 0;
+      for (int rating = 0; rating < NUMBER_OF_RATINGS; rating++) {
+        final int controlCount = ratingCountsByChoice[choice][rating];
+
+        // we handle zero differently since we didn't add the one to it
+        final int votes = rating == 0 ? controlCount : controlCount + 1;
+        final int topOfRange = runningProb + votes * 100 / totalVotes; // floor of the percentage
+
+        samplingTable[choice][rating] = topOfRange;
+        runningProb = topOfRange + 1;
       }
     }
+
+    return samplingTable;
   }
 
-  private void resetRatingsCountsByChoice() {
-    this.ratingCountsByChoice = new LinkedHashMap<>();
-    for (String choiceId : this.event.getCategoryChoices().keySet()) {
-      this.ratingCountsByChoice
-          .putIfAbsent(choiceId, this.getEmptyRatingCountsMap());
+  /**
+   * @param choiceSamplingTable The upper bounds of each rating's range for a single choice.
+   * @param randInt             A uniformly random int in [0, 100).
+   * @return The first rating whose range goes above the random int, or -1 if none do.
+   */
+  static int getSampledRating(final int[] choiceSamplingTable, final int randInt) {
+    for (int rating = 0; rating < NUMBER_OF_RATINGS; rating++) {
+      if (randInt < choiceSamplingTable[rating]) {
+        return rating;
+      }
     }
+
+    return -1;
   }
 
-  private Map<Integer, Integer> getEmptyRatingCountsMap() {
-    return IntStream.range(0, 6).boxed()
-        .collect(collectingAndThen(toMap(Functions.identity(), (Integer i) -> 0), HashMap::new));
+  private void addToRatingCounts(final Map<String, Integer> categoryChoiceRatings) {
+    for (int choice = 0; choice < this.choiceIds.size(); choice++) {
+      final String choiceId = this.choiceIds.get(choice);
+
+      int selectedRating = DEFAULT_RATING;
+      if (categoryChoiceRatings != null && categoryChoiceRatings.containsKey(choiceId)) {
+        selectedRating = categoryChoiceRatings.get(choiceId);
+      }
+
+      this.ratingCountsByChoice[choice][selectedRating]++;
+    }
   }
 
   //This methods sums the product of all ratings times their counts
-  private int getSumOfRatingsCounts(Map<Integer, Integer> ratingsToCount) {
+  private int getSumOfRatingsCounts(final int choice) {
     int ret = 0;
 
-    for (int rating = 0; rating < 6; rating++) {
-      ret += ratingsToCount.get(rating) * rating; // count * rating
+    for (int rating = 0; rating < NUMBER_OF_RATINGS; rating++) {
+      ret += this.ratingCountsByChoice[choice][rating] * rating; // count * rating
     }
 
     return ret;
   }
 
   public Map<String, String> getTopXChoices(final Integer x) {
-    return this.ratingCountsByChoice.entrySet().stream()
-        .sorted((e1, e2) ->
-            this.getSumOfRatingsCounts(e1.getValue()) > this.getSumOfRatingsCounts(e2.getValue())
-                ? -1 : 1)
+    final int[] sums = IntStream.range(0, this.choiceIds.size())
+        .map(this::getSumOfRatingsCounts)
+        .toArray();
+
+    return IntStream.range(0, this.choiceIds.size()).boxed()
+        .sorted((c1, c2) -> sums[c1] > sums[c2] ? -1 : 1)
         .limit(x)
+        .map(this.choiceIds::get)
         .collect(collectingAndThen(
-            toMap(Entry::getKey, Entry::getKey), // the key and the label are the same thing now
+            toMap(choiceId -> choiceId, choiceId -> choiceId), // the key and the label are the same
             HashMap::new));
   }
 }
@@ -0,0 +1,70 @@
+package utilities;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import managers.DbAccessManager;
+
+/**
+ * Pending events are spread over NUMBER_OF_PARTITIONS partitions so that the scanners can work
+ * through them in parallel. Each 'groupId;eventId' key is consistently hashed onto a partition, so
+ * the partition an event pends in can always be recomputed from its ids, and going from n to n + 1
+ * partitions only moves about 1/(n + 1) of the keys.
+ * <p>
+ * To change the number of partitions, set PREVIOUS_NUMBER_OF_PARTITIONS to the old count and
+ * NUMBER_OF_PARTITIONS to the new one while keeping a scanner running for every partition in either
+ * count. Events are (re)pended into their partition under the new count and deletes look in both
+ * partitions. Once the longest voting duration has passed every event has moved over and
+ * PREVIOUS_NUMBER_OF_PARTITIONS can be removed.
+ */
+public class PendingEventPartitioner {
+
+  public static final String NUMBER_OF_PARTITIONS_ENV_KEY = "NUMBER_OF_PARTITIONS";
+  public static final String PREVIOUS_NUMBER_OF_PARTITIONS_ENV_KEY = "PREVIOUS_NUMBER_OF_PARTITIONS";
+
+  /**
+   * @param groupId The group that the pending event belongs to.
+   * @param eventId The event that is pending.
+   * @return The partition the event pends in under the current number of partitions.
+   */
+  public static String getPartitionKey(final String groupId, final String eventId)
+      throws NullPointerException, NumberFormatException {
+    return getPartitionKey(groupId, eventId,
+        Integer.parseInt(System.getenv(NUMBER_OF_PARTITIONS_ENV_KEY)));
+  }
+
+  /**
+   * @param groupId            The group that the pending event belongs to.
+   * @param eventId            The event that is pending.
+   * @param numberOfPartitions The number of partitions to hash the event onto.
+   * @return The partition the event pends in, from 1 to numberOfPartitions.
+   */
+  public static String getPartitionKey(final String groupId, final String eventId,
+      final int numberOfPartitions) {
+    final HashCode hashCode = Hashing.murmur3_128()
+        .hashString(groupId + DbAccessManager.DELIM + eventId, StandardCharsets.UTF_8);
+    return Integer.toString(Hashing.consistentHash(hashCode, numberOfPartitions) + 1);
+  }
+
+  /**
+   * @param groupId The group that the pending event belongs to.
+   * @param eventId The event that is pending.
+   * @return Every partition the event could be pending in. This is one partition unless the
+   * number of partitions is being changed and the event hashes differently under the old count.
+   */
+  public static Set<String> getPartitionKeys(final String groupId, final String eventId)
+      throws NullPointerException, NumberFormatException {
+    final Set<String> partitionKeys = new LinkedHashSet<>();
+    partitionKeys.add(getPartitionKey(groupId, eventId));
+
+    final String previousNumberOfPartitions = System.getenv(PREVIOUS_NUMBER_OF_PARTITIONS_ENV_KEY);
+    if (previousNumberOfPartitions != null) {
+      partitionKeys.add(
+          getPartitionKey(groupId, eventId, Integer.parseInt(previousNumberOfPartitions)));
+    }
+
+    return partitionKeys;
+  }
+}
@@ -6,6 +6,7 @@ public class RequestFields {
   public static final String CATEGORY_IDS = "CategoryIds";
   public static final String USER_RATINGS = "UserRatings";
   public static final String EVENT_ID = "EventId";
+  public static final String EVENT_IDS = "EventIds";
   public static final String PARTICIPATING = "Participating";
   public static final String CHOICE_ID = "ChoiceId";
   public static final String VOTE_VALUE = "VoteValue";
@@ -14,4 +15,7 @@ public class RequestFields {
   public static final String BATCH_TYPE = "BatchType";
   public static final String BATCH_INDEXES = "BatchIndexes";
   public static final String MAX_MATCHES = "MaxBatches";
+  public static final String CONTENT_LENGTH = "ContentLength";
+  public static final String ICON_KEY = "IconKey";
+  public static final String UPLOAD_URL = "UploadUrl";
 }
@@ -0,0 +1,60 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * This class picks the items that would be at positions [start, end) if everything offered to it
+ * were sorted, without sorting everything. It holds on to the 'end' smallest items seen so far in a
+ * bounded max heap, so n offers take O(n log end) time and O(end) space.
+ *
+ * The items' natural ordering has to be total (no two distinct items compare as equal) for the
+ * window to match a full sort exactly.
+ *
+ * The heap grows as items are offered rather than being sized to 'end' up front, since 'end' can
+ * come from a request and be far larger than the number of items.
+ *
+ * @param <T> The type of item being sorted.
+ */
+public class TopKWindow<T extends Comparable<? super T>> {
+
+  private final int start;
+  private final int end;
+  private final PriorityQueue<T> heap; // largest kept item on top so it can be bumped
+
+  /**
+   * @param start The inclusive index of the first sorted item to return.
+   * @param end   The exclusive index of the last sorted item to return.
+   */
+  public TopKWindow(final int start, final int end) {
+    this.start = start;
+    this.end = end;
+    this.heap = new PriorityQueue<>(Collections.reverseOrder());
+  }
+
+  public void offer(final T item) {
+    if (this.heap.size() < this.end) {
+      this.heap.add(item);
+    } else if (this.end > 0 && item.compareTo(this.heap.peek()) < 0) {
+      this.heap.poll();
+      this.heap.add(item);
+    }
+  }
+
+  /**
+   * @return The items in sorted positions [start, end) in sorted order. If fewer than 'end' items
+   * were offered then the window stops at the last one, and if 'start' or fewer items were offered
+   * the window is empty.
+   */
+  public List<T> getWindow() {
+    if (this.heap.size() <= this.start) {
+      return Collections.emptyList();
+    }
+
+    final List<T> sorted = new ArrayList<>(this.heap);
+    Collections.sort(sorted);
+    return sorted.subList(this.start, sorted.size());
+  }
+}
@@ -17,6 +17,7 @@ public class UpdateItemData {
   private final String keyValue;
   private final String tableName;
 
+  private String sortKeyValue; // only for tables with a sort key
   private String updateExpression;
   private ValueMap valueMap;
   private NameMap nameMap;
@@ -26,6 +27,11 @@ public class UpdateItemData {
     this.tableName = tableName;
   }
 
+  public UpdateItemData withSortKeyValue(final String sortKeyValue) {
+    this.sortKeyValue = sortKeyValue;
+    return this;
+  }
+
   public UpdateItemData withUpdateExpression(final String updateExpression) {
     this.updateExpression = updateExpression;
     return this;
@@ -43,9 +49,15 @@ public class UpdateItemData {
 
   public UpdateItemSpec asUpdateItemSpec() throws Exception {
     final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-        .withPrimaryKey(DbAccessManager.getKeyIndex(this.tableName), this.keyValue)
         .withUpdateExpression(this.updateExpression);
 
+    if (this.sortKeyValue != null) {
+      updateItemSpec.withPrimaryKey(DbAccessManager.getKeyIndex(this.tableName), this.keyValue,
+          DbAccessManager.getSortKeyIndex(this.tableName), this.sortKeyValue);
+    } else {
+      updateItemSpec.withPrimaryKey(DbAccessManager.getKeyIndex(this.tableName), this.keyValue);
+    }
+
     if (this.valueMap != null) {
       updateItemSpec.withValueMap(this.valueMap);
     }
@@ -64,7 +76,7 @@ public class UpdateItemData {
     if (this.valueMap != null) {
       for (final String key : this.valueMap.keySet()) {
         update.addExpressionAttributeValuesEntry(key,
-            AttributeValueUtils.convertObjectToAttributeValue(valueMap.get(key)));
+            AttributeValueCodec.encode(this.valueMap.get(key)));
       }
     }
 
@@ -83,10 +95,15 @@ public class UpdateItemData {
   }
 
   private Map<String, AttributeValue> getKeyMap() throws Exception {
-    final String keyIndex = DbAccessManager.getKeyIndex(this.tableName);
-    final String keyValueCopy = this.keyValue;
-    return new HashMap<String, AttributeValue>() {{
-      put(keyIndex, new AttributeValue().withS(keyValueCopy));
-    }};
+    final Map<String, AttributeValue> keyMap = new HashMap<>();
+    keyMap.put(DbAccessManager.getKeyIndex(this.tableName),
+        new AttributeValue().withS(this.keyValue));
+
+    if (this.sortKeyValue != null) {
+      keyMap.put(DbAccessManager.getSortKeyIndex(this.tableName),
+          new AttributeValue().withS(this.sortKeyValue));
+    }
+
+    return keyMap;
   }
 }
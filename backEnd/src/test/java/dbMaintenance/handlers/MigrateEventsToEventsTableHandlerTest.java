@@ -0,0 +1,122 @@
+package dbMaintenance.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.google.common.collect.ImmutableMap;
+import dbMaintenance.managers.MaintenanceDbAccessManager;
+import java.util.Collections;
+import java.util.Map;
+import models.Event;
+import models.Group;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import utilities.Metrics;
+import utilities.ResultStatus;
+
+@ExtendWith(MockitoExtension.class)
+@RunWith(JUnitPlatform.class)
+public class MigrateEventsToEventsTableHandlerTest {
+
+  private MigrateEventsToEventsTableHandler migrateEventsToEventsTableHandler;
+
+  private final Item scannedGroupItem = new Item()
+      .withString(Group.GROUP_ID, "groupId")
+      .withMap(Group.EVENTS, ImmutableMap.of("eventId", ImmutableMap.of(Event.OPTED_IN,
+          Collections.emptyMap())));
+
+  private final Item currentGroupItem = new Item()
+      .withString(Group.GROUP_ID, "groupId")
+      .withMap(Group.EVENTS, ImmutableMap.of("eventId", ImmutableMap.of(Event.OPTED_IN,
+          ImmutableMap.of("username", Collections.emptyMap()))));
+
+  @Mock
+  private MaintenanceDbAccessManager maintenanceDbAccessManager;
+
+  @Mock
+  private Metrics metrics;
+
+  @BeforeEach
+  private void init() {
+    this.migrateEventsToEventsTableHandler = new MigrateEventsToEventsTableHandler(
+        this.maintenanceDbAccessManager, this.metrics);
+
+    doReturn(true).when(this.maintenanceDbAccessManager).writesEventsTable();
+    doReturn(Collections.singletonList(this.scannedGroupItem).iterator())
+        .when(this.maintenanceDbAccessManager).scanGroupsTable();
+    doReturn(true).when(this.maintenanceDbAccessManager)
+        .putEventIfAbsent(eq("groupId"), eq("eventId"), anyMap());
+    doReturn(this.currentGroupItem).when(this.maintenanceDbAccessManager)
+        .getGroupItemConsistent("groupId");
+  }
+
+  //////////////////
+  // handle tests //
+  //////////////////region
+
+  @Test
+  public void handle_eventChangedAfterScan_overwrittenBeforeGroupFlagged() {
+    doReturn(true, false).when(this.maintenanceDbAccessManager)
+        .putEventIfDifferent(eq("groupId"), eq("eventId"), anyMap());
+
+    final ResultStatus resultStatus = this.migrateEventsToEventsTableHandler.handle();
+
+    assertTrue(resultStatus.success);
+    final InOrder inOrder = inOrder(this.maintenanceDbAccessManager);
+    inOrder.verify(this.maintenanceDbAccessManager, times(1))
+        .putEventIfDifferent("groupId", "eventId",
+            (Map<String, Object>) this.currentGroupItem.getMap(Group.EVENTS)
+                .get("eventId"));
+    inOrder.verify(this.maintenanceDbAccessManager, times(1))
+        .putEventIfDifferent(eq("groupId"), eq("eventId"), anyMap());
+    inOrder.verify(this.maintenanceDbAccessManager, times(1))
+        .updateGroup(eq("groupId"), any(UpdateItemSpec.class));
+    verify(this.metrics, times(1)).commonClose(true);
+  }
+
+  @Test
+  public void handle_eventsKeepChanging_groupNotFlagged() {
+    doReturn(true).when(this.maintenanceDbAccessManager)
+        .putEventIfDifferent(eq("groupId"), eq("eventId"), anyMap());
+
+    final ResultStatus resultStatus = this.migrateEventsToEventsTableHandler.handle();
+
+    assertFalse(resultStatus.success);
+    verify(this.maintenanceDbAccessManager, times(0))
+        .updateGroup(eq("groupId"), any(UpdateItemSpec.class));
+    verify(this.metrics, times(1)).commonClose(false);
+  }
+
+  @Test
+  public void handle_groupDeletedDuringMigration_copiedEventsDeleted() {
+    doReturn(false).when(this.maintenanceDbAccessManager)
+        .putEventIfDifferent(eq("groupId"), eq("eventId"), anyMap());
+    doThrow(ConditionalCheckFailedException.class).when(this.maintenanceDbAccessManager)
+        .updateGroup(eq("groupId"), any(UpdateItemSpec.class));
+
+    final ResultStatus resultStatus = this.migrateEventsToEventsTableHandler.handle();
+
+    assertTrue(resultStatus.success);
+    verify(this.maintenanceDbAccessManager, times(1))
+        .deleteEvents("groupId", Collections.singleton("eventId"));
+  }
+
+  //endregion
+}
@@ -12,6 +12,7 @@ import static org.mockito.Mockito.verify;
 
 import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import java.lang.reflect.InvocationTargetException;
@@ -50,8 +51,9 @@ public class EditCategoryHandlerTest {
   @Mock
   private Metrics metrics;
 
-  private ResultStatus<UpdateItemData> updateUserChoiceRatingResult = new ResultStatus<>(true,
-      new UpdateItemData("ActiveUser", DbAccessManager.USERS_TABLE_NAME), "usersManagerWorks");
+  private ResultStatus<List<UpdateItemData>> updateUserChoiceRatingResult = new ResultStatus<>(
+      true, ImmutableList.of(new UpdateItemData("ActiveUser", DbAccessManager.USERS_TABLE_NAME)),
+      "usersManagerWorks");
 
   private ArrayList<Object> editCategoryInputs = new ArrayList<Object>() {{
     add("johnplaysgolf"); // active user
@@ -0,0 +1,233 @@
+package handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Range;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import managers.DbAccessManager;
+import models.Event;
+import models.EventForSorting;
+import models.Group;
+import models.User;
+import models.UserGroup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import utilities.Metrics;
+import utilities.ResultStatus;
+
+@ExtendWith(MockitoExtension.class)
+@RunWith(JUnitPlatform.class)
+public class GetBatchOfEventsHandlerTest {
+
+  private static final long NOW_SECONDS = 1600000000L;
+
+  private GetBatchOfEventsHandler getBatchOfEventsHandler;
+
+  @Mock
+  private DbAccessManager dbAccessManager;
+
+  @Mock
+  private User user;
+
+  @Mock
+  private UserGroup userGroup;
+
+  @Mock
+  private Metrics metrics;
+
+  @BeforeEach
+  private void init() {
+    this.getBatchOfEventsHandler = new GetBatchOfEventsHandler(this.dbAccessManager,
+        this.metrics);
+  }
+
+  //////////////////
+  // handle tests //
+  //////////////////region
+
+  @Test
+  public void handle_migratedGroup_groupEventsNeverRead() throws Exception {
+    doReturn(true).when(this.dbAccessManager).readsEventsTable();
+    doReturn(new Item()
+        .withString(Group.GROUP_ID, "groupId")
+        .withMap(Group.MEMBERS, ImmutableMap.of("username", Collections.emptyMap()))
+        .withBoolean(Group.EVENTS_MIGRATED, true))
+        .when(this.dbAccessManager).getGroupItemWithoutEvents("groupId");
+    doReturn(this.user).when(this.dbAccessManager).getUser("username");
+    doReturn(ImmutableMap.of("groupId", this.userGroup)).when(this.user).getGroups();
+    doReturn(Collections.emptyMap()).when(this.userGroup).getEventsUnseen();
+    doReturn(LocalDateTime.ofEpochSecond(NOW_SECONDS, 0, ZoneOffset.UTC))
+        .when(this.dbAccessManager).nowObj();
+    doReturn(Collections.singletonList(new Item()
+        .withString(DbAccessManager.EVENTS_SORT_KEY, "eventId")
+        .withString(Event.EVENT_NAME, "eventName")
+        .withMap(Event.OPTED_IN, Collections.emptyMap())
+        .withMap(Event.EVENT_CREATOR, Collections.emptyMap())))
+        .when(this.dbAccessManager)
+        .queryEventsByPriority(eq("groupId"), anyString(), anyString(), anyBoolean(), anyInt());
+
+    final ResultStatus resultStatus = this.getBatchOfEventsHandler.handle("username", "groupId",
+        0, GetBatchOfEventsHandler.EVENTS_TYPE_VOTING);
+
+    assertTrue(resultStatus.success);
+    assertTrue(resultStatus.resultMessage.contains("eventName"));
+    verify(this.dbAccessManager, times(0)).getGroupItem("groupId");
+    verify(this.metrics, times(1)).commonClose(true);
+  }
+
+  @Test
+  public void handle_migratedGroupOccurringEvents_wholeRangeRead() throws Exception {
+    doReturn(true).when(this.dbAccessManager).readsEventsTable();
+    doReturn(new Item()
+        .withString(Group.GROUP_ID, "groupId")
+        .withMap(Group.MEMBERS, ImmutableMap.of("username", Collections.emptyMap()))
+        .withBoolean(Group.EVENTS_MIGRATED, true))
+        .when(this.dbAccessManager).getGroupItemWithoutEvents("groupId");
+    doReturn(this.user).when(this.dbAccessManager).getUser("username");
+    doReturn(ImmutableMap.of("groupId", this.userGroup)).when(this.user).getGroups();
+    doReturn(Collections.emptyMap()).when(this.userGroup).getEventsUnseen();
+    doReturn(LocalDateTime.ofEpochSecond(NOW_SECONDS, 0, ZoneOffset.UTC))
+        .when(this.dbAccessManager).nowObj();
+    // the closed bucket comes back most recently started first
+    doReturn(Arrays.asList(this.getOccurringEventItem("laterEvent", NOW_SECONDS - 60),
+        this.getOccurringEventItem("earlierEvent", NOW_SECONDS - 120)))
+        .when(this.dbAccessManager)
+        .queryEventsByPriority(eq("groupId"), anyString(), anyString(), eq(true), isNull());
+
+    final ResultStatus resultStatus = this.getBatchOfEventsHandler.handle("username", "groupId",
+        0, GetBatchOfEventsHandler.EVENTS_TYPE_OCCURRING);
+
+    assertTrue(resultStatus.success);
+    assertTrue(resultStatus.resultMessage.contains("laterEvent"));
+    assertTrue(resultStatus.resultMessage.contains("earlierEvent"));
+    verify(this.metrics, times(1)).commonClose(true);
+  }
+
+  @Test
+  public void handle_negativeBatchNumber_failureResult() {
+    final ResultStatus resultStatus = this.getBatchOfEventsHandler.handle("username", "groupId",
+        -1, GetBatchOfEventsHandler.EVENTS_TYPE_VOTING);
+
+    assertFalse(resultStatus.success);
+    verify(this.dbAccessManager, times(0)).getGroupItem("groupId");
+    verify(this.metrics, times(1)).commonClose(false);
+  }
+
+  ///////////////////////////////////endregion
+  // getPrioritySortKeyRange tests //
+  ///////////////////////////////////region
+
+  @Test
+  public void getPrioritySortKeyRange_closedEvents_splitTwelveHoursAgo() {
+    final Range<String> closedRange = GetBatchOfEventsHandler
+        .getPrioritySortKeyRange(GetBatchOfEventsHandler.EVENTS_TYPE_CLOSED, NOW_SECONDS);
+    final Range<String> occurringRange = GetBatchOfEventsHandler
+        .getPrioritySortKeyRange(GetBatchOfEventsHandler.EVENTS_TYPE_OCCURRING, NOW_SECONDS);
+    final long twelveHoursAgo = NOW_SECONDS - EventForSorting.TWELVE_HOURS_IN_SECONDS;
+
+    // an event that started exactly 12hrs ago is closed, a second later it's still occurring
+    assertTrue(closedRange.contains(this.getClosedEventKey(twelveHoursAgo)));
+    assertFalse(occurringRange.contains(this.getClosedEventKey(twelveHoursAgo)));
+    assertFalse(closedRange.contains(this.getClosedEventKey(twelveHoursAgo + 1)));
+    assertTrue(occurringRange.contains(this.getClosedEventKey(twelveHoursAgo + 1)));
+  }
+
+  @Test
+  public void getPrioritySortKeyRange_closedAndOccurring_matchEventForSorting() {
+    final Range<String> occurringRange = GetBatchOfEventsHandler
+        .getPrioritySortKeyRange(GetBatchOfEventsHandler.EVENTS_TYPE_OCCURRING, NOW_SECONDS);
+    final Range<String> closedRange = GetBatchOfEventsHandler
+        .getPrioritySortKeyRange(GetBatchOfEventsHandler.EVENTS_TYPE_CLOSED, NOW_SECONDS);
+    final LocalDateTime now = LocalDateTime.ofEpochSecond(NOW_SECONDS, 0, ZoneOffset.UTC);
+
+    for (long offset = -2 * EventForSorting.TWELVE_HOURS_IN_SECONDS;
+        offset <= EventForSorting.TWELVE_HOURS_IN_SECONDS; offset += 60 * 60 - 1) {
+      final Event event = this.getClosedEvent(NOW_SECONDS + offset);
+      final String sortKey = EventForSorting.getPrioritySortKey("eventId", event);
+      final boolean occurring = new EventForSorting("eventId", event, now).getPriority()
+          == EventForSorting.PRIORITY_OCCURRING;
+
+      assertEquals(occurring, occurringRange.contains(sortKey));
+      assertEquals(!occurring, closedRange.contains(sortKey));
+    }
+  }
+
+  @Test
+  public void getPrioritySortKeyRange_votingEvents_onlyVotingBucket() {
+    final Range<String> votingRange = GetBatchOfEventsHandler
+        .getPrioritySortKeyRange(GetBatchOfEventsHandler.EVENTS_TYPE_VOTING, NOW_SECONDS);
+    final Event votingEvent = Event.builder().utcEventStartSeconds((int) NOW_SECONDS)
+        .rsvpDuration(0).votingDuration(60)
+        .tentativeAlgorithmChoices(ImmutableMap.of("1", "choiceId")).build();
+    final Event consideringEvent = Event.builder().utcEventStartSeconds((int) NOW_SECONDS)
+        .rsvpDuration(60).votingDuration(60).build();
+
+    assertTrue(votingRange.contains(EventForSorting.getPrioritySortKey("eventId", votingEvent)));
+    assertFalse(
+        votingRange.contains(EventForSorting.getPrioritySortKey("eventId", consideringEvent)));
+    assertFalse(votingRange.contains(this.getClosedEventKey(NOW_SECONDS)));
+  }
+
+  private Event getClosedEvent(final long eventStartSeconds) {
+    return Event.builder().utcEventStartSeconds((int) eventStartSeconds).rsvpDuration(0)
+        .votingDuration(0).selectedChoice("choiceId").build();
+  }
+
+  private Item getOccurringEventItem(final String eventId, final long eventStartSeconds) {
+    return new Item()
+        .withString(DbAccessManager.EVENTS_SORT_KEY, eventId)
+        .withString(Event.EVENT_NAME, eventId)
+        .withInt(Event.UTC_EVENT_START_SECONDS, (int) eventStartSeconds)
+        .withInt(Event.RSVP_DURATION, 0)
+        .withInt(Event.VOTING_DURATION, 0)
+        .withString(Event.SELECTED_CHOICE, "choiceId")
+        .withMap(Event.OPTED_IN, Collections.emptyMap())
+        .withMap(Event.EVENT_CREATOR, Collections.emptyMap());
+  }
+
+  private String getClosedEventKey(final long eventStartSeconds) {
+    return EventForSorting.getPrioritySortKey("eventId", this.getClosedEvent(eventStartSeconds));
+  }
+
+  //////////////////////////////endregion
+  // isValidBatchNumber tests //
+  //////////////////////////////region
+
+  @Test
+  public void isValidBatchNumber_validBatchNumbers_true() {
+    assertTrue(GetBatchOfEventsHandler.isValidBatchNumber(0));
+    assertTrue(GetBatchOfEventsHandler.isValidBatchNumber(
+        Integer.MAX_VALUE / GetBatchOfEventsHandler.EVENTS_BATCH_SIZE - 1));
+  }
+
+  @Test
+  public void isValidBatchNumber_invalidBatchNumbers_false() {
+    assertFalse(GetBatchOfEventsHandler.isValidBatchNumber(null));
+    assertFalse(GetBatchOfEventsHandler.isValidBatchNumber(-1));
+    // the end of this batch would overflow
+    assertFalse(GetBatchOfEventsHandler
+        .isValidBatchNumber(Integer.MAX_VALUE / GetBatchOfEventsHandler.EVENTS_BATCH_SIZE));
+  }
+
+  //endregion
+}
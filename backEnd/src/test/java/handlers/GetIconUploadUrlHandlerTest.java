@@ -0,0 +1,93 @@
+package handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.net.URL;
+import managers.S3AccessManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import utilities.Config;
+import utilities.Metrics;
+import utilities.ResultStatus;
+
+@ExtendWith(MockitoExtension.class)
+@RunWith(JUnitPlatform.class)
+public class GetIconUploadUrlHandlerTest {
+
+  private GetIconUploadUrlHandler getIconUploadUrlHandler;
+
+  @Mock
+  private S3AccessManager s3AccessManager;
+
+  @Mock
+  private Metrics metrics;
+
+  @BeforeEach
+  private void init() {
+    this.getIconUploadUrlHandler = new GetIconUploadUrlHandler(this.s3AccessManager,
+        this.metrics);
+  }
+
+  //////////////////
+  // handle tests //
+  //////////////////region
+
+  @Test
+  public void handle_validContentLength_successfulResult() throws Exception {
+    doReturn(new URL("https://bucket.s3.amazonaws.com/upload")).when(this.s3AccessManager)
+        .getImageUploadUrl(anyString(), eq(1024L));
+
+    final ResultStatus resultStatus = this.getIconUploadUrlHandler.handle("username", 1024);
+
+    assertTrue(resultStatus.success);
+    verify(this.metrics, times(1)).commonClose(true);
+  }
+
+  @Test
+  public void handle_missingContentLength_failureResult() {
+    final ResultStatus resultStatus = this.getIconUploadUrlHandler.handle("username", null);
+
+    assertFalse(resultStatus.success);
+    assertEquals("Error: Icon size is missing.", resultStatus.resultMessage);
+    verify(this.s3AccessManager, times(0)).getImageUploadUrl(anyString(), anyLong());
+    verify(this.metrics, times(1)).commonClose(false);
+  }
+
+  @Test
+  public void handle_nonPositiveContentLength_failureResult() {
+    for (final Integer contentLength : new Integer[]{0, -1}) {
+      final ResultStatus resultStatus = this.getIconUploadUrlHandler
+          .handle("username", contentLength);
+
+      assertFalse(resultStatus.success);
+      assertEquals("Error: Invalid icon size.", resultStatus.resultMessage);
+    }
+
+    verify(this.s3AccessManager, times(0)).getImageUploadUrl(anyString(), anyLong());
+  }
+
+  @Test
+  public void handle_contentLengthTooLarge_failureResult() {
+    final ResultStatus resultStatus = this.getIconUploadUrlHandler
+        .handle("username", Config.MAX_IMAGE_BYTES + 1);
+
+    assertFalse(resultStatus.success);
+    assertEquals("Error: Icon is too large.", resultStatus.resultMessage);
+    verify(this.s3AccessManager, times(0)).getImageUploadUrl(anyString(), anyLong());
+  }
+
+  //endregion
+}
@@ -13,6 +13,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.amazonaws.services.dynamodbv2.document.Item;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import java.lang.reflect.InvocationTargetException;
@@ -63,8 +64,9 @@ public class NewCategoryHandlerTest {
         }
       }});
 
-  private ResultStatus<UpdateItemData> updateUserChoiceRatingResult = new ResultStatus<>(true,
-      new UpdateItemData("ActiveUser", DbAccessManager.USERS_TABLE_NAME), "usersManagerWorks");
+  private ResultStatus<List<UpdateItemData>> updateUserChoiceRatingResult = new ResultStatus<>(
+      true, ImmutableList.of(new UpdateItemData("ActiveUser", DbAccessManager.USERS_TABLE_NAME)),
+      "usersManagerWorks");
 
   private ArrayList<Object> addNewCategoryInputs = new ArrayList<Object>() {{
     add("ActiveUser"); // active user
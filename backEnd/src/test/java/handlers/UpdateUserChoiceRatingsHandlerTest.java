@@ -14,7 +14,6 @@ import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import exceptions.InvalidAttributeValueException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -71,15 +70,16 @@ public class UpdateUserChoiceRatingsHandlerTest {
   @Test
   public void updateUserChoiceRatings_validInput_successfulResult() {
     try {
-      doReturn(new User(JsonUtils.getItemFromFile("john_andrews12.json")))
-          .when(this.dbAccessManager).getUser(any(String.class));
+      doReturn(ImmutableMap.of("1", 3, "2", 1)).when(this.dbAccessManager)
+          .getUserRatings(any(String.class), any(String.class));
 
       final ResultStatus resultStatus = this.getResult();
 
       assertTrue(resultStatus.success);
-      assertEquals(2, mockingDetails(this.dbAccessManager).getInvocations().size());
+      assertEquals(3, mockingDetails(this.dbAccessManager).getInvocations().size());
       verify(this.dbAccessManager, times(1)).updateUser(any(UpdateItemData.class));
-      verify(this.dbAccessManager, times(1)).getUser(any(String.class));
+      verify(this.dbAccessManager, times(1)).getUserRatings(any(String.class), any(String.class));
+      verify(this.dbAccessManager, times(0)).updateRatings(any(UpdateItemData.class));
       verify(this.metrics, times(1)).commonClose(true);
     } catch (final Exception e) {
       System.out.println(e);
@@ -90,9 +90,6 @@ public class UpdateUserChoiceRatingsHandlerTest {
   @Test
   public void updateUserChoiceRatings_validInputNewCategory_successfulResult() {
     try {
-      doReturn(new User(JsonUtils.getItemFromFile("john_andrews12.json")))
-          .when(this.dbAccessManager).getUser(any(String.class));
-
       this.updateUserChoiceRatingsInputs.set(1, "new-id"); // new cat id
       this.updateUserChoiceRatingsInputs.set(3, false); // don't update the db
       this.updateUserChoiceRatingsInputs.add("TestName"); // categoryName
@@ -100,15 +97,16 @@ public class UpdateUserChoiceRatingsHandlerTest {
       this.inputClasses.add(String.class);
       this.inputClasses.add(boolean.class);
 
-      final ResultStatus<UpdateItemData> resultStatus = (ResultStatus<UpdateItemData>) this
-          .getResult();
+      final ResultStatus<List<UpdateItemData>> resultStatus =
+          (ResultStatus<List<UpdateItemData>>) this.getResult();
       assertTrue(resultStatus.success);
 
       //here we're making sure the category name DOES get into the update data
-      assertTrue(resultStatus.data.getValueMap().containsKey(":categoryName"));
+      assertTrue(resultStatus.data.get(0).getValueMap().containsKey(":categoryName"));
 
-      assertEquals(1, mockingDetails(this.dbAccessManager).getInvocations().size());
-      verify(this.dbAccessManager, times(1)).getUser(any(String.class));
+      //a new category can't have been rated before and is owned by definition
+      assertEquals(2, mockingDetails(this.dbAccessManager).getInvocations().size());
+      verify(this.dbAccessManager, times(1)).getUserRatings(any(String.class), any(String.class));
       verify(this.metrics, times(1)).commonClose(true);
     } catch (final Exception e) {
       System.out.println(e);
@@ -120,18 +118,20 @@ public class UpdateUserChoiceRatingsHandlerTest {
   public void updateUserChoiceRatings_validInputWithNameChange_successfulResult() {
     try {
       doReturn(new User(JsonUtils.getItemFromFile("john_andrews12.json")))
-          .when(this.dbAccessManager)
-          .getUser(any(String.class));
+          .when(this.dbAccessManager).getUserAttributes(any(String.class), any(List.class));
 
       this.updateUserChoiceRatingsInputs.add("NewName"); // category name
       this.inputClasses.add(String.class);
 
-      final ResultStatus resultStatus = this.getResult();
+      final ResultStatus<List<UpdateItemData>> resultStatus =
+          (ResultStatus<List<UpdateItemData>>) this.getResult();
 
       assertTrue(resultStatus.success);
-      assertEquals(2, mockingDetails(this.dbAccessManager).getInvocations().size());
+      assertTrue(resultStatus.data.get(0).getValueMap().containsKey(":categoryName"));
+      assertEquals(4, mockingDetails(this.dbAccessManager).getInvocations().size());
       verify(this.dbAccessManager, times(1)).updateUser(any(UpdateItemData.class));
-      verify(this.dbAccessManager, times(1)).getUser(any(String.class));
+      verify(this.dbAccessManager, times(1))
+          .getUserAttributes(any(String.class), any(List.class));
       verify(this.metrics, times(1)).commonClose(true);
     } catch (final Exception e) {
       System.out.println(e);
@@ -143,22 +143,23 @@ public class UpdateUserChoiceRatingsHandlerTest {
   public void updateUserChoiceRatings_validInputNewCategoryWrongMethod_successfulResultBadUpdate() {
     try {
       doReturn(new User(JsonUtils.getItemFromFile("john_andrews12.json")))
-          .when(this.dbAccessManager).getUser(any(String.class));
+          .when(this.dbAccessManager).getUserAttributes(any(String.class), any(List.class));
 
       this.updateUserChoiceRatingsInputs.set(1, "new-id"); // new cat id
       this.updateUserChoiceRatingsInputs.add("TestName"); // categoryName
       this.inputClasses.add(String.class);
 
-      final ResultStatus<UpdateItemData> resultStatus = (ResultStatus<UpdateItemData>) this
-          .getResult();
+      final ResultStatus<List<UpdateItemData>> resultStatus =
+          (ResultStatus<List<UpdateItemData>>) this.getResult();
       assertTrue(resultStatus.success);
 
       //here we're making sure the category name didn't get updated when using the wrong method
-      assertFalse(resultStatus.data.getValueMap().containsKey(":categoryName"));
+      assertFalse(resultStatus.data.get(0).getValueMap().containsKey(":categoryName"));
 
-      assertEquals(2, mockingDetails(this.dbAccessManager).getInvocations().size());
+      assertEquals(4, mockingDetails(this.dbAccessManager).getInvocations().size());
       verify(this.dbAccessManager, times(1)).updateUser(any(UpdateItemData.class));
-      verify(this.dbAccessManager, times(1)).getUser(any(String.class));
+      verify(this.dbAccessManager, times(1))
+          .getUserAttributes(any(String.class), any(List.class));
       verify(this.metrics, times(1)).commonClose(true);
     } catch (final Exception e) {
       System.out.println(e);
@@ -166,6 +167,29 @@ public class UpdateUserChoiceRatingsHandlerTest {
     }
   }
 
+  @Test
+  public void updateUserChoiceRatings_ratingsTableWritten_ratingsMirrored() throws Exception {
+    doReturn(ImmutableMap.of("1", 3, "2", 1)).when(this.dbAccessManager)
+        .getUserRatings(any(String.class), any(String.class));
+    doReturn(true).when(this.dbAccessManager).writesRatingsTable();
+
+    final ResultStatus<List<UpdateItemData>> resultStatus =
+        (ResultStatus<List<UpdateItemData>>) this.getResult();
+
+    assertTrue(resultStatus.success);
+    assertEquals(2, resultStatus.data.size());
+
+    //the old rating for choice 1 is kept and the new rating for choice 2 replaces the old one
+    final UpdateItemData ratingsUpdate = resultStatus.data.get(1);
+    assertEquals(DbAccessManager.RATINGS_TABLE_NAME, ratingsUpdate.getTableName());
+    assertEquals("ef8dfc02-a79d-4d55-bb03-654a7a31bb16", ratingsUpdate.getSortKeyValue());
+    assertEquals(ImmutableMap.of("1", 3, "2", 5, "3", 4), ratingsUpdate.getValueMap().get(":map"));
+
+    verify(this.dbAccessManager, times(1)).updateUser(any(UpdateItemData.class));
+    verify(this.dbAccessManager, times(1)).updateRatings(ratingsUpdate);
+    verify(this.metrics, times(1)).commonClose(true);
+  }
+
   @Test
   public void updateUserChoiceRatings_mapRatingValues_failureResult()
       throws Exception {
@@ -191,14 +215,14 @@ public class UpdateUserChoiceRatingsHandlerTest {
   @Test
   public void updateUserChoiceRatings_noDbConnection_failureResult()
       throws Exception {
-    doThrow(InvalidAttributeValueException.class).when(this.dbAccessManager)
-        .getUser(any(String.class));
+    doThrow(IllegalStateException.class).when(this.dbAccessManager)
+        .getUserRatings(any(String.class), any(String.class));
 
     final ResultStatus resultStatus = this.getResult();
 
     assertFalse(resultStatus.success);
     assertEquals(1, mockingDetails(this.dbAccessManager).getInvocations().size());
-    verify(this.dbAccessManager, times(1)).getUser(any(String.class));
+    verify(this.dbAccessManager, times(1)).getUserRatings(any(String.class), any(String.class));
     verify(this.metrics, times(1)).commonClose(false);
   }
 
@@ -0,0 +1,176 @@
+package managers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.amazonaws.services.dynamodbv2.document.GetItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.ItemUtils;
+import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.UpdateItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import managers.ItemCache.Region;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import models.User;
+import utilities.Metrics;
+
+@ExtendWith(MockitoExtension.class)
+@RunWith(JUnitPlatform.class)
+public class DbAccessManagerTest {
+
+  private final Item categoryItem = new Item()
+      .withPrimaryKey(DbAccessManager.CATEGORIES_PRIMARY_KEY, "categoryId");
+
+  private ItemCache itemCache;
+
+  @Mock
+  private DbConnection dbConnection;
+
+  @Mock
+  private Table categoriesTable;
+
+  @Mock
+  private Table usersTable;
+
+  @Mock
+  private Metrics metrics;
+
+  @BeforeEach
+  private void init() {
+    this.itemCache = new ItemCache();
+
+    doReturn(this.itemCache).when(this.dbConnection).getItemCache();
+  }
+
+  private void stubCategoriesTable() {
+    doReturn(this.categoriesTable).when(this.dbConnection).getCategoriesTable();
+    this.stubGetItem(this.categoriesTable, "categories", this.categoryItem);
+  }
+
+  private void stubUsersTable(final Item userItem) {
+    doReturn(this.usersTable).when(this.dbConnection).getUsersTable();
+    this.stubGetItem(this.usersTable, "users", userItem);
+  }
+
+  private void stubGetItem(final Table table, final String tableName, final Item item) {
+    doReturn(tableName).when(table).getTableName();
+    doReturn(new GetItemOutcome(new GetItemResult()
+        .withItem(ItemUtils.toAttributeValues(item))
+        .withConsumedCapacity(new ConsumedCapacity().withCapacityUnits(0.5))))
+        .when(table).getItemOutcome(any(GetItemSpec.class));
+  }
+
+  ///////////////////////////
+  // getCategoryItem tests //
+  ///////////////////////////region
+
+  @Test
+  public void getCategoryItem_cachedByEarlierRequest_noRead() {
+    this.stubCategoriesTable();
+    new DbAccessManager(this.dbConnection, this.metrics).getCategoryItem("categoryId");
+    final Item categoryItem = new DbAccessManager(this.dbConnection, this.metrics)
+        .getCategoryItem("categoryId");
+
+    assertEquals(this.categoryItem, categoryItem);
+    verify(this.categoriesTable, times(1)).getItemOutcome(any(GetItemSpec.class));
+    verify(this.metrics, times(1)).incrementMetric(Region.CATEGORIES.getMissesMetric(), 1);
+    verify(this.metrics, times(1)).incrementMetric(Region.CATEGORIES.getHitsMetric(), 1);
+  }
+
+  @Test
+  public void getCategoryItem_updatedSinceCached_readAgain() {
+    this.stubCategoriesTable();
+    final DbAccessManager dbAccessManager = new DbAccessManager(this.dbConnection, this.metrics);
+    doReturn(new UpdateItemOutcome(new UpdateItemResult())).when(this.categoriesTable)
+        .updateItem(any(UpdateItemSpec.class));
+
+    dbAccessManager.getCategoryItem("categoryId");
+    dbAccessManager.updateCategory("categoryId", new UpdateItemSpec());
+    dbAccessManager.getCategoryItem("categoryId");
+
+    verify(this.categoriesTable, times(2)).getItemOutcome(any(GetItemSpec.class));
+    verify(this.metrics, times(2)).incrementMetric(Region.CATEGORIES.getMissesMetric(), 1);
+  }
+
+  //endregion
+
+  /////////////////////////////
+  // getUserAttributes tests //
+  /////////////////////////////region
+
+  @Test
+  public void getUserAttributes_groupMembership_projectsOnlyThePaths() throws Exception {
+    final Item partialUserItem = new Item()
+        .withPrimaryKey(DbAccessManager.USERS_PRIMARY_KEY, "username")
+        .withMap(User.GROUPS, ImmutableMap.of("group-id", ImmutableMap.of()));
+    this.stubUsersTable(partialUserItem);
+
+    final User user = new DbAccessManager(this.dbConnection, this.metrics)
+        .getUserAttributes("username", ImmutableList.of(User.GROUPS + ".group-id"));
+
+    final ArgumentCaptor<GetItemSpec> getItemSpec = ArgumentCaptor.forClass(GetItemSpec.class);
+    verify(this.usersTable, times(1)).getItemOutcome(getItemSpec.capture());
+    assertEquals("#p0.#p1, #p2", getItemSpec.getValue().getProjectionExpression());
+    assertEquals(ImmutableMap.of("#p0", User.GROUPS, "#p1", "group-id", "#p2",
+        DbAccessManager.USERS_PRIMARY_KEY), getItemSpec.getValue().getNameMap());
+    assertTrue(user.getGroups().containsKey("group-id"));
+    assertNull(user.getDisplayName());
+  }
+
+  @Test
+  public void getUserAttributes_cachedThenUpdated_readAgain() throws Exception {
+    this.stubUsersTable(new Item().withPrimaryKey(DbAccessManager.USERS_PRIMARY_KEY, "username"));
+    doReturn(new UpdateItemOutcome(new UpdateItemResult())).when(this.usersTable)
+        .updateItem(any(UpdateItemSpec.class));
+    final DbAccessManager dbAccessManager = new DbAccessManager(this.dbConnection, this.metrics);
+
+    dbAccessManager.getUserAttributes("username", ImmutableList.of(User.DISPLAY_NAME));
+    dbAccessManager.getUserAttributes("username", ImmutableList.of(User.DISPLAY_NAME));
+    dbAccessManager.updateUser("username", new UpdateItemSpec());
+    dbAccessManager.getUserAttributes("username", ImmutableList.of(User.DISPLAY_NAME));
+
+    verify(this.usersTable, times(2)).getItemOutcome(any(GetItemSpec.class));
+    verify(this.metrics, times(1)).incrementMetric(Region.USERS.getProjectionHitsMetric(), 1);
+  }
+
+  //endregion
+
+  //////////////////////
+  // recordCall tests //
+  //////////////////////region
+
+  @Test
+  public void getCategoryItem_read_capacityCountedForFunctionAndTable() {
+    this.stubCategoriesTable();
+    new DbAccessManager(this.dbConnection, this.metrics).getCategoryItem("categoryId");
+
+    verify(this.metrics, times(1))
+        .incrementDoubleMetric("Dynamo.categories.ReadCapacityUnits", 0.5);
+    verify(this.metrics, times(1))
+        .incrementDoubleMetric("Dynamo.categories", "ReadCapacityUnits", 0.5);
+    verify(this.metrics, times(1))
+        .recordTimeMetric(eq("Dynamo.categories"), eq("GetItem"), anyLong());
+  }
+
+  //endregion
+}
@@ -0,0 +1,116 @@
+package managers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sns.AmazonSNSAsync;
+import com.amazonaws.services.sns.AmazonSNSClient;
+import com.amazonaws.services.sns.model.EndpointDisabledException;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sns.model.PublishResult;
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import models.Metadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import utilities.Metrics;
+
+@ExtendWith(MockitoExtension.class)
+@RunWith(JUnitPlatform.class)
+public class NotificationBatchTest {
+
+  private SnsAccessManager snsAccessManager;
+
+  private final Metadata metadata = new Metadata("eventCreated",
+      new HashMap<>(ImmutableMap.of("GroupId", "group1")));
+
+  @Mock
+  private AmazonSNSClient snsClient;
+
+  @Mock
+  private AmazonSNSAsync snsAsyncClient;
+
+  @Mock
+  private Metrics metrics;
+
+  @BeforeEach
+  private void init() {
+    this.snsAccessManager = new SnsAccessManager(this.snsClient, this.snsAsyncClient);
+
+    //respond based on the target arn, completing the handler the same way the sdk would
+    doAnswer(invocation -> {
+      final PublishRequest publishRequest = invocation.getArgument(0);
+      final AsyncHandler<PublishRequest, PublishResult> asyncHandler = invocation.getArgument(1);
+      final CompletableFuture<PublishResult> future = new CompletableFuture<>();
+
+      if (publishRequest.getTargetArn().equals("disabledArn")) {
+        final EndpointDisabledException exception = new EndpointDisabledException("disabled");
+        asyncHandler.onError(exception);
+        future.completeExceptionally(exception);
+      } else if (publishRequest.getTargetArn().equals("badArn")) {
+        final IllegalStateException exception = new IllegalStateException("bad arn");
+        asyncHandler.onError(exception);
+        future.completeExceptionally(exception);
+      } else {
+        final PublishResult publishResult = new PublishResult();
+        asyncHandler.onSuccess(publishRequest, publishResult);
+        future.complete(publishResult);
+      }
+
+      return future;
+    }).when(this.snsAsyncClient).publishAsync(any(PublishRequest.class), any(AsyncHandler.class));
+  }
+
+  ///////////////////////////
+  // awaitCompletion tests //
+  ///////////////////////////region
+
+  @Test
+  public void awaitCompletion_validInput_successfulResult() {
+    final NotificationBatch notificationBatch = this.snsAccessManager.newNotificationBatch();
+    notificationBatch.sendMessage("john_andrews12", "arn1", "title", "body", "tag", this.metadata);
+    notificationBatch.sendMutedMessage("edmond2", "arn2", this.metadata);
+
+    assertTrue(notificationBatch.awaitCompletion("classMethod", this.metrics));
+    assertTrue(notificationBatch.getFailures().isEmpty());
+    verify(this.snsAsyncClient, times(2))
+        .publishAsync(any(PublishRequest.class), any(AsyncHandler.class));
+    verify(this.metrics, times(1)).incrementMetric(NotificationBatch.DISABLED_ENDPOINTS, 0);
+  }
+
+  @Test
+  public void awaitCompletion_disabledEndpoint_collectedSuccessfulResult() {
+    final NotificationBatch notificationBatch = this.snsAccessManager.newNotificationBatch();
+    notificationBatch.sendMutedMessage("john_andrews12", "disabledArn", this.metadata);
+    notificationBatch.sendMutedMessage("edmond2", "arn2", this.metadata);
+
+    assertTrue(notificationBatch.awaitCompletion("classMethod", this.metrics));
+    assertEquals(ImmutableMap.of("john_andrews12", "disabledArn"),
+        notificationBatch.getDisabledEndpoints());
+    verify(this.metrics, times(1)).incrementMetric(NotificationBatch.DISABLED_ENDPOINTS, 1);
+  }
+
+  @Test
+  public void awaitCompletion_publishFailure_failureResult() {
+    final NotificationBatch notificationBatch = this.snsAccessManager.newNotificationBatch();
+    notificationBatch.sendMessage("john_andrews12", "badArn", "title", "body", "tag", this.metadata);
+
+    assertFalse(notificationBatch.awaitCompletion("classMethod", this.metrics));
+    assertEquals(1, notificationBatch.getFailures().size());
+    assertTrue(notificationBatch.getFailures().containsKey("john_andrews12"));
+  }
+
+  //endregion
+}
@@ -1,20 +1,35 @@
 package managers;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.amazonaws.AmazonServiceException;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyObjectResult;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
-import com.google.common.collect.ImmutableList;
-import java.util.List;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Optional;
+import javax.imageio.ImageIO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,6 +37,8 @@ import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import utilities.Config;
+import utilities.ImageData;
 import utilities.Metrics;
 import utilities.ResultStatus;
 
@@ -31,7 +48,7 @@ public class S3AccessManagerTest {
 
   private S3AccessManager s3AccessManager;
 
-  private final List<Integer> imageUploadGoodInput = ImmutableList.of(1, 2, 3);
+  private ImageData imageUploadGoodInput;
 
   @Mock
   private AmazonS3 s3Client;
@@ -40,8 +57,13 @@ public class S3AccessManagerTest {
   private Metrics metrics;
 
   @BeforeEach
-  private void init() {
+  private void init() throws Exception {
     this.s3AccessManager = new S3AccessManager(this.s3Client);
+
+    final ByteArrayOutputStream pngBytes = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB), "png", pngBytes);
+    this.imageUploadGoodInput = ImageData
+        .fromRequestValue(Base64.getEncoder().encodeToString(pngBytes.toByteArray()));
   }
 
   ///////////////////////
@@ -54,10 +76,20 @@ public class S3AccessManagerTest {
         .uploadImage(this.imageUploadGoodInput, this.metrics);
 
     assertTrue(result.isPresent());
-    verify(this.s3Client, times(1)).putObject(any(PutObjectRequest.class));
+    verify(this.s3Client, times(2)).putObject(any(PutObjectRequest.class)); // image and thumbnail
     verify(this.metrics, times(1)).commonClose(true);
   }
 
+  @Test
+  public void uploadImage_notAnImage_failureResult() {
+    Optional<String> result = this.s3AccessManager
+        .uploadImage(ImageData.fromRequestValue("AQID"), this.metrics);
+
+    assertFalse(result.isPresent());
+    verify(this.s3Client, times(0)).putObject(any(PutObjectRequest.class));
+    verify(this.metrics, times(1)).commonClose(false);
+  }
+
   @Test
   public void uploadImage_validInputS3Fails_failureResult() {
     doThrow(AmazonServiceException.class).when(this.s3Client)
@@ -71,6 +103,19 @@ public class S3AccessManagerTest {
     verify(this.metrics, times(1)).commonClose(false);
   }
 
+  @Test
+  public void uploadImage_overMaxSize_failureResult() {
+    final char[] base64Data = new char[Config.MAX_IMAGE_BYTES / 3 * 4 + 4];
+    Arrays.fill(base64Data, 'A');
+
+    Optional<String> result = this.s3AccessManager
+        .uploadImage(ImageData.fromRequestValue(new String(base64Data)), this.metrics);
+
+    assertFalse(result.isPresent());
+    verify(this.s3Client, times(0)).putObject(any(PutObjectRequest.class));
+    verify(this.metrics, times(1)).commonClose(false);
+  }
+
   ///////////////////////endregion
   // deleteImage tests //
   ///////////////////////region
@@ -80,7 +125,7 @@ public class S3AccessManagerTest {
     ResultStatus resultStatus = this.s3AccessManager.deleteImage("fileName", this.metrics);
 
     assertTrue(resultStatus.success);
-    verify(this.s3Client, times(1)).deleteObject(any(DeleteObjectRequest.class));
+    verify(this.s3Client, times(2)).deleteObject(any(DeleteObjectRequest.class));
     verify(this.metrics, times(1)).commonClose(true);
   }
 
@@ -105,6 +150,90 @@ public class S3AccessManagerTest {
     verify(this.metrics, times(1)).commonClose(false);
   }
 
+  /////////////////////////////endregion
+  // getImageUploadUrl tests //
+  /////////////////////////////region
+
+  @Test
+  public void getImageUploadUrl_localS3_lengthTypeAndAclSigned() {
+    //presigning is done by the client, so a client for a local s3 stand-in never has to reach it
+    final AmazonS3 localS3Client = AmazonS3ClientBuilder.standard()
+        .withEndpointConfiguration(new EndpointConfiguration("http://localhost:9000", "us-east-2"))
+        .withPathStyleAccessEnabled(true)
+        .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials("key", "secret")))
+        .build();
+    final String uploadKey = S3AccessManager.newUploadKey("username");
+
+    final URL uploadUrl = new S3AccessManager(localS3Client).getImageUploadUrl(uploadKey, 1234);
+
+    assertEquals("localhost", uploadUrl.getHost());
+    assertTrue(uploadUrl.getPath().endsWith(uploadKey));
+    assertTrue(uploadUrl.getQuery()
+        .contains("X-Amz-SignedHeaders=content-length%3Bcontent-type%3Bhost%3Bx-amz-acl"));
+  }
+
+  ///////////////////////////////endregion
+  // verifyUploadedImage tests //
+  ///////////////////////////////region
+
+  @Test
+  public void verifyUploadedImage_validUpload_successfulResult() {
+    this.mockUploadedJpeg();
+    doReturn(new CopyObjectResult()).when(this.s3Client).copyObject(any(CopyObjectRequest.class));
+    final String uploadKey = S3AccessManager.newUploadKey("username");
+
+    Optional<String> result = this.s3AccessManager
+        .verifyUploadedImage("username", uploadKey, this.metrics);
+
+    assertTrue(result.isPresent());
+    assertNotEquals(uploadKey, result.get()); // the upload key can't be claimed again
+    verify(this.s3Client, times(1)).copyObject(any(CopyObjectRequest.class));
+    verify(this.s3Client, times(1)).deleteObject(any(DeleteObjectRequest.class));
+    verify(this.metrics, times(1)).commonClose(true);
+  }
+
+  @Test
+  public void verifyUploadedImage_uploadChangedBeforeCopy_failureResult() {
+    this.mockUploadedJpeg();
+    doReturn(null).when(this.s3Client).copyObject(any(CopyObjectRequest.class));
+
+    Optional<String> result = this.s3AccessManager.verifyUploadedImage("username",
+        S3AccessManager.newUploadKey("username"), this.metrics);
+
+    assertFalse(result.isPresent());
+    verify(this.s3Client, times(0)).deleteObject(any(DeleteObjectRequest.class));
+    verify(this.metrics, times(1)).commonClose(false);
+  }
+
+  @Test
+  public void verifyUploadedImage_anotherUsersUpload_failureResult() {
+    Optional<String> result = this.s3AccessManager.verifyUploadedImage("username",
+        S3AccessManager.newUploadKey("otherUsername"), this.metrics);
+
+    assertFalse(result.isPresent());
+    verify(this.s3Client, times(0)).getObjectMetadata(anyString(), anyString());
+    verify(this.metrics, times(1)).commonClose(false);
+  }
+
+  @Test
+  public void verifyUploadedImage_notUploaded_failureResult() {
+    doThrow(AmazonS3Exception.class).when(this.s3Client)
+        .getObjectMetadata(anyString(), anyString());
+
+    Optional<String> result = this.s3AccessManager.verifyUploadedImage("username",
+        S3AccessManager.newUploadKey("username"), this.metrics);
+
+    assertFalse(result.isPresent());
+    verify(this.metrics, times(1)).commonClose(false);
+  }
+
+  private void mockUploadedJpeg() {
+    final ObjectMetadata objectMetadata = new ObjectMetadata();
+    objectMetadata.setContentLength(1234);
+    objectMetadata.setContentType("image/jpeg");
+    doReturn(objectMetadata).when(this.s3Client).getObjectMetadata(anyString(), anyString());
+  }
+
   /////////////////////////////endregion
   // imageBucketExists tests //
   /////////////////////////////region
@@ -0,0 +1,112 @@
+package models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+public class EventForSortingTest {
+
+  private static final int EVENT_START_SECONDS = 1600000000;
+
+  //////////////////////////////
+  // getPrioritySortKey tests //
+  //////////////////////////////region
+
+  @Test
+  public void getPrioritySortKey_selectedChoice_closedBucketAtMaxMinusEventStart() {
+    final Event event = this.getEvent().selectedChoice("choiceId").build();
+
+    // 9999999999 - 1600000000
+    assertEquals("1#8399999999#eventId", EventForSorting.getPrioritySortKey("eventId", event));
+  }
+
+  @Test
+  public void getPrioritySortKey_noTentativeChoices_consideringBucketAtVotingStart() {
+    final Event event = this.getEvent().tentativeAlgorithmChoices(Collections.emptyMap()).build();
+
+    // voting starts after the 10 minute rsvp
+    assertEquals("3#1600000600#eventId", EventForSorting.getPrioritySortKey("eventId", event));
+  }
+
+  @Test
+  public void getPrioritySortKey_nullTentativeChoices_consideringBucketAtVotingStart() {
+    final Event event = this.getEvent().build();
+
+    assertEquals("3#1600000600#eventId", EventForSorting.getPrioritySortKey("eventId", event));
+  }
+
+  @Test
+  public void getPrioritySortKey_tentativeChoices_votingBucketAtVotingEnd() {
+    final Event event = this.getEvent()
+        .tentativeAlgorithmChoices(ImmutableMap.of("1", "choiceId")).build();
+
+    // voting ends 30 minutes after the 10 minute rsvp
+    assertEquals("4#1600002400#eventId", EventForSorting.getPrioritySortKey("eventId", event));
+  }
+
+  @Test
+  public void getPrioritySortKey_differentDigitCounts_sortsAsNumbers() {
+    // voting starts at 9999 and 10000 after the 10 minute rsvp
+    final String earlier = EventForSorting
+        .getPrioritySortKey("b", this.getEvent().utcEventStartSeconds(9399).build());
+    final String later = EventForSorting
+        .getPrioritySortKey("a", this.getEvent().utcEventStartSeconds(9400).build());
+
+    assertTrue(earlier.compareTo(later) < 0);
+  }
+
+  @Test
+  public void getPrioritySortKey_sameStart_tieBrokenByEventId() {
+    final Event event = this.getEvent().selectedChoice("choiceId").build();
+
+    assertTrue(EventForSorting.getPrioritySortKey("a", event)
+        .compareTo(EventForSorting.getPrioritySortKey("b", event)) < 0);
+  }
+
+  @Test
+  public void getPrioritySortKey_closedEvents_sameOrderAsCompareTo() {
+    final LocalDateTime now = LocalDateTime
+        .ofEpochSecond(EVENT_START_SECONDS + 2 * EventForSorting.TWELVE_HOURS_IN_SECONDS, 0,
+            ZoneOffset.UTC);
+    final List<String> eventIds = Arrays.asList("a", "b", "c", "d");
+    final Map<String, Event> events = ImmutableMap.of(
+        "a", this.getEvent().utcEventStartSeconds(EVENT_START_SECONDS - 1)
+            .selectedChoice("choiceId").build(),
+        "b", this.getEvent().selectedChoice("choiceId").build(),
+        "c", this.getEvent().selectedChoice("choiceId").build(),
+        "d", this.getEvent().utcEventStartSeconds(EVENT_START_SECONDS + 1)
+            .selectedChoice("choiceId").build());
+
+    final List<String> bySortKey = eventIds.stream()
+        .sorted(Comparator.comparing(id -> EventForSorting.getPrioritySortKey(id, events.get(id))))
+        .collect(Collectors.toList());
+    final List<String> byCompareTo = eventIds.stream()
+        .map(id -> new EventForSorting(id, events.get(id), now)).sorted()
+        .map(EventForSorting::getEventId).collect(Collectors.toList());
+
+    assertEquals(Arrays.asList("d", "b", "c", "a"), byCompareTo);
+    assertEquals(byCompareTo, bySortKey);
+  }
+
+  private Event.EventBuilder getEvent() {
+    return Event.builder()
+        .utcEventStartSeconds(EVENT_START_SECONDS)
+        .rsvpDuration(10)
+        .votingDuration(30);
+  }
+
+  //endregion
+}
@@ -0,0 +1,65 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.ItemUtils;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+public class AttributeValueCodecTest {
+
+  private final Map<String, Object> groupMap = ImmutableMap.of(
+      "GroupName", "Lunch",
+      "IsOpen", true,
+      "Members", ImmutableMap.of("john_andrews12", ImmutableMap.of("Icon", "a.png")),
+      "Ratings", ImmutableList.of(1, 2.5),
+      "DefaultRsvpDuration", 10);
+
+  /////////////////////
+  // encodeMap tests //
+  /////////////////////region
+
+  @Test
+  public void encodeMap_nestedValues_sameAsItem() {
+    assertEquals(ItemUtils.toAttributeValues(Item.fromMap(this.groupMap)),
+        AttributeValueCodec.encodeMap(this.groupMap));
+  }
+
+  @Test
+  public void encodeMap_nullValue_nullAttribute() {
+    final Map<String, Object> input = new HashMap<>();
+    input.put("Icon", null);
+
+    assertEquals(ImmutableMap.of("Icon", new AttributeValue().withNULL(true)),
+        AttributeValueCodec.encodeMap(input));
+  }
+
+  //endregion
+
+  /////////////////////
+  // decodeMap tests //
+  /////////////////////region
+
+  @Test
+  public void decodeMap_nestedValues_sameAsItemAsMap() {
+    final Map<String, AttributeValue> attributeValues = AttributeValueCodec
+        .encodeMap(this.groupMap);
+
+    assertEquals(ItemUtils.toItem(attributeValues).asMap(),
+        AttributeValueCodec.decodeMap(attributeValues));
+    assertEquals(new BigDecimal("2.5"),
+        ((List<Object>) AttributeValueCodec.decodeMap(attributeValues).get("Ratings")).get(1));
+  }
+
+  //endregion
+}
@@ -0,0 +1,140 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.auth0.jwk.SigningKeyNotFoundException;
+import com.auth0.jwk.UrlJwkProvider;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+public class CognitoTokenVerifierTest {
+
+  private File jwksFile;
+  private KeyPair firstKeyPair;
+  private KeyPair secondKeyPair;
+
+  @BeforeEach
+  private void init() throws Exception {
+    final KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+    keyPairGenerator.initialize(2048);
+    this.firstKeyPair = keyPairGenerator.generateKeyPair();
+    this.secondKeyPair = keyPairGenerator.generateKeyPair();
+
+    //local stand in for cognito's .well-known/jwks.json
+    this.jwksFile = File.createTempFile("jwks", ".json");
+    this.jwksFile.deleteOnExit();
+    this.writeJwks("{\"keys\":[" + this.getJwkJson("key1", this.firstKeyPair) + "]}");
+  }
+
+  ////////////////////////
+  // getUsername tests //
+  ////////////////////////region
+
+  @Test
+  public void getUsername_validToken_successfulResult() throws Exception {
+    final CognitoTokenVerifier verifier = this.getVerifier(0);
+
+    assertEquals("john_andrews12",
+        verifier.getUsername(this.getToken("key1", this.firstKeyPair, "john_andrews12")));
+  }
+
+  @Test
+  public void getUsername_repeatedToken_servedWithoutJwks() throws Exception {
+    final CognitoTokenVerifier verifier = this.getVerifier(0);
+    final String token = this.getToken("key1", this.firstKeyPair, "john_andrews12");
+
+    assertEquals("john_andrews12", verifier.getUsername(token));
+
+    //if the verified token weren't cached, the key lookup would now fail
+    this.writeJwks("{\"keys\":[]}");
+
+    assertEquals("john_andrews12", verifier.getUsername(token));
+  }
+
+  @Test
+  public void getUsername_unknownKeyId_refreshesKeys() throws Exception {
+    final CognitoTokenVerifier verifier = this.getVerifier(0);
+
+    //the key is rotated in after the verifier pre-fetched the jwks document
+    this.writeJwks("{\"keys\":[" + this.getJwkJson("key1", this.firstKeyPair) + ","
+        + this.getJwkJson("key2", this.secondKeyPair) + "]}");
+
+    assertEquals("edmond2",
+        verifier.getUsername(this.getToken("key2", this.secondKeyPair, "edmond2")));
+  }
+
+  @Test
+  public void getUsername_unknownKeyIdRateLimited_failureResult() throws Exception {
+    final CognitoTokenVerifier verifier = this.getVerifier(TimeUnit.HOURS.toMillis(1));
+    verifier.getUsername(this.getToken("key1", this.firstKeyPair, "john_andrews12"));
+
+    this.writeJwks("{\"keys\":[" + this.getJwkJson("key2", this.secondKeyPair) + "]}");
+
+    //the pre-fetch counts as the last refresh, so the unknown kid can't trigger another one yet
+    final String token = this.getToken("key2", this.secondKeyPair, "edmond2");
+    assertThrows(SigningKeyNotFoundException.class, () -> verifier.getUsername(token));
+  }
+
+  @Test
+  public void getUsername_badSignature_failureResult() throws Exception {
+    final CognitoTokenVerifier verifier = this.getVerifier(0);
+
+    //claims to be key1 but is signed by a different private key
+    final String token = this.getToken("key1", this.secondKeyPair, "john_andrews12");
+    assertThrows(SignatureVerificationException.class, () -> verifier.getUsername(token));
+  }
+
+  //endregion
+
+  private CognitoTokenVerifier getVerifier(final long minRefreshIntervalMillis)
+      throws Exception {
+    return new CognitoTokenVerifier(
+        new UrlJwkProvider(this.jwksFile.toURI().toURL()), minRefreshIntervalMillis);
+  }
+
+  private String getToken(final String keyId, final KeyPair keyPair, final String username) {
+    return JWT.create()
+        .withKeyId(keyId)
+        .withClaim(CognitoTokenVerifier.USERNAME_CLAIM, username)
+        .withExpiresAt(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+        .sign(Algorithm.RSA256(null, (RSAPrivateKey) keyPair.getPrivate()));
+  }
+
+  private String getJwkJson(final String keyId, final KeyPair keyPair) {
+    final RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+    return "{\"kid\":\"" + keyId + "\",\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\","
+        + "\"n\":\"" + this.base64Url(publicKey.getModulus()) + "\","
+        + "\"e\":\"" + this.base64Url(publicKey.getPublicExponent()) + "\"}";
+  }
+
+  private String base64Url(final BigInteger value) {
+    byte[] bytes = value.toByteArray();
+    if (bytes[0] == 0) {
+      bytes = Arrays.copyOfRange(bytes, 1, bytes.length); // drop the sign byte
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+
+  private void writeJwks(final String jwks) throws Exception {
+    Files.write(this.jwksFile.toPath(), jwks.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,114 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.amazonaws.AmazonServiceException;
+import com.google.common.collect.ImmutableList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@RunWith(JUnitPlatform.class)
+public class FanOutExecutorTest {
+
+  private final List<String> usernames = ImmutableList
+      .of("john_andrews12", "edmond2", "jeff4", "kim11");
+
+  private FanOutExecutor fanOutExecutor;
+
+  @Mock
+  private Metrics metrics;
+
+  @BeforeEach
+  private void init() {
+    this.fanOutExecutor = new FanOutExecutor(2, 3, 1);
+  }
+
+  ////////////////////
+  // forEach tests //
+  ////////////////////region
+
+  @Test
+  public void forEach_validInput_successfulResult() {
+    final Set<String> updated = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    final Map<String, Exception> failures = this.fanOutExecutor
+        .forEach(this.usernames, updated::add, this.metrics);
+
+    assertTrue(failures.isEmpty());
+    assertEquals(4, updated.size());
+    verify(this.metrics, times(1)).incrementMetric(FanOutExecutor.FAN_OUT_ITEMS, 4);
+    verify(this.metrics, times(1)).incrementMetric(FanOutExecutor.FAN_OUT_FAILURES, 0);
+  }
+
+  @Test
+  public void forEach_throttledOnce_retriedSuccessfulResult() {
+    final AtomicInteger attempts = new AtomicInteger();
+
+    final Map<String, Exception> failures = this.fanOutExecutor
+        .forEach(ImmutableList.of("john_andrews12"), (username) -> {
+          if (attempts.incrementAndGet() == 1) {
+            throw this.getThrottlingException();
+          }
+        }, this.metrics);
+
+    assertTrue(failures.isEmpty());
+    assertEquals(2, attempts.get());
+    verify(this.metrics, times(1)).incrementMetric(FanOutExecutor.FAN_OUT_RETRIES, 1);
+  }
+
+  @Test
+  public void forEach_alwaysThrottled_failureResult() {
+    final AtomicInteger attempts = new AtomicInteger();
+
+    final Map<String, Exception> failures = this.fanOutExecutor
+        .forEach(ImmutableList.of("john_andrews12"), (username) -> {
+          attempts.incrementAndGet();
+          throw this.getThrottlingException();
+        }, this.metrics);
+
+    assertEquals(1, failures.size());
+    assertEquals(3, attempts.get()); // max attempts, then give up
+    verify(this.metrics, times(1)).incrementMetric(FanOutExecutor.FAN_OUT_FAILURES, 1);
+  }
+
+  @Test
+  public void forEach_nonThrottlingException_failureResultNoRetry() {
+    final AtomicInteger attempts = new AtomicInteger();
+
+    final Map<String, Exception> failures = this.fanOutExecutor
+        .forEach(this.usernames, (username) -> {
+          attempts.incrementAndGet();
+          if (username.equals("jeff4")) {
+            throw new NullPointerException();
+          }
+        }, this.metrics);
+
+    assertEquals(ImmutableList.of("jeff4"), ImmutableList.copyOf(failures.keySet()));
+    assertEquals(4, attempts.get());
+    verify(this.metrics, times(1)).incrementMetric(FanOutExecutor.FAN_OUT_RETRIES, 0);
+  }
+
+  //endregion
+
+  private AmazonServiceException getThrottlingException() {
+    final AmazonServiceException exception = new AmazonServiceException("Slow down");
+    exception.setErrorCode("ProvisionedThroughputExceededException");
+    exception.setStatusCode(400);
+    return exception;
+  }
+}
@@ -0,0 +1,54 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+import java.io.InputStream;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+public class ImageDataTest {
+
+  private final byte[] imageBytes = new byte[]{(byte) 0xFF, (byte) 0xD8, 1, 2, 3};
+
+  ////////////////////////////
+  // fromRequestValue tests //
+  ////////////////////////////region
+
+  @Test
+  public void fromRequestValue_base64_lengthAndBytesMatch() throws Exception {
+    for (final String base64Data : ImmutableList.of(
+        Base64.getEncoder().encodeToString(this.imageBytes),
+        Base64.getEncoder().withoutPadding().encodeToString(this.imageBytes))) {
+      final ImageData imageData = ImageData.fromRequestValue(base64Data);
+
+      try (final InputStream imageStream = imageData.openStream()) {
+        assertEquals(this.imageBytes.length, imageData.getLength());
+        assertArrayEquals(this.imageBytes, ByteStreams.toByteArray(imageStream));
+      }
+    }
+  }
+
+  @Test
+  public void fromRequestValue_integerList_lengthAndBytesMatch() throws Exception {
+    final ImageData imageData = ImageData.fromRequestValue(ImmutableList.of(255, 216, 1, 2, 3));
+
+    try (final InputStream imageStream = imageData.openStream()) {
+      assertEquals(this.imageBytes.length, imageData.getLength());
+      assertArrayEquals(this.imageBytes, ByteStreams.toByteArray(imageStream));
+    }
+  }
+
+  @Test
+  public void fromRequestValue_notAnImage_illegalArgument() {
+    assertThrows(IllegalArgumentException.class, () -> ImageData.fromRequestValue(12));
+  }
+
+  //endregion
+}
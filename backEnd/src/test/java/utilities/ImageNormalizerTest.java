@@ -0,0 +1,65 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+public class ImageNormalizerTest {
+
+  private static byte[] encode(final BufferedImage image, final String format) throws Exception {
+    final ByteArrayOutputStream imageBytes = new ByteArrayOutputStream();
+    ImageIO.write(image, format, imageBytes);
+    return imageBytes.toByteArray();
+  }
+
+  //////////////////
+  // toJpeg tests //
+  //////////////////region
+
+  @Test
+  public void toJpeg_largeImage_boundedAndThumbnailed() throws Exception {
+    final byte[] png = encode(new BufferedImage(3000, 1500, BufferedImage.TYPE_INT_ARGB), "png");
+
+    final BufferedImage image = ImageNormalizer
+        .read(new ByteArrayInputStream(png), ImageNormalizer.MAX_DIMENSION);
+    final BufferedImage stored = ImageIO.read(new ByteArrayInputStream(
+        ImageNormalizer.toJpeg(image, ImageNormalizer.MAX_DIMENSION)));
+    final BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(
+        ImageNormalizer.toJpeg(image, ImageNormalizer.THUMBNAIL_DIMENSION)));
+
+    assertEquals(1500, image.getWidth()); // subsampled by 2 while decoding
+    assertEquals(1024, stored.getWidth());
+    assertEquals(512, stored.getHeight());
+    assertEquals(128, thumbnail.getWidth());
+    assertEquals(64, thumbnail.getHeight());
+  }
+
+  @Test
+  public void toJpeg_smallImage_sizeKept() throws Exception {
+    final byte[] jpeg = encode(new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB), "jpeg");
+
+    final BufferedImage stored = ImageIO.read(new ByteArrayInputStream(ImageNormalizer.toJpeg(
+        ImageNormalizer.read(new ByteArrayInputStream(jpeg), ImageNormalizer.MAX_DIMENSION),
+        ImageNormalizer.MAX_DIMENSION)));
+
+    assertEquals(40, stored.getWidth());
+    assertEquals(30, stored.getHeight());
+  }
+
+  @Test
+  public void read_notAnImage_ioException() {
+    assertThrows(IOException.class, () -> ImageNormalizer
+        .read(new ByteArrayInputStream(new byte[]{1, 2, 3}), ImageNormalizer.MAX_DIMENSION));
+  }
+
+  //endregion
+}
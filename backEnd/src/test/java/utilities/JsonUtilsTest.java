@@ -0,0 +1,56 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import models.Member;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+public class JsonUtilsTest {
+
+  ////////////////////////////////
+  // convertObjectToJson tests //
+  ////////////////////////////////region
+
+  @Test
+  public void convertObjectToJson_nestedValues_successfulResult() {
+    final Map<String, Object> input = new LinkedHashMap<>();
+    input.put("GroupName", "Lunch, maybe");
+    input.put("Members", ImmutableMap.of("john_andrews12", ImmutableMap.of("Icon", "a.png")));
+    input.put("Ratings", ImmutableList.of(1, 2.5, true));
+    input.put("Empty", Collections.emptyMap());
+    input.put("EmptyList", Collections.emptyList());
+    input.put("Missing", null);
+
+    assertEquals("{\\\"GroupName\\\":\\\"Lunch, maybe\\\","
+            + "\\\"Members\\\":{\\\"john_andrews12\\\":{\\\"Icon\\\":\\\"a.png\\\"}},"
+            + "\\\"Ratings\\\":[1,2.5,true],"
+            + "\\\"Empty\\\":{},"
+            + "\\\"EmptyList\\\":[],"
+            + "\\\"Missing\\\":null}",
+        JsonUtils.convertObjectToJson(input));
+  }
+
+  @Test
+  public void convertObjectToJson_model_successfulResult() {
+    final Member member = new Member("John Andrews", "a.png");
+
+    assertEquals("[" + JsonUtils.convertMapToJson(member.asMap()) + "]",
+        JsonUtils.convertObjectToJson(ImmutableList.of(member)));
+  }
+
+  @Test
+  public void convertObjectToJson_repeatedCalls_bufferIsReset() {
+    assertEquals("[\\\"a\\\"]", JsonUtils.convertObjectToJson(ImmutableList.of("a")));
+    assertEquals("\\\"b\\\"", JsonUtils.convertObjectToJson("b"));
+  }
+
+  //endregion
+}
@@ -0,0 +1,51 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@RunWith(JUnitPlatform.class)
+public class LatencyHistogramTest {
+
+  ////////////////////////////////
+  // getValueAtPercentile tests //
+  ////////////////////////////////region
+
+  @Test
+  public void getValueAtPercentile_smallValues_exact() {
+    final LatencyHistogram latencyHistogram = new LatencyHistogram();
+    for (int i = 1; i <= 10; i++) {
+      latencyHistogram.record(i);
+    }
+
+    assertEquals(5, latencyHistogram.getValueAtPercentile(50));
+    assertEquals(9, latencyHistogram.getValueAtPercentile(90));
+    assertEquals(10, latencyHistogram.getValueAtPercentile(99));
+    assertEquals(10, latencyHistogram.getCount());
+  }
+
+  @Test
+  public void getValueAtPercentile_largeValues_withinBucketPrecision() {
+    final LatencyHistogram latencyHistogram = new LatencyHistogram();
+    for (long i = 1; i <= 1000; i++) {
+      latencyHistogram.record(i * 1000000); // 1ms to 1s
+    }
+
+    final long p99 = latencyHistogram.getValueAtPercentile(99);
+    assertTrue(p99 >= 990000000L && p99 <= 990000000L * 33 / 32);
+    assertEquals(1000000000L, latencyHistogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void getValueAtPercentile_nothingRecorded_zero() {
+    assertEquals(0, new LatencyHistogram().getValueAtPercentile(50));
+  }
+
+  //endregion
+}
@@ -0,0 +1,61 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@RunWith(JUnitPlatform.class)
+public class MetricsTest {
+
+  @Mock
+  private LambdaLogger lambdaLogger;
+
+  //////////////////////
+  // logMetrics tests //
+  //////////////////////region
+
+  @Test
+  public void logMetrics_repeatedAndNestedCalls_oneLineWithEveryCall() throws Exception {
+    final Metrics metrics = new Metrics("requestId", this.lambdaLogger);
+
+    metrics.commonSetup("Controller.handleRequest");
+    for (int i = 0; i < 3; i++) {
+      metrics.commonSetup("Handler.inner");
+      metrics.commonSetup("Handler.inner"); // calls itself
+      metrics.commonClose(true);
+      metrics.commonClose(true);
+    }
+    metrics.commonClose(true);
+    metrics.logMetrics();
+
+    final ArgumentCaptor<String> logLine = ArgumentCaptor.forClass(String.class);
+    verify(this.lambdaLogger, times(1)).log(logLine.capture());
+
+    final Map<String, Object> json = JsonUtils.parseInput(logLine.getValue());
+    assertEquals("Controller.handleRequest", json.get(Metrics.ENTRY_FUNCTION_DIMENSION));
+    assertEquals(6, json.get("Handler.inner.Invocations"));
+    assertEquals(6, json.get("Handler.inner.Time.Count"));
+    assertEquals(1, json.get("Controller.handleRequest.Time.Count"));
+    assertTrue(json.containsKey("Handler.inner.Time.P99"));
+
+    final Map<String, Object> aws = (Map<String, Object>) json.get("_aws");
+    final List<Map<String, Object>> directives = (List<Map<String, Object>>) aws
+        .get("CloudWatchMetrics");
+    assertEquals(Metrics.NAMESPACE, directives.get(0).get("Namespace"));
+  }
+
+  //endregion
+}
@@ -0,0 +1,131 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+import models.EventWithCategoryChoices;
+import models.Member;
+import models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@RunWith(JUnitPlatform.class)
+public class NondeterministicOptimalChoiceSelectorTest {
+
+  private EventWithCategoryChoices event;
+
+  @Mock
+  private User user1;
+
+  @Mock
+  private User user2;
+
+  @Mock
+  private Metrics metrics;
+
+  @BeforeEach
+  private void init() {
+    this.event = new EventWithCategoryChoices();
+    this.event.setCategoryId("categoryId");
+    this.event.setCategoryChoices(new LinkedHashMap<>(ImmutableMap.of("1", 1, "2", 2, "3", 3)));
+    this.event.setOptedIn(new LinkedHashMap<>(ImmutableMap.of(
+        "john_andrews12", new Member(),
+        "edmond2", new Member())));
+  }
+
+  //////////////////////////////////////
+  // getCumulativeSamplingTable tests //
+  //////////////////////////////////////region
+
+  @Test
+  public void getCumulativeSamplingTable_variousCounts_matchesPerDrawRanges() {
+    final int[][] ratingCounts = new int[][]{
+        {0, 0, 0, 0, 0, 0},
+        {2, 0, 0, 0, 0, 0},
+        {0, 1, 0, 3, 0, 3},
+        {7, 0, 0, 0, 0, 0}
+    };
+    final int[] numberOfVoters = new int[]{0, 2, 7, 7};
+
+    for (int choice = 0; choice < ratingCounts.length; choice++) {
+      final int[][] samplingTable = NondeterministicOptimalChoiceSelector
+          .getCumulativeSamplingTable(new int[][]{ratingCounts[choice]}, numberOfVoters[choice]);
+
+      for (int randInt = 0; randInt < 100; randInt++) {
+        assertEquals(
+            this.getPerDrawRating(ratingCounts[choice], numberOfVoters[choice], randInt),
+            NondeterministicOptimalChoiceSelector.getSampledRating(samplingTable[0], randInt));
+      }
+    }
+  }
+
+  //endregion
+
+  //////////////////////////
+  // getTopXChoices tests //
+  //////////////////////////region
+
+  @Test
+  public void getTopXChoices_noRandomUsers_highestRatedChoices() {
+    when(this.user1.getUsername()).thenReturn("john_andrews12");
+    when(this.user1.getCategoryRatings())
+        .thenReturn(ImmutableMap.of("categoryId", ImmutableMap.of("1", 5, "2", 0, "3", 1)));
+    when(this.user2.getUsername()).thenReturn("edmond2");
+    when(this.user2.getCategoryRatings())
+        .thenReturn(ImmutableMap.of("categoryId", ImmutableMap.of("1", 4, "3", 1)));
+
+    final NondeterministicOptimalChoiceSelector selector = new NondeterministicOptimalChoiceSelector(
+        this.event, ImmutableList.of(this.user1, this.user2), this.metrics,
+        new SplittableRandom(1));
+    selector.crunch(0f);
+
+    assertEquals(ImmutableMap.of("1", "1", "2", "2"), selector.getTopXChoices(2));
+  }
+
+  @Test
+  public void getTopXChoices_missingUser_treatedAsDefaultRatings() {
+    when(this.user1.getUsername()).thenReturn("john_andrews12");
+    when(this.user1.getCategoryRatings())
+        .thenReturn(ImmutableMap.of("categoryId", ImmutableMap.of("1", 0, "2", 0, "3", 1)));
+
+    final NondeterministicOptimalChoiceSelector selector = new NondeterministicOptimalChoiceSelector(
+        this.event, ImmutableList.of(this.user1), this.metrics, new SplittableRandom(1));
+    selector.crunch(0f);
+
+    assertEquals(ImmutableMap.of("3", "3"), selector.getTopXChoices(1));
+  }
+
+  //endregion
+
+  //the range walk that used to be done for every choice of every random user
+  private int getPerDrawRating(final int[] ratingCounts, final int numberOfVoters,
+      final int randInt) {
+    final int totalVotes = numberOfVoters + 5;
+    int runningProb = 0;
+    for (int rating = 0; rating < 6; rating++) {
+      int topOfRange = runningProb;
+      if (rating == 0) {
+        topOfRange += Math.floor(ratingCounts[rating] * 100.0 / totalVotes);
+      } else {
+        topOfRange += Math.floor((ratingCounts[rating] + 1) * 100.0 / totalVotes);
+      }
+
+      if (randInt < topOfRange) {
+        return rating;
+      }
+      runningProb = topOfRange + 1;
+    }
+
+    return -1;
+  }
+}
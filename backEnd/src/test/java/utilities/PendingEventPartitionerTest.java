@@ -0,0 +1,52 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@RunWith(JUnitPlatform.class)
+public class PendingEventPartitionerTest {
+
+  ///////////////////////////
+  // getPartitionKey tests //
+  ///////////////////////////region
+
+  @Test
+  public void getPartitionKey_sameEvent_samePartitionInRange() {
+    for (int i = 0; i < 1000; i++) {
+      final String partitionKey = PendingEventPartitioner
+          .getPartitionKey("groupId", Integer.toString(i), 10);
+      final int partition = Integer.parseInt(partitionKey);
+
+      assertEquals(partitionKey,
+          PendingEventPartitioner.getPartitionKey("groupId", Integer.toString(i), 10));
+      assertTrue(partition >= 1 && partition <= 10);
+    }
+  }
+
+  @Test
+  public void getPartitionKey_addPartition_onlyMovesEventsToNewPartition() {
+    int moved = 0;
+    for (int i = 0; i < 1000; i++) {
+      final String before = PendingEventPartitioner
+          .getPartitionKey("groupId", Integer.toString(i), 10);
+      final String after = PendingEventPartitioner
+          .getPartitionKey("groupId", Integer.toString(i), 11);
+
+      if (!before.equals(after)) {
+        moved++;
+        assertEquals("11", after);
+      }
+    }
+
+    assertTrue(moved > 0 && moved < 200); // about 1/11th of the events
+  }
+
+  //endregion
+}
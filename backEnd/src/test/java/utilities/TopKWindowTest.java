@@ -0,0 +1,69 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+public class TopKWindowTest {
+
+  /////////////////////
+  // getWindow tests //
+  /////////////////////region
+
+  @Test
+  public void getWindow_manyItems_matchesSortedSlice() {
+    final Random random = new Random(1);
+    final List<Integer> items = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      items.add(random.nextInt());
+    }
+
+    final TopKWindow<Integer> topKWindow = new TopKWindow<>(30, 45);
+    items.forEach(topKWindow::offer);
+
+    Collections.sort(items);
+    assertEquals(items.subList(30, 45), topKWindow.getWindow());
+  }
+
+  @Test
+  public void getWindow_fewerItemsThanEnd_windowStopsAtLastItem() {
+    final TopKWindow<Integer> topKWindow = new TopKWindow<>(2, 15);
+    for (int i = 5; i > 0; i--) {
+      topKWindow.offer(i);
+    }
+
+    assertEquals(Arrays.asList(3, 4, 5), topKWindow.getWindow());
+  }
+
+  @Test
+  public void getWindow_notPastStart_emptyWindow() {
+    final TopKWindow<Integer> topKWindow = new TopKWindow<>(15, 30);
+    for (int i = 0; i < 15; i++) {
+      topKWindow.offer(i);
+    }
+
+    assertTrue(topKWindow.getWindow().isEmpty());
+  }
+
+  @Test
+  public void getWindow_hugeEnd_onlyHoldsOfferedItems() {
+    final TopKWindow<Integer> topKWindow = new TopKWindow<>(Integer.MAX_VALUE - 15,
+        Integer.MAX_VALUE);
+    for (int i = 0; i < 15; i++) {
+      topKWindow.offer(i);
+    }
+
+    assertTrue(topKWindow.getWindow().isEmpty());
+  }
+
+  //endregion
+}
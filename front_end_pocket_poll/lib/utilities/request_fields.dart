@@ -15,4 +15,7 @@ class RequestFields {
   static final String BATCH_TYPE = "BatchType";
   static final String BATCH_INDEXES = "BatchIndexes";
   static final String MAX_BATCHES = "MaxBatches";
+  static final String CONTENT_LENGTH = "ContentLength";
+  static final String ICON_KEY = "IconKey";
+  static final String UPLOAD_URL = "UploadUrl";
 }